@@ -0,0 +1,44 @@
+package fr.uga.l3miage.library.authors;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import fr.uga.l3miage.data.domain.Author;
+
+import java.io.IOException;
+
+/**
+ * Writes an {@link Author} as its {@link AuthorDTO} would be written, byte for byte, without mapping it first.
+ */
+public class AuthorJsonSerializer extends StdSerializer<Author> {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString FULL_NAME = new SerializedString("fullName");
+
+    public AuthorJsonSerializer() {
+        super(Author.class);
+    }
+
+    @Override
+    public void serialize(Author author, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        write(author, generator);
+    }
+
+    /**
+     * Writes an author, as an object of its own or among the authors of a book
+     */
+    public static void write(Author author, JsonGenerator generator) throws IOException {
+        generator.writeStartObject(author);
+        generator.writeFieldName(ID);
+        if (author.getId() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(author.getId());
+        }
+        generator.writeFieldName(FULL_NAME);
+        generator.writeString(author.getFullName());
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,26 @@
+package fr.uga.l3miage.library.authors;
+
+import fr.uga.l3miage.data.domain.Author;
+
+/**
+ * Business validation of a new author
+ */
+public final class AuthorValidator {
+
+    private AuthorValidator() {
+        // utility class
+    }
+
+    /**
+     * Checks an author before it is created
+     *
+     * @param author the author to check
+     * @throws IllegalArgumentException when the author is not valid
+     */
+    public static void validate(Author author) {
+        // Vérifier que la chaîne fullName est non vide
+        if (author.getFullName() == null || author.getFullName().trim().isEmpty()) {
+            throw new IllegalArgumentException("l'auteur ne peut pas être null");
+        }
+    }
+}
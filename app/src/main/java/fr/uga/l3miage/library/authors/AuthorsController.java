@@ -2,16 +2,23 @@ package fr.uga.l3miage.library.authors;
 
 import fr.uga.l3miage.data.domain.Author;
 import fr.uga.l3miage.data.domain.Book;
-import fr.uga.l3miage.library.books.BookDTO;
-import fr.uga.l3miage.library.books.BooksMapper;
 import fr.uga.l3miage.library.service.AuthorService;
 import fr.uga.l3miage.library.service.BookService;
 import fr.uga.l3miage.library.service.DeleteAuthorException;
 import fr.uga.l3miage.library.service.EntityNotFoundException;
+import fr.uga.l3miage.library.service.base.MultiGetResult;
+import fr.uga.l3miage.library.web.BinaryFormatsConfiguration;
+import fr.uga.l3miage.library.web.CollectionResponseCache;
+import fr.uga.l3miage.library.web.ConditionalRequests;
+import fr.uga.l3miage.library.web.MultiGet;
+import fr.uga.l3miage.library.web.Pagination;
 
 import org.apache.catalina.connector.Response;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -22,47 +29,80 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
 import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping(value = "/api/v1", produces = "application/json")
 public class AuthorsController {
 
     private final AuthorService authorService;
     private final AuthorMapper authorMapper;
     private final BookService bookService;
-    private final BooksMapper booksMapper;
+    private final CollectionResponseCache responseCache;
 
     @Autowired
     public AuthorsController(AuthorService authorService, AuthorMapper authorMapper, BookService bookService,
-            BooksMapper booksMapper) {
+            CollectionResponseCache responseCache) {
         this.authorService = authorService;
         this.authorMapper = authorMapper;
         this.bookService = bookService;
-        this.booksMapper = booksMapper;
+        this.responseCache = responseCache;
     }
 
-    @GetMapping("/authors")
-    public Collection<AuthorDTO> authors(@RequestParam(value = "q", required = false) String query) {
+    @GetMapping(value = "/authors", produces = {MediaType.APPLICATION_JSON_VALUE, BinaryFormatsConfiguration.CBOR,
+            BinaryFormatsConfiguration.SMILE})
+    public ResponseEntity<Collection<Author>> authors(@RequestParam(value = "q", required = false) String query,
+            @RequestParam(value = "page", required = false) Integer page,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "after", required = false) Long after,
+            ServletWebRequest request) throws IOException {
+        if (query == null && Pagination.requested(page, limit, after)) {
+            return Pagination.list(page, limit, after, authorService, Author::getId, Function.identity(),
+                    request, ConditionalRequests::authorsEtag);
+        }
+        // liste complète déjà sérialisée, réponse écrite par le cache
+        if (query == null && responseCache.serve(CollectionResponseCache.AUTHORS, authorService::list,
+                ConditionalRequests::authorsEtag, request)) {
+            return null;
+        }
+
         Collection<Author> authors;
         if (query == null) {
             authors = authorService.list();
         } else {
             authors = authorService.searchByName(query);
         }
-        return authors.stream()
-                .map(authorMapper::entityToDTO)
-                .toList();
+        if (request.checkNotModified(ConditionalRequests.authorsEtag(authors))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        // écrits tels quels, voir CatalogueJsonModule
+        return ResponseEntity.ok(authors);
     }
 
     ///////////////////////////////////////////////////
 
+    // un seul accès au service pour tous les ids, les absents sont listés à part
+    @GetMapping(value = "/authors", params = "ids")
+    public MultiGetResult<Author, Long> authorsByIds(@RequestParam("ids") List<Long> ids) {
+        return MultiGet.get(ids, authorService);
+    }
+
+    @PostMapping("/authors:batchGet")
+    public MultiGetResult<Author, Long> batchGetAuthors(@RequestBody MultiGet.Request request) {
+        return MultiGet.get(request.ids(), authorService);
+    }
+
     @GetMapping("/authors/{id}")
-    @ResponseStatus(HttpStatus.OK)
-    public AuthorDTO author(@PathVariable("id") Long id) {
+    public AuthorDTO author(@PathVariable("id") Long id, WebRequest request) {
 
         Author author = null;
         try {
@@ -77,6 +117,10 @@ public class AuthorsController {
         if (author == null) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND);
         }
+        // 304 si le client a déjà cette version
+        if (ConditionalRequests.notModified(request, author)) {
+            return null;
+        }
         // conversion en DTO
         return authorMapper.entityToDTO(author);
     }
@@ -91,13 +135,9 @@ public class AuthorsController {
             // Convertir la chaîne JSON en objet AUthorDTO
             AuthorDTO authorDTO = new ObjectMapper().readValue(authorString, AuthorDTO.class);
 
-            // Vérifier que la chaîne fullName est non vide
-            if (authorDTO.fullName() == null || authorDTO.fullName().trim().isEmpty()) {
-                throw new IllegalArgumentException("l'auteur ne peut pas être null");
-            }
-
             // Convertir authorDTO en entité Author
             Author author = authorMapper.dtoToEntity(authorDTO);
+            AuthorValidator.validate(author);
 
             // Sauvegarder l'entité Author
             author = this.authorService.save(author);
@@ -143,22 +183,8 @@ public class AuthorsController {
     public void deleteAuthor(@PathVariable("id") Long id) {
 
         try {
-            Author author = authorService.get(id);
-            Book book = bookService.get(id);
-            // Si l'auteur n'a pas de livres
-
-            if (author.getBooks().isEmpty()) {
-                authorService.delete(id);
-            } else {
-                if (book.getAuthors().size() > 1) {
-                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
-                            "Les livres de cet auteur doivent être supprimer avant");
-                } else {
-                    bookService.delete(id);
-                    authorService.delete(id);
-                }
-            }
-            // Si l'auteur partage l'autorité sur un livre, renvoyer une erreur 400
+            // supprime l'auteur et ses livres, sauf si l'un d'eux a d'autres auteurs (400)
+            authorService.delete(id);
         } catch (DeleteAuthorException e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
                     "Les livres de cet auteur doivent être supprimer avant");
@@ -168,9 +194,8 @@ public class AuthorsController {
     }
 
     @GetMapping("/authors/{id}/books")
-    @ResponseStatus(HttpStatus.OK)
-    public Collection<BookDTO> books(@RequestParam(value = "q", required = false) String name,
-            @PathVariable("id") Long authorId) {
+    public Collection<Book> books(@RequestParam(value = "q", required = false) String name,
+            @PathVariable("id") Long authorId, ServletWebRequest request) throws IOException {
 
         // Récupérer l'auteur correspondant à l'ID
         Collection<Book> books;
@@ -179,14 +204,19 @@ public class AuthorsController {
             if (name != null && !name.isEmpty()) {
                 // Filtrer par nom de livre si un nom est fourni
                 books = bookService.findByAuthor(authorId, name);
+            } else if (responseCache.serve(CollectionResponseCache.authorBooks(authorId),
+                    () -> bookService.getByAuthor(authorId), ConditionalRequests::booksEtag, request)) {
+                // liste déjà sérialisée, réponse écrite par le cache
+                return null;
             } else {
                 books = bookService.getByAuthor(authorId);
             }
+            if (request.checkNotModified(ConditionalRequests.booksEtag(books))) {
+                return null;
+            }
 
-            // Convertir les livres en DTO et les retourner
-            return books.stream()
-                    .map(booksMapper::entityToDTO)
-                    .toList();
+            // Retourner les livres, écrits tels quels (voir CatalogueJsonModule)
+            return books;
         } catch (EntityNotFoundException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND);
 
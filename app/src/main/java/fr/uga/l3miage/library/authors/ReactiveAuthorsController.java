@@ -0,0 +1,162 @@
+package fr.uga.l3miage.library.authors;
+
+import fr.uga.l3miage.data.domain.Author;
+import fr.uga.l3miage.data.domain.Book;
+import fr.uga.l3miage.library.reactive.ReactiveAuthorService;
+import fr.uga.l3miage.library.reactive.ReactiveBookService;
+import fr.uga.l3miage.library.service.DeleteAuthorException;
+import fr.uga.l3miage.library.service.EntityNotFoundException;
+import fr.uga.l3miage.library.service.base.MultiGetResult;
+import fr.uga.l3miage.library.web.BinaryFormatsConfiguration;
+import fr.uga.l3miage.library.web.CollectionResponseCache;
+import fr.uga.l3miage.library.web.ConditionalRequests;
+import fr.uga.l3miage.library.web.MultiGet;
+import fr.uga.l3miage.library.web.Pagination;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Non-blocking variant of {@link AuthorsController}, serving the same API when the application runs on WebFlux
+ * (spring profile {@code reactive}). Lists are streamed as JSON arrays, or as NDJSON when asked for.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping(value = "/api/v1", produces = "application/json")
+public class ReactiveAuthorsController {
+
+    private final ReactiveAuthorService authorService;
+    private final AuthorMapper authorMapper;
+    private final ReactiveBookService bookService;
+    private final CollectionResponseCache responseCache;
+
+    @Autowired
+    public ReactiveAuthorsController(ReactiveAuthorService authorService, AuthorMapper authorMapper,
+            ReactiveBookService bookService, CollectionResponseCache responseCache) {
+        this.authorService = authorService;
+        this.authorMapper = authorMapper;
+        this.bookService = bookService;
+        this.responseCache = responseCache;
+    }
+
+    @GetMapping(value = "/authors", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE,
+            BinaryFormatsConfiguration.CBOR, BinaryFormatsConfiguration.SMILE})
+    public Mono<ResponseEntity<Flux<Author>>> authors(@RequestParam(value = "q", required = false) String query,
+            @RequestParam(value = "page", required = false) Integer page,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "after", required = false) Long after,
+            ServerWebExchange exchange) {
+        if (query == null && Pagination.requested(page, limit, after)) {
+            return Pagination.list(page, limit, after, authorService, Author::getId, Function.identity(),
+                    exchange, ConditionalRequests::authorsEtag);
+        }
+        if (query == null && responseCache.serves(exchange)) {
+            return responseCache.serve(CollectionResponseCache.AUTHORS, authorService.list(),
+                    ConditionalRequests::authorsEtag, exchange);
+        }
+
+        Flux<Author> authors = query == null ? authorService.list() : authorService.searchByName(query);
+        return Mono.just(ResponseEntity.ok(authors));
+    }
+
+    @GetMapping(value = "/authors", params = "ids")
+    public Mono<MultiGetResult<Author, Long>> authorsByIds(@RequestParam("ids") List<Long> ids) {
+        return MultiGet.get(ids, authorService);
+    }
+
+    @PostMapping("/authors:batchGet")
+    public Mono<MultiGetResult<Author, Long>> batchGetAuthors(@RequestBody MultiGet.Request request) {
+        return MultiGet.get(request.ids(), authorService);
+    }
+
+    @GetMapping("/authors/{id}")
+    public Mono<AuthorDTO> author(@PathVariable("id") Long id, ServerWebExchange exchange) {
+        return authorService.get(id)
+                .switchIfEmpty(Mono.error(() -> new EntityNotFoundException("author " + id + " not found")))
+                .onErrorMap(EntityNotFoundException.class,
+                        e -> new ResponseStatusException(HttpStatus.NOT_FOUND, "l'ID non trouvé", e))
+                .filter(author -> !ConditionalRequests.notModified(exchange, author))
+                .map(authorMapper::entityToDTO);
+    }
+
+    @PostMapping("/authors")
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<AuthorDTO> newAuthor(@RequestBody AuthorDTO author) {
+        return Mono.fromCallable(() -> {
+                    Author newAuthor = authorMapper.dtoToEntity(author);
+                    AuthorValidator.validate(newAuthor);
+                    return newAuthor;
+                })
+                .flatMap(authorService::save)
+                .onErrorMap(IllegalArgumentException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Les données fournies ne sont pas au bon format", e))
+                .map(authorMapper::entityToDTO);
+    }
+
+    @PutMapping("/authors/{id}")
+    public Mono<AuthorDTO> updateAuthor(@RequestBody AuthorDTO author, @PathVariable("id") Long id) {
+        if (!Objects.equals(author.id(), id)) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST));
+        }
+        return authorService.get(id)
+                .flatMap(stored -> {
+                    stored.setFullName(author.fullName());
+                    return authorService.update(stored);
+                })
+                .onErrorMap(EntityNotFoundException.class, e -> new ResponseStatusException(HttpStatus.NOT_FOUND))
+                .map(authorMapper::entityToDTO);
+    }
+
+    @DeleteMapping("/authors/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> deleteAuthor(@PathVariable("id") Long id) {
+        return authorService.delete(id)
+                .onErrorMap(DeleteAuthorException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Les livres de cet auteur doivent être supprimer avant", e))
+                .onErrorMap(EntityNotFoundException.class,
+                        e -> new ResponseStatusException(HttpStatus.NOT_FOUND, "L'auteur n'est pas trouvé", e));
+    }
+
+    /**
+     * The books of an author are collected before being written, to answer with a 304 when they did not change.
+     */
+    @GetMapping(value = "/authors/{id}/books",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Mono<ResponseEntity<Flux<Book>>> books(@RequestParam(value = "q", required = false) String name,
+            @PathVariable("id") Long authorId, ServerWebExchange exchange) {
+        boolean all = name == null || name.isEmpty();
+        if (all && responseCache.serves(exchange)) {
+            Mono<ResponseEntity<Flux<Book>>> cached = responseCache.serve(CollectionResponseCache.authorBooks(authorId),
+                    bookService.getByAuthor(authorId), ConditionalRequests::booksEtag, exchange);
+            return cached.onErrorMap(EntityNotFoundException.class,
+                    e -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        }
+        Flux<Book> books = all ? bookService.getByAuthor(authorId) : bookService.findByAuthor(authorId, name);
+        return books
+                .onErrorMap(EntityNotFoundException.class, e -> new ResponseStatusException(HttpStatus.NOT_FOUND))
+                .collectList()
+                .map(list -> exchange.checkNotModified(ConditionalRequests.booksEtag(list))
+                        ? ResponseEntity.status(HttpStatus.NOT_MODIFIED).<Flux<Book>>build()
+                        : ResponseEntity.ok(Flux.fromIterable(list)));
+    }
+}
@@ -0,0 +1,78 @@
+package fr.uga.l3miage.library.books;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import fr.uga.l3miage.data.domain.Author;
+import fr.uga.l3miage.data.domain.Book;
+import fr.uga.l3miage.library.authors.AuthorJsonSerializer;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Writes a {@link Book} as its {@link BookDTO} would be written, byte for byte, without mapping it first: fields go
+ * straight from the entity to the buffer of the generator, whose names and language values are encoded once.
+ */
+public class BookJsonSerializer extends StdSerializer<Book> {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString TITLE = new SerializedString("title");
+    private static final SerializableString ISBN = new SerializedString("isbn");
+    private static final SerializableString PUBLISHER = new SerializedString("publisher");
+    private static final SerializableString YEAR = new SerializedString("year");
+    private static final SerializableString LANGUAGE = new SerializedString("language");
+    private static final SerializableString AUTHORS = new SerializedString("authors");
+    private static final SerializableString[] LANGUAGES = new SerializableString[Book.Language.values().length];
+
+    static {
+        // as mapped by BooksMapper#enumToString
+        for (Book.Language language : Book.Language.values()) {
+            LANGUAGES[language.ordinal()] = new SerializedString(language.name().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    public BookJsonSerializer() {
+        super(Book.class);
+    }
+
+    @Override
+    public void serialize(Book book, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(book);
+        generator.writeFieldName(ID);
+        if (book.getId() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(book.getId());
+        }
+        generator.writeFieldName(TITLE);
+        generator.writeString(book.getTitle());
+        generator.writeFieldName(ISBN);
+        generator.writeNumber(book.getIsbn());
+        generator.writeFieldName(PUBLISHER);
+        generator.writeString(book.getPublisher());
+        generator.writeFieldName(YEAR);
+        generator.writeNumber(book.getYear());
+        generator.writeFieldName(LANGUAGE);
+        if (book.getLanguage() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(LANGUAGES[book.getLanguage().ordinal()]);
+        }
+        generator.writeFieldName(AUTHORS);
+        Set<Author> authors = book.getAuthors();
+        if (authors == null) {
+            generator.writeNull();
+        } else {
+            generator.writeStartArray();
+            for (Author author : authors) {
+                AuthorJsonSerializer.write(author, generator);
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+    }
+}
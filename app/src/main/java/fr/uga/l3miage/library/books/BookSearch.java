@@ -0,0 +1,50 @@
+package fr.uga.l3miage.library.books;
+
+import fr.uga.l3miage.data.domain.Book;
+import fr.uga.l3miage.library.service.BookQuery;
+import fr.uga.l3miage.library.web.Pagination;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Parameters of the faceted search of books, shared by {@link BooksController} and {@link ReactiveBooksController}.
+ */
+final class BookSearch {
+
+    private BookSearch() {
+        // utility class
+    }
+
+    /**
+     * Builds the query of a search request.
+     *
+     * @throws ResponseStatusException (400) when parameters are invalid
+     */
+    static BookQuery query(String title, Integer yearFrom, Integer yearTo, List<String> languages,
+                           List<String> publishers, Integer page, Integer limit) {
+        int max = Pagination.limit(page, limit, null);
+        if (yearFrom != null && yearTo != null && yearFrom > yearTo) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "yearFrom must not follow yearTo");
+        }
+        return new BookQuery(title, yearFrom, yearTo, languages(languages),
+                publishers == null ? Set.of() : Set.copyOf(publishers), page == null ? 0 : page, max);
+    }
+
+    private static Set<Book.Language> languages(List<String> languages) {
+        if (languages == null) {
+            return Set.of();
+        }
+        try {
+            return languages.stream()
+                    .map(language -> Book.Language.valueOf(language.toUpperCase(Locale.ROOT)))
+                    .collect(Collectors.toSet());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "unknown language", e);
+        }
+    }
+}
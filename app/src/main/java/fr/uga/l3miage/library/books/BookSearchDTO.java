@@ -0,0 +1,24 @@
+package fr.uga.l3miage.library.books;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Page of a faceted search, with the number of books by facet value
+ */
+public record BookSearchDTO(
+        long total,
+        Collection<BookDTO> books,
+        FacetsDTO facets
+) {
+
+    /**
+     * Number of books by language, publisher and decade, each counted on the criteria on the other facets
+     */
+    public record FacetsDTO(
+            Map<String, Long> languages,
+            Map<String, Long> publishers,
+            Map<Integer, Long> decades
+    ) {
+    }
+}
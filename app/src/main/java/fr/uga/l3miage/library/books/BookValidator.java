@@ -0,0 +1,40 @@
+package fr.uga.l3miage.library.books;
+
+import fr.uga.l3miage.data.domain.Book;
+import fr.uga.l3miage.data.domain.Book.Language;
+
+/**
+ * Business validation of a new book
+ */
+public final class BookValidator {
+
+    private BookValidator() {
+        // utility class
+    }
+
+    /**
+     * Checks a book before it is created
+     *
+     * @param book the book to check
+     * @throws IllegalArgumentException describing the first invalid field
+     */
+    public static void validate(Book book) {
+        if (book.getTitle() == null) {
+            throw new IllegalArgumentException("Le titre n'est pas valide.");
+        }
+
+        else if (book.getLanguage() != Language.ENGLISH
+                && book.getLanguage() != Language.FRENCH) {
+            throw new IllegalArgumentException("Le langage n'est pas valide.");
+        }
+
+        // vérification du numéro Isbn
+        else if (String.valueOf(book.getIsbn()).length() < 10) {
+            throw new IllegalArgumentException("Le numéro Isbn n'est pas valide.");
+        }
+        // vérifier si l'année est dans le bon format (4 chiffres)
+        else if (String.valueOf(book.getYear()).length() != 4) {
+            throw new IllegalArgumentException("L'année n'est pas valide.");
+        }
+    }
+}
@@ -2,19 +2,28 @@ package fr.uga.l3miage.library.books;
 
 import fr.uga.l3miage.data.domain.Author;
 import fr.uga.l3miage.data.domain.Book;
-import fr.uga.l3miage.data.domain.Book.Language;
 import fr.uga.l3miage.library.authors.AuthorDTO;
 import fr.uga.l3miage.library.authors.AuthorMapper;
 import fr.uga.l3miage.library.service.AuthorService;
 import fr.uga.l3miage.library.service.BookService;
+import fr.uga.l3miage.library.service.DuplicateIsbnException;
 import fr.uga.l3miage.library.service.EntityNotFoundException;
+import fr.uga.l3miage.library.service.base.MultiGetResult;
+import fr.uga.l3miage.library.web.BinaryFormatsConfiguration;
+import fr.uga.l3miage.library.web.CollectionResponseCache;
+import fr.uga.l3miage.library.web.ConditionalRequests;
+import fr.uga.l3miage.library.web.MultiGet;
+import fr.uga.l3miage.library.web.Pagination;
 import jakarta.annotation.Resource;
 import jakarta.persistence.EntityExistsException;
 import jakarta.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -25,16 +34,22 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
 import java.security.PublicKey;
 import java.time.YearMonth;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Flow.Publisher;
+import java.util.function.Function;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping(value = "/api/v1", produces = "application/json")
 public class BooksController {
 
@@ -42,19 +57,36 @@ public class BooksController {
     private final BooksMapper booksMapper;
     private final AuthorService authorService;
     private final AuthorMapper authorMapper;
+    private final CollectionResponseCache responseCache;
 
     @Autowired
     public BooksController(BookService bookService, BooksMapper booksMapper, AuthorService authorService,
-            AuthorMapper authorMapper) {
+            AuthorMapper authorMapper, CollectionResponseCache responseCache) {
         this.bookService = bookService;
         this.booksMapper = booksMapper;
         this.authorService = authorService;
         this.authorMapper = authorMapper;
+        this.responseCache = responseCache;
     }
 
     @ResponseStatus(HttpStatus.OK)
-    @GetMapping("/books")
-    public Collection<BookDTO> books(String query) {
+    @GetMapping(value = "/books", produces = {MediaType.APPLICATION_JSON_VALUE, BinaryFormatsConfiguration.CBOR,
+            BinaryFormatsConfiguration.SMILE})
+    public ResponseEntity<Collection<Book>> books(String query,
+            @RequestParam(value = "page", required = false) Integer page,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "after", required = false) Long after,
+            ServletWebRequest request) throws IOException {
+
+        if (query == null && Pagination.requested(page, limit, after)) {
+            return Pagination.list(page, limit, after, bookService, Book::getId, Function.identity(),
+                    request, ConditionalRequests::booksEtag);
+        }
+        // liste complète déjà sérialisée, réponse écrite par le cache
+        if (query == null && responseCache.serve(CollectionResponseCache.BOOKS, bookService::list,
+                ConditionalRequests::booksEtag, request)) {
+            return null;
+        }
 
         Collection<Book> books;
         if (query == null) {
@@ -62,16 +94,28 @@ public class BooksController {
         } else {
             books = bookService.findByTitle(query);
         }
-        return books.stream()
-                .map(booksMapper::entityToDTO)
-                .toList();
+        if (request.checkNotModified(ConditionalRequests.booksEtag(books))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        // écrits tels quels, voir CatalogueJsonModule
+        return ResponseEntity.ok(books);
     }
 
     //////////////////////////////////////////////////////////
 
+    // un seul accès au service pour tous les ids, les absents sont listés à part
+    @GetMapping(value = "/books", params = "ids")
+    public MultiGetResult<Book, Long> booksByIds(@RequestParam("ids") List<Long> ids) {
+        return MultiGet.get(ids, bookService);
+    }
+
+    @PostMapping("/books:batchGet")
+    public MultiGetResult<Book, Long> batchGetBooks(@RequestBody MultiGet.Request request) {
+        return MultiGet.get(request.ids(), bookService);
+    }
+
     @GetMapping("/books/{id}")
-    @ResponseStatus(HttpStatus.OK)
-    public BookDTO book(@PathVariable("id") Long id) {
+    public BookDTO book(@PathVariable("id") Long id, WebRequest request) {
 
         Book book = null;
 
@@ -86,6 +130,40 @@ public class BooksController {
         if (book == null) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND);
         }
+        // 304 si le client a déjà cette version
+        if (ConditionalRequests.notModified(request, book)) {
+            return null;
+        }
+        return booksMapper.entityToDTO(book);
+    }
+
+    /////////////////////////////////////////////////////////////
+
+    @GetMapping("/books/search")
+    public BookSearchDTO search(@RequestParam(value = "q", required = false) String q,
+            @RequestParam(value = "yearFrom", required = false) Integer yearFrom,
+            @RequestParam(value = "yearTo", required = false) Integer yearTo,
+            @RequestParam(value = "language", required = false) List<String> languages,
+            @RequestParam(value = "publisher", required = false) List<String> publishers,
+            @RequestParam(value = "page", required = false) Integer page,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        // les facettes sont comptées sans charger les livres
+        return booksMapper.searchToDTO(bookService.search(
+                BookSearch.query(q, yearFrom, yearTo, languages, publishers, page, limit)));
+    }
+
+    @GetMapping("/books/isbn/{isbn}")
+    public BookDTO bookByIsbn(@PathVariable("isbn") long isbn, WebRequest request) {
+        Book book;
+        try {
+            book = bookService.getByIsbn(isbn);
+        } catch (EntityNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        // 304 si le client a déjà cette version
+        if (ConditionalRequests.notModified(request, book)) {
+            return null;
+        }
         return booksMapper.entityToDTO(book);
     }
 
@@ -98,23 +176,7 @@ public class BooksController {
         Book newBook = booksMapper.dtoToEntity(book); // transformer le livre du DTO à entity
 
         try {
-            if (newBook.getTitle() == null) {
-                throw new Exception("Le titre n'est pas valide.");
-            }
-
-            else if (newBook.getLanguage() != Language.ENGLISH
-                    && newBook.getLanguage() != Language.FRENCH) {
-                throw new Exception("Le langage n'est pas valide.");
-            }
-
-            // vérification du numéro Isbn
-            else if (String.valueOf(newBook.getIsbn()).length() < 10) {
-                throw new Exception("Le numéro Isbn n'est pas valide.");
-            }
-            // vérifier si l'année est dans le bon format (4 chiffres)
-            else if (String.valueOf(newBook.getYear()).length() != 4) {
-                throw new Exception("L'année n'est pas valide.");
-            }
+            BookValidator.validate(newBook);
             Author author = authorService.get(authorId); //
             newBook.addAuthor(author); // on ajoute l'auteur au book
             bookService.save(authorId, newBook);
@@ -122,6 +184,8 @@ public class BooksController {
             return booksMapper.entityToDTO(newBook);
         } catch (EntityNotFoundException e) { // Si l'auteur n'est pas trouvé erreur 404
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "the author was not found", e);
+        } catch (DuplicateIsbnException e) { // un autre livre a déjà cet ISBN
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
         } catch (Exception f) { // 400
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST);
         }
@@ -138,16 +202,12 @@ public class BooksController {
         Book bBd = null;
         if (b.getId() == id) {
             try {
-                bBd = bookService.get(id);
-                bBd.setTitle(b.getTitle());
-                bBd.setIsbn(b.getIsbn());
-                bBd.setPublisher(b.getPublisher());
-                bBd.setYear(b.getYear());
-                bBd.setLanguage(b.getLanguage());
-                bookService.update(bBd);
-
+                // le livre stocké n'est pas modifié ici, il resterait modifié si la mise à jour est refusée
+                bBd = bookService.update(b);
             } catch (EntityNotFoundException e) {
                 throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+            } catch (DuplicateIsbnException e) { // un autre livre a déjà cet ISBN
+                throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
             }
         } else {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST);
@@ -182,8 +242,8 @@ public class BooksController {
                 Author a2 = authorMapper.dtoToEntity(author);
                 a = authorService.save(a2);
             }
-            Book livre = bookService.get(bookId);
-            bookService.save(a.getId(), livre);
+            // ajoute l'auteur au livre existant, sans le recréer
+            Book livre = bookService.addAuthor(bookId, a.getId());
             return this.booksMapper.entityToDTO(livre);
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND);
@@ -1,9 +1,12 @@
 package fr.uga.l3miage.library.books;
 
 import fr.uga.l3miage.data.domain.Book;
+import fr.uga.l3miage.library.service.BookSearchResult;
 import org.mapstruct.*;
 
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Mapper(componentModel = "spring")
 public interface BooksMapper {
@@ -23,4 +26,11 @@ public interface BooksMapper {
     @ValueMapping(source = "", target = "FRENCH")
     Book.Language stringToEnum(String language);
 
+    default BookSearchDTO searchToDTO(BookSearchResult result) {
+        Map<String, Long> languages = new LinkedHashMap<>();
+        result.languages().forEach((language, count) -> languages.put(enumToString(language), count));
+        return new BookSearchDTO(result.total(), entityToDTO(result.books()),
+                new BookSearchDTO.FacetsDTO(languages, result.publishers(), result.decades()));
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,164 @@
+package fr.uga.l3miage.library.books;
+
+import fr.uga.l3miage.data.domain.Book;
+import fr.uga.l3miage.library.authors.AuthorDTO;
+import fr.uga.l3miage.library.reactive.ReactiveBookService;
+import fr.uga.l3miage.library.service.DuplicateIsbnException;
+import fr.uga.l3miage.library.service.EntityNotFoundException;
+import fr.uga.l3miage.library.service.base.MultiGetResult;
+import fr.uga.l3miage.library.web.BinaryFormatsConfiguration;
+import fr.uga.l3miage.library.web.CollectionResponseCache;
+import fr.uga.l3miage.library.web.ConditionalRequests;
+import fr.uga.l3miage.library.web.MultiGet;
+import fr.uga.l3miage.library.web.Pagination;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Non-blocking variant of {@link BooksController}, serving the same API when the application runs on WebFlux
+ * (spring profile {@code reactive}). Lists are streamed as JSON arrays, or as NDJSON when asked for.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping(value = "/api/v1", produces = "application/json")
+public class ReactiveBooksController {
+
+    private final ReactiveBookService bookService;
+    private final BooksMapper booksMapper;
+    private final CollectionResponseCache responseCache;
+
+    @Autowired
+    public ReactiveBooksController(ReactiveBookService bookService, BooksMapper booksMapper,
+            CollectionResponseCache responseCache) {
+        this.bookService = bookService;
+        this.booksMapper = booksMapper;
+        this.responseCache = responseCache;
+    }
+
+    @GetMapping(value = "/books", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE,
+            BinaryFormatsConfiguration.CBOR, BinaryFormatsConfiguration.SMILE})
+    public Mono<ResponseEntity<Flux<Book>>> books(@RequestParam(value = "query", required = false) String query,
+            @RequestParam(value = "page", required = false) Integer page,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "after", required = false) Long after,
+            ServerWebExchange exchange) {
+        if (query == null && Pagination.requested(page, limit, after)) {
+            return Pagination.list(page, limit, after, bookService, Book::getId, Function.identity(), exchange,
+                    ConditionalRequests::booksEtag);
+        }
+        if (query == null && responseCache.serves(exchange)) {
+            return responseCache.serve(CollectionResponseCache.BOOKS, bookService.list(),
+                    ConditionalRequests::booksEtag, exchange);
+        }
+
+        Flux<Book> books = query == null ? bookService.list() : bookService.findByTitle(query);
+        return Mono.just(ResponseEntity.ok(books));
+    }
+
+    @GetMapping(value = "/books", params = "ids")
+    public Mono<MultiGetResult<Book, Long>> booksByIds(@RequestParam("ids") List<Long> ids) {
+        return MultiGet.get(ids, bookService);
+    }
+
+    @PostMapping("/books:batchGet")
+    public Mono<MultiGetResult<Book, Long>> batchGetBooks(@RequestBody MultiGet.Request request) {
+        return MultiGet.get(request.ids(), bookService);
+    }
+
+    @GetMapping("/books/{id}")
+    public Mono<BookDTO> book(@PathVariable("id") Long id, ServerWebExchange exchange) {
+        return bookService.get(id)
+                .switchIfEmpty(Mono.error(() -> new EntityNotFoundException("book " + id + " not found")))
+                .onErrorMap(EntityNotFoundException.class, e -> new ResponseStatusException(HttpStatus.NOT_FOUND))
+                .filter(book -> !ConditionalRequests.notModified(exchange, book))
+                .map(booksMapper::entityToDTO);
+    }
+
+    @GetMapping("/books/search")
+    public Mono<BookSearchDTO> search(@RequestParam(value = "q", required = false) String q,
+            @RequestParam(value = "yearFrom", required = false) Integer yearFrom,
+            @RequestParam(value = "yearTo", required = false) Integer yearTo,
+            @RequestParam(value = "language", required = false) List<String> languages,
+            @RequestParam(value = "publisher", required = false) List<String> publishers,
+            @RequestParam(value = "page", required = false) Integer page,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        return Mono.fromCallable(() -> BookSearch.query(q, yearFrom, yearTo, languages, publishers, page, limit))
+                .flatMap(bookService::search)
+                .map(booksMapper::searchToDTO);
+    }
+
+    @GetMapping("/books/isbn/{isbn}")
+    public Mono<BookDTO> bookByIsbn(@PathVariable("isbn") long isbn, ServerWebExchange exchange) {
+        return bookService.getByIsbn(isbn)
+                .onErrorMap(EntityNotFoundException.class, e -> new ResponseStatusException(HttpStatus.NOT_FOUND))
+                .filter(book -> !ConditionalRequests.notModified(exchange, book))
+                .map(booksMapper::entityToDTO);
+    }
+
+    @PostMapping("/authors/{authorId}/books")
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<BookDTO> newBook(@PathVariable Long authorId, @RequestBody BookDTO book) {
+        return Mono.fromCallable(() -> {
+                    Book newBook = booksMapper.dtoToEntity(book);
+                    BookValidator.validate(newBook);
+                    return newBook;
+                })
+                .flatMap(newBook -> bookService.save(authorId, newBook))
+                .onErrorMap(EntityNotFoundException.class,
+                        e -> new ResponseStatusException(HttpStatus.NOT_FOUND, "the author was not found", e))
+                .onErrorMap(DuplicateIsbnException.class,
+                        e -> new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e))
+                .onErrorMap(e -> !(e instanceof ResponseStatusException),
+                        e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, null, e))
+                .map(booksMapper::entityToDTO);
+    }
+
+    @PutMapping("/books/{id}")
+    public Mono<BookDTO> updateBook(@RequestBody BookDTO book, @PathVariable("id") Long id) {
+        if (!Objects.equals(book.id(), id)) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST));
+        }
+        // le livre stocké n'est pas modifié ici, il resterait modifié si la mise à jour est refusée
+        return bookService.update(booksMapper.dtoToEntity(book))
+                .onErrorMap(EntityNotFoundException.class, e -> new ResponseStatusException(HttpStatus.NOT_FOUND))
+                .onErrorMap(DuplicateIsbnException.class,
+                        e -> new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e))
+                .map(booksMapper::entityToDTO);
+    }
+
+    @DeleteMapping("/books/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> deleteBook(@PathVariable("id") Long id) {
+        return bookService.delete(id)
+                .onErrorMap(EntityNotFoundException.class,
+                        e -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Le livre n'est pas trouvé", e));
+    }
+
+    @PutMapping("/books/{id}/authors")
+    public Mono<BookDTO> addAuthor(@PathVariable("id") Long bookId, @RequestBody AuthorDTO author) {
+        return bookService.addAuthor(bookId, author.id())
+                .onErrorMap(e -> new ResponseStatusException(HttpStatus.NOT_FOUND, null, e))
+                .map(booksMapper::entityToDTO);
+    }
+}
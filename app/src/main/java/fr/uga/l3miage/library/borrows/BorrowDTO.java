@@ -0,0 +1,14 @@
+package fr.uga.l3miage.library.borrows;
+
+import java.util.Collection;
+import java.util.Date;
+
+public record BorrowDTO(
+        Long id,
+        Long borrower,
+        Collection<Long> books,
+        Date start,
+        Date end,
+        Date returned
+) {
+}
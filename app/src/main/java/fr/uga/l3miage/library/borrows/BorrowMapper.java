@@ -0,0 +1,29 @@
+package fr.uga.l3miage.library.borrows;
+
+import fr.uga.l3miage.data.domain.Book;
+import fr.uga.l3miage.data.domain.Borrow;
+import fr.uga.l3miage.data.domain.Borrower;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.Collection;
+import java.util.Set;
+
+@Mapper(componentModel = "spring")
+public interface BorrowMapper {
+
+    @Mapping(source = "borrower.id", target = "borrower")
+    BorrowDTO entityToDTO(Borrow borrow);
+
+    Collection<BorrowDTO> entityToDTO(Iterable<Borrow> borrows);
+
+    BorrowerDTO entityToDTO(Borrower borrower);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "lateRatio", ignore = true)
+    Borrower dtoToEntity(BorrowerDTO borrower);
+
+    default Collection<Long> bookIds(Set<Book> books) {
+        return books == null ? null : books.stream().map(Book::getId).sorted().toList();
+    }
+}
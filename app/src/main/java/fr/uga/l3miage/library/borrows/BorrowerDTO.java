@@ -0,0 +1,14 @@
+package fr.uga.l3miage.library.borrows;
+
+import java.util.Date;
+
+public record BorrowerDTO(
+        Long id,
+        String firstName,
+        String lastName,
+        Date registered,
+        int returnedBorrows,
+        int lateBorrows,
+        float lateRatio
+) {
+}
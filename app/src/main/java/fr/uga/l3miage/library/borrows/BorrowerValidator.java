@@ -0,0 +1,30 @@
+package fr.uga.l3miage.library.borrows;
+
+import fr.uga.l3miage.data.domain.Borrower;
+
+/**
+ * Business validation of a new borrower
+ */
+public final class BorrowerValidator {
+
+    private BorrowerValidator() {
+        // utility class
+    }
+
+    /**
+     * Checks a borrower before it is registered
+     *
+     * @param borrower the borrower to check
+     * @throws IllegalArgumentException when the borrower is not valid
+     */
+    public static void validate(Borrower borrower) {
+        // le prénom et le nom sont obligatoires
+        if (isBlank(borrower.getFirstName()) || isBlank(borrower.getLastName())) {
+            throw new IllegalArgumentException("l'emprunteur doit avoir un prénom et un nom");
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
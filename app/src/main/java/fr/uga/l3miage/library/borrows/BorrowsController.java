@@ -0,0 +1,122 @@
+package fr.uga.l3miage.library.borrows;
+
+import fr.uga.l3miage.data.domain.Borrow;
+import fr.uga.l3miage.data.domain.Borrower;
+import fr.uga.l3miage.library.service.BookUnavailableException;
+import fr.uga.l3miage.library.service.BorrowService;
+import fr.uga.l3miage.library.service.BorrowerService;
+import fr.uga.l3miage.library.service.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Collection;
+
+/**
+ * Emprunts : inscription des emprunteurs, prêt et retour des livres.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping(value = "/api/v1", produces = "application/json")
+public class BorrowsController {
+
+    private final BorrowService borrowService;
+    private final BorrowerService borrowerService;
+    private final BorrowMapper borrowMapper;
+
+    @Autowired
+    public BorrowsController(BorrowService borrowService, BorrowerService borrowerService, BorrowMapper borrowMapper) {
+        this.borrowService = borrowService;
+        this.borrowerService = borrowerService;
+        this.borrowMapper = borrowMapper;
+    }
+
+    @PostMapping("/borrowers")
+    @ResponseStatus(HttpStatus.CREATED)
+    public BorrowerDTO newBorrower(@RequestBody BorrowerDTO borrower) {
+        Borrower newBorrower = borrowMapper.dtoToEntity(borrower);
+        try {
+            BorrowerValidator.validate(newBorrower);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        return borrowMapper.entityToDTO(borrowerService.save(newBorrower));
+    }
+
+    /**
+     * Recalcule les retards de tous les emprunteurs à partir de leurs emprunts
+     */
+    @PostMapping("/borrowers/late-ratios")
+    public LateRatiosDTO recomputeLateRatios() {
+        return new LateRatiosDTO(borrowerService.recomputeLateRatios());
+    }
+
+    @GetMapping("/borrowers/{id}")
+    public BorrowerDTO borrower(@PathVariable("id") Long id) {
+        try {
+            return borrowMapper.entityToDTO(borrowerService.get(id));
+        } catch (EntityNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
+        }
+    }
+
+    @GetMapping("/borrowers/{id}/borrows")
+    public Collection<BorrowDTO> borrows(@PathVariable("id") Long borrowerId) {
+        try {
+            return borrowMapper.entityToDTO(borrowService.getByBorrower(borrowerId));
+        } catch (EntityNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
+        }
+    }
+
+    @PostMapping("/borrowers/{id}/borrows")
+    @ResponseStatus(HttpStatus.CREATED)
+    public BorrowDTO checkout(@PathVariable("id") Long borrowerId, @RequestBody CheckoutDTO checkout) {
+        try {
+            Borrow borrow = borrowService.checkout(borrowerId, checkout.books(), checkout.end());
+            return borrowMapper.entityToDTO(borrow);
+        } catch (EntityNotFoundException e) { // emprunteur ou livre inconnu
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
+        } catch (BookUnavailableException e) { // livre déjà emprunté
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    @GetMapping("/borrows/{id}")
+    public BorrowDTO borrow(@PathVariable("id") Long id) {
+        try {
+            return borrowMapper.entityToDTO(borrowService.get(id));
+        } catch (EntityNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
+        }
+    }
+
+    @PutMapping("/borrows/{id}/return")
+    public BorrowDTO checkIn(@PathVariable("id") Long id) {
+        try {
+            return borrowMapper.entityToDTO(borrowService.checkIn(id));
+        } catch (EntityNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
+        }
+    }
+
+    @GetMapping("/books/{id}/availability")
+    public AvailabilityDTO availability(@PathVariable("id") Long bookId) {
+        try {
+            return new AvailabilityDTO(bookId, borrowService.isAvailable(bookId));
+        } catch (EntityNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
+        }
+    }
+}
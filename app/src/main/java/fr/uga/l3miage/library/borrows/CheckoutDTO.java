@@ -0,0 +1,13 @@
+package fr.uga.l3miage.library.borrows;
+
+import java.util.Collection;
+import java.util.Date;
+
+/**
+ * Books requested by a borrower and the date they are due
+ */
+public record CheckoutDTO(
+        Collection<Long> books,
+        Date end
+) {
+}
@@ -0,0 +1,9 @@
+package fr.uga.l3miage.library.borrows;
+
+/**
+ * Result of the recomputation of the late ratios
+ */
+public record LateRatiosDTO(
+        int borrowers
+) {
+}
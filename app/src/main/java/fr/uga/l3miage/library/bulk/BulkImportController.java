@@ -0,0 +1,168 @@
+package fr.uga.l3miage.library.bulk;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fr.uga.l3miage.data.domain.Author;
+import fr.uga.l3miage.data.domain.Book;
+import fr.uga.l3miage.library.authors.AuthorDTO;
+import fr.uga.l3miage.library.authors.AuthorMapper;
+import fr.uga.l3miage.library.authors.AuthorValidator;
+import fr.uga.l3miage.library.books.BookDTO;
+import fr.uga.l3miage.library.books.BookValidator;
+import fr.uga.l3miage.library.books.BooksMapper;
+import fr.uga.l3miage.library.export.ExportController;
+import fr.uga.l3miage.library.service.AuthorService;
+import fr.uga.l3miage.library.service.BookService;
+import fr.uga.l3miage.library.service.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Bulk creation of authors and books.
+ * <p>
+ * The payload is either a JSON array or newline delimited JSON, it is read by batches of
+ * {@code library.import.batch-size} records. The records of a batch are mapped and validated in parallel, then the
+ * valid ones are saved with a single {@code saveAll} call. The response gives, for each record, the id of the created
+ * object or the reason why it was rejected.
+ * <p>
+ * Books must reference at least one existing author by id in their {@code authors}.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping(value = "/api/v1/import", produces = "application/json",
+        consumes = {MediaType.APPLICATION_JSON_VALUE, ExportController.NDJSON})
+public class BulkImportController {
+
+    private final AuthorService authorService;
+    private final AuthorMapper authorMapper;
+    private final BookService bookService;
+    private final BooksMapper booksMapper;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    @Autowired
+    public BulkImportController(AuthorService authorService, AuthorMapper authorMapper, BookService bookService,
+            BooksMapper booksMapper, ObjectMapper objectMapper,
+            @Value("${library.import.batch-size:500}") int batchSize) {
+        this.authorService = authorService;
+        this.authorMapper = authorMapper;
+        this.bookService = bookService;
+        this.booksMapper = booksMapper;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    @PostMapping("/authors")
+    public Collection<ImportResultDTO> importAuthors(InputStream body) {
+        return importAll(body, AuthorDTO.class, this::toAuthor, authorService::saveAll, Author::getId);
+    }
+
+    @PostMapping("/books")
+    public Collection<ImportResultDTO> importBooks(InputStream body) {
+        return importAll(body, BookDTO.class, this::toBook, bookService::saveAll, Book::getId);
+    }
+
+    private Author toAuthor(AuthorDTO dto) {
+        Author author = authorMapper.dtoToEntity(dto);
+        author.setId(null);
+        AuthorValidator.validate(author);
+        return author;
+    }
+
+    private Book toBook(BookDTO dto) {
+        Book book = booksMapper.dtoToEntity(dto);
+        book.setId(null);
+        BookValidator.validate(book);
+        if (book.getAuthors() == null || book.getAuthors().isEmpty()
+                || book.getAuthors().stream().map(Author::getId).anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Le livre doit référencer au moins un auteur par son id.");
+        }
+        return book;
+    }
+
+    private <D, E> List<ImportResultDTO> importAll(InputStream body, Class<D> type, Function<D, E> toEntity,
+            BatchSaver<E> saver, Function<E, Long> idOf) {
+        List<ImportResultDTO> results = new ArrayList<>();
+        List<D> batch = new ArrayList<>(batchSize);
+        try (MappingIterator<D> records = objectMapper.readerFor(type).readValues(body)) {
+            while (records.hasNextValue()) {
+                batch.add(records.nextValue());
+                if (batch.size() == batchSize) {
+                    results.addAll(importBatch(results.size(), batch, toEntity, saver, idOf));
+                    batch.clear();
+                }
+            }
+            results.addAll(importBatch(results.size(), batch, toEntity, saver, idOf));
+        } catch (IOException e) {
+            // the records read before the invalid one are imported as announced
+            results.addAll(importBatch(results.size(), batch, toEntity, saver, idOf));
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "invalid record at index " + results.size() + ", previous ones were imported", e);
+        }
+        return results;
+    }
+
+    private <D, E> List<ImportResultDTO> importBatch(int first, List<D> batch, Function<D, E> toEntity,
+            BatchSaver<E> saver, Function<E, Long> idOf) {
+        ImportResultDTO[] results = new ImportResultDTO[batch.size()];
+        List<E> entities = new ArrayList<>(Collections.nCopies(batch.size(), null));
+        IntStream.range(0, batch.size()).parallel().forEach(i -> {
+            try {
+                entities.set(i, toEntity.apply(batch.get(i)));
+            } catch (RuntimeException e) {
+                results[i] = ImportResultDTO.rejected(first + i, e.getMessage());
+            }
+        });
+
+        List<E> valid = entities.stream().filter(Objects::nonNull).toList();
+        if (valid.isEmpty()) {
+            return Arrays.asList(results);
+        }
+        try {
+            saver.saveAll(valid);
+        } catch (EntityNotFoundException | IllegalArgumentException e) {
+            // some records reference unknown entities, they are isolated by saving records one by one, mapped again
+            // since a rolled back batch may leave ids or versions on its entities
+            for (int i = 0; i < entities.size(); i++) {
+                if (entities.get(i) != null) {
+                    try {
+                        entities.set(i, toEntity.apply(batch.get(i)));
+                        saver.saveAll(List.of(entities.get(i)));
+                    } catch (EntityNotFoundException | IllegalArgumentException failure) {
+                        results[i] = ImportResultDTO.rejected(first + i, failure.getMessage());
+                        entities.set(i, null);
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < entities.size(); i++) {
+            if (entities.get(i) != null) {
+                results[i] = ImportResultDTO.created(first + i, idOf.apply(entities.get(i)));
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    @FunctionalInterface
+    private interface BatchSaver<E> {
+        Collection<E> saveAll(Collection<E> entities) throws EntityNotFoundException;
+    }
+}
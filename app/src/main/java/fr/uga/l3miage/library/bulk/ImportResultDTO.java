@@ -0,0 +1,26 @@
+package fr.uga.l3miage.library.bulk;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of the import of one record: the id of the created object, or the reason why it was rejected
+ *
+ * @param index position of the record in the imported payload, starting at 0
+ * @param id    id of the created object
+ * @param error reason of the rejection
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ImportResultDTO(
+        int index,
+        Long id,
+        String error
+) {
+
+    static ImportResultDTO created(int index, Long id) {
+        return new ImportResultDTO(index, id, null);
+    }
+
+    static ImportResultDTO rejected(int index, String error) {
+        return new ImportResultDTO(index, null, error);
+    }
+}
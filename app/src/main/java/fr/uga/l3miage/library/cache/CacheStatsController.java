@@ -0,0 +1,43 @@
+package fr.uga.l3miage.library.cache;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+@RestController
+@RequestMapping(value = "/api/v1", produces = "application/json")
+@ConditionalOnProperty(prefix = "library.cache", name = "enabled", havingValue = "true")
+public class CacheStatsController {
+
+    private final EntityCaches caches;
+
+    @Autowired
+    public CacheStatsController(EntityCaches caches) {
+        this.caches = caches;
+    }
+
+    @GetMapping("/cache/stats")
+    public Map<String, CacheStatsDTO> stats() {
+        Map<String, CacheStatsDTO> stats = new TreeMap<>();
+        caches.all().forEach((name, cache) -> stats.put(name, CacheStatsDTO.of(cache.estimatedSize(), cache.stats())));
+        return stats;
+    }
+
+    public record CacheStatsDTO(
+            long size,
+            long hits,
+            long misses,
+            double hitRate,
+            long evictions
+    ) {
+        static CacheStatsDTO of(long size, CacheStats stats) {
+            return new CacheStatsDTO(size, stats.hitCount(), stats.missCount(), stats.hitRate(), stats.evictionCount());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package fr.uga.l3miage.library.cache;
+
+import fr.uga.l3miage.data.domain.Author;
+import fr.uga.l3miage.library.service.AuthorService;
+import fr.uga.l3miage.library.service.DeleteAuthorException;
+import fr.uga.l3miage.library.service.EntityNotFoundException;
+import fr.uga.l3miage.library.service.base.MultiGetResult;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Read-through cache of {@link AuthorService#get(Long)} and {@link AuthorService#getAll(Collection)}, other calls
+ * are delegated. Writes evict the author and the books referencing it.
+ */
+public class CachingAuthorService implements AuthorService {
+
+    private final AuthorService delegate;
+    private final EntityCaches caches;
+
+    public CachingAuthorService(AuthorService delegate, EntityCaches caches) {
+        this.delegate = delegate;
+        this.caches = caches;
+    }
+
+    @Override
+    public Author get(Long id) throws EntityNotFoundException {
+        return caches.get(caches.authors(), id, delegate::get);
+    }
+
+    @Override
+    public MultiGetResult<Author, Long> getAll(Collection<Long> ids) {
+        return caches.getAll(caches.authors(), ids, delegate::getAll, Author::getId);
+    }
+
+    @Override
+    public Author save(Author author) {
+        return delegate.save(author);
+    }
+
+    @Override
+    public Collection<Author> saveAll(Collection<Author> authors) {
+        return delegate.saveAll(authors);
+    }
+
+    @Override
+    public Collection<Author> searchByName(String name) {
+        return delegate.searchByName(name);
+    }
+
+    @Override
+    public Collection<Author> list() {
+        return delegate.list();
+    }
+
+    @Override
+    public List<Author> list(int page, int limit) {
+        return delegate.list(page, limit);
+    }
+
+    @Override
+    public List<Author> listAfter(Long after, int limit) {
+        return delegate.listAfter(after, limit);
+    }
+
+    @Override
+    public Author update(Author author) throws EntityNotFoundException {
+        try {
+            return delegate.update(author);
+        } finally {
+            caches.evictAuthor(author.getId());
+            caches.evictBooksOf(author.getId());
+        }
+    }
+
+    @Override
+    public void delete(Long id) throws EntityNotFoundException, DeleteAuthorException {
+        try {
+            delegate.delete(id);
+        } finally {
+            caches.evictAuthor(id);
+            caches.evictBooksOf(id);
+        }
+    }
+}
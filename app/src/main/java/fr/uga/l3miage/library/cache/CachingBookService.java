@@ -0,0 +1,127 @@
+package fr.uga.l3miage.library.cache;
+
+import fr.uga.l3miage.data.domain.Book;
+import fr.uga.l3miage.library.service.BookQuery;
+import fr.uga.l3miage.library.service.BookSearchResult;
+import fr.uga.l3miage.library.service.BookService;
+import fr.uga.l3miage.library.service.EntityNotFoundException;
+import fr.uga.l3miage.library.service.base.MultiGetResult;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Read-through cache of {@link BookService#get(Long)} and {@link BookService#getAll(Collection)}, other calls are
+ * delegated. Writes evict the book and its authors, whose books have changed.
+ */
+public class CachingBookService implements BookService {
+
+    private final BookService delegate;
+    private final EntityCaches caches;
+
+    public CachingBookService(BookService delegate, EntityCaches caches) {
+        this.delegate = delegate;
+        this.caches = caches;
+    }
+
+    @Override
+    public Book get(Long id) throws EntityNotFoundException {
+        return caches.get(caches.books(), id, key -> caches.indexed(delegate.get(key)));
+    }
+
+    @Override
+    public MultiGetResult<Book, Long> getAll(Collection<Long> ids) {
+        return caches.getAll(caches.books(), ids, misses -> caches.indexed(delegate.getAll(misses)), Book::getId);
+    }
+
+    @Override
+    public Book getByIsbn(long isbn) throws EntityNotFoundException {
+        return delegate.getByIsbn(isbn);
+    }
+
+    @Override
+    public BookSearchResult search(BookQuery query) {
+        return delegate.search(query);
+    }
+
+    @Override
+    public Book save(Long authorId, Book book) throws EntityNotFoundException {
+        try {
+            return delegate.save(authorId, book);
+        } finally {
+            caches.evictAuthor(authorId);
+            caches.evictAuthorsOf(book);
+        }
+    }
+
+    @Override
+    public Collection<Book> saveAll(Collection<Book> books) throws EntityNotFoundException {
+        try {
+            return delegate.saveAll(books);
+        } finally {
+            caches.evictAuthorsOf(books);
+        }
+    }
+
+    @Override
+    public Collection<Book> list() {
+        return delegate.list();
+    }
+
+    @Override
+    public List<Book> list(int page, int limit) {
+        return delegate.list(page, limit);
+    }
+
+    @Override
+    public List<Book> listAfter(Long after, int limit) {
+        return delegate.listAfter(after, limit);
+    }
+
+    @Override
+    public Book update(Book book) throws EntityNotFoundException {
+        try {
+            return delegate.update(book);
+        } finally {
+            caches.evictBook(book.getId());
+            caches.evictAuthorsOf(book);
+        }
+    }
+
+    @Override
+    public Collection<Book> findByTitle(String title) {
+        return delegate.findByTitle(title);
+    }
+
+    @Override
+    public Collection<Book> getByAuthor(Long id) throws EntityNotFoundException {
+        return delegate.getByAuthor(id);
+    }
+
+    @Override
+    public Collection<Book> findByAuthor(Long id, String title) throws EntityNotFoundException {
+        return delegate.findByAuthor(id, title);
+    }
+
+    @Override
+    public void delete(Long id) throws EntityNotFoundException {
+        // the book is needed to know which authors to evict
+        Book book = get(id);
+        try {
+            delegate.delete(id);
+        } finally {
+            caches.evictBook(id);
+            caches.evictAuthorsOf(book);
+        }
+    }
+
+    @Override
+    public Book addAuthor(Long bookId, Long authorId) throws EntityNotFoundException {
+        try {
+            return delegate.addAuthor(bookId, authorId);
+        } finally {
+            caches.evictBook(bookId);
+            caches.evictAuthor(authorId);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package fr.uga.l3miage.library.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import fr.uga.l3miage.data.domain.Author;
+import fr.uga.l3miage.data.domain.Book;
+import fr.uga.l3miage.library.service.EntityNotFoundException;
+import fr.uga.l3miage.library.service.base.MultiGetResult;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Caches of authors and books by id, shared by {@link CachingAuthorService} and {@link CachingBookService} so that a
+ * write on one side of the author/book association also evicts the other side.
+ * <p>
+ * Entries are bounded in number (W-TinyLFU eviction) and expire a fixed time after they were loaded. The ids of the
+ * cached books are indexed by author, so that the books of an author are evicted without scanning the cache.
+ */
+public class EntityCaches {
+
+    private final Cache<Long, Author> authors;
+    private final Cache<Long, Book> books;
+    // counts the evictions, for loads to tell whether one happened meanwhile
+    private final AtomicLong evictions = new AtomicLong();
+    // ids of the cached books by author, never missing a cached book but possibly holding some no longer cached
+    private final Map<Long, Set<Long>> booksByAuthor = new ConcurrentHashMap<>();
+
+    public EntityCaches(long maximumSize, Duration ttl) {
+        this.authors = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.books = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .<Long, Book>evictionListener((id, book, cause) -> unindex(id, book))
+                .build();
+    }
+
+    public Cache<Long, Author> authors() {
+        return authors;
+    }
+
+    public Cache<Long, Book> books() {
+        return books;
+    }
+
+    /**
+     * @return caches by name
+     */
+    public Map<String, Cache<Long, ?>> all() {
+        return Map.of("authors", authors, "books", books);
+    }
+
+    /**
+     * Read-through get: the object is loaded within the cache entry, so that an eviction of the id waits for the load
+     * in flight rather than having its stale result cached after it. Evictions of the books of an author
+     * ({@link #evictBooksOf}) miss the loads in flight not indexed yet, so the object is dropped again if any eviction
+     * happened meanwhile.
+     *
+     * @throws EntityNotFoundException thrown by the loader, nothing being cached then
+     */
+    <O> O get(Cache<Long, O> cache, Long id, Loader<O> loader) throws EntityNotFoundException {
+        long before = evictions.get();
+        O object;
+        try {
+            object = cache.get(id, key -> {
+                try {
+                    return loader.load(key);
+                } catch (EntityNotFoundException e) {
+                    throw new NotFound(e);
+                }
+            });
+        } catch (NotFound e) {
+            throw e.getCause();
+        }
+        if (evictions.get() != before) {
+            cache.asMap().remove(id, object);
+        }
+        return object;
+    }
+
+    /**
+     * Multi-get through a cache: the hits are served from it, the misses are loaded at once and cached. The loaded
+     * objects are dropped from the cache again if an eviction happened meanwhile, as they may predate it.
+     *
+     * @param loader loads the objects of the missed ids
+     * @param id     gives the id of an object
+     */
+    <O> MultiGetResult<O, Long> getAll(Cache<Long, O> cache, Collection<Long> ids,
+            Function<List<Long>, MultiGetResult<O, Long>> loader, Function<O, Long> id) {
+        List<Long> distinct = ids.stream().distinct().toList();
+        Map<Long, O> found = new HashMap<>(cache.getAllPresent(distinct));
+        List<Long> misses = distinct.stream().filter(key -> !found.containsKey(key)).toList();
+        if (!misses.isEmpty()) {
+            long before = evictions.get();
+            List<Long> loaded = new ArrayList<>();
+            for (O object : loader.apply(misses).found()) {
+                cache.put(id.apply(object), object);
+                found.put(id.apply(object), object);
+                loaded.add(id.apply(object));
+            }
+            // checked after the puts: an eviction counted later is itself done after them
+            if (evictions.get() != before) {
+                cache.invalidateAll(loaded);
+            }
+        }
+        return MultiGetResult.of(distinct, distinct.stream().map(found::get).toList());
+    }
+
+    void evictAuthor(Long id) {
+        evictions.incrementAndGet();
+        authors.invalidate(id);
+    }
+
+    void evictBook(Long id) {
+        evictions.incrementAndGet();
+        removeBook(id);
+    }
+
+    /**
+     * Evicts the authors of a book
+     */
+    void evictAuthorsOf(Book book) {
+        if (book != null && book.getAuthors() != null) {
+            evictions.incrementAndGet();
+            book.getAuthors().stream()
+                    .map(Author::getId)
+                    .filter(Objects::nonNull)
+                    .forEach(authors::invalidate);
+        }
+    }
+
+    /**
+     * Evicts the cached books of an author, found in the index as the author's books may not be loaded
+     */
+    void evictBooksOf(Long authorId) {
+        evictions.incrementAndGet();
+        Set<Long> ids = booksByAuthor.remove(authorId);
+        if (ids != null) {
+            ids.forEach(this::removeBook);
+        }
+    }
+
+    void evictAuthorsOf(Collection<Book> books) {
+        books.forEach(this::evictAuthorsOf);
+    }
+
+    /**
+     * Indexes a book by its authors, to be called by its loader before it is cached.
+     *
+     * @return the book
+     */
+    Book indexed(Book book) {
+        if (book.getAuthors() != null) {
+            for (Author author : book.getAuthors()) {
+                if (author.getId() != null) {
+                    booksByAuthor.compute(author.getId(), (key, ids) -> {
+                        Set<Long> indexed = ids == null ? new HashSet<>() : ids;
+                        indexed.add(book.getId());
+                        return indexed;
+                    });
+                }
+            }
+        }
+        return book;
+    }
+
+    /**
+     * @see #indexed(Book)
+     */
+    MultiGetResult<Book, Long> indexed(MultiGetResult<Book, Long> books) {
+        books.found().forEach(this::indexed);
+        return books;
+    }
+
+    /**
+     * Removes a book from the cache and from the index, at once for a load of the same id to index it again.
+     */
+    private void removeBook(Long id) {
+        books.asMap().computeIfPresent(id, (key, book) -> {
+            unindex(key, book);
+            return null;
+        });
+    }
+
+    private void unindex(Long id, Book book) {
+        if (book.getAuthors() != null) {
+            for (Author author : book.getAuthors()) {
+                if (author.getId() != null) {
+                    booksByAuthor.computeIfPresent(author.getId(), (key, ids) -> {
+                        ids.remove(id);
+                        return ids.isEmpty() ? null : ids;
+                    });
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads an object by id, as {@link fr.uga.l3miage.library.service.base.BaseService#get} does
+     */
+    @FunctionalInterface
+    interface Loader<O> {
+        O load(Long id) throws EntityNotFoundException;
+    }
+
+    /**
+     * Carries an {@link EntityNotFoundException} out of a cache load
+     */
+    private static final class NotFound extends RuntimeException {
+
+        NotFound(EntityNotFoundException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized EntityNotFoundException getCause() {
+            return (EntityNotFoundException) super.getCause();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package fr.uga.l3miage.library.cache;
+
+import fr.uga.l3miage.library.service.AuthorService;
+import fr.uga.l3miage.library.service.BookService;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Puts a cache in front of the {@link AuthorService} and {@link BookService} beans, whatever their implementation,
+ * when {@code library.cache.enabled} is true.
+ * <p>
+ * Size and time-to-live of entries are set with {@code library.cache.maximum-size} and {@code library.cache.ttl}.
+ * Hits, misses and evictions of the caches are published as {@code cache.*} meters.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "library.cache", name = "enabled", havingValue = "true")
+public class ServiceCacheConfiguration {
+
+    @Bean
+    public EntityCaches entityCaches(@Value("${library.cache.maximum-size:10000}") long maximumSize,
+            @Value("${library.cache.ttl:10m}") Duration ttl) {
+        return new EntityCaches(maximumSize, ttl);
+    }
+
+    @Bean
+    public MeterBinder entityCachesMetrics(EntityCaches caches) {
+        return registry -> caches.all().forEach((name, cache) -> CaffeineCacheMetrics.monitor(registry, cache, name));
+    }
+
+    @Bean
+    public static BeanPostProcessor cachingServicesPostProcessor(ObjectProvider<EntityCaches> caches) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof AuthorService authorService) {
+                    return new CachingAuthorService(authorService, caches.getObject());
+                }
+                if (bean instanceof BookService bookService) {
+                    return new CachingBookService(bookService, caches.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
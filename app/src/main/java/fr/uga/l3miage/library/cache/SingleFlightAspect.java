@@ -0,0 +1,140 @@
+package fr.uga.l3miage.library.cache;
+
+import fr.uga.l3miage.library.service.AuthorService;
+import fr.uga.l3miage.library.service.BookService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.After;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Single flight of the reads of books by author and by title ({@link BookService#getByAuthor},
+ * {@link BookService#findByAuthor} and {@link BookService#findByTitle}): concurrent calls with the same arguments
+ * wait for the one in flight and share its result, or its exception, instead of each running the same queries. This
+ * flattens the spikes of clients asking for the same list at the same time.
+ * <p>
+ * A waiter gives up after {@code library.single-flight.timeout} and runs the call itself, so that a slow call does
+ * not hold up more than its own request. Any write through the {@link BookService} or the {@link AuthorService} ends
+ * the calls in flight, for the calls which follow it to see it: those started meanwhile still share their result.
+ * Results being shared, callers must not modify them.
+ * <p>
+ * Calls are counted as {@value #COUNTER}, tagged by method and outcome: {@code leader} for those running the call,
+ * {@code collapsed} for those sharing its result and {@code timeout} for those which gave up waiting.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@Component
+public class SingleFlightAspect {
+
+    static final String COUNTER = "library.single-flight";
+
+    private final MeterRegistry registry;
+    private final boolean enabled;
+    private final Duration timeout;
+    private final Map<Call, CompletableFuture<Object>> flights = new ConcurrentHashMap<>();
+    private final Map<Method, Outcomes> outcomes = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SingleFlightAspect(MeterRegistry registry,
+            @Value("${library.single-flight.enabled:true}") boolean enabled,
+            @Value("${library.single-flight.timeout:2s}") Duration timeout) {
+        this.registry = registry;
+        this.enabled = enabled;
+        this.timeout = timeout;
+    }
+
+    @Around("execution(* fr.uga.l3miage.library.service.BookService+.getByAuthor(..))"
+            + " || execution(* fr.uga.l3miage.library.service.BookService+.findByAuthor(..))"
+            + " || execution(* fr.uga.l3miage.library.service.BookService+.findByTitle(..))")
+    public Object coalesce(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!enabled) {
+            return joinPoint.proceed();
+        }
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Outcomes methodOutcomes = outcomes(method);
+        Call call = new Call(joinPoint.getTarget(), method, Arrays.asList(joinPoint.getArgs()));
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = flights.putIfAbsent(call, flight);
+        if (inFlight == null) {
+            methodOutcomes.leader().increment();
+            try {
+                Object result = joinPoint.proceed();
+                flight.complete(result);
+                return result;
+            } catch (Throwable e) {
+                flight.completeExceptionally(e);
+                throw e;
+            } finally {
+                flights.remove(call, flight);
+            }
+        }
+        try {
+            Object result = inFlight.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            methodOutcomes.collapsed().increment();
+            return result;
+        } catch (ExecutionException e) {
+            methodOutcomes.collapsed().increment();
+            throw e.getCause();
+        } catch (TimeoutException e) {
+            methodOutcomes.timeout().increment();
+            return joinPoint.proceed();
+        } catch (InterruptedException e) {
+            // no longer waiting, but still owing the call
+            Thread.currentThread().interrupt();
+            methodOutcomes.timeout().increment();
+            return joinPoint.proceed();
+        }
+    }
+
+    /**
+     * Ends the calls in flight, after each write of a service.
+     */
+    @After("(execution(* fr.uga.l3miage.library.service.BookService+.*(..))"
+            + " || execution(* fr.uga.l3miage.library.service.AuthorService+.*(..)))"
+            + " && (execution(* save*(..)) || execution(* update(..)) || execution(* delete(..))"
+            + " || execution(* addAuthor(..)))")
+    public void land() {
+        flights.clear();
+    }
+
+    private Outcomes outcomes(Method method) {
+        Outcomes methodOutcomes = outcomes.get(method);
+        if (methodOutcomes == null) {
+            methodOutcomes = outcomes.computeIfAbsent(method, m -> new Outcomes(counter(m, "leader"),
+                    counter(m, "collapsed"), counter(m, "timeout")));
+        }
+        return methodOutcomes;
+    }
+
+    private Counter counter(Method method, String outcome) {
+        return registry.counter(COUNTER, "method", method.getName(), "outcome", outcome);
+    }
+
+    /**
+     * Identical calls: same service, method and arguments
+     */
+    private record Call(Object target, Method method, List<Object> args) {
+    }
+
+    private record Outcomes(Counter leader, Counter collapsed, Counter timeout) {
+    }
+}
@@ -0,0 +1,125 @@
+package fr.uga.l3miage.library.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fr.uga.l3miage.data.domain.Author;
+import fr.uga.l3miage.data.domain.Book;
+import fr.uga.l3miage.library.service.AuthorService;
+import fr.uga.l3miage.library.service.BookService;
+import fr.uga.l3miage.library.service.base.BaseService;
+import fr.uga.l3miage.library.web.CatalogueJsonModule;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Streams the whole catalogue, for synchronisation purpose.
+ * <p>
+ * Objects are read by chunks of {@value #CHUNK_SIZE} following their id ({@link BaseService#listAfter}) and written to
+ * the response as they come, without DTOs (see {@link CatalogueJsonModule}), so that memory use does not depend on the
+ * size of the catalogue and the first bytes are sent right away. Two formats are available depending on the
+ * {@code Accept} header: newline delimited JSON ({@value #NDJSON}) or a JSON array.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/v1/export")
+public class ExportController {
+
+    public static final String NDJSON = "application/x-ndjson";
+    static final int CHUNK_SIZE = 500;
+
+    private final BookService bookService;
+    private final AuthorService authorService;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public ExportController(BookService bookService, AuthorService authorService, ObjectMapper objectMapper) {
+        this.bookService = bookService;
+        this.authorService = authorService;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping(value = "/books", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> booksAsLines() {
+        return stream(NDJSON, out -> writeLines(out, bookService, Book::getId));
+    }
+
+    @GetMapping(value = "/books", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> booksAsArray() {
+        return stream(MediaType.APPLICATION_JSON_VALUE,
+                out -> writeArray(out, bookService, Book::getId));
+    }
+
+    @GetMapping(value = "/authors", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> authorsAsLines() {
+        return stream(NDJSON, out -> writeLines(out, authorService, Author::getId));
+    }
+
+    @GetMapping(value = "/authors", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> authorsAsArray() {
+        return stream(MediaType.APPLICATION_JSON_VALUE,
+                out -> writeArray(out, authorService, Author::getId));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> stream(String contentType, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(contentType))
+                .body(body);
+    }
+
+    private <O> void writeLines(OutputStream out, BaseService<O, Long> service, Function<O, Long> idOf)
+            throws IOException {
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            forEachChunk(service, idOf, chunk -> {
+                for (O object : chunk) {
+                    generator.writeObject(object);
+                    generator.writeRaw('\n');
+                }
+                generator.flush();
+            });
+        }
+    }
+
+    private <O> void writeArray(OutputStream out, BaseService<O, Long> service, Function<O, Long> idOf)
+            throws IOException {
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            generator.writeStartArray();
+            forEachChunk(service, idOf, chunk -> {
+                for (O object : chunk) {
+                    generator.writeObject(object);
+                }
+                generator.flush();
+            });
+            generator.writeEndArray();
+        }
+    }
+
+    private static <O> void forEachChunk(BaseService<O, Long> service, Function<O, Long> idOf,
+            ChunkWriter<O> writer) throws IOException {
+        Long after = null;
+        List<O> chunk;
+        do {
+            chunk = service.listAfter(after, CHUNK_SIZE);
+            if (!chunk.isEmpty()) {
+                writer.write(chunk);
+                after = idOf.apply(chunk.get(chunk.size() - 1));
+            }
+        } while (chunk.size() == CHUNK_SIZE);
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter<O> {
+        void write(List<O> chunk) throws IOException;
+    }
+}
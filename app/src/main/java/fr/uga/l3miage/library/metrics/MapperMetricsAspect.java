@@ -0,0 +1,63 @@
+package fr.uga.l3miage.library.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times the DTO mappers as {@value #TIMER}, tagged by mapper and method. Mappers being called once per element of a
+ * response, this can be disabled with {@code library.metrics.mappers.enabled=false}.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "library.metrics.mappers.enabled", matchIfMissing = true)
+public class MapperMetricsAspect {
+
+    static final String TIMER = "library.mapper";
+
+    private final MeterRegistry registry;
+    private final Map<Method, MethodMeters> meters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public MapperMetricsAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("execution(public * fr.uga.l3miage.library.books.BooksMapper+.*(..))"
+            + " || execution(public * fr.uga.l3miage.library.authors.AuthorMapper+.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodMeters methodMeters = meters(((MethodSignature) joinPoint.getSignature()).getMethod());
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            methodMeters.succeeded(start, result);
+            return result;
+        } catch (Throwable e) {
+            methodMeters.failed(start, e);
+            throw e;
+        }
+    }
+
+    private MethodMeters meters(Method method) {
+        MethodMeters methodMeters = meters.get(method);
+        if (methodMeters == null) {
+            methodMeters = meters.computeIfAbsent(method, m -> new MethodMeters(registry, TIMER, null,
+                    Tags.of("mapper", mapperName(m.getDeclaringClass()), "method", m.getName())));
+        }
+        return methodMeters;
+    }
+
+    private static String mapperName(Class<?> type) {
+        return type.getInterfaces().length > 0 ? type.getInterfaces()[0].getSimpleName() : type.getSimpleName();
+    }
+}
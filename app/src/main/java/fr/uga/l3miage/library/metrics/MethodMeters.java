@@ -0,0 +1,57 @@
+package fr.uga.l3miage.library.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters of one instrumented method, registered once so that recording a call does not look them up in the registry.
+ * <p>
+ * Calls are timed with a timer tagged by the exception they threw ({@code none} for successful calls), the size of
+ * the collections they return is recorded in a distribution summary.
+ */
+final class MethodMeters {
+
+    private final MeterRegistry registry;
+    private final String timerName;
+    private final Tags tags;
+    private final Timer success;
+    private final DistributionSummary results;
+    private final Map<Class<?>, Timer> failures = new ConcurrentHashMap<>();
+
+    MethodMeters(MeterRegistry registry, String timerName, String resultsName, Tags tags) {
+        this.registry = registry;
+        this.timerName = timerName;
+        this.tags = tags;
+        this.success = timer("none");
+        this.results = resultsName == null ? null : DistributionSummary.builder(resultsName)
+                .baseUnit("objects")
+                .tags(tags)
+                .register(registry);
+    }
+
+    void succeeded(long startNanos, Object result) {
+        success.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        if (results != null && result instanceof Collection<?> collection) {
+            results.record(collection.size());
+        }
+    }
+
+    void failed(long startNanos, Throwable error) {
+        failures.computeIfAbsent(error.getClass(), type -> timer(type.getSimpleName()))
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(String exception) {
+        return Timer.builder(timerName)
+                .tags(tags)
+                .tag("exception", exception)
+                .register(registry);
+    }
+}
@@ -0,0 +1,70 @@
+package fr.uga.l3miage.library.metrics;
+
+import fr.uga.l3miage.library.service.base.BaseService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times the calls of every service ({@link BaseService} implementation) as {@value #TIMER}, tagged by service,
+ * method and exception, and records the size of returned collections as {@value #RESULTS}.
+ */
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+
+    static final String TIMER = "library.service";
+    static final String RESULTS = "library.service.results";
+
+    private final MeterRegistry registry;
+    private final Map<Method, MethodMeters> meters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ServiceMetricsAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("execution(public * fr.uga.l3miage.library.service.base.BaseService+.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodMeters methodMeters = meters(((MethodSignature) joinPoint.getSignature()).getMethod());
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            methodMeters.succeeded(start, result);
+            return result;
+        } catch (Throwable e) {
+            methodMeters.failed(start, e);
+            throw e;
+        }
+    }
+
+    private MethodMeters meters(Method method) {
+        MethodMeters methodMeters = meters.get(method);
+        if (methodMeters == null) {
+            methodMeters = meters.computeIfAbsent(method, m -> new MethodMeters(registry, TIMER, RESULTS,
+                    Tags.of("service", serviceName(m.getDeclaringClass()), "method", m.getName())));
+        }
+        return methodMeters;
+    }
+
+    /**
+     * @return the name of the service interface implemented by the class, e.g. BookService
+     */
+    static String serviceName(Class<?> type) {
+        return Arrays.stream(type.getInterfaces())
+                .filter(BaseService.class::isAssignableFrom)
+                .map(Class::getSimpleName)
+                .findFirst()
+                .orElse(type.getSimpleName());
+    }
+}
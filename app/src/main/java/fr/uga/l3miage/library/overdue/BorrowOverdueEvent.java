@@ -0,0 +1,11 @@
+package fr.uga.l3miage.library.overdue;
+
+import fr.uga.l3miage.data.domain.Borrow;
+
+/**
+ * Published once when a borrow is still not returned at its due date, e.g. to remind the borrower
+ *
+ * @param borrow the overdue borrow
+ */
+public record BorrowOverdueEvent(Borrow borrow) {
+}
@@ -0,0 +1,43 @@
+package fr.uga.l3miage.library.overdue;
+
+import fr.uga.l3miage.library.service.BorrowService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Reports overdue borrows as {@link BorrowOverdueEvent}s, unless {@code library.overdue.enabled} is false. The
+ * {@link BorrowService} bean is decorated to keep the {@link OverdueScheduler} up-to-date, which checks due dates
+ * every {@code library.overdue.tick}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "library.overdue", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class OverdueConfiguration {
+
+    @Bean
+    public OverdueScheduler overdueScheduler(BorrowService borrowService, ApplicationEventPublisher publisher,
+            MeterRegistry registry, @Value("${library.overdue.tick:1s}") Duration tick) {
+        return new OverdueScheduler(borrowService, publisher, registry, tick, Clock.systemUTC());
+    }
+
+    @Bean
+    public static BeanPostProcessor overdueTrackingPostProcessor(ObjectProvider<OverdueScheduler> scheduler) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof BorrowService borrowService) {
+                    return new OverdueTrackingBorrowService(borrowService, scheduler);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,193 @@
+package fr.uga.l3miage.library.overdue;
+
+import fr.uga.l3miage.data.domain.Borrow;
+import fr.uga.l3miage.library.service.BorrowService;
+import fr.uga.l3miage.library.service.EntityNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Publishes a {@link BorrowOverdueEvent} when a borrow is not returned by its due date, without scanning the
+ * borrows: each active borrow has a timeout on a {@link TimingWheel}, set when it is checked out (or its due date
+ * changed) and cancelled when it is returned. The wheel is advanced every tick by a single thread.
+ * <p>
+ * Timeouts are kept in memory only, they are rebuilt from the active borrows of the store when the application
+ * starts; borrows that fell due in the meantime fire on the first tick. Before an event is published the borrow is
+ * read again, so that a borrow returned or extended behind the scheduler's back is not reported.
+ * <p>
+ * The number of pending timeouts is published as {@value #PENDING}, the delay between the due date and the firing
+ * of a timeout as {@value #LAG} and the number of events as {@value #EVENTS}.
+ */
+public class OverdueScheduler implements SmartLifecycle {
+
+    static final String PENDING = "library.overdue.pending";
+    static final String LAG = "library.overdue.lag";
+    static final String EVENTS = "library.overdue.events";
+
+    private static final Logger log = LoggerFactory.getLogger(OverdueScheduler.class);
+
+    private final BorrowService borrowService;
+    private final ApplicationEventPublisher publisher;
+    private final Duration tick;
+    private final Clock clock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TimingWheel<Long> wheel;
+    private final Map<Long, TimingWheel.Timeout<Long>> timeouts = new HashMap<>();
+    private final Timer lag;
+    private final Counter events;
+    private ScheduledExecutorService executor;
+
+    public OverdueScheduler(BorrowService borrowService, ApplicationEventPublisher publisher, MeterRegistry registry,
+            Duration tick, Clock clock) {
+        this.borrowService = borrowService;
+        this.publisher = publisher;
+        this.tick = tick;
+        this.clock = clock;
+        this.wheel = new TimingWheel<>(tick.toMillis(), clock.millis());
+        Gauge.builder(PENDING, this, OverdueScheduler::pending)
+                .description("Active borrows waiting for their due date")
+                .register(registry);
+        this.lag = Timer.builder(LAG)
+                .description("Delay between the due date of a borrow and its overdue check")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.events = Counter.builder(EVENTS)
+                .description("Overdue borrows reported")
+                .register(registry);
+    }
+
+    /**
+     * Sets the timeout of a borrow at its due date, replacing the previous one. A returned borrow has none.
+     */
+    public void schedule(Borrow borrow) {
+        if (!borrow.isActive() || borrow.getEnd() == null) {
+            cancel(borrow.getId());
+            return;
+        }
+        lock.lock();
+        try {
+            TimingWheel.Timeout<Long> previous = timeouts.put(borrow.getId(),
+                    wheel.schedule(borrow.getEnd().getTime(), borrow.getId()));
+            if (previous != null) {
+                wheel.cancel(previous);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Cancels the timeout of a borrow, if any
+     */
+    public void cancel(Long borrowId) {
+        lock.lock();
+        try {
+            TimingWheel.Timeout<Long> timeout = timeouts.remove(borrowId);
+            if (timeout != null) {
+                wheel.cancel(timeout);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of borrows waiting for their due date
+     */
+    public int pending() {
+        lock.lock();
+        try {
+            return wheel.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Fires the timeouts due at the given date
+     */
+    void advance(long nowMillis) {
+        List<TimingWheel.Timeout<Long>> expired = new ArrayList<>();
+        lock.lock();
+        try {
+            wheel.advance(nowMillis, expired::add);
+            expired.forEach(timeout -> timeouts.remove(timeout.value()));
+        } finally {
+            lock.unlock();
+        }
+
+        for (TimingWheel.Timeout<Long> timeout : expired) {
+            lag.record(nowMillis - timeout.deadline(), TimeUnit.MILLISECONDS);
+            Borrow borrow;
+            try {
+                borrow = borrowService.get(timeout.value());
+            } catch (EntityNotFoundException e) {
+                continue;
+            }
+            if (!borrow.isActive()) {
+                continue;
+            }
+            if (borrow.getEnd() != null && borrow.getEnd().getTime() > nowMillis) {
+                schedule(borrow);
+                continue;
+            }
+            events.increment();
+            publisher.publishEvent(new BorrowOverdueEvent(borrow));
+        }
+    }
+
+    private void tick() {
+        try {
+            advance(clock.millis());
+        } catch (RuntimeException e) {
+            // the next ticks must still run
+            log.error("Overdue borrows check failed", e);
+        }
+    }
+
+    /**
+     * Schedules the active borrows of the store
+     */
+    void rebuild() {
+        borrowService.listActive().forEach(this::schedule);
+    }
+
+    @Override
+    public void start() {
+        rebuild();
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "overdue-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(this::tick, 0, tick.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        executor.shutdownNow();
+        executor = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+}
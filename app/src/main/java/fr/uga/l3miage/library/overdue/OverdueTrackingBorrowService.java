@@ -0,0 +1,88 @@
+package fr.uga.l3miage.library.overdue;
+
+import fr.uga.l3miage.data.domain.Borrow;
+import fr.uga.l3miage.library.service.BookUnavailableException;
+import fr.uga.l3miage.library.service.BorrowService;
+import fr.uga.l3miage.library.service.EntityNotFoundException;
+import fr.uga.l3miage.library.service.base.MultiGetResult;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Keeps the {@link OverdueScheduler} informed of the borrows checked out, returned or whose due date changed.
+ */
+class OverdueTrackingBorrowService implements BorrowService {
+
+    private final BorrowService delegate;
+    private final ObjectProvider<OverdueScheduler> scheduler;
+
+    OverdueTrackingBorrowService(BorrowService delegate, ObjectProvider<OverdueScheduler> scheduler) {
+        this.delegate = delegate;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public Borrow checkout(Long borrowerId, Collection<Long> bookIds, Date end)
+            throws EntityNotFoundException, BookUnavailableException {
+        Borrow borrow = delegate.checkout(borrowerId, bookIds, end);
+        scheduler.ifAvailable(overdue -> overdue.schedule(borrow));
+        return borrow;
+    }
+
+    @Override
+    public Borrow checkIn(Long id) throws EntityNotFoundException {
+        Borrow borrow = delegate.checkIn(id);
+        scheduler.ifAvailable(overdue -> overdue.cancel(id));
+        return borrow;
+    }
+
+    @Override
+    public Borrow update(Borrow object) throws EntityNotFoundException {
+        Borrow borrow = delegate.update(object);
+        scheduler.ifAvailable(overdue -> overdue.schedule(borrow));
+        return borrow;
+    }
+
+    @Override
+    public Collection<Borrow> getByBorrower(Long borrowerId) throws EntityNotFoundException {
+        return delegate.getByBorrower(borrowerId);
+    }
+
+    @Override
+    public Collection<Borrow> listActive() {
+        return delegate.listActive();
+    }
+
+    @Override
+    public boolean isAvailable(Long bookId) throws EntityNotFoundException {
+        return delegate.isAvailable(bookId);
+    }
+
+    @Override
+    public Borrow get(Long id) throws EntityNotFoundException {
+        return delegate.get(id);
+    }
+
+    @Override
+    public MultiGetResult<Borrow, Long> getAll(Collection<Long> ids) {
+        return delegate.getAll(ids);
+    }
+
+    @Override
+    public Collection<Borrow> list() {
+        return delegate.list();
+    }
+
+    @Override
+    public List<Borrow> list(int page, int limit) {
+        return delegate.list(page, limit);
+    }
+
+    @Override
+    public List<Borrow> listAfter(Long after, int limit) {
+        return delegate.listAfter(after, limit);
+    }
+}
@@ -0,0 +1,265 @@
+package fr.uga.l3miage.library.overdue;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel: timeouts are hashed by deadline into {@value #LEVELS} wheels of {@value #SLOTS} slots,
+ * the slots of a wheel spanning {@value #SLOTS} times those of the wheel below. A timeout is put in the lowest wheel
+ * whose span reaches its deadline, then moved down to the next wheel when the slot it is in comes due, until it
+ * reaches the lowest one and fires.
+ * <p>
+ * Scheduling and cancelling are O(1), and a timeout is moved at most {@value #LEVELS} times before it fires,
+ * however many timeouts are pending and however far their deadlines are. Deadlines are rounded up to the next tick,
+ * so a timeout never fires early and at most a tick late (plus the delay of {@link #advance(long, Consumer)}).
+ * <p>
+ * Not thread-safe, callers must synchronize.
+ *
+ * @param <T> type of the values of the timeouts
+ */
+final class TimingWheel<T> {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 6;
+    /**
+     * Deadlines further than this number of ticks are first put in the highest wheel, and moved back there until
+     * they get close enough
+     */
+    private static final long HORIZON = 1L << (BITS * LEVELS);
+
+    private final long tickMillis;
+    private final Timeout<T>[][] wheels;
+    /**
+     * Number of timeouts of each wheel
+     */
+    private final int[] counts = new int[LEVELS];
+    /**
+     * Timeouts already due when scheduled, fired by the next advance
+     */
+    private final Timeout<T> due = Timeout.sentinel();
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMillis, long nowMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tick must be positive: " + tickMillis);
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = Math.floorDiv(nowMillis, tickMillis);
+        this.wheels = new Timeout[LEVELS][SLOTS];
+        for (Timeout<T>[] wheel : wheels) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                wheel[slot] = Timeout.sentinel();
+            }
+        }
+    }
+
+    /**
+     * Schedules a value to fire at a given date
+     *
+     * @param deadlineMillis the date in milliseconds, the timeout fires with the next advance if already past
+     * @param value          the value to fire
+     * @return the timeout, to be cancelled with {@link #cancel(Timeout)}
+     */
+    Timeout<T> schedule(long deadlineMillis, T value) {
+        Timeout<T> timeout = new Timeout<>(value, deadlineMillis, Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis));
+        place(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Cancels a timeout, does nothing if it already fired or was cancelled
+     */
+    void cancel(Timeout<T> timeout) {
+        if (timeout.isLinked()) {
+            if (timeout.level >= 0) {
+                counts[timeout.level]--;
+            }
+            timeout.unlink();
+            size--;
+        }
+    }
+
+    /**
+     * Advances the wheels up to a date, firing the timeouts whose deadline has passed
+     *
+     * @param nowMillis the current date in milliseconds
+     * @param expired   called with each timeout that fires, in no particular order
+     */
+    void advance(long nowMillis, Consumer<Timeout<T>> expired) {
+        long nowTick = Math.floorDiv(nowMillis, tickMillis);
+        fire(due.detach(), expired);
+        while (currentTick < nowTick) {
+            int lowest = lowestLevel();
+            if (lowest < 0) {
+                // nothing on the wheels, skip the empty ticks
+                currentTick = nowTick;
+                break;
+            }
+            if (lowest > 0) {
+                // nothing happens before the next slot of the lowest wheel in use comes due
+                long beforeSlot = currentTick | ((1L << (BITS * lowest)) - 1);
+                if (beforeSlot > currentTick) {
+                    currentTick = Math.min(beforeSlot, nowTick);
+                    continue;
+                }
+            }
+            currentTick++;
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (BITS * level)) - 1)) == 0) {
+                    // the slot of this level comes due, its timeouts move to lower levels
+                    Timeout<T> chain = detach(level, slot(currentTick, level));
+                    while (chain != null) {
+                        Timeout<T> next = chain.next;
+                        place(chain);
+                        chain = next;
+                    }
+                }
+            }
+            fire(detach(0, slot(currentTick, 0)), expired);
+        }
+        fire(due.detach(), expired);
+    }
+
+    /**
+     * @return the number of pending timeouts
+     */
+    int size() {
+        return size;
+    }
+
+    private void fire(Timeout<T> chain, Consumer<Timeout<T>> expired) {
+        while (chain != null) {
+            Timeout<T> next = chain.next;
+            if (chain.deadlineTick > currentTick) {
+                // beyond the horizon when scheduled
+                place(chain);
+            } else {
+                chain.next = null;
+                size--;
+                expired.accept(chain);
+            }
+            chain = next;
+        }
+    }
+
+    private void place(Timeout<T> timeout) {
+        if (timeout.deadlineTick <= currentTick) {
+            timeout.level = -1;
+            due.append(timeout);
+            return;
+        }
+        long tick = Math.min(timeout.deadlineTick, currentTick + HORIZON - 1);
+        int level = 0;
+        while (level < LEVELS - 1 && ((tick ^ currentTick) >>> (BITS * (level + 1))) != 0) {
+            // deadline and current tick differ above this level
+            level++;
+        }
+        timeout.level = level;
+        counts[level]++;
+        wheels[level][slot(tick, level)].append(timeout);
+    }
+
+    private Timeout<T> detach(int level, int slot) {
+        Timeout<T> chain = wheels[level][slot].detach();
+        for (Timeout<T> timeout = chain; timeout != null; timeout = timeout.next) {
+            counts[level]--;
+        }
+        return chain;
+    }
+
+    /**
+     * @return the lowest wheel having timeouts, -1 if none has
+     */
+    private int lowestLevel() {
+        for (int level = 0; level < LEVELS; level++) {
+            if (counts[level] > 0) {
+                return level;
+            }
+        }
+        return -1;
+    }
+
+    private static int slot(long tick, int level) {
+        return (int) (tick >>> (BITS * level)) & MASK;
+    }
+
+    /**
+     * A scheduled value, element of the doubly linked list of its slot
+     */
+    static final class Timeout<T> {
+        private final T value;
+        private final long deadline;
+        private final long deadlineTick;
+        /**
+         * Wheel of the timeout, -1 when already due
+         */
+        private int level;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(T value, long deadline, long deadlineTick) {
+            this.value = value;
+            this.deadline = deadline;
+            this.deadlineTick = deadlineTick;
+        }
+
+        private static <T> Timeout<T> sentinel() {
+            Timeout<T> sentinel = new Timeout<>(null, 0, 0);
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+            return sentinel;
+        }
+
+        T value() {
+            return value;
+        }
+
+        /**
+         * @return the deadline in milliseconds
+         */
+        long deadline() {
+            return deadline;
+        }
+
+        private boolean isLinked() {
+            return prev != null;
+        }
+
+        private void append(Timeout<T> timeout) {
+            timeout.prev = prev;
+            timeout.next = this;
+            prev.next = timeout;
+            prev = timeout;
+        }
+
+        private void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = null;
+            next = null;
+        }
+
+        /**
+         * Empties the list of a sentinel
+         *
+         * @return its former elements, chained by {@link #next} and no longer linked, or null
+         */
+        private Timeout<T> detach() {
+            if (next == this) {
+                return null;
+            }
+            Timeout<T> first = next;
+            prev.next = null;
+            for (Timeout<T> timeout = first; timeout != null; timeout = timeout.next) {
+                timeout.prev = null;
+            }
+            next = this;
+            prev = this;
+            return first;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package fr.uga.l3miage.library.reactive;
+
+import fr.uga.l3miage.data.domain.Author;
+import fr.uga.l3miage.library.service.AuthorService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Component
+public class AuthorServiceAdapter extends BlockingServiceAdapter<Author> implements ReactiveAuthorService {
+
+    private final AuthorService authorService;
+
+    @Autowired
+    public AuthorServiceAdapter(AuthorService authorService) {
+        super(authorService, Author::getId);
+        this.authorService = authorService;
+    }
+
+    @Override
+    public Mono<Author> save(Author author) {
+        return one(() -> authorService.save(author));
+    }
+
+    @Override
+    public Flux<Author> searchByName(String name) {
+        return many(() -> authorService.searchByName(name));
+    }
+
+    @Override
+    public Mono<Void> delete(Long id) {
+        return run(() -> authorService.delete(id));
+    }
+}
@@ -0,0 +1,106 @@
+package fr.uga.l3miage.library.reactive;
+
+import fr.uga.l3miage.library.service.base.BaseService;
+import fr.uga.l3miage.library.service.base.MultiGetResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
+/**
+ * Adapts a blocking service to {@link ReactiveBaseService}.
+ * <p>
+ * Service calls are run on the bounded elastic scheduler, so that they never block an event-loop thread; a thread
+ * is only held for the duration of the call, not while the result is written to the client.
+ *
+ * @param <O> the type of persistence object
+ */
+abstract class BlockingServiceAdapter<O> implements ReactiveBaseService<O, Long> {
+
+    /**
+     * Number of objects read at once by {@link #list()}.
+     */
+    static final int CHUNK = 500;
+
+    private final BaseService<O, Long> service;
+    private final Function<O, Long> idOf;
+    private final Scheduler scheduler;
+
+    BlockingServiceAdapter(BaseService<O, Long> service, Function<O, Long> idOf) {
+        this(service, idOf, Schedulers.boundedElastic());
+    }
+
+    BlockingServiceAdapter(BaseService<O, Long> service, Function<O, Long> idOf, Scheduler scheduler) {
+        this.service = service;
+        this.idOf = idOf;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public Mono<O> get(Long id) {
+        return one(() -> service.get(id));
+    }
+
+    @Override
+    public Mono<MultiGetResult<O, Long>> getAll(Collection<Long> ids) {
+        return one(() -> service.getAll(ids));
+    }
+
+    @Override
+    public Flux<O> list() {
+        // the next chunk is only read once the subscriber requested every object of the previous one
+        return one(() -> service.listAfter(null, CHUNK))
+                .expand(chunk -> chunk.size() < CHUNK
+                        ? Mono.empty()
+                        : one(() -> service.listAfter(idOf.apply(chunk.get(chunk.size() - 1)), CHUNK)))
+                .flatMapIterable(Function.identity(), 1);
+    }
+
+    @Override
+    public Flux<O> list(int page, int limit) {
+        return many(() -> service.list(page, limit));
+    }
+
+    @Override
+    public Flux<O> listAfter(Long after, int limit) {
+        return many(() -> service.listAfter(after, limit));
+    }
+
+    @Override
+    public Mono<O> update(O object) {
+        return one(() -> service.update(object));
+    }
+
+    /**
+     * @return a mono publishing the result of a blocking call, or its exception as an error
+     */
+    <T> Mono<T> one(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(scheduler);
+    }
+
+    /**
+     * @return a flux publishing the collection returned by a blocking call, as the subscriber requests it
+     */
+    <T> Flux<T> many(Callable<? extends Collection<T>> call) {
+        return one(call).flatMapIterable(Function.identity());
+    }
+
+    /**
+     * @return a mono completing once a blocking call without result is done
+     */
+    Mono<Void> run(BlockingRunnable call) {
+        return one(() -> {
+            call.run();
+            return null;
+        }).then();
+    }
+
+    @FunctionalInterface
+    interface BlockingRunnable {
+        void run() throws Exception;
+    }
+}
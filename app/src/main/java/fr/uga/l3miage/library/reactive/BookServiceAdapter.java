@@ -0,0 +1,62 @@
+package fr.uga.l3miage.library.reactive;
+
+import fr.uga.l3miage.data.domain.Book;
+import fr.uga.l3miage.library.service.BookQuery;
+import fr.uga.l3miage.library.service.BookSearchResult;
+import fr.uga.l3miage.library.service.BookService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Component
+public class BookServiceAdapter extends BlockingServiceAdapter<Book> implements ReactiveBookService {
+
+    private final BookService bookService;
+
+    @Autowired
+    public BookServiceAdapter(BookService bookService) {
+        super(bookService, Book::getId);
+        this.bookService = bookService;
+    }
+
+    @Override
+    public Mono<Book> save(Long authorId, Book book) {
+        return one(() -> bookService.save(authorId, book));
+    }
+
+    @Override
+    public Mono<Book> getByIsbn(long isbn) {
+        return one(() -> bookService.getByIsbn(isbn));
+    }
+
+    @Override
+    public Flux<Book> findByTitle(String title) {
+        return many(() -> bookService.findByTitle(title));
+    }
+
+    @Override
+    public Mono<BookSearchResult> search(BookQuery query) {
+        return one(() -> bookService.search(query));
+    }
+
+    @Override
+    public Flux<Book> getByAuthor(Long id) {
+        return many(() -> bookService.getByAuthor(id));
+    }
+
+    @Override
+    public Flux<Book> findByAuthor(Long id, String title) {
+        return many(() -> bookService.findByAuthor(id, title));
+    }
+
+    @Override
+    public Mono<Void> delete(Long id) {
+        return run(() -> bookService.delete(id));
+    }
+
+    @Override
+    public Mono<Book> addAuthor(Long bookId, Long authorId) {
+        return one(() -> bookService.addAuthor(bookId, authorId));
+    }
+}
@@ -0,0 +1,15 @@
+package fr.uga.l3miage.library.reactive;
+
+import fr.uga.l3miage.data.domain.Author;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveAuthorService extends ReactiveBaseService<Author, Long> {
+
+    Mono<Author> save(Author author);
+
+    Flux<Author> searchByName(String name);
+
+    Mono<Void> delete(Long id);
+
+}
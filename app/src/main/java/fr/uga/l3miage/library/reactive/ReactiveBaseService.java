@@ -0,0 +1,52 @@
+package fr.uga.l3miage.library.reactive;
+
+import fr.uga.l3miage.library.service.base.MultiGetResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+/**
+ * Non-blocking counterpart of {@link fr.uga.l3miage.library.service.base.BaseService}: results are published
+ * instead of returned, errors (e.g. {@link fr.uga.l3miage.library.service.EntityNotFoundException}) are signalled
+ * instead of thrown.
+ *
+ * @param <O> the type of persistence object
+ * @param <I> type of the identifier
+ */
+public interface ReactiveBaseService<O, I> {
+
+    /**
+     * @param id the object identifier
+     * @return the object, or an {@code EntityNotFoundException} error
+     */
+    Mono<O> get(I id);
+
+    /**
+     * @see fr.uga.l3miage.library.service.base.BaseService#getAll(Collection)
+     */
+    Mono<MultiGetResult<O, I>> getAll(Collection<I> ids);
+
+    /**
+     * Publishes all objects, ordered by identifier. Objects are read a chunk at a time, as the subscriber requests
+     * them.
+     */
+    Flux<O> list();
+
+    /**
+     * @see fr.uga.l3miage.library.service.base.BaseService#list(int, int)
+     */
+    Flux<O> list(int page, int limit);
+
+    /**
+     * @see fr.uga.l3miage.library.service.base.BaseService#listAfter(Object, int)
+     */
+    Flux<O> listAfter(I after, int limit);
+
+    /**
+     * @param object the object to update
+     * @return the updated object, or an {@code EntityNotFoundException} error
+     */
+    Mono<O> update(O object);
+
+}
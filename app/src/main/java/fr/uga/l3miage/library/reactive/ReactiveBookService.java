@@ -0,0 +1,27 @@
+package fr.uga.l3miage.library.reactive;
+
+import fr.uga.l3miage.data.domain.Book;
+import fr.uga.l3miage.library.service.BookQuery;
+import fr.uga.l3miage.library.service.BookSearchResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveBookService extends ReactiveBaseService<Book, Long> {
+
+    Mono<Book> save(Long authorId, Book book);
+
+    Mono<Book> getByIsbn(long isbn);
+
+    Flux<Book> findByTitle(String title);
+
+    Mono<BookSearchResult> search(BookQuery query);
+
+    Flux<Book> getByAuthor(Long id);
+
+    Flux<Book> findByAuthor(Long id, String title);
+
+    Mono<Void> delete(Long id);
+
+    Mono<Book> addAuthor(Long bookId, Long authorId);
+
+}
@@ -0,0 +1,139 @@
+package fr.uga.l3miage.library.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.AbstractJackson2Encoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.MimeType;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary variants of the JSON API, for services rather than browsers: lists of books and authors are also served as
+ * CBOR ({@value #CBOR}) or Smile ({@value #SMILE}) when asked for in the {@code Accept} header. Both are binary
+ * encodings of the JSON data model, the same objects are written with the same names, but numbers are not written as
+ * text and strings are prefixed by their length, which makes them smaller and cheaper to decode.
+ * <p>
+ * Their object mappers are built like the JSON one, thus with the {@link CatalogueJsonModule}.
+ */
+@Configuration
+public class BinaryFormatsConfiguration {
+
+    public static final String CBOR = MediaType.APPLICATION_CBOR_VALUE;
+    public static final String SMILE = "application/x-jackson-smile";
+    private static final MediaType SMILE_TYPE = MediaType.parseMediaType(SMILE);
+
+    static ObjectMapper cborMapper(Jackson2ObjectMapperBuilder builder) {
+        return builder.factory(new CBORFactory()).build();
+    }
+
+    static ObjectMapper smileMapper(Jackson2ObjectMapperBuilder builder) {
+        return builder.factory(new SmileFactory()).build();
+    }
+
+    @Configuration
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    static class Servlet {
+
+        // replace the converters that spring mvc would otherwise create with plain mappers
+        @Bean
+        MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+            return new MappingJackson2CborHttpMessageConverter(cborMapper(builder));
+        }
+
+        @Bean
+        MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+            return new MappingJackson2SmileHttpMessageConverter(smileMapper(builder));
+        }
+    }
+
+    @Configuration
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    static class Reactive implements WebFluxConfigurer {
+
+        private final ObjectMapper cbor;
+        private final ObjectMapper smile;
+
+        // a new builder for each mapper, the bean being a prototype
+        Reactive(ObjectProvider<Jackson2ObjectMapperBuilder> builders) {
+            this.cbor = cborMapper(builders.getObject());
+            this.smile = smileMapper(builders.getObject());
+        }
+
+        // on the server only: a CodecCustomizer would also reach the WebClient, which would then write bodies without
+        // content type as CBOR, custom codecs coming first. The media types must be given, json being the default.
+        @Override
+        public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+            configurer.customCodecs().register(new CollectingEncoder(new Jackson2SmileEncoder(smile, SMILE_TYPE)));
+            configurer.customCodecs().register(new Jackson2SmileDecoder(smile, SMILE_TYPE));
+            configurer.customCodecs().register(
+                    new CollectingEncoder(new Jackson2CborEncoder(cbor, MediaType.APPLICATION_CBOR)));
+            configurer.customCodecs().register(new Jackson2CborDecoder(cbor, MediaType.APPLICATION_CBOR));
+        }
+    }
+
+    /**
+     * The binary encoders of Spring write a flux as an array of single values, which CBOR does not support and Smile
+     * gets wrong, writing the brackets and commas of a json array. A flux, such as a list of books, is thus collected
+     * then written as a single list. Lists being paged, bounded by a query or the whole catalogue already held by the
+     * service, this does not hold much more in memory than the JSON encoder.
+     */
+    static class CollectingEncoder implements Encoder<Object> {
+
+        private final AbstractJackson2Encoder encoder;
+
+        CollectingEncoder(AbstractJackson2Encoder encoder) {
+            this.encoder = encoder;
+        }
+
+        @Override
+        public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+            return encoder.canEncode(elementType, mimeType);
+        }
+
+        @Override
+        public List<MimeType> getEncodableMimeTypes() {
+            return encoder.getEncodableMimeTypes();
+        }
+
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+            if (inputStream instanceof Mono<?> mono) {
+                return mono.map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints)).flux();
+            }
+            ResolvableType listType = ResolvableType.forClassWithGenerics(List.class, elementType);
+            return Flux.from(inputStream).collectList()
+                    .map(list -> encodeValue(list, bufferFactory, listType, mimeType, hints))
+                    .flux();
+        }
+
+        @Override
+        public DataBuffer encodeValue(Object value, DataBufferFactory bufferFactory, ResolvableType valueType,
+                MimeType mimeType, Map<String, Object> hints) {
+            return encoder.encodeValue(value, bufferFactory, valueType, mimeType, hints);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package fr.uga.l3miage.library.web;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import fr.uga.l3miage.data.domain.Author;
+import fr.uga.l3miage.data.domain.Book;
+import fr.uga.l3miage.library.authors.AuthorJsonSerializer;
+import fr.uga.l3miage.library.books.BookJsonSerializer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Serializers of the books and authors, registered by spring boot in its {@link com.fasterxml.jackson.databind.ObjectMapper},
+ * thus used by the servlet and reactive variants alike.
+ * <p>
+ * Lists of books and authors are returned as entities rather than mapped to DTOs: each entity is written once, without
+ * the DTO of each element nor the list of DTOs. The output is the same as that of the DTOs.
+ */
+@Component
+public class CatalogueJsonModule extends SimpleModule {
+
+    public CatalogueJsonModule() {
+        super("catalogue");
+        addSerializer(Book.class, new BookJsonSerializer());
+        addSerializer(Author.class, new AuthorJsonSerializer());
+    }
+}
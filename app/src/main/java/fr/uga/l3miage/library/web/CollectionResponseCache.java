@@ -0,0 +1,288 @@
+package fr.uga.l3miage.library.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import fr.uga.l3miage.library.service.AuthorService;
+import fr.uga.l3miage.library.service.BookService;
+import fr.uga.l3miage.library.service.EntityNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.http.HttpServletResponse;
+import org.aspectj.lang.annotation.After;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache of the JSON responses of unfiltered collections ({@code GET /api/v1/books}, {@code /authors} and
+ * {@code /authors/{id}/books}): the largest responses of the API, which do not change between writes but were loaded
+ * and serialized again for each request.
+ * <p>
+ * An entry holds the serialized list twice, as is and gzipped for clients sending {@code Accept-Encoding: gzip}, in
+ * direct buffers: off the heap, they add nothing to garbage collections, and WebFlux hands them to Netty without
+ * copying them (a servlet response copies them to its output stream). It also holds the weak ETag of the list, so
+ * that conditional requests are answered from the cache as well.
+ * <p>
+ * Any write through the {@link BookService} or the {@link AuthorService} invalidates every entry: a book appears in
+ * the list of all books and in those of its authors, along with the names of its authors, and writes are rare next to
+ * reads. Entries are tagged with the generation of the cache when their list was loaded, so that a list loaded before
+ * a write but stored after it is never served. They are bounded in bytes by
+ * {@code library.response-cache.maximum-size}, 0 disabling the cache; their hits and misses are published as
+ * {@code cache.*} meters.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@Component
+public class CollectionResponseCache implements MeterBinder {
+
+    public static final Key BOOKS = new Key("books", 0);
+    public static final Key AUTHORS = new Key("authors", 0);
+
+    private static final String GZIP = "gzip";
+    private static final List<MediaType> OTHER_FORMATS = List.of(MediaType.APPLICATION_NDJSON,
+            MediaType.APPLICATION_CBOR, MediaType.parseMediaType(BinaryFormatsConfiguration.SMILE));
+    private static final String VARY = HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING;
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Cache<Key, Entry> entries;
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    public CollectionResponseCache(ObjectMapper objectMapper,
+            @Value("${library.response-cache.maximum-size:64MB}") DataSize maximumSize) {
+        this.objectMapper = objectMapper;
+        this.enabled = maximumSize.toBytes() > 0;
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maximumSize.toBytes())
+                .weigher((Key key, Entry entry) -> entry.size())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @return the key of the books of an author
+     */
+    public static Key authorBooks(long authorId) {
+        return new Key("author-books", authorId);
+    }
+
+    /**
+     * Invalidates every entry, after each write of a service. Being the outermost advice but the one exposing the
+     * invocation to aspects, it runs once the write is committed, so that a list loaded after the invalidation sees
+     * it.
+     */
+    @After("(execution(* fr.uga.l3miage.library.service.BookService+.*(..))"
+            + " || execution(* fr.uga.l3miage.library.service.AuthorService+.*(..)))"
+            + " && (execution(* save*(..)) || execution(* update(..)) || execution(* delete(..))"
+            + " || execution(* addAuthor(..)))")
+    public void invalidate() {
+        generation.incrementAndGet();
+        entries.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, entries, "responses");
+    }
+
+    /**
+     * Answers a request for a collection from the cache, loading the collection on a miss.
+     *
+     * @return false when the cache is disabled or the client does not ask for JSON, the response being left to the
+     * caller
+     */
+    public <T, E extends Exception> boolean serve(Key key, Loader<T, E> loader, Function<Collection<T>, String> etag,
+            ServletWebRequest request) throws E, IOException {
+        HttpServletResponse response = request.getResponse();
+        if (!enabled || response == null || !acceptsJson(headers(request, HttpHeaders.ACCEPT))) {
+            return false;
+        }
+        long generation = this.generation.get();
+        Entry entry = entries.getIfPresent(key);
+        if (entry == null || entry.generation() != generation) {
+            entry = store(key, generation, loader.load(), etag);
+        }
+        if (request.checkNotModified(entry.etag())) {
+            return true;
+        }
+        boolean gzip = acceptsGzip(headers(request, HttpHeaders.ACCEPT_ENCODING));
+        ByteBuffer body = entry.body(gzip);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.remaining());
+        response.setHeader(HttpHeaders.VARY, VARY);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        Channels.newChannel(response.getOutputStream()).write(body);
+        return true;
+    }
+
+    /**
+     * @return true unless the cache is disabled or the client does not ask for JSON, the response being then left to
+     * the caller
+     */
+    public boolean serves(ServerWebExchange exchange) {
+        return enabled && acceptsJson(exchange.getRequest().getHeaders().get(HttpHeaders.ACCEPT));
+    }
+
+    /**
+     * Answers a request for a collection from the cache, loading the collection on a miss, see
+     * {@link #serves(ServerWebExchange)}.
+     *
+     * @param loader subscribed to on a miss only
+     * @return empty, once the response is written
+     */
+    public <T, R> Mono<R> serve(Key key, Flux<T> loader, Function<Collection<T>, String> etag,
+            ServerWebExchange exchange) {
+        HttpHeaders requestHeaders = exchange.getRequest().getHeaders();
+        return Mono.defer(() -> {
+            long generation = this.generation.get();
+            Entry entry = entries.getIfPresent(key);
+            return entry != null && entry.generation() == generation
+                    ? Mono.just(entry)
+                    : loader.collectList().map(list -> store(key, generation, list, etag));
+        }).flatMap(entry -> {
+            if (exchange.checkNotModified(entry.etag())) {
+                return Mono.empty();
+            }
+            boolean gzip = acceptsGzip(requestHeaders.get(HttpHeaders.ACCEPT_ENCODING));
+            ByteBuffer body = entry.body(gzip);
+            ServerHttpResponse response = exchange.getResponse();
+            HttpHeaders headers = response.getHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.setContentLength(body.remaining());
+            headers.set(HttpHeaders.VARY, VARY);
+            if (gzip) {
+                headers.set(HttpHeaders.CONTENT_ENCODING, GZIP);
+            }
+            return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(body)));
+        }).then(Mono.empty());
+    }
+
+    private <T> Entry store(Key key, long generation, Collection<T> list, Function<Collection<T>, String> etag) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(list);
+            ByteArrayOutputStream gzipped = new ByteArrayOutputStream(json.length / 4);
+            try (GZIPOutputStream out = new GZIPOutputStream(gzipped)) {
+                out.write(json);
+            }
+            Entry entry = new Entry(generation, etag.apply(list), direct(json), direct(gzipped.toByteArray()));
+            // unless a more recent list was stored meanwhile
+            entries.asMap().merge(key, entry, (stored, loaded) -> stored.generation() > loaded.generation()
+                    ? stored : loaded);
+            return entry;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ByteBuffer direct(byte[] bytes) {
+        return ByteBuffer.allocateDirect(bytes.length).put(bytes).flip().asReadOnlyBuffer();
+    }
+
+    private static List<String> headers(ServletWebRequest request, String name) {
+        return Collections.list(request.getRequest().getHeaders(name));
+    }
+
+    /**
+     * @return true when the client prefers JSON, wildcards included, to the other formats of the collections
+     */
+    static boolean acceptsJson(List<String> accept) {
+        if (accept == null || accept.isEmpty()) {
+            return true;
+        }
+        double json = 0;
+        double other = 0;
+        try {
+            for (MediaType mediaType : MediaType.parseMediaTypes(accept)) {
+                if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                    json = Math.max(json, mediaType.getQualityValue());
+                } else if (OTHER_FORMATS.stream().anyMatch(mediaType::isCompatibleWith)) {
+                    other = Math.max(other, mediaType.getQualityValue());
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            // left to the negotiation of spring
+            return false;
+        }
+        // ties are left to the negotiation of spring as well
+        return json > other;
+    }
+
+    /**
+     * @return true when the {@code Accept-Encoding} headers list gzip, or any encoding, without a zero quality
+     */
+    static boolean acceptsGzip(List<String> acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String header : acceptEncoding) {
+            for (String coding : header.split(",")) {
+                String[] parameters = coding.split(";");
+                String name = parameters[0].trim();
+                if (name.equalsIgnoreCase(GZIP) || name.equals("*")) {
+                    return parameters.length < 2 || !parameters[1].trim().matches("q=0(\\.0*)?");
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Collection served from the cache, and the id of its owner if any
+     */
+    public record Key(String collection, long id) {
+    }
+
+    /**
+     * Loads a collection on a cache miss
+     *
+     * @param <E> the exception thrown, such as {@link EntityNotFoundException} for the books of an unknown author
+     */
+    @FunctionalInterface
+    public interface Loader<T, E extends Exception> {
+        Collection<T> load() throws E;
+    }
+
+    /**
+     * Serialized collection, read-only buffers being shared by the requests: {@link #body(boolean)} returns a view
+     * with its own position.
+     */
+    private record Entry(long generation, String etag, ByteBuffer json, ByteBuffer gzip) {
+
+        ByteBuffer body(boolean gzip) {
+            return (gzip ? this.gzip : json).duplicate();
+        }
+
+        int size() {
+            return json.capacity() + gzip.capacity();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package fr.uga.l3miage.library.web;
+
+import fr.uga.l3miage.data.domain.Author;
+import fr.uga.l3miage.data.domain.Book;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Date;
+import java.util.function.ToLongFunction;
+
+/**
+ * Validators of the book and author representations, to answer conditional GET requests ({@code If-None-Match},
+ * {@code If-Modified-Since}) with a 304 before the entities are mapped and serialized.
+ * <p>
+ * A single resource gets a strong {@code ETag} derived from the version of its entity (and of its authors for a
+ * book, whose representation embeds them) and a {@code Last-Modified} date. A collection gets a weak {@code ETag}
+ * hashed from the ids and versions of its elements, in order: it changes when an element is added, removed or
+ * modified. Versions are combined with the modification dates, as a store started over hands out the same ids and
+ * versions again to other entities.
+ */
+public final class ConditionalRequests {
+
+    private ConditionalRequests() {
+        // utility class
+    }
+
+    /**
+     * Checks the validators of an author, setting them on the response.
+     *
+     * @return true when the client copy is up-to-date, the response status then being 304
+     */
+    public static boolean notModified(WebRequest request, Author author) {
+        return request.checkNotModified(etag(author), lastModified(author));
+    }
+
+    /**
+     * @see #notModified(WebRequest, Author)
+     */
+    public static boolean notModified(WebRequest request, Book book) {
+        return request.checkNotModified(etag(book), lastModified(book));
+    }
+
+    /**
+     * @see #notModified(WebRequest, Author)
+     */
+    public static boolean notModified(ServerWebExchange exchange, Author author) {
+        long lastModified = lastModified(author);
+        return lastModified < 0
+                ? exchange.checkNotModified(etag(author))
+                : exchange.checkNotModified(etag(author), Instant.ofEpochMilli(lastModified));
+    }
+
+    /**
+     * @see #notModified(WebRequest, Author)
+     */
+    public static boolean notModified(ServerWebExchange exchange, Book book) {
+        long lastModified = lastModified(book);
+        return lastModified < 0
+                ? exchange.checkNotModified(etag(book))
+                : exchange.checkNotModified(etag(book), Instant.ofEpochMilli(lastModified));
+    }
+
+    /**
+     * @return the strong ETag of an author
+     */
+    public static String etag(Author author) {
+        return quote(version(author));
+    }
+
+    /**
+     * @return the strong ETag of a book, covering its authors
+     */
+    public static String etag(Book book) {
+        return quote(version(book));
+    }
+
+    /**
+     * @return the weak ETag of a collection of authors
+     */
+    public static String authorsEtag(Collection<Author> authors) {
+        return weakEtag(authors, Author::getId, ConditionalRequests::version);
+    }
+
+    /**
+     * @return the weak ETag of a collection of books
+     */
+    public static String booksEtag(Collection<Book> books) {
+        return weakEtag(books, Book::getId, ConditionalRequests::version);
+    }
+
+    /**
+     * @return the last modification date of an author in milliseconds, -1 when unknown
+     */
+    public static long lastModified(Author author) {
+        return millis(author.getLastModified());
+    }
+
+    /**
+     * @return the last modification date of a book or of one of its authors in milliseconds, -1 when unknown
+     */
+    public static long lastModified(Book book) {
+        long lastModified = millis(book.getLastModified());
+        if (book.getAuthors() != null) {
+            for (Author author : book.getAuthors()) {
+                lastModified = Math.max(lastModified, lastModified(author));
+            }
+        }
+        return lastModified;
+    }
+
+    /**
+     * @return the version of an author combined with its modification date
+     */
+    static long version(Author author) {
+        return mix(mix(author.getVersion()) ^ millis(author.getLastModified()));
+    }
+
+    /**
+     * @return the version of a book combined with its modification date and the versions of its authors, whatever
+     * their order
+     */
+    static long version(Book book) {
+        long authors = 0;
+        if (book.getAuthors() != null) {
+            for (Author author : book.getAuthors()) {
+                authors += mix(mix(author.getId()) ^ version(author));
+            }
+        }
+        return mix(mix(book.getVersion()) ^ millis(book.getLastModified())) ^ authors;
+    }
+
+    private static <O> String weakEtag(Collection<O> objects, ToLongFunction<O> idOf, ToLongFunction<O> versionOf) {
+        long hash = objects.size();
+        for (O object : objects) {
+            hash = mix(hash ^ idOf.applyAsLong(object));
+            hash = mix(hash ^ versionOf.applyAsLong(object));
+        }
+        return "W/" + quote(hash);
+    }
+
+    /**
+     * Finalizer of the 64 bits murmur3 hash
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    private static String quote(long value) {
+        return "\"" + Long.toHexString(value) + "\"";
+    }
+
+    private static long millis(Date date) {
+        return date == null ? -1 : date.getTime();
+    }
+}
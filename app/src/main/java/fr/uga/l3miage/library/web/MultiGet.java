@@ -0,0 +1,63 @@
+package fr.uga.l3miage.library.web;
+
+import fr.uga.l3miage.library.reactive.ReactiveBaseService;
+import fr.uga.l3miage.library.service.base.BaseService;
+import fr.uga.l3miage.library.service.base.MultiGetResult;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Batch read of a collection resource by ids, either {@code GET /books?ids=1,2,3} or
+ * {@code POST /books:batchGet} with a {@code {"ids": [1, 2, 3]}} body for long lists, authors alike.
+ * <p>
+ * The objects are looked up at once by the service rather than one request each: the response holds those found,
+ * written as entities (see {@link CatalogueJsonModule}), and the ids of the missing ones, both in the order of the
+ * request. It answers 200 even when some or all of them are missing.
+ */
+public final class MultiGet {
+
+    public static final int MAX_IDS = 500;
+
+    private MultiGet() {
+        // utility class
+    }
+
+    /**
+     * Body of a {@code :batchGet} request
+     */
+    public record Request(List<Long> ids) {
+    }
+
+    /**
+     * @param ids the requested ids, at most {@value #MAX_IDS}
+     * @return the objects found and the missing ids
+     * @throws ResponseStatusException (400) when ids are missing, null or too many
+     */
+    public static <O> MultiGetResult<O, Long> get(List<Long> ids, BaseService<O, Long> service) {
+        return service.getAll(validate(ids));
+    }
+
+    /**
+     * Reactive counterpart of {@link #get(List, BaseService)}, the 400 being signalled as an error.
+     */
+    public static <O> Mono<MultiGetResult<O, Long>> get(List<Long> ids, ReactiveBaseService<O, Long> service) {
+        return Mono.fromCallable(() -> validate(ids)).flatMap(service::getAll);
+    }
+
+    private static List<Long> validate(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "ids are required");
+        }
+        if (ids.size() > MAX_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "at most " + MAX_IDS + " ids are allowed");
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "ids must not be null");
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,173 @@
+package fr.uga.l3miage.library.web;
+
+import fr.uga.l3miage.library.reactive.ReactiveBaseService;
+import fr.uga.l3miage.library.service.base.BaseService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Paginated listing of a collection resource.
+ * <p>
+ * Two flavours are supported: numbered pages ({@code ?page=2&limit=50}) and keyset cursors
+ * ({@code ?after=123&limit=50}), the latter costing the same whatever the position in the collection. Navigation
+ * is returned in a {@code Link} header ({@code rel="next"}, and {@code rel="prev"} for numbered pages), the cursor
+ * of the next page is also available in the {@value #NEXT_CURSOR} header.
+ */
+public final class Pagination {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 1000;
+    public static final String NEXT_CURSOR = "X-Next-Cursor";
+
+    private Pagination() {
+        // utility class
+    }
+
+    /**
+     * @return true when the client asked for a paginated response
+     */
+    public static boolean requested(Integer page, Integer limit, Long after) {
+        return page != null || limit != null || after != null;
+    }
+
+    /**
+     * Lists a page of a collection, either numbered or following a cursor.
+     *
+     * @param page    page number, starting at 0
+     * @param limit   page size, {@value #DEFAULT_LIMIT} by default and at most {@value #MAX_LIMIT}
+     * @param after   cursor: id of the last object of the previous page
+     * @param service service listing the objects
+     * @param idOf    gives the id of an object
+     * @param mapper  maps the object to its representation
+     * @param request the current request, answered with a 304 when the page did not change
+     * @param etagOf  gives the ETag of the page, see {@link ConditionalRequests}
+     * @return the page along with its navigation headers
+     * @throws ResponseStatusException (400) when parameters are invalid
+     */
+    public static <O, D> ResponseEntity<Collection<D>> list(Integer page, Integer limit, Long after,
+                                                            BaseService<O, Long> service,
+                                                            Function<O, Long> idOf,
+                                                            Function<O, D> mapper,
+                                                            WebRequest request,
+                                                            Function<List<O>, String> etagOf) {
+        int max = limit(page, limit, after);
+        List<O> objects = page != null ? service.list(page, max) : service.listAfter(after, max);
+        if (request.checkNotModified(etagOf.apply(objects))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        return ResponseEntity.ok()
+                .headers(navigation(ServletUriComponentsBuilder.fromCurrentRequest(), page, max, objects, idOf))
+                .body(objects.stream().map(mapper).toList());
+    }
+
+    /**
+     * Reactive counterpart of {@link #list(Integer, Integer, Long, BaseService, Function, Function, WebRequest,
+     * Function)}.
+     *
+     * @param exchange the current exchange, its request is the base of the navigation links
+     */
+    public static <O, D> Mono<ResponseEntity<Flux<D>>> list(Integer page, Integer limit, Long after,
+                                                            ReactiveBaseService<O, Long> service,
+                                                            Function<O, Long> idOf,
+                                                            Function<O, D> mapper,
+                                                            ServerWebExchange exchange,
+                                                            Function<List<O>, String> etagOf) {
+        int max = limit(page, limit, after);
+        Flux<O> objects = page != null ? service.list(page, max) : service.listAfter(after, max);
+        // a page is bounded by MAX_LIMIT, it is collected to know the next cursor before writing the headers
+        return objects.collectList().<ResponseEntity<Flux<D>>>map(list -> {
+            if (exchange.checkNotModified(etagOf.apply(list))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
+            return ResponseEntity.ok()
+                    .headers(navigation(UriComponentsBuilder.fromHttpRequest(exchange.getRequest()), page, max, list,
+                            idOf))
+                    .body(Flux.fromIterable(list).map(mapper));
+        });
+    }
+
+    /**
+     * Checks the pagination parameters.
+     *
+     * @return the page size
+     * @throws ResponseStatusException (400) when parameters are invalid
+     */
+    public static int limit(Integer page, Integer limit, Long after) {
+        int max = limit == null ? DEFAULT_LIMIT : limit;
+        if (max < 1 || max > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_LIMIT);
+        }
+        if (page != null && after != null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "page and after cannot be used together");
+        }
+        if (page != null && page < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "page must be positive");
+        }
+        if (page != null && !reachable(page, max)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "page is too far for this limit");
+        }
+        return max;
+    }
+
+    /**
+     * @return true when the offset of the page fits the int offsets of the services
+     */
+    private static boolean reachable(long page, int limit) {
+        return page * limit <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * Builds the navigation headers of a page.
+     *
+     * @param current the URI of the current request
+     * @param page    page number, null for a page following a cursor
+     * @param limit   page size
+     * @param objects objects of the page
+     * @param idOf    gives the id of an object
+     * @return the {@code Link} header, and the {@value #NEXT_CURSOR} header for cursor pages
+     */
+    public static <O> HttpHeaders navigation(UriComponentsBuilder current, Integer page, int limit, List<O> objects,
+                                             Function<O, Long> idOf) {
+        List<String> links = new ArrayList<>();
+        HttpHeaders headers = new HttpHeaders();
+        if (page != null) {
+            if (objects.size() == limit && reachable(page + 1L, limit)) {
+                links.add(link(current, "page", page + 1, limit, "next"));
+            }
+            if (page > 0) {
+                links.add(link(current, "page", page - 1, limit, "prev"));
+            }
+        } else if (objects.size() == limit) {
+            Long next = idOf.apply(objects.get(objects.size() - 1));
+            links.add(link(current, "after", next, limit, "next"));
+            headers.set(NEXT_CURSOR, String.valueOf(next));
+        }
+        if (!links.isEmpty()) {
+            headers.set(HttpHeaders.LINK, String.join(", ", links));
+        }
+        return headers;
+    }
+
+    private static String link(UriComponentsBuilder current, String param, Object value, int limit, String rel) {
+        String uri = current.cloneBuilder()
+                .replaceQueryParam("page")
+                .replaceQueryParam("after")
+                .replaceQueryParam(param, value)
+                .replaceQueryParam("limit", limit)
+                .toUriString();
+        return "<" + uri + ">; rel=\"" + rel + "\"";
+    }
+}
@@ -0,0 +1,79 @@
+package fr.uga.l3miage.library.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fr.uga.l3miage.data.domain.Author;
+import fr.uga.l3miage.library.authors.AuthorMapperImpl;
+import fr.uga.l3miage.library.books.BooksMapper;
+import fr.uga.l3miage.library.service.AuthorService;
+import fr.uga.l3miage.library.service.BookService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BulkImportControllerTest {
+
+    AuthorService authorService = mock(AuthorService.class);
+    BulkImportController controller = new BulkImportController(authorService, new AuthorMapperImpl(),
+            mock(BookService.class), mock(BooksMapper.class), new ObjectMapper(), 10);
+    List<String> saved = new ArrayList<>();
+    AtomicLong nextId = new AtomicLong(1);
+
+    @Test
+    void importsTheRecordsBeforeAnInvalidOne() {
+        when(authorService.saveAll(anyCollection())).thenAnswer(invocation -> save(invocation.getArgument(0)));
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> controller.importAuthors(
+                body("{\"fullName\": \"A\"}\n{\"fullName\": \"B\"}\n{\"fullName\": oops}\n{\"fullName\": \"D\"}\n")));
+
+        assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(e.getReason()).isEqualTo("invalid record at index 2, previous ones were imported");
+        // within the first, partial, batch
+        assertThat(saved).containsExactly("A", "B");
+    }
+
+    @Test
+    void retriesWithFreshEntities() {
+        when(authorService.saveAll(anyCollection())).thenAnswer(invocation -> {
+            Collection<Author> authors = invocation.getArgument(0);
+            if (authors.size() > 1) {
+                // rolled back, but the ids were assigned
+                authors.forEach(author -> author.setId(nextId.getAndIncrement()));
+                throw new IllegalArgumentException("rolled back");
+            }
+            assertThat(authors).allSatisfy(author -> assertThat(author.getId()).isNull());
+            return save(authors);
+        });
+
+        Collection<ImportResultDTO> results = controller.importAuthors(
+                body("{\"fullName\": \"A\"}\n{\"fullName\": \"B\"}\n"));
+
+        assertThat(results).extracting(ImportResultDTO::id).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(saved).containsExactly("A", "B");
+    }
+
+    private Collection<Author> save(Collection<Author> authors) {
+        for (Author author : authors) {
+            author.setId(nextId.getAndIncrement());
+            saved.add(author.getFullName());
+        }
+        return authors;
+    }
+
+    private static InputStream body(String ndjson) {
+        return new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,193 @@
+package fr.uga.l3miage.library.cache;
+
+import fr.uga.l3miage.data.domain.Author;
+import fr.uga.l3miage.data.domain.Book;
+import fr.uga.l3miage.library.service.AuthorService;
+import fr.uga.l3miage.library.service.BookService;
+import fr.uga.l3miage.library.service.EntityNotFoundException;
+import fr.uga.l3miage.library.service.base.MultiGetResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingServicesTest {
+
+    EntityCaches caches = new EntityCaches(100, Duration.ofMinutes(1));
+    AuthorService authorDelegate = mock(AuthorService.class);
+    BookService bookDelegate = mock(BookService.class);
+    CachingAuthorService authorService = new CachingAuthorService(authorDelegate, caches);
+    CachingBookService bookService = new CachingBookService(bookDelegate, caches);
+    ExecutorService executor = Executors.newCachedThreadPool();
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void readThrough() throws EntityNotFoundException {
+        Book book = book(1L, author(10L));
+        when(bookDelegate.get(1L)).thenReturn(book);
+
+        assertThat(bookService.get(1L)).isSameAs(book);
+        assertThat(bookService.get(1L)).isSameAs(book);
+
+        verify(bookDelegate, times(1)).get(1L);
+        assertThat(caches.books().stats().hitCount()).isEqualTo(1);
+        assertThat(caches.books().stats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void bookWritesEvictTheirAuthors() throws EntityNotFoundException {
+        Author author = author(10L);
+        Book book = book(1L, author);
+        when(authorDelegate.get(10L)).thenReturn(author);
+        when(bookDelegate.get(1L)).thenReturn(book);
+        authorService.get(10L);
+        bookService.get(1L);
+
+        bookService.update(book);
+
+        assertThat(caches.books().getIfPresent(1L)).isNull();
+        assertThat(caches.authors().getIfPresent(10L)).isNull();
+
+        authorService.get(10L);
+        bookService.save(10L, new Book());
+        assertThat(caches.authors().getIfPresent(10L)).isNull();
+    }
+
+    @Test
+    void authorWritesEvictTheirBooks() throws Exception {
+        Author author = author(10L);
+        when(bookDelegate.get(1L)).thenReturn(book(1L, author));
+        when(bookDelegate.get(2L)).thenReturn(book(2L, author(20L)));
+        bookService.get(1L);
+        bookService.get(2L);
+
+        authorService.delete(10L);
+
+        assertThat(caches.books().getIfPresent(1L)).isNull();
+        assertThat(caches.books().getIfPresent(2L)).isNotNull();
+    }
+
+    @Test
+    void booksAreIndexedByTheirCachedAuthors() throws Exception {
+        Author author = author(10L);
+        Author coAuthor = author(20L);
+        Book book = book(1L, author);
+        book.addAuthor(coAuthor);
+        when(bookDelegate.get(1L)).thenReturn(book);
+        when(bookDelegate.getAll(List.of(2L))).thenReturn(MultiGetResult.of(List.of(2L), List.of(book(2L, author))));
+        bookService.get(1L);
+        bookService.getAll(List.of(2L));
+
+        authorService.update(author);
+        assertThat(caches.books().asMap()).isEmpty();
+
+        // evicted books are no longer indexed by their other authors
+        bookService.get(1L);
+        bookService.update(book);
+        when(bookDelegate.get(1L)).thenReturn(book(1L, author(30L)));
+        bookService.get(1L);
+        authorService.update(coAuthor);
+        assertThat(caches.books().getIfPresent(1L)).isNotNull();
+    }
+
+    @Test
+    void notFoundIsNotCached() throws EntityNotFoundException {
+        when(bookDelegate.get(1L)).thenThrow(new EntityNotFoundException("Cannot find book with id: 1"));
+
+        assertThrows(EntityNotFoundException.class, () -> bookService.get(1L));
+
+        assertThat(caches.books().getIfPresent(1L)).isNull();
+    }
+
+    @Test
+    void evictionsWaitForTheLoadInFlight() throws Exception {
+        Book stale = book(1L, author(10L));
+        Book fresh = book(1L, author(10L));
+        when(bookDelegate.get(1L)).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return stale;
+        });
+        Future<Book> read = executor.submit(() -> bookService.get(1L));
+        loading.await();
+
+        Future<Book> write = executor.submit(() -> bookService.update(fresh));
+        // leaves the write the time to reach its eviction
+        Thread.sleep(50);
+        release.countDown();
+
+        assertThat(read.get(10, TimeUnit.SECONDS)).isSameAs(stale);
+        write.get(10, TimeUnit.SECONDS);
+        assertThat(caches.books().getIfPresent(1L)).isNull();
+    }
+
+    @Test
+    void evictionsByAuthorDropTheLoadInFlight() throws Exception {
+        Book stale = book(1L, author(10L));
+        when(bookDelegate.get(1L)).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return stale;
+        });
+        Future<Book> read = executor.submit(() -> bookService.get(1L));
+        loading.await();
+
+        authorService.update(author(10L));
+        release.countDown();
+
+        assertThat(read.get(10, TimeUnit.SECONDS)).isSameAs(stale);
+        assertThat(caches.books().getIfPresent(1L)).isNull();
+    }
+
+    @Test
+    void multiGetsDropWhatWasLoadedAcrossAnEviction() throws Exception {
+        Book stale = book(1L, author(10L));
+        when(bookDelegate.getAll(List.of(1L))).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return MultiGetResult.of(List.of(1L), List.of(stale));
+        });
+        Future<MultiGetResult<Book, Long>> read = executor.submit(() -> bookService.getAll(List.of(1L)));
+        loading.await();
+
+        bookService.update(book(1L, author(10L)));
+        release.countDown();
+
+        assertThat(read.get(10, TimeUnit.SECONDS).found()).containsExactly(stale);
+        assertThat(caches.books().getIfPresent(1L)).isNull();
+    }
+
+    private static Author author(Long id) {
+        Author author = new Author();
+        author.setId(id);
+        return author;
+    }
+
+    private static Book book(Long id, Author author) {
+        Book book = new Book();
+        book.setId(id);
+        book.addAuthor(author);
+        author.addBook(book);
+        return book;
+    }
+}
@@ -0,0 +1,159 @@
+package fr.uga.l3miage.library.cache;
+
+import fr.uga.l3miage.data.domain.Book;
+import fr.uga.l3miage.library.service.BookService;
+import fr.uga.l3miage.library.service.EntityNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SingleFlightAspectTest {
+
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    BookService delegate = mock(BookService.class);
+    List<Thread> threads = new ArrayList<>();
+    ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable);
+        threads.add(thread);
+        return thread;
+    });
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger calls = new AtomicInteger();
+    List<Book> books = List.of(new Book());
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void collapsesConcurrentCalls() throws Exception {
+        when(delegate.getByAuthor(anyLong())).thenAnswer(invocation -> {
+            calls.incrementAndGet();
+            release.await();
+            return books;
+        });
+        BookService bookService = proxy(Duration.ofSeconds(10));
+
+        List<Future<Collection<Book>>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(executor.submit(() -> bookService.getByAuthor(1L)));
+        }
+        awaitWaiting(3);
+        release.countDown();
+
+        for (Future<Collection<Book>> result : results) {
+            assertThat(result.get(10, TimeUnit.SECONDS)).isSameAs(books);
+        }
+        assertThat(calls).hasValue(1);
+        assertThat(count("getByAuthor", "leader")).isEqualTo(1);
+        assertThat(count("getByAuthor", "collapsed")).isEqualTo(2);
+
+        // landed: the next call runs again
+        bookService.getByAuthor(1L);
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void sharesExceptions() throws Exception {
+        when(delegate.getByAuthor(anyLong())).thenAnswer(invocation -> {
+            calls.incrementAndGet();
+            release.await();
+            throw new EntityNotFoundException("Cannot find author with id: 1");
+        });
+        BookService bookService = proxy(Duration.ofSeconds(10));
+
+        Future<Collection<Book>> first = executor.submit(() -> bookService.getByAuthor(1L));
+        Future<Collection<Book>> second = executor.submit(() -> bookService.getByAuthor(1L));
+        awaitWaiting(2);
+        release.countDown();
+
+        for (Future<Collection<Book>> result : List.of(first, second)) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+            assertThat(e.getCause()).isInstanceOf(EntityNotFoundException.class);
+        }
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void waitersGiveUp() throws Exception {
+        when(delegate.findByTitle("dune")).thenAnswer(invocation -> {
+            if (calls.incrementAndGet() == 1) {
+                release.await();
+            }
+            return books;
+        });
+        BookService bookService = proxy(Duration.ofMillis(50));
+
+        Future<Collection<Book>> slow = executor.submit(() -> bookService.findByTitle("dune"));
+        awaitWaiting(1);
+
+        assertThat(bookService.findByTitle("dune")).isSameAs(books);
+        assertThat(calls).hasValue(2);
+        assertThat(count("findByTitle", "timeout")).isEqualTo(1);
+        release.countDown();
+        assertThat(slow.get(10, TimeUnit.SECONDS)).isSameAs(books);
+    }
+
+    @Test
+    void writesEndFlights() throws Exception {
+        when(delegate.findByTitle("dune")).thenAnswer(invocation -> {
+            if (calls.incrementAndGet() == 1) {
+                release.await();
+            }
+            return books;
+        });
+        BookService bookService = proxy(Duration.ofSeconds(10));
+
+        Future<Collection<Book>> before = executor.submit(() -> bookService.findByTitle("dune"));
+        awaitWaiting(1);
+        bookService.update(new Book());
+
+        // not waiting for the call started before the write
+        assertThat(bookService.findByTitle("dune")).isSameAs(books);
+        assertThat(calls).hasValue(2);
+        assertThat(count("findByTitle", "leader")).isEqualTo(2);
+        release.countDown();
+        before.get(10, TimeUnit.SECONDS);
+    }
+
+    private BookService proxy(Duration timeout) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(delegate);
+        factory.addAspect(new SingleFlightAspect(registry, true, timeout));
+        return factory.getProxy();
+    }
+
+    /**
+     * Waits until the given number of threads is blocked, either in the service or waiting for its result
+     */
+    private void awaitWaiting(int count) throws InterruptedException {
+        while (threads.size() < count || threads.stream().anyMatch(thread -> thread.getState() != Thread.State.WAITING
+                && thread.getState() != Thread.State.TIMED_WAITING)) {
+            Thread.sleep(1);
+        }
+    }
+
+    private double count(String method, String outcome) {
+        return registry.counter(SingleFlightAspect.COUNTER, "method", method, "outcome", outcome).count();
+    }
+}
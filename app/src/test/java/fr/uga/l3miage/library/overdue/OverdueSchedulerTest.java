@@ -0,0 +1,132 @@
+package fr.uga.l3miage.library.overdue;
+
+import fr.uga.l3miage.data.domain.Borrow;
+import fr.uga.l3miage.library.service.BorrowService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OverdueSchedulerTest {
+
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+
+    BorrowService delegate = mock(BorrowService.class);
+    Map<Long, Borrow> borrows = new HashMap<>();
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    List<BorrowOverdueEvent> events = new ArrayList<>();
+    long now = 1_700_000_000_000L;
+
+    OverdueScheduler scheduler;
+    OverdueTrackingBorrowService borrowService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(delegate.get(anyLong())).thenAnswer(invocation -> borrows.get(invocation.<Long>getArgument(0)));
+        when(delegate.checkIn(anyLong())).thenAnswer(invocation -> {
+            Borrow borrow = borrows.get(invocation.<Long>getArgument(0));
+            borrow.setReturned(new Date(now));
+            return borrow;
+        });
+        when(delegate.update(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        borrowService = new OverdueTrackingBorrowService(delegate, beans.getBeanProvider(OverdueScheduler.class));
+        scheduler = scheduler(registry);
+        beans.addBean("overdueScheduler", scheduler);
+    }
+
+    @Test
+    void firesOverdueBorrowsOnce() throws Exception {
+        Borrow due = checkout(1L, now + HOUR);
+        Borrow returned = checkout(2L, now + HOUR);
+        Borrow extended = checkout(3L, now + HOUR);
+        checkout(4L, now + 48 * HOUR);
+        assertThat(scheduler.pending()).isEqualTo(4);
+        assertThat(registry.get(OverdueScheduler.PENDING).gauge().value()).isEqualTo(4);
+
+        borrowService.checkIn(returned.getId());
+        extended.setEnd(new Date(now + 24 * HOUR));
+        borrowService.update(extended);
+
+        scheduler.advance(now + HOUR - 1);
+        assertThat(events).isEmpty();
+        scheduler.advance(now + HOUR + 1500);
+        assertThat(events).extracting(event -> event.borrow().getId()).containsExactly(due.getId());
+        assertThat(registry.get(OverdueScheduler.LAG).timer().max(TimeUnit.MILLISECONDS)).isEqualTo(1500);
+
+        scheduler.advance(now + 25 * HOUR);
+        assertThat(events).extracting(event -> event.borrow().getId()).containsExactly(due.getId(), extended.getId());
+        assertThat(scheduler.pending()).isEqualTo(1);
+        assertThat(registry.get(OverdueScheduler.EVENTS).counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void checksTheStoreBeforeFiring() {
+        Borrow returned = borrow(1L, now + HOUR);
+        Borrow extended = borrow(2L, now + HOUR);
+        scheduler.schedule(returned);
+        scheduler.schedule(extended);
+        // changed without going through the service
+        returned.setReturned(new Date(now));
+        extended.setEnd(new Date(now + 2 * HOUR));
+
+        scheduler.advance(now + HOUR);
+        assertThat(events).isEmpty();
+        assertThat(scheduler.pending()).isEqualTo(1);
+        scheduler.advance(now + 2 * HOUR);
+        assertThat(events).extracting(event -> event.borrow().getId()).containsExactly(extended.getId());
+    }
+
+    @Test
+    void rebuildsFromActiveBorrows() {
+        Borrow overdue = borrow(1L, now - HOUR);
+        Borrow later = borrow(2L, now + HOUR);
+        when(delegate.listActive()).thenReturn(List.of(overdue, later));
+
+        OverdueScheduler restarted = scheduler(new SimpleMeterRegistry());
+        restarted.rebuild();
+        assertThat(restarted.pending()).isEqualTo(2);
+
+        restarted.advance(now);
+        assertThat(events).extracting(event -> event.borrow().getId()).containsExactly(overdue.getId());
+        assertThat(restarted.pending()).isEqualTo(1);
+    }
+
+    private OverdueScheduler scheduler(SimpleMeterRegistry registry) {
+        return new OverdueScheduler(borrowService, event -> events.add((BorrowOverdueEvent) event), registry,
+                Duration.ofSeconds(1), Clock.fixed(Instant.ofEpochMilli(now), ZoneOffset.UTC));
+    }
+
+    private Borrow checkout(Long id, long end) throws Exception {
+        Borrow borrow = borrow(id, end);
+        when(delegate.checkout(id, List.of(id), borrow.getEnd())).thenReturn(borrow);
+        return borrowService.checkout(id, List.of(id), borrow.getEnd());
+    }
+
+    private Borrow borrow(Long id, long end) {
+        Borrow borrow = new Borrow();
+        borrow.setId(id);
+        borrow.setStart(new Date(now));
+        borrow.setEnd(new Date(end));
+        borrows.put(id, borrow);
+        return borrow;
+    }
+}
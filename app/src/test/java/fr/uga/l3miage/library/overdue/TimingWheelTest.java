@@ -0,0 +1,109 @@
+package fr.uga.l3miage.library.overdue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    private static final long TICK = 1000;
+
+    @Test
+    void firesOnceDeadlineReached() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 0);
+        wheel.schedule(2500, "a");
+        wheel.schedule(2000, "b");
+        assertThat(wheel.size()).isEqualTo(2);
+
+        assertThat(advance(wheel, 1999)).isEmpty();
+        assertThat(advance(wheel, 2000)).containsExactly("b");
+        // rounded up to the next tick, never early
+        assertThat(advance(wheel, 2999)).isEmpty();
+        assertThat(advance(wheel, 3000)).containsExactly("a");
+        assertThat(advance(wheel, 100_000)).isEmpty();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void pastDeadlinesFireOnNextAdvance() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 10_000);
+        wheel.schedule(5000, "late");
+        wheel.schedule(10_000, "now");
+        assertThat(advance(wheel, 10_000)).containsExactlyInAnyOrder("late", "now");
+    }
+
+    @Test
+    void cancel() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 0);
+        TimingWheel.Timeout<String> cancelled = wheel.schedule(5000, "cancelled");
+        wheel.schedule(5000, "kept");
+        wheel.cancel(cancelled);
+        wheel.cancel(cancelled);
+
+        assertThat(wheel.size()).isEqualTo(1);
+        assertThat(advance(wheel, 10_000)).containsExactly("kept");
+    }
+
+    @Test
+    void farDeadlines() {
+        TimingWheel<String> wheel = new TimingWheel<>(1, 0);
+        long beyondHorizon = (1L << 36) * 3 + 17;
+        wheel.schedule(beyondHorizon, "far");
+        wheel.schedule(Long.MAX_VALUE / 2, "never");
+
+        assertThat(advance(wheel, beyondHorizon - 1)).isEmpty();
+        assertThat(advance(wheel, beyondHorizon)).containsExactly("far");
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+
+    @Test
+    void matchesSortedDeadlines() {
+        Random random = new Random(42);
+        long start = 1_700_000_000_000L;
+        TimingWheel<Integer> wheel = new TimingWheel<>(TICK, start);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        Map<Integer, TimingWheel.Timeout<Integer>> timeouts = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            // from the past up to a few years ahead, most within a month
+            long deadline = start - 10_000 + (long) (Math.pow(random.nextDouble(), 4) * 100_000_000_000L);
+            deadlines.put(i, deadline);
+            timeouts.put(i, wheel.schedule(deadline, i));
+        }
+        for (int i = 0; i < 20_000; i += 7) {
+            wheel.cancel(timeouts.get(i));
+            deadlines.remove(i);
+        }
+
+        long now = start;
+        Map<Integer, Long> previousAdvance = new HashMap<>();
+        Map<Integer, Long> fired = new HashMap<>();
+        while (wheel.size() > 0) {
+            long previous = now;
+            now += 1 + (long) (Math.pow(random.nextDouble(), 8) * 100_000_000L);
+            long at = now;
+            wheel.advance(now, timeout -> {
+                assertThat(fired.put(timeout.value(), at)).isNull();
+                previousAdvance.put(timeout.value(), previous);
+            });
+        }
+        assertThat(fired.keySet()).isEqualTo(deadlines.keySet());
+        fired.forEach((id, at) -> {
+            long due = Math.floorDiv(deadlines.get(id) + TICK - 1, TICK) * TICK;
+            // fired by the first advance past its deadline, rounded up to a tick
+            assertThat(at).isGreaterThanOrEqualTo(deadlines.get(id)).isGreaterThanOrEqualTo(due);
+            assertThat(previousAdvance.get(id)).isLessThan(Math.max(due, start + 1));
+        });
+    }
+
+    private static List<String> advance(TimingWheel<String> wheel, long now) {
+        List<String> fired = new ArrayList<>();
+        wheel.advance(now, timeout -> fired.add(timeout.value()));
+        return fired;
+    }
+}
@@ -0,0 +1,67 @@
+package fr.uga.l3miage.library.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fr.uga.l3miage.data.domain.Author;
+import fr.uga.l3miage.data.domain.Book;
+import fr.uga.l3miage.library.authors.AuthorMapperImpl;
+import fr.uga.l3miage.library.books.BooksMapperImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogueJsonModuleTest {
+
+    ObjectMapper dtos = Jackson2ObjectMapperBuilder.json().build();
+    ObjectMapper entities = Jackson2ObjectMapperBuilder.json().modulesToInstall(new CatalogueJsonModule()).build();
+    BooksMapperImpl booksMapper = new BooksMapperImpl();
+    AuthorMapperImpl authorMapper = new AuthorMapperImpl();
+
+    @Test
+    void booksAsTheirDtos() throws JsonProcessingException {
+        Book dune = book(1L, "Dune", "Ace", Book.Language.ENGLISH);
+        dune.setAuthors(new LinkedHashSet<>(List.of(author(10L, "Frank Herbert"), author(11L, "Brian \"Jr\" Herbert"))));
+        // escaped characters, nulls and no authors
+        Book odd = book(null, "Hypérion\n\t\\   📚", null, null);
+        Book empty = book(3L, "", "Folio", Book.Language.FRENCH);
+        empty.setAuthors(new LinkedHashSet<>());
+
+        for (Book book : List.of(dune, odd, empty)) {
+            assertThat(entities.writeValueAsBytes(book)).isEqualTo(dtos.writeValueAsBytes(booksMapper.entityToDTO(book)));
+        }
+        assertThat(entities.writeValueAsBytes(List.of(dune, empty)))
+                .isEqualTo(dtos.writeValueAsBytes(booksMapper.entityToDTO(List.of(dune, empty))));
+    }
+
+    @Test
+    void authorsAsTheirDtos() throws JsonProcessingException {
+        Author author = author(10L, "Ursula K. Le Guin");
+        author.setBooks(new LinkedHashSet<>(List.of(book(1L, "Earthsea", "Parnassus", Book.Language.ENGLISH))));
+
+        assertThat(entities.writeValueAsString(author)).isEqualTo(dtos.writeValueAsString(authorMapper.entityToDTO(author)));
+        assertThat(entities.writeValueAsString(author(null, null)))
+                .isEqualTo(dtos.writeValueAsString(authorMapper.entityToDTO(author(null, null))));
+    }
+
+    private static Book book(Long id, String title, String publisher, Book.Language language) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle(title);
+        book.setIsbn(9780441172719L);
+        book.setPublisher(publisher);
+        book.setYear((short) -44);
+        book.setLanguage(language);
+        return book;
+    }
+
+    private static Author author(Long id, String name) {
+        Author author = new Author();
+        author.setId(id);
+        author.setFullName(name);
+        return author;
+    }
+}
@@ -0,0 +1,107 @@
+package fr.uga.l3miage.library.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fr.uga.l3miage.data.domain.Author;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CollectionResponseCacheTest {
+
+    ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().modulesToInstall(new CatalogueJsonModule()).build();
+    CollectionResponseCache cache = new CollectionResponseCache(objectMapper, DataSize.ofMegabytes(1));
+    List<Author> authors = List.of(author(1L, "Ursula K. Le Guin"), author(2L, "Frank Herbert"));
+    AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void servedUntilInvalidated() throws IOException {
+        MockHttpServletResponse first = get(null, null);
+        assertThat(first.getContentAsByteArray()).isEqualTo(objectMapper.writeValueAsBytes(authors));
+        assertThat(first.getContentType()).isEqualTo("application/json");
+        assertThat(first.getContentLength()).isEqualTo(first.getContentAsByteArray().length);
+        assertThat(first.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+
+        MockHttpServletResponse gzipped = get("gzip, deflate", null);
+        assertThat(gzipped.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(new GZIPInputStream(new ByteArrayInputStream(gzipped.getContentAsByteArray())).readAllBytes())
+                .isEqualTo(first.getContentAsByteArray());
+
+        String etag = first.getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isEqualTo(ConditionalRequests.authorsEtag(authors));
+        assertThat(get(null, etag).getStatus()).isEqualTo(304);
+        assertThat(loads).hasValue(1);
+
+        cache.invalidate();
+        get(null, etag);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void leftToSpringUnlessJsonIsPreferred() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/authors");
+        request.addHeader(HttpHeaders.ACCEPT, "application/cbor");
+        assertThat(cache.serve(CollectionResponseCache.AUTHORS, this::load, ConditionalRequests::authorsEtag,
+                new ServletWebRequest(request, new MockHttpServletResponse()))).isFalse();
+        assertThat(loads).hasValue(0);
+
+        assertThat(CollectionResponseCache.acceptsJson(null)).isTrue();
+        assertThat(CollectionResponseCache.acceptsJson(List.of("*/*"))).isTrue();
+        assertThat(CollectionResponseCache.acceptsJson(List.of("text/html,application/xml;q=0.9,*/*;q=0.8"))).isTrue();
+        assertThat(CollectionResponseCache.acceptsJson(List.of("application/json, application/cbor;q=0.5"))).isTrue();
+        assertThat(CollectionResponseCache.acceptsJson(List.of("application/x-ndjson"))).isFalse();
+        assertThat(CollectionResponseCache.acceptsJson(List.of("application/json;q=0.5, application/cbor"))).isFalse();
+        assertThat(CollectionResponseCache.acceptsJson(List.of("text/html"))).isFalse();
+
+        assertThat(CollectionResponseCache.acceptsGzip(null)).isFalse();
+        assertThat(CollectionResponseCache.acceptsGzip(List.of("deflate, GZIP;q=0.5"))).isTrue();
+        assertThat(CollectionResponseCache.acceptsGzip(List.of("*"))).isTrue();
+        assertThat(CollectionResponseCache.acceptsGzip(List.of("gzip;q=0"))).isFalse();
+        assertThat(CollectionResponseCache.acceptsGzip(List.of("br"))).isFalse();
+    }
+
+    @Test
+    void disabled() throws IOException {
+        cache = new CollectionResponseCache(objectMapper, DataSize.ofBytes(0));
+        assertThat(cache.serve(CollectionResponseCache.AUTHORS, this::load, ConditionalRequests::authorsEtag,
+                new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse()))).isFalse();
+    }
+
+    private MockHttpServletResponse get(String acceptEncoding, String ifNoneMatch) throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/authors");
+        if (acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertThat(cache.serve(CollectionResponseCache.AUTHORS, this::load, ConditionalRequests::authorsEtag,
+                new ServletWebRequest(request, response))).isTrue();
+        return response;
+    }
+
+    private Collection<Author> load() {
+        loads.incrementAndGet();
+        return authors;
+    }
+
+    private static Author author(Long id, String fullName) {
+        Author author = new Author();
+        author.setId(id);
+        author.setFullName(fullName);
+        return author;
+    }
+}
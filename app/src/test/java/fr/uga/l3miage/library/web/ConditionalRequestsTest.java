@@ -0,0 +1,43 @@
+package fr.uga.l3miage.library.web;
+
+import fr.uga.l3miage.data.domain.Author;
+import fr.uga.l3miage.data.domain.Book;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConditionalRequestsTest {
+
+    @Test
+    void storesStartedOverGiveOtherEtags() {
+        // same ids and versions, handed out again after a restart
+        Book before = book(author(1_000L), 1_000L);
+        Book after = book(author(2_000L), 2_000L);
+
+        assertThat(ConditionalRequests.etag(after)).isNotEqualTo(ConditionalRequests.etag(before));
+        assertThat(ConditionalRequests.etag(after.getAuthors().iterator().next()))
+                .isNotEqualTo(ConditionalRequests.etag(before.getAuthors().iterator().next()));
+        assertThat(ConditionalRequests.etag(book(author(2_000L), 1_000L)))
+                .isNotEqualTo(ConditionalRequests.etag(before));
+        assertThat(ConditionalRequests.etag(book(author(1_000L), 1_000L))).isEqualTo(ConditionalRequests.etag(before));
+    }
+
+    private static Author author(long lastModified) {
+        Author author = new Author();
+        author.setId(1L);
+        author.setVersion(1);
+        author.setLastModified(new Date(lastModified));
+        return author;
+    }
+
+    private static Book book(Author author, long lastModified) {
+        Book book = new Book();
+        book.setId(5L);
+        book.setVersion(1);
+        book.setLastModified(new Date(lastModified));
+        book.addAuthor(author);
+        return book;
+    }
+}
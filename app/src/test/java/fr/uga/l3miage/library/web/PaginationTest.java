@@ -0,0 +1,37 @@
+package fr.uga.l3miage.library.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PaginationTest {
+
+    UriComponentsBuilder current = UriComponentsBuilder.fromUriString("http://localhost/api/v1/books");
+
+    @Test
+    void pagesPastAnIntOffsetAreRejected() {
+        assertThat(Pagination.limit(Integer.MAX_VALUE / 1000, 1000, null)).isEqualTo(1000);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> Pagination.limit(Integer.MAX_VALUE / 1000 + 1, 1000, null));
+        assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThrows(ResponseStatusException.class, () -> Pagination.limit(Integer.MAX_VALUE, 2, null));
+    }
+
+    @Test
+    void noNextLinkPastTheLastReachablePage() {
+        HttpHeaders headers = Pagination.navigation(current, Integer.MAX_VALUE, 1, List.of(1L), Function.identity());
+        assertThat(headers.getFirst(HttpHeaders.LINK)).contains("rel=\"prev\"").doesNotContain("rel=\"next\"");
+
+        headers = Pagination.navigation(current, 1, 1, List.of(1L), Function.identity());
+        assertThat(headers.getFirst(HttpHeaders.LINK)).contains("page=2", "rel=\"next\"");
+    }
+}
@@ -1,18 +1,37 @@
 package library;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import fr.uga.l3miage.library.LibraryApplication;
+import fr.uga.l3miage.library.export.ExportController;
+import fr.uga.l3miage.library.web.BinaryFormatsConfiguration;
+import fr.uga.l3miage.library.web.MultiGet;
+import fr.uga.l3miage.library.web.Pagination;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+@AutoConfigureObservability
 @SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, classes = LibraryApplication.class)
 class DemoApplicationTests {
 
@@ -42,4 +61,288 @@ class DemoApplicationTests {
         var list = this.restTemplate.getForObject("/api/v1/authors", List.class);
         assertThat(list).isNotEmpty();
     }
+
+    @Test
+    void authorsPagination() {
+        this.restTemplate.postForEntity("/api/v1/authors", Map.of("fullName", "Page One"), String.class);
+        this.restTemplate.postForEntity("/api/v1/authors", Map.of("fullName", "Page Two"), String.class);
+
+        ResponseEntity<List> first = this.restTemplate.getForEntity("/api/v1/authors?limit=1", List.class);
+        assertThat(first.getBody()).hasSize(1);
+        String cursor = first.getHeaders().getFirst(Pagination.NEXT_CURSOR);
+        assertThat(cursor).isNotNull();
+        assertThat(first.getHeaders().getFirst(HttpHeaders.LINK)).contains("after=" + cursor, "rel=\"next\"");
+
+        ResponseEntity<List> second = this.restTemplate.getForEntity("/api/v1/authors?limit=1&after=" + cursor, List.class);
+        assertThat(second.getBody()).hasSize(1).isNotEqualTo(first.getBody());
+
+        ResponseEntity<String> invalid = this.restTemplate.getForEntity("/api/v1/authors?limit=0", String.class);
+        assertThat(invalid.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void serviceMetrics() {
+        this.restTemplate.getForObject("/api/v1/authors", List.class);
+
+        String metrics = this.restTemplate.getForObject("/actuator/prometheus", String.class);
+        assertThat(metrics)
+                .contains("library_service_seconds_bucket{exception=\"none\",method=\"list\",service=\"AuthorService\"")
+                .contains("library_mapper_seconds_count{exception=\"none\"")
+                .contains("http_server_requests_seconds_bucket");
+    }
+
+    @Test
+    void conditionalGet() {
+        Map<?, ?> author = this.restTemplate.postForObject("/api/v1/authors", Map.of("fullName", "Etag Author"), Map.class);
+        Map<?, ?> book = this.restTemplate.postForObject("/api/v1/authors/" + author.get("id") + "/books",
+                Map.of("title", "Cached", "isbn", 9782266199261L, "publisher", "Folio", "year", 2008,
+                        "language", "french"), Map.class);
+        String uri = "/api/v1/books/" + book.get("id");
+
+        ResponseEntity<String> first = this.restTemplate.getForEntity(uri, String.class);
+        String etag = first.getHeaders().getETag();
+        assertThat(etag).isNotNull();
+        assertThat(first.getHeaders().getLastModified()).isPositive();
+        assertThat(conditionalGet(uri, etag).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+
+        this.restTemplate.put("/api/v1/authors/" + author.get("id"), Map.of("id", author.get("id"), "fullName", "Renamed"));
+        ResponseEntity<String> renamed = conditionalGet(uri, etag);
+        assertThat(renamed.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(renamed.getBody()).contains("Renamed");
+
+        String books = "/api/v1/authors/" + author.get("id") + "/books";
+        String weak = this.restTemplate.getForEntity(books, String.class).getHeaders().getETag();
+        assertThat(weak).startsWith("W/");
+        assertThat(conditionalGet(books, weak).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        this.restTemplate.delete(uri);
+        assertThat(conditionalGet(books, weak).getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void isbn() {
+        Map<?, ?> author = this.restTemplate.postForObject("/api/v1/authors", Map.of("fullName", "Scanned"), Map.class);
+        Map<String, Object> dune = Map.of("title", "Dune", "isbn", 9780441172719L, "publisher", "Ace", "year", 1990,
+                "language", "english");
+        Map<?, ?> book = this.restTemplate.postForObject("/api/v1/authors/" + author.get("id") + "/books", dune,
+                Map.class);
+
+        Map<?, ?> found = this.restTemplate.getForObject("/api/v1/books/isbn/9780441172719", Map.class);
+        assertThat(found.get("id")).isEqualTo(book.get("id"));
+        assertThat(this.restTemplate.getForEntity("/api/v1/books/isbn/9780441172720", String.class).getStatusCode())
+                .isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(this.restTemplate.postForEntity("/api/v1/authors/" + author.get("id") + "/books", dune,
+                String.class).getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+
+        Map<?, ?> seed = this.restTemplate.getForObject("/api/v1/books/-1", Map.class);
+        Map<String, Object> taken = Map.of("id", book.get("id"), "title", "Dune", "isbn", seed.get("isbn"),
+                "publisher", "Ace", "year", 1990, "language", "english");
+        assertThat(this.restTemplate.exchange("/api/v1/books/" + book.get("id"), HttpMethod.PUT,
+                new HttpEntity<>(taken), String.class).getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        // left unchanged by the rejected update
+        assertThat(this.restTemplate.getForObject("/api/v1/books/" + book.get("id"), Map.class).get("isbn"))
+                .isEqualTo(9780441172719L);
+        assertThat(this.restTemplate.getForObject("/api/v1/books/isbn/9780441172719", Map.class).get("id"))
+                .isEqualTo(book.get("id"));
+    }
+
+    @Test
+    void search() {
+        Map<?, ?> author = this.restTemplate.postForObject("/api/v1/authors", Map.of("fullName", "Dan Simmons"),
+                Map.class);
+        String books = "/api/v1/authors/" + author.get("id") + "/books";
+        this.restTemplate.postForObject(books, Map.of("title", "Hyperion", "isbn", 9780553283686L,
+                "publisher", "Bantam", "year", 1989, "language", "english"), Map.class);
+        this.restTemplate.postForObject(books, Map.of("title", "The Fall of Hyperion", "isbn", 9780553288209L,
+                "publisher", "Bantam", "year", 1990, "language", "english"), Map.class);
+        this.restTemplate.postForObject(books, Map.of("title", "Hypérion", "isbn", 9782266111560L,
+                "publisher", "Pocket", "year", 1991, "language", "french"), Map.class);
+
+        Map<?, ?> result = this.restTemplate.getForObject(
+                "/api/v1/books/search?q=hyperion&language=english&yearFrom=1990", Map.class);
+        assertThat(result.get("total")).isEqualTo(1);
+        assertThat(((List<Map<?, ?>>) result.get("books")).get(0).get("title")).isEqualTo("The Fall of Hyperion");
+        Map<?, ?> facets = (Map<?, ?>) result.get("facets");
+        assertThat(facets.get("languages")).isEqualTo(Map.of("english", 1));
+        assertThat(facets.get("publishers")).isEqualTo(Map.of("Bantam", 1));
+        assertThat(facets.get("decades")).isEqualTo(Map.of("1980", 1, "1990", 1));
+
+        assertThat(this.restTemplate.getForEntity("/api/v1/books/search?language=klingon", String.class)
+                .getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(this.restTemplate.getForEntity("/api/v1/books/search?page=" + Integer.MAX_VALUE + "&limit=2",
+                String.class).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void binaryFormats() throws IOException {
+        Map<?, ?> author = this.restTemplate.postForObject("/api/v1/authors", Map.of("fullName", "Binary Servlet"),
+                Map.class);
+        this.restTemplate.postForObject("/api/v1/authors/" + author.get("id") + "/books", Map.of("title", "Encoded Bits",
+                "isbn", 9780131103628L, "publisher", "Bits", "year", 1978, "language", "english"), Map.class);
+
+        for (String uri : List.of("/api/v1/books?query=encoded bits", "/api/v1/authors?q=binary servlet")) {
+            List<?> json = this.restTemplate.exchange(uri, HttpMethod.GET, accept(MediaType.APPLICATION_JSON_VALUE),
+                    List.class).getBody();
+            assertThat(json).hasSize(1);
+            assertThat(decode(uri, BinaryFormatsConfiguration.CBOR, new ObjectMapper(new CBORFactory())))
+                    .isEqualTo(json);
+            assertThat(decode(uri, BinaryFormatsConfiguration.SMILE, new ObjectMapper(new SmileFactory())))
+                    .isEqualTo(json);
+        }
+    }
+
+    @Test
+    void cachedCollections() throws IOException {
+        HttpHeaders gzip = new HttpHeaders();
+        gzip.setAccept(List.of(MediaType.APPLICATION_JSON));
+        gzip.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        ResponseEntity<byte[]> compressed = this.restTemplate.exchange("/api/v1/books", HttpMethod.GET,
+                new HttpEntity<>(gzip), byte[].class);
+        assertThat(compressed.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        // served by CollectionResponseCache, rather than compressed by tomcat
+        assertThat(compressed.getHeaders().getVary()).containsExactly(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        byte[] json = new GZIPInputStream(new ByteArrayInputStream(compressed.getBody())).readAllBytes();
+        List<?> books = new ObjectMapper().readValue(json, List.class);
+
+        // a write invalidates the cached lists
+        Map<?, ?> author = this.restTemplate.postForObject("/api/v1/authors", Map.of("fullName", "Cached"), Map.class);
+        String authorBooks = "/api/v1/authors/" + author.get("id") + "/books";
+        assertThat(this.restTemplate.exchange(authorBooks, HttpMethod.GET, accept(MediaType.APPLICATION_JSON_VALUE),
+                List.class).getBody()).isEmpty();
+        this.restTemplate.postForObject(authorBooks, Map.of("title", "Cached Book", "isbn", 9780131103629L,
+                "publisher", "Cache", "year", 2001, "language", "english"), Map.class);
+
+        assertThat(this.restTemplate.exchange(authorBooks, HttpMethod.GET, accept(MediaType.APPLICATION_JSON_VALUE),
+                List.class).getBody()).hasSize(1);
+        ResponseEntity<List> plain = this.restTemplate.exchange("/api/v1/books", HttpMethod.GET,
+                accept(MediaType.APPLICATION_JSON_VALUE), List.class);
+        assertThat(plain.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(plain.getBody()).hasSize(books.size() + 1);
+    }
+
+    @Test
+    void multiGet() {
+        Map<?, ?> author = this.restTemplate.postForObject("/api/v1/authors", Map.of("fullName", "Multi Get"), Map.class);
+        String authorBooks = "/api/v1/authors/" + author.get("id") + "/books";
+        Map<?, ?> first = this.restTemplate.postForObject(authorBooks, Map.of("title", "First Batch",
+                "isbn", 9780131103640L, "publisher", "Batch", "year", 2002, "language", "english"), Map.class);
+        Map<?, ?> second = this.restTemplate.postForObject(authorBooks, Map.of("title", "Second Batch",
+                "isbn", 9780131103641L, "publisher", "Batch", "year", 2003, "language", "french"), Map.class);
+
+        Map<?, ?> books = this.restTemplate.getForObject("/api/v1/books?ids={ids}", Map.class,
+                second.get("id") + ",424242," + first.get("id"));
+        assertThat((List<Map<String, Object>>) books.get("found")).extracting(book -> book.get("title"))
+                .containsExactly("Second Batch", "First Batch");
+        assertThat(books.get("missing")).isEqualTo(List.of(424242));
+
+        Map<?, ?> authors = this.restTemplate.postForObject("/api/v1/authors:batchGet",
+                Map.of("ids", List.of(424242, author.get("id"))), Map.class);
+        assertThat((List<Map<String, Object>>) authors.get("found")).extracting(found -> found.get("fullName"))
+                .containsExactly("Multi Get");
+        assertThat(authors.get("missing")).isEqualTo(List.of(424242));
+
+        assertThat(this.restTemplate.postForEntity("/api/v1/books:batchGet", Map.of("ids", List.of()), String.class)
+                .getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(this.restTemplate.getForEntity("/api/v1/books?ids={ids}", String.class,
+                LongStream.rangeClosed(1, MultiGet.MAX_IDS + 1).mapToObj(Long::toString).collect(Collectors.joining(",")))
+                .getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    private List<?> decode(String uri, String mediaType, ObjectMapper mapper) throws IOException {
+        ResponseEntity<byte[]> response = this.restTemplate.exchange(uri, HttpMethod.GET, accept(mediaType),
+                byte[].class);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.parseMediaType(mediaType));
+        return mapper.readValue(response.getBody(), List.class);
+    }
+
+    private static HttpEntity<Void> accept(String mediaType) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.parseMediaType(mediaType)));
+        return new HttpEntity<>(headers);
+    }
+
+    @Test
+    void borrows() {
+        Map<?, ?> author = this.restTemplate.postForObject("/api/v1/authors", Map.of("fullName", "Lent"), Map.class);
+        Map<?, ?> book = this.restTemplate.postForObject("/api/v1/authors/" + author.get("id") + "/books",
+                Map.of("title", "Borrowed", "isbn", 9782266199262L, "publisher", "Folio", "year", 2008,
+                        "language", "french"), Map.class);
+        ResponseEntity<Map> borrower = this.restTemplate.postForEntity("/api/v1/borrowers",
+                Map.of("firstName", "Ada", "lastName", "Lovelace"), Map.class);
+        assertThat(borrower.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        String borrows = "/api/v1/borrowers/" + borrower.getBody().get("id") + "/borrows";
+        Map<String, Object> checkout = Map.of("books", List.of(book.get("id")), "end", "2099-01-01");
+
+        ResponseEntity<Map> borrow = this.restTemplate.postForEntity(borrows, checkout, Map.class);
+        assertThat(borrow.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(borrow.getBody().get("books")).isEqualTo(List.of(book.get("id")));
+        assertThat(borrow.getBody().get("returned")).isNull();
+        assertThat(this.restTemplate.postForEntity(borrows, checkout, String.class).getStatusCode())
+                .isEqualTo(HttpStatus.CONFLICT);
+        assertThat(this.restTemplate.getForObject("/api/v1/books/" + book.get("id") + "/availability", Map.class))
+                .containsEntry("available", false);
+
+        String returned = "/api/v1/borrows/" + borrow.getBody().get("id") + "/return";
+        Map<?, ?> closed = this.restTemplate.exchange(returned, HttpMethod.PUT, null, Map.class).getBody();
+        assertThat(closed.get("returned")).isNotNull();
+        assertThat(this.restTemplate.postForEntity(borrows, checkout, String.class).getStatusCode())
+                .isEqualTo(HttpStatus.CREATED);
+        assertThat(this.restTemplate.getForObject(borrows, List.class)).hasSize(2);
+        assertThat(this.restTemplate.getForObject("/api/v1/borrowers/" + borrower.getBody().get("id"), Map.class))
+                .containsEntry("returnedBorrows", 1)
+                .containsEntry("lateBorrows", 0);
+        assertThat(this.restTemplate.postForObject("/api/v1/borrowers/late-ratios", null, Map.class))
+                .containsKey("borrowers");
+
+        assertThat(this.restTemplate.postForEntity("/api/v1/borrowers/-42/borrows", checkout, String.class)
+                .getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(this.restTemplate.postForEntity("/api/v1/borrowers", Map.of("firstName", "Ada"), String.class)
+                .getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    private ResponseEntity<String> conditionalGet(String uri, String etag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(etag);
+        return this.restTemplate.exchange(uri, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+
+    @Test
+    void exportAuthors() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.parseMediaType(ExportController.NDJSON)));
+        ResponseEntity<String> lines = this.restTemplate.exchange("/api/v1/export/authors", HttpMethod.GET,
+                new HttpEntity<>(headers), String.class);
+        assertThat(lines.getBody()).endsWith("\n");
+        assertThat(lines.getBody().lines()).allMatch(line -> line.startsWith("{\"id\":"));
+
+        var array = this.restTemplate.getForObject("/api/v1/export/authors", List.class);
+        assertThat(array).hasSize((int) lines.getBody().lines().count());
+    }
+
+    @Test
+    void importBooks() {
+        var author = this.restTemplate.postForObject("/api/v1/authors", Map.of("fullName", "Bulk"), Map.class);
+        String book = """
+                {"title": "%s", "isbn": %s, "publisher": "Folio", "year": 2008, "language": "french", "authors": [{"id": %s}]}
+                """;
+        String body = book.formatted("One", 9782266199263L, author.get("id"))
+                + book.formatted("Two", 9782266199264L, author.get("id")).replace("2008", "208")
+                + book.formatted("Three", 9782266199265L, 123456789)
+                + book.formatted("Four", 9782266199266L, author.get("id"))
+                + book.formatted("Five", 9782266199263L, author.get("id"));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(ExportController.NDJSON));
+        List<Map<String, Object>> results = this.restTemplate.exchange("/api/v1/import/books", HttpMethod.POST,
+                new HttpEntity<>(body, headers), List.class).getBody();
+
+        assertThat(results).hasSize(5);
+        assertThat(results.get(0)).containsKey("id");
+        assertThat(results.get(1)).containsKey("error");
+        assertThat(results.get(2)).containsKey("error");
+        assertThat(results.get(3)).containsKey("id");
+        // same ISBN as the first one
+        assertThat(results.get(4)).containsKey("error");
+        var books = this.restTemplate.getForObject("/api/v1/authors/" + author.get("id") + "/books", List.class);
+        assertThat(books).hasSize(2);
+    }
 }
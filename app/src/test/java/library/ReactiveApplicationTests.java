@@ -0,0 +1,210 @@
+package library;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import fr.uga.l3miage.library.LibraryApplication;
+import fr.uga.l3miage.library.authors.AuthorDTO;
+import fr.uga.l3miage.library.web.BinaryFormatsConfiguration;
+import fr.uga.l3miage.library.web.Pagination;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.web.embedded.netty.NettyWebServer;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("reactive")
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, classes = LibraryApplication.class)
+class ReactiveApplicationTests {
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private ReactiveWebServerApplicationContext context;
+
+    @Test
+    void servedByNetty() {
+        assertThat(context.getWebServer()).isInstanceOf(NettyWebServer.class);
+    }
+
+    @Test
+    void authorsAndBooks() {
+        AuthorDTO author = client.post().uri("/api/v1/authors")
+                .bodyValue(Map.of("fullName", "Reactive Author"))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(AuthorDTO.class).returnResult().getResponseBody();
+        assertThat(author.id()).isNotNull();
+
+        client.post().uri("/api/v1/authors/{id}/books", author.id())
+                .bodyValue(Map.of("title", "Reactive Streams", "isbn", 9781234567897L, "publisher", "Flux",
+                        "year", 2020, "language", "english"))
+                .exchange()
+                .expectStatus().isCreated();
+
+        client.get().uri("/api/v1/authors/{id}/books", author.id())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$[0].title").isEqualTo("Reactive Streams");
+
+        client.get().uri("/api/v1/books/isbn/9781234567897")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.title").isEqualTo("Reactive Streams");
+        client.post().uri("/api/v1/authors/{id}/books", author.id())
+                .bodyValue(Map.of("title", "Same ISBN", "isbn", 9781234567897L, "publisher", "Flux",
+                        "year", 2020, "language", "english"))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT);
+
+        client.get().uri("/api/v1/books/search?q=reactive&publisher=Flux&yearTo=2020")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.total").isEqualTo(1)
+                .jsonPath("$.books[0].title").isEqualTo("Reactive Streams")
+                .jsonPath("$.facets.languages.english").isEqualTo(1);
+
+        client.get().uri("/api/v1/books?query=reactive streams")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).value(body -> assertThat(body).contains("\"Reactive Streams\"").endsWith("\n"));
+
+        String etag = client.get().uri("/api/v1/authors/{id}/books", author.id())
+                .exchange()
+                .returnResult(String.class).getResponseHeaders().getETag();
+        client.get().uri("/api/v1/authors/{id}/books", author.id())
+                .ifNoneMatch(etag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        client.delete().uri("/api/v1/authors/{id}", author.id()).exchange().expectStatus().isNoContent();
+        client.get().uri("/api/v1/authors/{id}", author.id()).exchange().expectStatus().isNotFound();
+    }
+
+    @Test
+    void authorsPagination() {
+        client.post().uri("/api/v1/authors").bodyValue(Map.of("fullName", "Page One")).exchange();
+        client.post().uri("/api/v1/authors").bodyValue(Map.of("fullName", "Page Two")).exchange();
+
+        HttpHeaders headers = client.get().uri("/api/v1/authors?limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.length()").isEqualTo(1)
+                .returnResult().getResponseHeaders();
+        String cursor = headers.getFirst(Pagination.NEXT_CURSOR);
+        assertThat(cursor).isNotNull();
+        assertThat(headers.getFirst(HttpHeaders.LINK)).contains("after=" + cursor, "rel=\"next\"");
+
+        client.get().uri("/api/v1/authors?limit=0").exchange().expectStatus().isBadRequest();
+    }
+
+    @Test
+    void binaryFormats() throws IOException {
+        AuthorDTO author = client.post().uri("/api/v1/authors")
+                .bodyValue(Map.of("fullName", "Binary Reactive"))
+                .exchange()
+                .expectBody(AuthorDTO.class).returnResult().getResponseBody();
+        client.post().uri("/api/v1/authors/{id}/books", author.id())
+                .bodyValue(Map.of("title", "Encoded Streams", "isbn", 9780131103627L, "publisher", "Bits",
+                        "year", 1978, "language", "english"))
+                .exchange()
+                .expectStatus().isCreated();
+
+        for (String uri : List.of("/api/v1/books?query=encoded streams", "/api/v1/authors?q=binary reactive")) {
+            List<?> json = client.get().uri(uri)
+                    .accept(MediaType.APPLICATION_JSON)
+                    .exchange()
+                    .expectBody(List.class).returnResult().getResponseBody();
+            assertThat(json).hasSize(1);
+            assertThat(decode(uri, BinaryFormatsConfiguration.CBOR, new ObjectMapper(new CBORFactory())))
+                    .isEqualTo(json);
+            assertThat(decode(uri, BinaryFormatsConfiguration.SMILE, new ObjectMapper(new SmileFactory())))
+                    .isEqualTo(json);
+        }
+    }
+
+    @Test
+    void cachedCollections() {
+        AuthorDTO author = client.post().uri("/api/v1/authors")
+                .bodyValue(Map.of("fullName", "Cached Reactive"))
+                .exchange()
+                .expectBody(AuthorDTO.class).returnResult().getResponseBody();
+        client.get().uri("/api/v1/authors/{id}/books", author.id())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.length()").isEqualTo(0);
+
+        // a write invalidates the cached lists
+        client.post().uri("/api/v1/authors/{id}/books", author.id())
+                .bodyValue(Map.of("title", "Cached Streams", "isbn", 9780131103630L, "publisher", "Cache",
+                        "year", 2001, "language", "english"))
+                .exchange()
+                .expectStatus().isCreated();
+        client.get().uri("/api/v1/authors/{id}/books", author.id())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.VARY, "Accept, Accept-Encoding")
+                .expectBody().jsonPath("$[0].title").isEqualTo("Cached Streams");
+        client.get().uri("/api/v1/authors/{id}/books", -42)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void multiGet() {
+        AuthorDTO author = client.post().uri("/api/v1/authors")
+                .bodyValue(Map.of("fullName", "Reactive Batch"))
+                .exchange()
+                .expectBody(AuthorDTO.class).returnResult().getResponseBody();
+        Map<?, ?> book = client.post().uri("/api/v1/authors/{id}/books", author.id())
+                .bodyValue(Map.of("title", "Batched Streams", "isbn", 9780131103642L, "publisher", "Batch",
+                        "year", 2004, "language", "english"))
+                .exchange()
+                .expectBody(Map.class).returnResult().getResponseBody();
+
+        client.get().uri("/api/v1/books?ids={first},{second}", 424242, book.get("id"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.found[0].title").isEqualTo("Batched Streams")
+                .jsonPath("$.missing.length()").isEqualTo(1)
+                .jsonPath("$.missing[0]").isEqualTo(424242);
+        client.post().uri("/api/v1/authors:batchGet")
+                .bodyValue(Map.of("ids", List.of(author.id(), 424242)))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.found[0].fullName").isEqualTo("Reactive Batch")
+                .jsonPath("$.missing.length()").isEqualTo(1)
+                .jsonPath("$.missing[0]").isEqualTo(424242);
+        client.post().uri("/api/v1/authors:batchGet")
+                .bodyValue(Map.of("ids", List.of()))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private List<?> decode(String uri, String mediaType, ObjectMapper mapper) throws IOException {
+        byte[] body = client.get().uri(uri)
+                .accept(MediaType.parseMediaType(mediaType))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(mediaType)
+                .expectBody().returnResult().getResponseBody();
+        return mapper.readValue(body, List.class);
+    }
+}
@@ -0,0 +1,63 @@
+package fr.uga.l3miage.library.benchmarks;
+
+import fr.uga.l3miage.data.domain.Author;
+import fr.uga.l3miage.library.service.DeleteAuthorException;
+import fr.uga.l3miage.library.service.EntityNotFoundException;
+import fr.uga.l3miage.library.service.mock.AuthorServiceMockImpl;
+import fr.uga.l3miage.library.service.mock.BookServiceMockImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletion of an author having {@code books} books, in a catalogue of 100 000 other books. Each measurement is a
+ * single deletion, a new author being created before each one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 20)
+@Measurement(iterations = 50)
+public class AuthorDeleteBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    int books;
+
+    AuthorServiceMockImpl authorService;
+    BookServiceMockImpl bookService;
+    Catalogue catalogue;
+    Author author;
+
+    @Setup(Level.Trial)
+    public void populate() throws EntityNotFoundException {
+        authorService = new AuthorServiceMockImpl();
+        bookService = new BookServiceMockImpl();
+        catalogue = new Catalogue(42);
+        catalogue.populate(authorService, bookService, 10_000, 100_000);
+    }
+
+    @Setup(Level.Iteration)
+    public void newAuthor() throws EntityNotFoundException {
+        author = authorService.save(catalogue.author());
+        for (int i = 0; i < books; i++) {
+            bookService.save(author.getId(), catalogue.book());
+        }
+    }
+
+    @Benchmark
+    public void delete() throws EntityNotFoundException, DeleteAuthorException {
+        authorService.delete(author.getId());
+    }
+}
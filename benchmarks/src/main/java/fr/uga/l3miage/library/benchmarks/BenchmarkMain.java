@@ -0,0 +1,26 @@
+package fr.uga.l3miage.library.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the JMH benchmarks, results are written as JSON to {@value #DEFAULT_RESULT} unless another result format is
+ * given with {@code -rf}. Every JMH option is accepted (e.g. {@code -t 8} for the number of threads, {@code -p
+ * size=1000} to set a parameter, a regexp to select benchmarks), {@code -h} lists them.
+ */
+public final class BenchmarkMain {
+
+    static final String DEFAULT_RESULT = "jmh-result.json";
+
+    private BenchmarkMain() {
+        // main class
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> options = new ArrayList<>(List.of(args));
+        if (!options.contains("-rf")) {
+            options.addAll(0, List.of("-rf", "json", "-rff", DEFAULT_RESULT));
+        }
+        org.openjdk.jmh.Main.main(options.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,95 @@
+package fr.uga.l3miage.library.benchmarks;
+
+import fr.uga.l3miage.data.domain.Author;
+import fr.uga.l3miage.data.domain.Book;
+import fr.uga.l3miage.library.service.AuthorService;
+import fr.uga.l3miage.library.service.BookService;
+import fr.uga.l3miage.library.service.EntityNotFoundException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates a reproducible catalogue of authors and books.
+ */
+final class Catalogue {
+
+    private static final String[] WORDS = {
+            "the", "art", "of", "winter", "lighthouse", "garden", "silent", "river", "empire", "shadow", "city",
+            "night", "machine", "dream", "last", "first", "song", "stone", "glass", "ocean", "memory", "fire",
+            "north", "island", "letters", "war", "peace", "house", "forest", "star", "time", "road"
+    };
+    private static final String[] NAMES = {
+            "Victor", "Ursula", "Iain", "Octavia", "William", "Marguerite", "Jules", "Virginia", "Italo", "Toni",
+            "Hugo", "Le Guin", "Banks", "Butler", "Gibson", "Duras", "Verne", "Woolf", "Calvino", "Morrison"
+    };
+
+    private static final String[] PUBLISHERS = {
+            "Folio", "Gallimard", "Pocket", "Seuil", "Ace", "Tor", "Penguin", "Vintage"
+    };
+
+    /**
+     * ISBNs are unique among the books of the store
+     */
+    private static final AtomicLong nextIsbn = new AtomicLong(9_780_000_000_000L);
+
+    private final Random random;
+
+    Catalogue(long seed) {
+        this.random = new Random(seed);
+    }
+
+    String title() {
+        int words = 2 + random.nextInt(4);
+        StringBuilder title = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                title.append(' ');
+            }
+            title.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return Character.toUpperCase(title.charAt(0)) + title.substring(1);
+    }
+
+    String name() {
+        return NAMES[random.nextInt(NAMES.length / 2)] + " " + NAMES[NAMES.length / 2 + random.nextInt(NAMES.length / 2)]
+                + " " + random.nextInt(1000);
+    }
+
+    Author author() {
+        Author author = new Author();
+        author.setFullName(name());
+        return author;
+    }
+
+    Book book() {
+        Book book = new Book();
+        book.setTitle(title());
+        long isbn = nextIsbn.getAndIncrement();
+        book.setIsbn(isbn);
+        // not drawn, so that the titles do not change with the publishers
+        book.setPublisher(PUBLISHERS[(int) (isbn % PUBLISHERS.length)]);
+        book.setYear((short) (1900 + random.nextInt(124)));
+        book.setLanguage(random.nextBoolean() ? Book.Language.FRENCH : Book.Language.ENGLISH);
+        return book;
+    }
+
+    /**
+     * Saves authors, and books spread among them
+     *
+     * @return the saved authors
+     */
+    List<Author> populate(AuthorService authorService, BookService bookService, int authors, int books)
+            throws EntityNotFoundException {
+        List<Author> saved = new ArrayList<>(authors);
+        for (int i = 0; i < authors; i++) {
+            saved.add(authorService.save(author()));
+        }
+        for (int i = 0; i < books; i++) {
+            bookService.save(saved.get(random.nextInt(authors)).getId(), book());
+        }
+        return saved;
+    }
+}
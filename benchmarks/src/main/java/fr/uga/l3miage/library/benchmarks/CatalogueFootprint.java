@@ -0,0 +1,50 @@
+package fr.uga.l3miage.library.benchmarks;
+
+import fr.uga.l3miage.library.service.mock.AuthorServiceMockImpl;
+import fr.uga.l3miage.library.service.mock.BookServiceMockImpl;
+import fr.uga.l3miage.library.service.mock.ColumnarBooks;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+/**
+ * Heap taken by the books of the mock store, stored as objects or in columns ({@code columnar}): the catalogue is
+ * populated with {@code books} books (and a tenth as many authors), then the heap used after a full GC is compared to
+ * the one before. The indexes of the store (titles, author/book association) are included, being the same in both
+ * cases.
+ * <pre>
+ * java -Xmx3g -cp benchmarks/target/benchmarks.jar fr.uga.l3miage.library.benchmarks.CatalogueFootprint \
+ *     [objects|columnar] [books=1000000]
+ * </pre>
+ */
+public final class CatalogueFootprint {
+
+    private CatalogueFootprint() {
+        // main class
+    }
+
+    public static void main(String[] args) throws Exception {
+        boolean columnar = "columnar".equals(args.length > 0 ? args[0] : "objects");
+        int books = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+
+        AuthorServiceMockImpl authorService = new AuthorServiceMockImpl();
+        BookServiceMockImpl bookService = new BookServiceMockImpl();
+        if (columnar) {
+            new ColumnarBooks().install();
+        }
+        long before = usedHeap();
+        new Catalogue(42).populate(authorService, bookService, Math.max(1, books / 10), books);
+        long after = usedHeap();
+
+        System.out.printf("%s: %d books, %d MB, %d bytes per book%n", columnar ? "columnar" : "objects", books,
+                (after - before) >> 20, (after - before) / books);
+    }
+
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
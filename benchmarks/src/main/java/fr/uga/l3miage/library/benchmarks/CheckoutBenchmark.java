@@ -0,0 +1,89 @@
+package fr.uga.l3miage.library.benchmarks;
+
+import fr.uga.l3miage.data.domain.Book;
+import fr.uga.l3miage.data.domain.Borrow;
+import fr.uga.l3miage.data.domain.Borrower;
+import fr.uga.l3miage.library.service.BookUnavailableException;
+import fr.uga.l3miage.library.service.EntityNotFoundException;
+import fr.uga.l3miage.library.service.mock.AuthorServiceMockImpl;
+import fr.uga.l3miage.library.service.mock.BookServiceMockImpl;
+import fr.uga.l3miage.library.service.mock.BorrowServiceMockImpl;
+import fr.uga.l3miage.library.service.mock.BorrowerServiceMockImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the mock borrow service when all threads check out a random book of a catalogue of {@code size}
+ * books and return it right away. Comparing runs with different numbers of threads ({@code -t}, 4 by default) shows
+ * how checkouts scale with cores; the small catalogue makes threads compete for the same books.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Threads(4)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CheckoutBenchmark {
+
+    @Param({"16", "100000"})
+    int size;
+
+    BorrowServiceMockImpl borrowService;
+    BorrowerServiceMockImpl borrowerService;
+    long[] bookIds;
+    Date due = new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(14));
+
+    @Setup
+    public void setup() throws EntityNotFoundException {
+        AuthorServiceMockImpl authorService = new AuthorServiceMockImpl();
+        BookServiceMockImpl bookService = new BookServiceMockImpl();
+        new Catalogue(42).populate(authorService, bookService, Math.max(1, size / 10), size);
+        bookIds = bookService.list().stream().mapToLong(Book::getId).toArray();
+        borrowService = new BorrowServiceMockImpl();
+        borrowerService = new BorrowerServiceMockImpl();
+    }
+
+    @State(Scope.Thread)
+    public static class Member {
+        Long borrowerId;
+        SplittableRandom random = new SplittableRandom();
+
+        @Setup
+        public void setup(CheckoutBenchmark benchmark) {
+            Borrower borrower = new Borrower();
+            borrower.setFirstName("Member").setLastName(Thread.currentThread().getName());
+            borrowerId = benchmark.borrowerService.save(borrower).getId();
+        }
+    }
+
+    /**
+     * @return true when the book was lent, false when another thread had it
+     */
+    @Benchmark
+    public boolean checkoutAndReturn(Member member) throws EntityNotFoundException {
+        long bookId = bookIds[member.random.nextInt(bookIds.length)];
+        try {
+            Borrow borrow = borrowService.checkout(member.borrowerId, List.of(bookId), due);
+            borrowService.checkIn(borrow.getId());
+            return true;
+        } catch (BookUnavailableException e) {
+            return false;
+        }
+    }
+}
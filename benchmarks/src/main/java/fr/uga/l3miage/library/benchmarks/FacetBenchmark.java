@@ -0,0 +1,92 @@
+package fr.uga.l3miage.library.benchmarks;
+
+import fr.uga.l3miage.data.domain.Book;
+import fr.uga.l3miage.library.service.BookQuery;
+import fr.uga.l3miage.library.service.BookSearchResult;
+import fr.uga.l3miage.library.service.EntityNotFoundException;
+import fr.uga.l3miage.library.service.mock.AuthorServiceMockImpl;
+import fr.uga.l3miage.library.service.mock.BookServiceMockImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Faceted search of the english books of Folio, Tor or Penguin published from 1950 to 1999 among {@code size} books:
+ * through the bitmap index of the mock service, and by scanning the books for comparison. Both count the books by
+ * language, publisher and decade on the criteria on the other facets, and return the first page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class FacetBenchmark {
+
+    private static final Set<String> PUBLISHERS = Set.of("Folio", "Tor", "Penguin");
+
+    @Param({"10000", "1000000"})
+    int size;
+
+    BookServiceMockImpl bookService;
+    BookQuery query;
+
+    @Setup
+    public void setup() throws EntityNotFoundException {
+        AuthorServiceMockImpl authorService = new AuthorServiceMockImpl();
+        bookService = new BookServiceMockImpl();
+        new Catalogue(42).populate(authorService, bookService, size / 10, size);
+        query = new BookQuery(null, 1950, 1999, Set.of(Book.Language.ENGLISH), PUBLISHERS, 0, 50);
+    }
+
+    @Benchmark
+    public BookSearchResult bitmaps() {
+        return bookService.search(query);
+    }
+
+    @Benchmark
+    public BookSearchResult scan() {
+        Collection<Book> books = bookService.list();
+        Map<Book.Language, Long> languages = new EnumMap<>(Book.Language.class);
+        Map<String, Long> publishers = new HashMap<>();
+        Map<Integer, Long> decades = new TreeMap<>();
+        long total = 0;
+        List<Book> page = new ArrayList<>();
+        for (Book book : books) {
+            boolean year = book.getYear() >= 1950 && book.getYear() <= 1999;
+            boolean language = book.getLanguage() == Book.Language.ENGLISH;
+            boolean publisher = PUBLISHERS.contains(book.getPublisher());
+            if (year && publisher) {
+                languages.merge(book.getLanguage(), 1L, Long::sum);
+            }
+            if (year && language) {
+                publishers.merge(book.getPublisher(), 1L, Long::sum);
+            }
+            if (language && publisher) {
+                decades.merge(book.getYear() / 10 * 10, 1L, Long::sum);
+            }
+            if (year && language && publisher && total++ < 50) {
+                page.add(book);
+            }
+        }
+        return new BookSearchResult(total, page, languages, publishers, decades);
+    }
+}
@@ -0,0 +1,65 @@
+package fr.uga.l3miage.library.benchmarks;
+
+import fr.uga.l3miage.data.domain.Book;
+import fr.uga.l3miage.library.service.EntityNotFoundException;
+import fr.uga.l3miage.library.service.mock.AuthorServiceMockImpl;
+import fr.uga.l3miage.library.service.mock.BookServiceMockImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups by ISBN in a catalogue of {@code size} books: through the mock service, whose index is a primitive hash map
+ * read under an optimistic lock, and through a concurrent map of boxed ISBNs to ids for comparison. Both then get the
+ * book by id.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class IsbnBenchmark {
+
+    @Param({"10000", "1000000"})
+    int size;
+
+    BookServiceMockImpl bookService;
+    long[] isbns;
+    Map<Long, Long> boxed;
+
+    @Setup
+    public void setup() throws EntityNotFoundException {
+        AuthorServiceMockImpl authorService = new AuthorServiceMockImpl();
+        bookService = new BookServiceMockImpl();
+        new Catalogue(42).populate(authorService, bookService, size / 10, size);
+        isbns = bookService.list().stream().mapToLong(Book::getIsbn).toArray();
+        boxed = new ConcurrentHashMap<>();
+        for (Book book : bookService.list()) {
+            boxed.put(book.getIsbn(), book.getId());
+        }
+    }
+
+    @Benchmark
+    public Book getByIsbn() throws EntityNotFoundException {
+        return bookService.getByIsbn(isbns[ThreadLocalRandom.current().nextInt(isbns.length)]);
+    }
+
+    @Benchmark
+    public Book boxedMap() throws EntityNotFoundException {
+        return bookService.get(boxed.get(isbns[ThreadLocalRandom.current().nextInt(isbns.length)]));
+    }
+}
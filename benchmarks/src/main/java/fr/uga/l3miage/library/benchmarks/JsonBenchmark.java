@@ -0,0 +1,94 @@
+package fr.uga.l3miage.library.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fr.uga.l3miage.data.domain.Author;
+import fr.uga.l3miage.data.domain.Book;
+import fr.uga.l3miage.library.books.BooksMapper;
+import fr.uga.l3miage.library.web.CatalogueJsonModule;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing {@code size} books (two authors each) as a JSON array, as {@code GET /api/v1/books} does: mapped to DTOs
+ * then written by Jackson, and written from the entities by {@link CatalogueJsonModule}. Both produce the same bytes;
+ * run with {@code -prof gc} to compare the allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JsonBenchmark {
+
+    @Param({"100", "10000"})
+    int size;
+
+    BooksMapper booksMapper;
+    ObjectMapper objectMapper;
+    ObjectMapper catalogueMapper;
+    List<Book> books;
+    OutputStream out = new Discard();
+
+    @Setup
+    public void setup() {
+        booksMapper = Mappers.getMapper(BooksMapper.class);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        catalogueMapper = Jackson2ObjectMapperBuilder.json().modulesToInstall(new CatalogueJsonModule()).build();
+        Catalogue catalogue = new Catalogue(42);
+        books = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Book book = catalogue.book();
+            book.setId((long) i);
+            for (int a = 0; a < 2; a++) {
+                Author author = catalogue.author();
+                author.setId((long) (2 * i + a));
+                book.addAuthor(author);
+            }
+            books.add(book);
+        }
+    }
+
+    @Benchmark
+    public void dtos() throws IOException {
+        objectMapper.writeValue(out, booksMapper.entityToDTO(books));
+    }
+
+    @Benchmark
+    public void entities() throws IOException {
+        catalogueMapper.writeValue(out, books);
+    }
+
+    /**
+     * Discards what is written, even once closed by Jackson
+     */
+    static final class Discard extends OutputStream {
+
+        @Override
+        public void write(int b) {
+            // discarded
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            // discarded
+        }
+    }
+}
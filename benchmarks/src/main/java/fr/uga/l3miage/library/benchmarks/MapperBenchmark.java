@@ -0,0 +1,71 @@
+package fr.uga.l3miage.library.benchmarks;
+
+import fr.uga.l3miage.data.domain.Author;
+import fr.uga.l3miage.data.domain.Book;
+import fr.uga.l3miage.library.books.BookDTO;
+import fr.uga.l3miage.library.books.BooksMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of {@code size} books (two authors each) to their DTO, as a collection and one by one as the controllers
+ * do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MapperBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    int size;
+
+    BooksMapper booksMapper;
+    List<Book> books;
+
+    @Setup
+    public void setup() {
+        booksMapper = Mappers.getMapper(BooksMapper.class);
+        Catalogue catalogue = new Catalogue(42);
+        books = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Book book = catalogue.book();
+            book.setId((long) i);
+            for (int a = 0; a < 2; a++) {
+                Author author = catalogue.author();
+                author.setId((long) (2 * i + a));
+                book.addAuthor(author);
+            }
+            books.add(book);
+        }
+    }
+
+    @Benchmark
+    public Collection<BookDTO> collection() {
+        return booksMapper.entityToDTO(books);
+    }
+
+    @Benchmark
+    public List<BookDTO> stream() {
+        return books.stream()
+                .map(booksMapper::entityToDTO)
+                .toList();
+    }
+}
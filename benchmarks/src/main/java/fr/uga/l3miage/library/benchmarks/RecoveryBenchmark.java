@@ -0,0 +1,93 @@
+package fr.uga.l3miage.library.benchmarks;
+
+import fr.uga.l3miage.data.domain.Book;
+import fr.uga.l3miage.library.service.EntityNotFoundException;
+import fr.uga.l3miage.library.service.mock.AuthorServiceMockImpl;
+import fr.uga.l3miage.library.service.mock.BookServiceMockImpl;
+import fr.uga.l3miage.library.service.mock.MockDurability;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Startup of the durable mock store: replay of a snapshot of {@code books} books (and a tenth as many authors)
+ * followed by a log of {@code tail} book updates, written by 8 threads sharing the fsyncs of the log.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class RecoveryBenchmark {
+
+    @Param({"100000", "1000000"})
+    int books;
+
+    @Param({"10000"})
+    int tail;
+
+    Path dir;
+
+    @Setup(Level.Trial)
+    public void write() throws Exception {
+        AuthorServiceMockImpl authorService = new AuthorServiceMockImpl();
+        BookServiceMockImpl bookService = new BookServiceMockImpl();
+        new Catalogue(42).populate(authorService, bookService, Math.max(1, books / 10), books);
+
+        dir = Files.createTempDirectory("recovery");
+        MockDurability durability = new MockDurability(dir, Duration.ofDays(1));
+        durability.open();
+        List<Book> updated = bookService.list().stream().limit(tail).toList();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Book>> updates = new ArrayList<>(updated.size());
+            for (Book book : updated) {
+                updates.add(executor.submit(() -> bookService.update(book)));
+            }
+            for (Future<Book> update : updates) {
+                update.get();
+            }
+        } finally {
+            executor.shutdown();
+            durability.close();
+        }
+    }
+
+    @Benchmark
+    public long recover() throws IOException {
+        return new MockDurability(dir, Duration.ofDays(1)).recover();
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package fr.uga.l3miage.library.benchmarks;
+
+import fr.uga.l3miage.data.domain.Author;
+import fr.uga.l3miage.data.domain.Book;
+import fr.uga.l3miage.library.service.EntityNotFoundException;
+import fr.uga.l3miage.library.service.mock.AuthorServiceMockImpl;
+import fr.uga.l3miage.library.service.mock.BookServiceMockImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Title and name searches of the mock services over catalogues of {@code size} books ({@code size / 10} authors).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SearchBenchmark {
+
+    @Param({"10000", "1000000"})
+    int size;
+
+    /**
+     * A frequent word, a rare combination and a text found nowhere
+     */
+    @Param({"winter", "lighthouse garden", "unknown"})
+    String query;
+
+    AuthorServiceMockImpl authorService;
+    BookServiceMockImpl bookService;
+
+    @Setup
+    public void setup() throws EntityNotFoundException {
+        authorService = new AuthorServiceMockImpl();
+        bookService = new BookServiceMockImpl();
+        new Catalogue(42).populate(authorService, bookService, size / 10, size);
+    }
+
+    @Benchmark
+    public Collection<Book> findByTitle() {
+        return bookService.findByTitle(query);
+    }
+
+    @Benchmark
+    public Collection<Author> searchByName() {
+        return authorService.searchByName(query.length() > 6 ? "gibson 4" : "hugo");
+    }
+}
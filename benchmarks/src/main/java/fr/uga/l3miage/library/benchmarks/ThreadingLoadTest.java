@@ -0,0 +1,200 @@
+package fr.uga.l3miage.library.benchmarks;
+
+import fr.uga.l3miage.library.LibraryApplication;
+import fr.uga.l3miage.library.service.AuthorService;
+import fr.uga.l3miage.library.service.BookService;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load test of the application served by platform threads (Tomcat pool) or by virtual threads (spring profile
+ * {@code virtual-threads}, needs the app built with the maven profile of the same name and a Java 21 runtime).
+ * <p>
+ * Services are slowed down by {@code latency} milliseconds per call to stand for a database round-trip, then
+ * {@code requests} requests are sent with at most {@code concurrency} of them in flight. The test reports the
+ * throughput, latencies, the number of service calls that were actually in progress at the same time, and the peak
+ * threads, heap and resident memory of the JVM (client included).
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar fr.uga.l3miage.library.benchmarks.ThreadingLoadTest \
+ *     [platform|virtual] [concurrency=2000] [latency=100] [requests=10 * concurrency]
+ * </pre>
+ */
+public final class ThreadingLoadTest {
+
+    static final String VIRTUAL_THREADS_PROFILE = "virtual-threads";
+
+    private ThreadingLoadTest() {
+        // main class
+    }
+
+    public static void main(String[] args) throws Exception {
+        boolean virtual = "virtual".equals(arg(args, 0, "platform"));
+        int concurrency = Integer.parseInt(arg(args, 1, "2000"));
+        long latency = Long.parseLong(arg(args, 2, "100"));
+        int requests = Integer.parseInt(arg(args, 3, String.valueOf(10 * concurrency)));
+
+        if (virtual && !ClassUtils.isPresent("fr.uga.l3miage.library.web.VirtualThreadsConfiguration", null)) {
+            throw new IllegalStateException("app was not built with the maven profile " + VIRTUAL_THREADS_PROFILE);
+        }
+
+        Gauges gauges = new Gauges();
+        SpringApplication application = new SpringApplication(LibraryApplication.class);
+        if (virtual) {
+            application.setAdditionalProfiles(VIRTUAL_THREADS_PROFILE);
+        }
+        application.setDefaultProperties(Map.of(
+                "server.port", "0",
+                "server.tomcat.max-connections", String.valueOf(Math.max(8192, concurrency)),
+                "library.metrics.mappers.enabled", "false",
+                "logging.level.root", "warn"));
+        application.addInitializers(context -> context.getBeanFactory()
+                .addBeanPostProcessor(slowServices(latency, gauges)));
+
+        try (ConfigurableApplicationContext context = application.run()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI uri = URI.create("http://localhost:" + port + "/api/v1/authors/-1");
+            run(uri, requests, concurrency, gauges);
+            System.out.printf("%s threads, %d requests, concurrency %d, service latency %d ms%n",
+                    virtual ? "virtual" : "platform", requests, concurrency, latency);
+            gauges.print();
+        }
+    }
+
+    private static void run(URI uri, int requests, int concurrency, Gauges gauges) throws InterruptedException {
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(4);
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        HttpClient client = HttpClient.newBuilder().executor(clientExecutor).build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofMinutes(1)).build();
+        Semaphore inFlight = new Semaphore(concurrency);
+        CountDownLatch done = new CountDownLatch(requests);
+        long[] latencies = new long[requests];
+
+        sampler.scheduleAtFixedRate(gauges::sample, 0, 50, TimeUnit.MILLISECONDS);
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            int index = i;
+            long sent = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                latencies[index] = System.nanoTime() - sent;
+                if (error != null || response.statusCode() != 200) {
+                    gauges.errors.incrementAndGet();
+                }
+                inFlight.release();
+                done.countDown();
+            });
+        }
+        done.await();
+        gauges.elapsedNanos = System.nanoTime() - start;
+        gauges.latencies = latencies;
+        sampler.shutdownNow();
+        clientExecutor.shutdownNow();
+    }
+
+    /**
+     * Wraps the services in a proxy sleeping {@code latency} milliseconds before each call.
+     */
+    private static BeanPostProcessor slowServices(long latency, Gauges gauges) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof AuthorService) && !(bean instanceof BookService)) {
+                    return bean;
+                }
+                return Proxy.newProxyInstance(ThreadingLoadTest.class.getClassLoader(),
+                        ClassUtils.getAllInterfaces(bean), (proxy, method, args) -> {
+                            gauges.serviceCallStarted();
+                            try {
+                                Thread.sleep(latency);
+                                return method.invoke(bean, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getTargetException();
+                            } finally {
+                                gauges.serviceCalls.decrementAndGet();
+                            }
+                        });
+            }
+        };
+    }
+
+    private static String arg(String[] args, int index, String defaultValue) {
+        return args.length > index ? args[index] : defaultValue;
+    }
+
+    private static final class Gauges {
+
+        final AtomicInteger serviceCalls = new AtomicInteger();
+        final AtomicInteger peakServiceCalls = new AtomicInteger();
+        final AtomicInteger errors = new AtomicInteger();
+        final AtomicLong peakHeap = new AtomicLong();
+        final AtomicLong peakRss = new AtomicLong();
+        long elapsedNanos;
+        long[] latencies;
+
+        void serviceCallStarted() {
+            peakServiceCalls.accumulateAndGet(serviceCalls.incrementAndGet(), Math::max);
+        }
+
+        void sample() {
+            peakHeap.accumulateAndGet(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed(), Math::max);
+            peakRss.accumulateAndGet(rss(), Math::max);
+        }
+
+        void print() {
+            Arrays.sort(latencies);
+            System.out.printf("throughput          %10.0f req/s%n", latencies.length / (elapsedNanos / 1e9));
+            System.out.printf("latency p50/p99/max %10.1f / %.1f / %.1f ms%n", percentile(0.5), percentile(0.99),
+                    percentile(1));
+            System.out.printf("errors              %10d%n", errors.get());
+            System.out.printf("peak service calls  %10d%n", peakServiceCalls.get());
+            System.out.printf("peak threads        %10d%n", ManagementFactory.getThreadMXBean().getPeakThreadCount());
+            System.out.printf("peak heap           %10d MB%n", peakHeap.get() >> 20);
+            System.out.printf("peak rss            %10d MB%n", peakRss.get() >> 20);
+        }
+
+        private double percentile(double p) {
+            int index = (int) Math.min(latencies.length - 1, Math.ceil(p * latencies.length) - 1);
+            return latencies[Math.max(0, index)] / 1e6;
+        }
+
+        /**
+         * @return the resident memory of the process, 0 when not on Linux
+         */
+        private static long rss() {
+            try {
+                return Files.readAllLines(Path.of("/proc/self/status")).stream()
+                        .filter(line -> line.startsWith("VmRSS:"))
+                        .mapToLong(line -> Long.parseLong(line.replaceAll("\\D", "")) * 1024)
+                        .findFirst()
+                        .orElse(0);
+            } catch (IOException | RuntimeException e) {
+                return 0;
+            }
+        }
+    }
+}
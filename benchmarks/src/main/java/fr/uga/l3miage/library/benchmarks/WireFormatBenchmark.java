@@ -0,0 +1,89 @@
+package fr.uga.l3miage.library.benchmarks;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import fr.uga.l3miage.data.domain.Author;
+import fr.uga.l3miage.data.domain.Book;
+import fr.uga.l3miage.library.books.BookDTO;
+import fr.uga.l3miage.library.web.CatalogueJsonModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The list of {@code size} books (two authors each) of {@code GET /api/v1/books} in each wire format: written by the
+ * server from the entities, then read by a client into {@link BookDTO}s. The size of the encoded list is printed by
+ * the setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class WireFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    String format;
+
+    @Param({"10000", "100000"})
+    int size;
+
+    ObjectMapper server;
+    ObjectMapper client;
+    List<Book> books;
+    byte[] encoded;
+
+    @Setup
+    public void setup() throws IOException {
+        JsonFactory factory = switch (format) {
+            case "json" -> new JsonFactory();
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> throw new IllegalArgumentException(format);
+        };
+        server = Jackson2ObjectMapperBuilder.json().factory(factory).modulesToInstall(new CatalogueJsonModule()).build();
+        client = new ObjectMapper(factory);
+
+        Catalogue catalogue = new Catalogue(42);
+        books = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Book book = catalogue.book();
+            book.setId((long) i);
+            for (int a = 0; a < 2; a++) {
+                Author author = catalogue.author();
+                author.setId((long) (2 * i + a));
+                book.addAuthor(author);
+            }
+            books.add(book);
+        }
+        encoded = server.writeValueAsBytes(books);
+        System.out.printf("%n%s, %d books: %d bytes%n", format, size, encoded.length);
+    }
+
+    @Benchmark
+    public void encode() throws IOException {
+        server.writeValue(new JsonBenchmark.Discard(), books);
+    }
+
+    @Benchmark
+    public BookDTO[] decode() throws IOException {
+        return client.readValue(encoded, BookDTO[].class);
+    }
+}
@@ -1,12 +1,41 @@
 package fr.uga.l3miage.data.domain;
 
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.ManyToMany;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Temporal;
+import jakarta.persistence.TemporalType;
+
+import java.util.Date;
 import java.util.HashSet;
 import java.util.Set;
 
+@Entity
+@NamedEntityGraph(name = Author.WITH_BOOKS, attributeNodes = @NamedAttributeNode("books"))
 public class Author {
+
+    /**
+     * Entity graph fetching the books of an author along with it
+     */
+    public static final String WITH_BOOKS = "Author.books";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "author_seq")
+    @SequenceGenerator(name = "author_seq", sequenceName = "author_seq", allocationSize = 50)
     private Long id;
     private String fullName;
+    @ManyToMany(mappedBy = "authors")
     private Set<Book> books;
+    private long version;
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "last_modified")
+    private Date lastModified;
 
     public Long getId() {
         return id;
@@ -32,6 +61,33 @@ public class Author {
         this.books = books;
     }
 
+    /**
+     * @return the number of times the author was modified, see {@link #touch()}
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public Date getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(Date lastModified) {
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Marks the author as modified: bumps its version and sets its last modification date to now.
+     */
+    public void touch() {
+        this.version++;
+        this.lastModified = new Date();
+    }
+
     public void addBook(Book book) {
         if (this.books == null) {
             this.books = new HashSet<>();
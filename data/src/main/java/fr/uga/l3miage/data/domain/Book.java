@@ -1,17 +1,57 @@
 package fr.uga.l3miage.data.domain;
 
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.JoinTable;
+import jakarta.persistence.ManyToMany;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Temporal;
+import jakarta.persistence.TemporalType;
+
+import java.util.Date;
 import java.util.HashSet;
 import java.util.Set;
 
+@Entity
+@NamedEntityGraph(name = Book.WITH_AUTHORS, attributeNodes = @NamedAttributeNode("authors"))
+@Table(indexes = @Index(name = "book_isbn", columnList = "isbn"))
 public class Book {
 
+    /**
+     * Entity graph fetching the authors of a book along with it
+     */
+    public static final String WITH_AUTHORS = "Book.authors";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_seq")
+    @SequenceGenerator(name = "book_seq", sequenceName = "book_seq", allocationSize = 50)
     private Long id;
     private String title;
     private long isbn;
     private String publisher;
+    @Column(name = "publication_year")
     private short year;
+    @Enumerated(EnumType.STRING)
     private Language language;
+    @ManyToMany
+    @JoinTable(name = "book_author",
+            joinColumns = @JoinColumn(name = "book_id"),
+            inverseJoinColumns = @JoinColumn(name = "author_id"))
     private Set<Author> authors;
+    private long version;
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "last_modified")
+    private Date lastModified;
 
     public Long getId() {
         return id;
@@ -69,6 +109,33 @@ public class Book {
         this.authors = authors;
     }
 
+    /**
+     * @return the number of times the book was modified, see {@link #touch()}
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public Date getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(Date lastModified) {
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Marks the book as modified: bumps its version and sets its last modification date to now.
+     */
+    public void touch() {
+        this.version++;
+        this.lastModified = new Date();
+    }
+
     public void addAuthor(Author author) {
         if (this.authors == null) {
             this.authors = new HashSet<>();
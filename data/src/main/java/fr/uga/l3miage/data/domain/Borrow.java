@@ -1,14 +1,54 @@
 package fr.uga.l3miage.data.domain;
 
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinTable;
+import jakarta.persistence.ManyToMany;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Temporal;
+import jakarta.persistence.TemporalType;
+
 import java.util.Date;
 import java.util.Set;
 
+@Entity
+@NamedEntityGraph(name = Borrow.WITH_DETAILS, attributeNodes = {
+        @NamedAttributeNode("books"),
+        @NamedAttributeNode("borrower")
+})
 public class Borrow {
+
+    /**
+     * Entity graph fetching the books and the borrower of a borrow along with it
+     */
+    public static final String WITH_DETAILS = "Borrow.details";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "borrow_seq")
+    @SequenceGenerator(name = "borrow_seq", sequenceName = "borrow_seq", allocationSize = 50)
     private Long id;
+    @ManyToMany
+    @JoinTable(name = "borrow_book")
     private Set<Book> books;
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "start_date")
     private Date start;
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "end_date")
     private Date end;
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "returned_date")
+    private Date returned;
+    @ManyToOne(fetch = FetchType.LAZY)
     private Borrower borrower;
+    @ManyToOne(fetch = FetchType.LAZY)
     private Librarian librarian;
 
     public Long getId() {
@@ -43,6 +83,31 @@ public class Borrow {
         this.end = end;
     }
 
+    /**
+     * @return the date the books were returned, null while they are borrowed
+     */
+    public Date getReturned() {
+        return returned;
+    }
+
+    public void setReturned(Date returned) {
+        this.returned = returned;
+    }
+
+    /**
+     * @return true until the books are returned
+     */
+    public boolean isActive() {
+        return returned == null;
+    }
+
+    /**
+     * @return true when the books were returned after their due date
+     */
+    public boolean isReturnedLate() {
+        return returned != null && end != null && returned.after(end);
+    }
+
     public Borrower getBorrower() {
         return borrower;
     }
@@ -1,9 +1,20 @@
 package fr.uga.l3miage.data.domain;
 
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Temporal;
+import jakarta.persistence.TemporalType;
+
 import java.util.Date;
 
+@Entity
 public class Borrower extends Person {
+    @Temporal(TemporalType.TIMESTAMP)
     private Date registered;
+    @Column(name = "returned_borrows")
+    private int returnedBorrows;
+    @Column(name = "late_borrows")
+    private int lateBorrows;
     private float lateRatio;
 
     public Date getRegistered() {
@@ -14,6 +25,44 @@ public class Borrower extends Person {
         this.registered = registered;
     }
 
+    /**
+     * @return the number of borrows returned by the borrower
+     */
+    public int getReturnedBorrows() {
+        return returnedBorrows;
+    }
+
+    /**
+     * @return the number of borrows returned after their due date
+     */
+    public int getLateBorrows() {
+        return lateBorrows;
+    }
+
+    /**
+     * Sets the borrow counters, and the late ratio accordingly
+     *
+     * @param returned the number of returned borrows
+     * @param late     the number of those returned late
+     */
+    public void setBorrowCounts(int returned, int late) {
+        this.returnedBorrows = returned;
+        this.lateBorrows = late;
+        this.lateRatio = returned == 0 ? 0 : (float) late / returned;
+    }
+
+    /**
+     * Counts a returned borrow, so that the late ratio is kept up-to-date without going through the borrow history.
+     *
+     * @param late whether the borrow was returned after its due date
+     */
+    public void borrowReturned(boolean late) {
+        setBorrowCounts(returnedBorrows + 1, late ? lateBorrows + 1 : lateBorrows);
+    }
+
+    /**
+     * @return the share of the returned borrows that were returned late, 0 when none was returned
+     */
     public float getLateRatio() {
         return lateRatio;
     }
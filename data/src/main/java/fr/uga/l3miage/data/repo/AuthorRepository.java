@@ -0,0 +1,135 @@
+package fr.uga.l3miage.data.repo;
+
+import fr.uga.l3miage.data.domain.Author;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JPA repository of {@link Author}.
+ */
+@Component
+public class AuthorRepository implements Repository<Author, Long> {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void save(Author entity) {
+        if (entity.getId() == null) {
+            entityManager.persist(entity);
+        } else {
+            entityManager.merge(entity);
+        }
+    }
+
+    @Override
+    public void delete(Author entity) {
+        entityManager.remove(entity);
+    }
+
+    @Override
+    public Author findById(Long id) {
+        return entityManager.find(Author.class, id);
+    }
+
+    @Override
+    public List<Author> getAll() {
+        return entityManager.createQuery("select a from Author a order by a.id", Author.class)
+                .getResultList();
+    }
+
+    @Override
+    public List<Author> getPage(int first, int max) {
+        return entityManager.createQuery("select a from Author a order by a.id", Author.class)
+                .setFirstResult(first)
+                .setMaxResults(max)
+                .getResultList();
+    }
+
+    @Override
+    public List<Author> getAfter(Long after, int max) {
+        if (after == null) {
+            return getPage(0, max);
+        }
+        return entityManager.createQuery("select a from Author a where a.id > :after order by a.id", Author.class)
+                .setParameter("after", after)
+                .setMaxResults(max)
+                .getResultList();
+    }
+
+    /**
+     * Retrieve the authors of the given ids, in one query.
+     *
+     * @param ids ids of the authors
+     * @return the authors found, in no particular order
+     */
+    public List<Author> findAllById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.createQuery("select a from Author a where a.id in :ids", Author.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    /**
+     * Retrieve an author by id, locking its row until the end of the transaction.
+     *
+     * @param id id of the author
+     * @return the author or null
+     */
+    public Author lockById(Long id) {
+        return entityManager.find(Author.class, id, LockModeType.PESSIMISTIC_WRITE);
+    }
+
+    /**
+     * Retrieve the authors of the given ids in one query, locking their rows until the end of the transaction. Rows
+     * are locked by ascending id, so that concurrent callers do not deadlock.
+     *
+     * @param ids ids of the authors
+     * @return the authors found, ordered by id
+     */
+    public List<Author> lockAllById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.createQuery("select a from Author a where a.id in :ids order by a.id", Author.class)
+                .setParameter("ids", ids)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+    }
+
+    /**
+     * Search authors whose name contains the given text, ignoring case.
+     *
+     * @param name partial or complete name
+     * @return matching authors
+     */
+    public List<Author> searchByName(String name) {
+        return entityManager.createQuery("""
+                        select a from Author a
+                        where lower(a.fullName) like :name escape '\\'
+                        order by a.id""", Author.class)
+                .setParameter("name", Queries.containsPattern(name))
+                .getResultList();
+    }
+
+    /**
+     * Counts the books of an author having other authors too.
+     *
+     * @param id the author's id
+     * @return the number of co-authored books
+     */
+    public long countCoAuthoredBooks(Long id) {
+        return entityManager.createQuery("""
+                        select count(b) from Book b join b.authors a
+                        where a.id = :id and size(b.authors) > 1""", Long.class)
+                .setParameter("id", id)
+                .getSingleResult();
+    }
+}
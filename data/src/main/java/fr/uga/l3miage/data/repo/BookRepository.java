@@ -0,0 +1,314 @@
+package fr.uga.l3miage.data.repo;
+
+import fr.uga.l3miage.data.domain.Book;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JPA repository of {@link Book}. Read queries apply the {@link Book#WITH_AUTHORS} entity graph so that books are
+ * returned with their authors in a single round trip.
+ * <p>
+ * Pages are fetched in two steps, ids first then books of these ids with their authors, since limiting a query
+ * fetching a collection would be done in memory by Hibernate.
+ */
+@Component
+public class BookRepository implements Repository<Book, Long> {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void save(Book entity) {
+        if (entity.getId() == null) {
+            entityManager.persist(entity);
+        } else {
+            entityManager.merge(entity);
+        }
+    }
+
+    @Override
+    public void delete(Book entity) {
+        entityManager.remove(entity);
+    }
+
+    @Override
+    public Book findById(Long id) {
+        return entityManager.find(Book.class, id, Map.of(Queries.FETCH_GRAPH, withAuthors()));
+    }
+
+    /**
+     * Retrieve a book by id with its authors, locking its row until the end of the transaction.
+     *
+     * @param id id of the book
+     * @return the book or null
+     */
+    public Book lockById(Long id) {
+        return entityManager.find(Book.class, id, LockModeType.PESSIMISTIC_WRITE,
+                Map.of(Queries.FETCH_GRAPH, withAuthors()));
+    }
+
+    @Override
+    public List<Book> getAll() {
+        return entityManager.createQuery("select b from Book b order by b.id", Book.class)
+                .setHint(Queries.FETCH_GRAPH, withAuthors())
+                .getResultList();
+    }
+
+    @Override
+    public List<Book> getPage(int first, int max) {
+        List<Long> ids = entityManager.createQuery("select b.id from Book b order by b.id", Long.class)
+                .setFirstResult(first)
+                .setMaxResults(max)
+                .getResultList();
+        return findAllById(ids);
+    }
+
+    @Override
+    public List<Book> getAfter(Long after, int max) {
+        if (after == null) {
+            return getPage(0, max);
+        }
+        List<Long> ids = entityManager.createQuery("select b.id from Book b where b.id > :after order by b.id", Long.class)
+                .setParameter("after", after)
+                .setMaxResults(max)
+                .getResultList();
+        return findAllById(ids);
+    }
+
+    /**
+     * Find books whose title contains the given text, ignoring case.
+     *
+     * @param title partial or complete title
+     * @return matching books
+     */
+    public List<Book> findByTitle(String title) {
+        return entityManager.createQuery("""
+                        select b from Book b
+                        where lower(b.title) like :title escape '\\'
+                        order by b.id""", Book.class)
+                .setParameter("title", Queries.containsPattern(title))
+                .setHint(Queries.FETCH_GRAPH, withAuthors())
+                .getResultList();
+    }
+
+    /**
+     * Find a book by ISBN.
+     *
+     * @param isbn the ISBN
+     * @return the book having this ISBN, null if there is none
+     */
+    public Book findByIsbn(long isbn) {
+        return entityManager.createQuery("select b from Book b where b.isbn = :isbn order by b.id", Book.class)
+                .setParameter("isbn", isbn)
+                .setHint(Queries.FETCH_GRAPH, withAuthors())
+                .getResultStream()
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Tells whether a book other than the given one has an ISBN.
+     *
+     * @param isbn the ISBN
+     * @param id   the id of the book to leave out, null for a new book
+     * @return true if another book has this ISBN
+     */
+    public boolean isbnTaken(long isbn, Long id) {
+        return !entityManager.createQuery("select b.id from Book b where b.isbn = :isbn and b.id <> :id", Long.class)
+                .setParameter("isbn", isbn)
+                .setParameter("id", id == null ? Long.MIN_VALUE : id)
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty();
+    }
+
+    /**
+     * Find the books matching some criteria.
+     *
+     * @param criteria the criteria
+     * @param first    the number of matching books to skip
+     * @param max      the maximum number of books to return
+     * @return matching books, ordered by id
+     */
+    public List<Book> search(Criteria criteria, int first, int max) {
+        TypedQuery<Long> query = entityManager.createQuery(
+                "select b.id from Book b" + criteria.where() + " order by b.id", Long.class);
+        criteria.bind(query);
+        return findAllById(query.setFirstResult(first).setMaxResults(max).getResultList());
+    }
+
+    /**
+     * Count the books matching some criteria.
+     *
+     * @param criteria the criteria
+     * @return the number of matching books
+     */
+    public long count(Criteria criteria) {
+        TypedQuery<Long> query = entityManager.createQuery(
+                "select count(b) from Book b" + criteria.where(), Long.class);
+        criteria.bind(query);
+        return query.getSingleResult();
+    }
+
+    /**
+     * Count the books matching some criteria by value of one of their attributes, books without value being left out.
+     *
+     * @param attribute the attribute, {@code year}, {@code language} or {@code publisher}
+     * @param type      the type of the attribute
+     * @param criteria  the criteria
+     * @return the number of matching books by value
+     */
+    public <T> Map<T, Long> countBy(String attribute, Class<T> type, Criteria criteria) {
+        if (!Set.of("year", "language", "publisher").contains(attribute)) {
+            throw new IllegalArgumentException("Cannot count books by " + attribute);
+        }
+        String where = criteria.where();
+        TypedQuery<Object[]> query = entityManager.createQuery(
+                "select b." + attribute + ", count(b) from Book b"
+                        + (where.isEmpty() ? " where " : where + " and ") + "b." + attribute + " is not null"
+                        + " group by b." + attribute, Object[].class);
+        criteria.bind(query);
+        Map<T, Long> counts = new HashMap<>();
+        for (Object[] row : query.getResultList()) {
+            counts.put(type.cast(row[0]), (Long) row[1]);
+        }
+        return counts;
+    }
+
+    /**
+     * Criteria on books, all of which a book must match. A null or empty criterion matches every book.
+     *
+     * @param title      partial or complete title
+     * @param yearFrom   the first publication year, inclusive
+     * @param yearTo     the last publication year, inclusive
+     * @param languages  the accepted languages
+     * @param publishers the accepted publishers
+     */
+    public record Criteria(String title, Integer yearFrom, Integer yearTo, Collection<Book.Language> languages,
+                           Collection<String> publishers) {
+
+        private String where() {
+            List<String> conditions = new ArrayList<>();
+            if (title != null) {
+                conditions.add("lower(b.title) like :title escape '\\'");
+            }
+            if (yearFrom != null) {
+                conditions.add("b.year >= :yearFrom");
+            }
+            if (yearTo != null) {
+                conditions.add("b.year <= :yearTo");
+            }
+            if (languages != null && !languages.isEmpty()) {
+                conditions.add("b.language in :languages");
+            }
+            if (publishers != null && !publishers.isEmpty()) {
+                conditions.add("b.publisher in :publishers");
+            }
+            return conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions);
+        }
+
+        private void bind(TypedQuery<?> query) {
+            if (title != null) {
+                query.setParameter("title", Queries.containsPattern(title));
+            }
+            if (yearFrom != null) {
+                query.setParameter("yearFrom", year(yearFrom));
+            }
+            if (yearTo != null) {
+                query.setParameter("yearTo", year(yearTo));
+            }
+            if (languages != null && !languages.isEmpty()) {
+                query.setParameter("languages", languages);
+            }
+            if (publishers != null && !publishers.isEmpty()) {
+                query.setParameter("publishers", publishers);
+            }
+        }
+
+        private static short year(int year) {
+            return (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, year));
+        }
+    }
+
+    /**
+     * Get all books of an author.
+     *
+     * @param authorId the author's id
+     * @return the books of the author
+     */
+    public List<Book> getByAuthor(Long authorId) {
+        return entityManager.createQuery("""
+                        select b from Book b
+                        where b.id in (select ab.id from Author a join a.books ab where a.id = :authorId)
+                        order by b.id""", Book.class)
+                .setParameter("authorId", authorId)
+                .setHint(Queries.FETCH_GRAPH, withAuthors())
+                .getResultList();
+    }
+
+    /**
+     * Find the books of an author whose title contains the given text, ignoring case.
+     *
+     * @param authorId the author's id
+     * @param title    partial or complete title
+     * @return matching books of the author
+     */
+    public List<Book> findByAuthor(Long authorId, String title) {
+        return entityManager.createQuery("""
+                        select b from Book b
+                        where b.id in (select ab.id from Author a join a.books ab where a.id = :authorId)
+                        and lower(b.title) like :title escape '\\'
+                        order by b.id""", Book.class)
+                .setParameter("authorId", authorId)
+                .setParameter("title", Queries.containsPattern(title))
+                .setHint(Queries.FETCH_GRAPH, withAuthors())
+                .getResultList();
+    }
+
+    /**
+     * Retrieve the books of the given ids, locking their rows until the end of the transaction. Rows are locked in
+     * ascending id order so that two transactions locking common books cannot deadlock.
+     *
+     * @param ids ids of the books
+     * @return the books found, ordered by id
+     */
+    public List<Book> lockAllById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.createQuery("select b from Book b where b.id in :ids order by b.id", Book.class)
+                .setParameter("ids", ids)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+    }
+
+    /**
+     * Retrieve the books of the given ids with their authors, in one query.
+     *
+     * @param ids ids of the books
+     * @return the books found, ordered by id
+     */
+    public List<Book> findAllById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.createQuery("select b from Book b where b.id in :ids order by b.id", Book.class)
+                .setParameter("ids", ids)
+                .setHint(Queries.FETCH_GRAPH, withAuthors())
+                .getResultList();
+    }
+
+    private Object withAuthors() {
+        return entityManager.getEntityGraph(Book.WITH_AUTHORS);
+    }
+}
@@ -0,0 +1,135 @@
+package fr.uga.l3miage.data.repo;
+
+import fr.uga.l3miage.data.domain.Borrow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JPA repository of {@link Borrow}. Read queries apply the {@link Borrow#WITH_DETAILS} entity graph so that borrows
+ * are returned with their books and borrower.
+ */
+@Component
+public class BorrowRepository implements Repository<Borrow, Long> {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void save(Borrow entity) {
+        if (entity.getId() == null) {
+            entityManager.persist(entity);
+        } else {
+            entityManager.merge(entity);
+        }
+    }
+
+    @Override
+    public void delete(Borrow entity) {
+        entityManager.remove(entity);
+    }
+
+    @Override
+    public Borrow findById(Long id) {
+        return entityManager.find(Borrow.class, id, Map.of(Queries.FETCH_GRAPH, withDetails()));
+    }
+
+    @Override
+    public List<Borrow> getAll() {
+        return entityManager.createQuery("select b from Borrow b order by b.id", Borrow.class)
+                .setHint(Queries.FETCH_GRAPH, withDetails())
+                .getResultList();
+    }
+
+    @Override
+    public List<Borrow> getPage(int first, int max) {
+        List<Long> ids = entityManager.createQuery("select b.id from Borrow b order by b.id", Long.class)
+                .setFirstResult(first)
+                .setMaxResults(max)
+                .getResultList();
+        return findAllById(ids);
+    }
+
+    @Override
+    public List<Borrow> getAfter(Long after, int max) {
+        if (after == null) {
+            return getPage(0, max);
+        }
+        List<Long> ids = entityManager.createQuery("select b.id from Borrow b where b.id > :after order by b.id", Long.class)
+                .setParameter("after", after)
+                .setMaxResults(max)
+                .getResultList();
+        return findAllById(ids);
+    }
+
+    /**
+     * Retrieve a borrow by id with its books and borrower, locking its row until the end of the transaction.
+     *
+     * @param id id of the borrow
+     * @return the borrow or null
+     */
+    public Borrow lockById(Long id) {
+        return entityManager.find(Borrow.class, id, LockModeType.PESSIMISTIC_WRITE, Map.of(Queries.FETCH_GRAPH, withDetails()));
+    }
+
+    /**
+     * Get all borrows of a borrower.
+     *
+     * @param borrowerId the borrower's id
+     * @return the borrows, returned or not, ordered by id
+     */
+    public List<Borrow> getByBorrower(Long borrowerId) {
+        return entityManager.createQuery("select b from Borrow b where b.borrower.id = :borrowerId order by b.id", Borrow.class)
+                .setParameter("borrowerId", borrowerId)
+                .setHint(Queries.FETCH_GRAPH, withDetails())
+                .getResultList();
+    }
+
+    /**
+     * Get the borrows not returned yet.
+     *
+     * @return the active borrows, ordered by id
+     */
+    public List<Borrow> getActive() {
+        return entityManager.createQuery("select b from Borrow b where b.returned is null order by b.id", Borrow.class)
+                .setHint(Queries.FETCH_GRAPH, withDetails())
+                .getResultList();
+    }
+
+    /**
+     * Find which of the given books belong to a borrow not returned yet.
+     *
+     * @param bookIds ids of the books
+     * @return the ids of the borrowed books among them
+     */
+    public List<Long> findBorrowedBookIds(Collection<Long> bookIds) {
+        if (bookIds.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.createQuery("""
+                        select k.id from Borrow b join b.books k
+                        where k.id in :ids and b.returned is null
+                        order by k.id""", Long.class)
+                .setParameter("ids", bookIds)
+                .getResultList();
+    }
+
+    private List<Borrow> findAllById(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.createQuery("select b from Borrow b where b.id in :ids order by b.id", Borrow.class)
+                .setParameter("ids", ids)
+                .setHint(Queries.FETCH_GRAPH, withDetails())
+                .getResultList();
+    }
+
+    private Object withDetails() {
+        return entityManager.getEntityGraph(Borrow.WITH_DETAILS);
+    }
+}
@@ -0,0 +1,91 @@
+package fr.uga.l3miage.data.repo;
+
+import fr.uga.l3miage.data.domain.Borrower;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * JPA repository of {@link Borrower}.
+ */
+@Component
+public class BorrowerRepository implements Repository<Borrower, Long> {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void save(Borrower entity) {
+        if (entity.getId() == null) {
+            entityManager.persist(entity);
+        } else {
+            entityManager.merge(entity);
+        }
+    }
+
+    @Override
+    public void delete(Borrower entity) {
+        entityManager.remove(entity);
+    }
+
+    @Override
+    public Borrower findById(Long id) {
+        return entityManager.find(Borrower.class, id);
+    }
+
+    @Override
+    public List<Borrower> getAll() {
+        return entityManager.createQuery("select b from Borrower b order by b.id", Borrower.class)
+                .getResultList();
+    }
+
+    @Override
+    public List<Borrower> getPage(int first, int max) {
+        return entityManager.createQuery("select b from Borrower b order by b.id", Borrower.class)
+                .setFirstResult(first)
+                .setMaxResults(max)
+                .getResultList();
+    }
+
+    @Override
+    public List<Borrower> getAfter(Long after, int max) {
+        if (after == null) {
+            return getPage(0, max);
+        }
+        return entityManager.createQuery("select b from Borrower b where b.id > :after order by b.id", Borrower.class)
+                .setParameter("after", after)
+                .setMaxResults(max)
+                .getResultList();
+    }
+
+    /**
+     * Retrieve a borrower by id, locking its row until the end of the transaction.
+     *
+     * @param id id of the borrower
+     * @return the borrower or null
+     */
+    public Borrower lockById(Long id) {
+        return entityManager.find(Borrower.class, id, LockModeType.PESSIMISTIC_WRITE);
+    }
+
+    /**
+     * Rebuilds the borrow counters and late ratio of all borrowers from their returned borrows, the database
+     * aggregating the history of every borrower at once.
+     *
+     * @return the number of borrowers updated
+     */
+    public int recomputeBorrowCounts() {
+        entityManager.createQuery("""
+                        update Borrower p set
+                        p.returnedBorrows = (select count(b) from Borrow b where b.borrower = p and b.returned is not null),
+                        p.lateBorrows = (select count(b) from Borrow b where b.borrower = p and b.returned > b.end)""")
+                .executeUpdate();
+        return entityManager.createQuery("""
+                        update Borrower p set p.lateRatio = case when p.returnedBorrows = 0 then 0.0
+                        else 1.0 * p.lateBorrows / p.returnedBorrows end""")
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,32 @@
+package fr.uga.l3miage.data.repo;
+
+import java.util.Locale;
+
+/**
+ * Helpers shared by the JPQL repositories.
+ */
+final class Queries {
+
+    /**
+     * Hint name used to apply a named entity graph as a fetch graph
+     */
+    static final String FETCH_GRAPH = "jakarta.persistence.fetchgraph";
+
+    private Queries() {
+        // utility class
+    }
+
+    /**
+     * Builds a lower-cased LIKE pattern matching values containing the given text, to be used with {@code escape '\'}
+     *
+     * @param text the searched text
+     * @return the pattern
+     */
+    static String containsPattern(String text) {
+        String escaped = text.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
@@ -39,4 +39,22 @@ public interface Repository<T, I> {
      */
     List<T> getAll();
 
+    /**
+     * Retrieve a page of entities ordered by id.
+     *
+     * @param first index of the first entity
+     * @param max   max number of entities
+     * @return the entities of the page or an empty collection
+     */
+    List<T> getPage(int first, int max);
+
+    /**
+     * Retrieve the entities following an id, ordered by id (keyset pagination).
+     *
+     * @param after id after which entities are returned, or null to start from the first one
+     * @param max   max number of entities
+     * @return the following entities or an empty collection
+     */
+    List<T> getAfter(I after, int max);
+
 }
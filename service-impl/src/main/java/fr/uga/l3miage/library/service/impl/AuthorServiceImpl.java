@@ -0,0 +1,110 @@
+package fr.uga.l3miage.library.service.impl;
+
+import fr.uga.l3miage.data.domain.Author;
+import fr.uga.l3miage.data.domain.Book;
+import fr.uga.l3miage.data.repo.AuthorRepository;
+import fr.uga.l3miage.data.repo.BookRepository;
+import fr.uga.l3miage.library.service.AuthorService;
+import fr.uga.l3miage.library.service.DeleteAuthorException;
+import fr.uga.l3miage.library.service.EntityNotFoundException;
+import fr.uga.l3miage.library.service.base.MultiGetResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+@Transactional
+public class AuthorServiceImpl implements AuthorService {
+
+    private final AuthorRepository authorRepository;
+    private final BookRepository bookRepository;
+
+    @Autowired
+    public AuthorServiceImpl(AuthorRepository authorRepository, BookRepository bookRepository) {
+        this.authorRepository = authorRepository;
+        this.bookRepository = bookRepository;
+    }
+
+    @Override
+    public Author save(Author author) {
+        author.touch();
+        authorRepository.save(author);
+        return author;
+    }
+
+    @Override
+    public Collection<Author> saveAll(Collection<Author> authors) {
+        authors.forEach(this::save);
+        return List.copyOf(authors);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Collection<Author> searchByName(String name) {
+        return authorRepository.searchByName(name);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Author get(Long id) throws EntityNotFoundException {
+        return Optional.ofNullable(authorRepository.findById(id))
+                .orElseThrow(() -> new EntityNotFoundException("Cannot find author with id: " + id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MultiGetResult<Author, Long> getAll(Collection<Long> ids) {
+        List<Long> distinct = ids.stream().distinct().toList();
+        Map<Long, Author> found = authorRepository.findAllById(distinct).stream()
+                .collect(Collectors.toMap(Author::getId, Function.identity()));
+        return MultiGetResult.of(distinct, distinct.stream().map(found::get).toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Collection<Author> list() {
+        return authorRepository.getAll();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Author> list(int page, int limit) {
+        return Pages.get(page, limit, authorRepository::getPage);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Author> listAfter(Long after, int limit) {
+        return authorRepository.getAfter(after, limit);
+    }
+
+    @Override
+    public Author update(Author author) throws EntityNotFoundException {
+        Author stored = Optional.ofNullable(authorRepository.lockById(author.getId()))
+                .orElseThrow(() -> new EntityNotFoundException("Cannot find author with id: " + author.getId()));
+        // from the locked row rather than the caller's copy, which concurrent updates may share
+        author.setVersion(stored.getVersion());
+        author.touch();
+        authorRepository.save(author);
+        return get(author.getId());
+    }
+
+    @Override
+    public void delete(Long id) throws EntityNotFoundException, DeleteAuthorException {
+        Author author = get(id);
+        if (authorRepository.countCoAuthoredBooks(id) > 0) {
+            throw new DeleteAuthorException("cannot delete author, one or several books are co-authored");
+        }
+        List<Book> books = bookRepository.getByAuthor(id);
+        books.forEach(bookRepository::delete);
+        authorRepository.delete(author);
+    }
+
+}
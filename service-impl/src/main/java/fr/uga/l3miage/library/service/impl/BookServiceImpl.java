@@ -0,0 +1,280 @@
+package fr.uga.l3miage.library.service.impl;
+
+import fr.uga.l3miage.data.domain.Author;
+import fr.uga.l3miage.data.domain.Book;
+import fr.uga.l3miage.data.repo.AuthorRepository;
+import fr.uga.l3miage.data.repo.BookRepository;
+import fr.uga.l3miage.data.repo.BookRepository.Criteria;
+import fr.uga.l3miage.library.service.BookQuery;
+import fr.uga.l3miage.library.service.BookSearchResult;
+import fr.uga.l3miage.library.service.BookService;
+import fr.uga.l3miage.library.service.DuplicateIsbnException;
+import fr.uga.l3miage.library.service.EntityNotFoundException;
+import fr.uga.l3miage.library.service.base.MultiGetResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+@Transactional
+public class BookServiceImpl implements BookService {
+
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+
+    @Autowired
+    public BookServiceImpl(BookRepository bookRepository, AuthorRepository authorRepository) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+    }
+
+    @Override
+    public Book save(Long authorId, Book book) throws EntityNotFoundException {
+        checkIsbn(book);
+        Set<Long> ids = authorIds(book);
+        ids.add(authorId);
+        bindAll(book, ids, lockAuthors(ids));
+
+        book.touch();
+        bookRepository.save(book);
+        return book;
+    }
+
+    @Override
+    public Collection<Book> saveAll(Collection<Book> books) throws EntityNotFoundException {
+        List<Set<Long>> bookAuthorIds = new ArrayList<>(books.size());
+        Set<Long> ids = new HashSet<>();
+        for (Book book : books) {
+            Set<Long> authorIds = authorIds(book);
+            if (authorIds.isEmpty()) {
+                throw new IllegalArgumentException("a book needs at least one author");
+            }
+            bookAuthorIds.add(authorIds);
+            ids.addAll(authorIds);
+        }
+        Set<Long> isbns = new HashSet<>();
+        for (Book book : books) {
+            if (book.getIsbn() != 0 && !isbns.add(book.getIsbn())) {
+                throw new DuplicateIsbnException(book.getIsbn());
+            }
+            checkIsbn(book);
+        }
+        // authors are loaded once for all the books
+        Map<Long, Author> authors = lockAuthors(ids);
+
+        int i = 0;
+        for (Book book : books) {
+            bindAll(book, bookAuthorIds.get(i++), authors);
+            book.touch();
+            bookRepository.save(book);
+        }
+        return List.copyOf(books);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Book get(Long id) throws EntityNotFoundException {
+        return Optional.ofNullable(bookRepository.findById(id))
+                .orElseThrow(() -> new EntityNotFoundException("Cannot find book with id: " + id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MultiGetResult<Book, Long> getAll(Collection<Long> ids) {
+        List<Long> distinct = ids.stream().distinct().toList();
+        Map<Long, Book> found = bookRepository.findAllById(distinct).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        return MultiGetResult.of(distinct, distinct.stream().map(found::get).toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Book getByIsbn(long isbn) throws EntityNotFoundException {
+        return Optional.ofNullable(isbn == 0 ? null : bookRepository.findByIsbn(isbn))
+                .orElseThrow(() -> new EntityNotFoundException("Cannot find book with isbn: " + isbn));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Collection<Book> list() {
+        return bookRepository.getAll();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Book> list(int page, int limit) {
+        return Pages.get(page, limit, bookRepository::getPage);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Book> listAfter(Long after, int limit) {
+        return bookRepository.getAfter(after, limit);
+    }
+
+    @Override
+    public Book update(Book book) throws EntityNotFoundException {
+        Book stored = lock(book.getId());
+        checkIsbn(book);
+        stored.setTitle(book.getTitle());
+        stored.setIsbn(book.getIsbn());
+        stored.setPublisher(book.getPublisher());
+        stored.setYear(book.getYear());
+        stored.setLanguage(book.getLanguage());
+        // versioned from the locked row rather than the caller's copy, which concurrent updates may share
+        stored.touch();
+        return stored;
+    }
+
+    @Override
+    public Book addAuthor(Long bookId, Long authorId) throws EntityNotFoundException {
+        Book book = lock(bookId);
+        bind(lockAuthor(authorId), book);
+        book.touch();
+        return book;
+    }
+
+    @Override
+    public void delete(Long id) throws EntityNotFoundException {
+        Book book = get(id);
+        if (book.getAuthors() != null) {
+            book.getAuthors().stream()
+                    .map(Author::getBooks)
+                    .filter(Objects::nonNull)
+                    .forEach(books -> books.remove(book));
+        }
+        bookRepository.delete(book);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Collection<Book> findByTitle(String title) {
+        return bookRepository.findByTitle(title);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookSearchResult search(BookQuery query) {
+        Criteria criteria = new Criteria(query.title(), query.yearFrom(), query.yearTo(), query.languages(),
+                query.publishers());
+        // each facet is counted on the criteria on the other ones
+        Map<Book.Language, Long> languages = new EnumMap<>(Book.Language.class);
+        languages.putAll(bookRepository.countBy("language", Book.Language.class,
+                new Criteria(query.title(), query.yearFrom(), query.yearTo(), null, query.publishers())));
+        Map<String, Long> publishers = new LinkedHashMap<>();
+        bookRepository.countBy("publisher", String.class,
+                        new Criteria(query.title(), query.yearFrom(), query.yearTo(), query.languages(), null))
+                .entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .forEach(entry -> publishers.put(entry.getKey(), entry.getValue()));
+        Map<Integer, Long> decades = new TreeMap<>();
+        bookRepository.countBy("year", Short.class,
+                        new Criteria(query.title(), null, null, query.languages(), query.publishers()))
+                .forEach((year, count) -> decades.merge(Math.floorDiv(year, 10) * 10, count, Long::sum));
+
+        return new BookSearchResult(bookRepository.count(criteria),
+                Pages.get(query.page(), query.limit(), (first, max) -> bookRepository.search(criteria, first, max)),
+                languages, publishers, decades);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Collection<Book> getByAuthor(Long authorId) throws EntityNotFoundException {
+        getAuthor(authorId);
+        return bookRepository.getByAuthor(authorId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Collection<Book> findByAuthor(Long authorId, String title) throws EntityNotFoundException {
+        getAuthor(authorId);
+        return bookRepository.findByAuthor(authorId, title);
+    }
+
+    /**
+     * Loads a book to modify, locking its row so that concurrent writes bump its version one after the other
+     */
+    private Book lock(Long id) throws EntityNotFoundException {
+        return Optional.ofNullable(bookRepository.lockById(id))
+                .orElseThrow(() -> new EntityNotFoundException("Cannot find book with id: " + id));
+    }
+
+    private Author lockAuthor(Long id) throws EntityNotFoundException {
+        return Optional.ofNullable(authorRepository.lockById(id))
+                .orElseThrow(() -> new EntityNotFoundException("Cannot find author with id: " + id));
+    }
+
+    private Author getAuthor(Long id) throws EntityNotFoundException {
+        return Optional.ofNullable(authorRepository.findById(id))
+                .orElseThrow(() -> new EntityNotFoundException("Cannot find author with id: " + id));
+    }
+
+    /**
+     * Loads the authors of the given ids to modify, in one query locking their rows
+     *
+     * @throws EntityNotFoundException if one of the authors do not exist
+     */
+    private Map<Long, Author> lockAuthors(Set<Long> ids) throws EntityNotFoundException {
+        Map<Long, Author> authors = authorRepository.lockAllById(ids).stream()
+                .collect(Collectors.toMap(Author::getId, Function.identity()));
+        for (Long id : ids) {
+            if (!authors.containsKey(id)) {
+                throw new EntityNotFoundException("Cannot find author with id: " + id);
+            }
+        }
+        return authors;
+    }
+
+    /**
+     * @throws DuplicateIsbnException if another book has the ISBN of the given one
+     */
+    private void checkIsbn(Book book) {
+        if (book.getIsbn() != 0 && bookRepository.isbnTaken(book.getIsbn(), book.getId())) {
+            throw new DuplicateIsbnException(book.getIsbn());
+        }
+    }
+
+    private static Set<Long> authorIds(Book book) {
+        Set<Long> ids = new HashSet<>();
+        if (book.getAuthors() != null) {
+            book.getAuthors().stream()
+                    .map(Author::getId)
+                    .filter(Objects::nonNull)
+                    .forEach(ids::add);
+        }
+        return ids;
+    }
+
+    /**
+     * Binds the book to the authors of the given ids, replacing those set by the caller, that may come from another
+     * persistence context, by managed ones
+     */
+    private static void bindAll(Book book, Set<Long> ids, Map<Long, Author> authors) {
+        book.setAuthors(new HashSet<>());
+        ids.forEach(id -> bind(authors.get(id), book));
+    }
+
+    /**
+     * Binds an author and a book both ways, the author is marked as modified
+     */
+    private static void bind(Author author, Book book) {
+        author.touch();
+        author.addBook(book);
+        book.addAuthor(author);
+    }
+
+}
@@ -0,0 +1,146 @@
+package fr.uga.l3miage.library.service.impl;
+
+import fr.uga.l3miage.data.domain.Book;
+import fr.uga.l3miage.data.domain.Borrow;
+import fr.uga.l3miage.data.domain.Borrower;
+import fr.uga.l3miage.data.repo.BookRepository;
+import fr.uga.l3miage.data.repo.BorrowRepository;
+import fr.uga.l3miage.data.repo.BorrowerRepository;
+import fr.uga.l3miage.library.service.BookUnavailableException;
+import fr.uga.l3miage.library.service.BorrowService;
+import fr.uga.l3miage.library.service.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Lends books after locking their rows: concurrent checkouts of a book wait for each other, those of different books
+ * do not.
+ */
+@Component
+@Transactional
+public class BorrowServiceImpl implements BorrowService {
+
+    private final BorrowRepository borrowRepository;
+    private final BorrowerRepository borrowerRepository;
+    private final BookRepository bookRepository;
+
+    @Autowired
+    public BorrowServiceImpl(BorrowRepository borrowRepository, BorrowerRepository borrowerRepository,
+            BookRepository bookRepository) {
+        this.borrowRepository = borrowRepository;
+        this.borrowerRepository = borrowerRepository;
+        this.bookRepository = bookRepository;
+    }
+
+    @Override
+    @Transactional(rollbackFor = BookUnavailableException.class)
+    public Borrow checkout(Long borrowerId, Collection<Long> bookIds, Date end)
+            throws EntityNotFoundException, BookUnavailableException {
+        if (bookIds == null || bookIds.isEmpty()) {
+            throw new IllegalArgumentException("a borrow needs at least one book");
+        }
+        if (end == null) {
+            throw new IllegalArgumentException("a borrow needs a due date");
+        }
+        Borrower borrower = Optional.ofNullable(borrowerRepository.findById(borrowerId))
+                .orElseThrow(() -> new EntityNotFoundException("Cannot find borrower with id: " + borrowerId));
+
+        Set<Long> ids = new HashSet<>(bookIds);
+        List<Book> books = bookRepository.lockAllById(ids);
+        if (books.size() != ids.size()) {
+            books.stream().map(Book::getId).toList().forEach(ids::remove);
+            throw new EntityNotFoundException("Cannot find books with ids: " + ids);
+        }
+        // the rows being locked, no other transaction can borrow these books until this one ends
+        List<Long> unavailable = borrowRepository.findBorrowedBookIds(ids);
+        if (!unavailable.isEmpty()) {
+            throw new BookUnavailableException("Books already borrowed: " + unavailable, unavailable);
+        }
+
+        Borrow borrow = new Borrow();
+        borrow.setBooks(new HashSet<>(books));
+        borrow.setBorrower(borrower);
+        borrow.setStart(new Date());
+        borrow.setEnd(end);
+        borrowRepository.save(borrow);
+        return borrow;
+    }
+
+    @Override
+    public Borrow checkIn(Long id) throws EntityNotFoundException {
+        Borrow borrow = Optional.ofNullable(borrowRepository.lockById(id))
+                .orElseThrow(() -> new EntityNotFoundException("Cannot find borrow with id: " + id));
+        if (borrow.isActive()) {
+            borrow.setReturned(new Date());
+            // returns of other borrows of the borrower wait for this one, so that none of them is left uncounted
+            Borrower borrower = borrowerRepository.lockById(borrow.getBorrower().getId());
+            borrower.borrowReturned(borrow.isReturnedLate());
+        }
+        return borrow;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Collection<Borrow> getByBorrower(Long borrowerId) throws EntityNotFoundException {
+        if (borrowerRepository.findById(borrowerId) == null) {
+            throw new EntityNotFoundException("Cannot find borrower with id: " + borrowerId);
+        }
+        return borrowRepository.getByBorrower(borrowerId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Collection<Borrow> listActive() {
+        return borrowRepository.getActive();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean isAvailable(Long bookId) throws EntityNotFoundException {
+        if (bookRepository.findById(bookId) == null) {
+            throw new EntityNotFoundException("Cannot find book with id: " + bookId);
+        }
+        return borrowRepository.findBorrowedBookIds(List.of(bookId)).isEmpty();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Borrow get(Long id) throws EntityNotFoundException {
+        return Optional.ofNullable(borrowRepository.findById(id))
+                .orElseThrow(() -> new EntityNotFoundException("Cannot find borrow with id: " + id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Collection<Borrow> list() {
+        return borrowRepository.getAll();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Borrow> list(int page, int limit) {
+        return Pages.get(page, limit, borrowRepository::getPage);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Borrow> listAfter(Long after, int limit) {
+        return borrowRepository.getAfter(after, limit);
+    }
+
+    @Override
+    public Borrow update(Borrow borrow) throws EntityNotFoundException {
+        Borrow stored = Optional.ofNullable(borrowRepository.lockById(borrow.getId()))
+                .orElseThrow(() -> new EntityNotFoundException("Cannot find borrow with id: " + borrow.getId()));
+        stored.setEnd(borrow.getEnd());
+        return stored;
+    }
+}
@@ -0,0 +1,81 @@
+package fr.uga.l3miage.library.service.impl;
+
+import fr.uga.l3miage.data.domain.Borrower;
+import fr.uga.l3miage.data.repo.BorrowerRepository;
+import fr.uga.l3miage.library.service.BorrowerService;
+import fr.uga.l3miage.library.service.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+@Component
+@Transactional
+public class BorrowerServiceImpl implements BorrowerService {
+
+    private final BorrowerRepository borrowerRepository;
+
+    @Autowired
+    public BorrowerServiceImpl(BorrowerRepository borrowerRepository) {
+        this.borrowerRepository = borrowerRepository;
+    }
+
+    @Override
+    public Borrower save(Borrower borrower) {
+        if (borrower.getRegistered() == null) {
+            borrower.setRegistered(new Date());
+        }
+        borrowerRepository.save(borrower);
+        return borrower;
+    }
+
+    /**
+     * The history is aggregated by the database, in two bulk updates rather than borrower by borrower.
+     */
+    @Override
+    public int recomputeLateRatios() {
+        return borrowerRepository.recomputeBorrowCounts();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Borrower get(Long id) throws EntityNotFoundException {
+        return Optional.ofNullable(borrowerRepository.findById(id))
+                .orElseThrow(() -> new EntityNotFoundException("Cannot find borrower with id: " + id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Collection<Borrower> list() {
+        return borrowerRepository.getAll();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Borrower> list(int page, int limit) {
+        return Pages.get(page, limit, borrowerRepository::getPage);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Borrower> listAfter(Long after, int limit) {
+        return borrowerRepository.getAfter(after, limit);
+    }
+
+    @Override
+    public Borrower update(Borrower borrower) throws EntityNotFoundException {
+        Borrower stored = Optional.ofNullable(borrowerRepository.lockById(borrower.getId()))
+                .orElseThrow(() -> new EntityNotFoundException("Cannot find borrower with id: " + borrower.getId()));
+        // the personal fields only, the borrow counts being kept by the returns
+        stored.setFirstName(borrower.getFirstName())
+                .setLastName(borrower.getLastName())
+                .setBirth(borrower.getBirth())
+                .setGender(borrower.getGender());
+        stored.setRegistered(borrower.getRegistered());
+        return stored;
+    }
+}
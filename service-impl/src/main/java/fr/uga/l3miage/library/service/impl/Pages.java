@@ -0,0 +1,32 @@
+package fr.uga.l3miage.library.service.impl;
+
+import java.util.List;
+
+/**
+ * Numbered pages over the repositories, whose queries take int offsets.
+ */
+final class Pages {
+
+    private Pages() {
+        // utility class
+    }
+
+    /**
+     * Query of the objects from an offset
+     */
+    @FunctionalInterface
+    interface Query<T> {
+        List<T> get(int first, int max);
+    }
+
+    /**
+     * Lists a page, those past the int offsets being empty (the web layer rejects them beforehand).
+     *
+     * @param page  page number, starting at 0
+     * @param limit page size
+     */
+    static <T> List<T> get(int page, int limit, Query<T> query) {
+        long first = (long) page * limit;
+        return first > Integer.MAX_VALUE ? List.of() : query.get((int) first, limit);
+    }
+}
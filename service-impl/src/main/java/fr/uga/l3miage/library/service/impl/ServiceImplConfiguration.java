@@ -0,0 +1,20 @@
+package fr.uga.l3miage.library.service.impl;
+
+import fr.uga.l3miage.data.domain.Author;
+import fr.uga.l3miage.data.repo.Repository;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+/**
+ * Registers the JPA domain model and repositories of the {@code data} module, along with the persistence defaults
+ * (embedded H2, JDBC batching) found in {@code service-impl.properties}. Any of them can be overridden by the
+ * application's own configuration.
+ */
+@Configuration
+@EntityScan(basePackageClasses = Author.class)
+@ComponentScan(basePackageClasses = Repository.class)
+@PropertySource("classpath:service-impl.properties")
+public class ServiceImplConfiguration {
+}
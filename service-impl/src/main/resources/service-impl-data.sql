@@ -0,0 +1,3 @@
+insert into author (id, full_name, version, last_modified) values (-1, 'Benoit Bordigoni', 1, current_timestamp);
+insert into book (id, title, isbn, publisher, publication_year, language, version, last_modified) values (-1, 'The Art of JPA', 2145673168735453, 'Dunod', 2023, 'ENGLISH', 1, current_timestamp);
+insert into book_author (book_id, author_id) values (-1, -1);
@@ -0,0 +1,215 @@
+package fr.uga.l3miage.library.service.impl;
+
+import fr.uga.l3miage.data.domain.Author;
+import fr.uga.l3miage.data.domain.Book;
+import fr.uga.l3miage.library.service.AuthorService;
+import fr.uga.l3miage.library.service.BookQuery;
+import fr.uga.l3miage.library.service.BookSearchResult;
+import fr.uga.l3miage.library.service.BookService;
+import fr.uga.l3miage.library.service.DeleteAuthorException;
+import fr.uga.l3miage.library.service.DuplicateIsbnException;
+import fr.uga.l3miage.library.service.EntityNotFoundException;
+import fr.uga.l3miage.library.service.base.MultiGetResult;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BookServiceImplTest {
+
+    private static final AtomicLong nextIsbn = new AtomicLong(1234567890L);
+
+    @Autowired
+    AuthorService authorService;
+
+    @Autowired
+    BookService bookService;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void seedData() throws EntityNotFoundException {
+        assertThat(bookService.getByAuthor(-1L))
+                .extracting(Book::getTitle)
+                .containsExactly("The Art of JPA");
+    }
+
+    @Test
+    void getByAuthorLoadsAuthorsInOneQuery() throws EntityNotFoundException {
+        Author author = authorService.save(newAuthor("Ursula K. Le Guin"));
+        Author coAuthor = authorService.save(newAuthor("Vonda McIntyre"));
+        for (int i = 0; i < 10; i++) {
+            Book book = bookService.save(author.getId(), newBook("Earthsea " + i));
+            bookService.addAuthor(book.getId(), coAuthor.getId());
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        Collection<Book> books = bookService.getByAuthor(author.getId());
+
+        assertThat(books).hasSize(10)
+                .allSatisfy(book -> assertThat(book.getAuthors()).hasSize(2));
+        // one for the author existence check, one for the books with their authors
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+        assertThat(bookService.findByAuthor(author.getId(), "EARTHSEA 1")).hasSize(1);
+        assertThat(bookService.findByTitle("earthsea")).hasSize(10);
+    }
+
+    @Test
+    void getAllInOneQuery() throws EntityNotFoundException {
+        Author author = authorService.save(newAuthor("Octavia E. Butler"));
+        Book kindred = bookService.save(author.getId(), newBook("Kindred"));
+        Book dawn = bookService.save(author.getId(), newBook("Dawn"));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        MultiGetResult<Book, Long> result = bookService.getAll(
+                List.of(dawn.getId(), -42L, kindred.getId(), dawn.getId()));
+
+        assertThat(result.found()).extracting(Book::getTitle).containsExactly("Dawn", "Kindred");
+        assertThat(result.found()).allSatisfy(book -> assertThat(book.getAuthors()).hasSize(1));
+        assertThat(result.missing()).containsExactly(-42L);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        assertThat(authorService.getAll(List.of(-42L, author.getId())).found())
+                .extracting(Author::getId)
+                .containsExactly(author.getId());
+    }
+
+    @Test
+    void updatesOfTheSameCopyGetTheirOwnVersion() throws EntityNotFoundException {
+        Author author = authorService.save(newAuthor("Mary Shelley"));
+        Book book = bookService.save(author.getId(), newBook("Frankenstein"));
+        Book first = bookService.get(book.getId());
+        Book second = bookService.get(book.getId());
+
+        long firstVersion = bookService.update(first).getVersion();
+        long secondVersion = bookService.update(second).getVersion();
+        assertThat(secondVersion).isEqualTo(firstVersion + 1);
+
+        Author firstAuthor = authorService.get(author.getId());
+        Author secondAuthor = authorService.get(author.getId());
+        long firstAuthorVersion = authorService.update(firstAuthor).getVersion();
+        assertThat(authorService.update(secondAuthor).getVersion()).isEqualTo(firstAuthorVersion + 1);
+    }
+
+    @Test
+    void pages() throws EntityNotFoundException {
+        Author author = authorService.save(newAuthor("Iain M. Banks"));
+        for (int i = 0; i < 5; i++) {
+            bookService.save(author.getId(), newBook("Culture " + i));
+        }
+
+        List<Book> first = bookService.listAfter(null, 3);
+        List<Book> next = bookService.listAfter(first.get(2).getId(), 3);
+
+        assertThat(first).hasSize(3).isSortedAccordingTo(Comparator.comparing(Book::getId));
+        assertThat(next).isNotEmpty()
+                .allSatisfy(book -> assertThat(book.getId()).isGreaterThan(first.get(2).getId()))
+                .allSatisfy(book -> assertThat(book.getAuthors()).isNotEmpty());
+        assertThat(bookService.list(1, 3)).extracting(Book::getId)
+                .containsExactlyElementsOf(next.stream().map(Book::getId).toList());
+        // offsets past an int
+        assertThat(bookService.list(Integer.MAX_VALUE, 3)).isEmpty();
+        assertThat(authorService.list(Integer.MAX_VALUE, 3)).isEmpty();
+    }
+
+    @Test
+    void uniqueIsbn() throws EntityNotFoundException {
+        Author author = authorService.save(newAuthor("Frank Herbert"));
+        Book dune = bookService.save(author.getId(), newBook("Dune"));
+
+        assertThat(bookService.getByIsbn(dune.getIsbn()).getTitle()).isEqualTo("Dune");
+        assertThat(bookService.getByIsbn(2145673168735453L).getTitle()).isEqualTo("The Art of JPA");
+        assertThrows(EntityNotFoundException.class, () -> bookService.getByIsbn(42));
+
+        Book copy = newBook("Dune again");
+        copy.setIsbn(dune.getIsbn());
+        assertThrows(DuplicateIsbnException.class, () -> bookService.save(author.getId(), copy));
+        Book first = newBook("Messiah");
+        first.addAuthor(author);
+        copy.addAuthor(author);
+        assertThrows(DuplicateIsbnException.class, () -> bookService.saveAll(List.of(first, copy)));
+        assertThat(bookService.findByTitle("messiah")).isEmpty();
+
+        Book messiah = bookService.save(author.getId(), newBook("Dune Messiah"));
+        messiah.setIsbn(dune.getIsbn());
+        assertThrows(DuplicateIsbnException.class, () -> bookService.update(messiah));
+        // updated with its own ISBN
+        assertThat(bookService.update(bookService.get(dune.getId())).getIsbn()).isEqualTo(dune.getIsbn());
+    }
+
+    @Test
+    void search() throws EntityNotFoundException {
+        Author author = authorService.save(newAuthor("Isaac Asimov"));
+        for (int i = 0; i < 4; i++) {
+            Book book = newBook("Foundation " + i);
+            book.setYear((short) (1951 + 10 * i));
+            book.setLanguage(i < 3 ? Book.Language.ENGLISH : Book.Language.FRENCH);
+            book.setPublisher(i % 2 == 0 ? "Gnome" : "Doubleday");
+            bookService.save(author.getId(), book);
+        }
+
+        BookSearchResult result = bookService.search(new BookQuery("foundation", 1960, null,
+                Set.of(Book.Language.ENGLISH), null, 0, 1));
+
+        assertThat(result.total()).isEqualTo(2);
+        assertThat(result.books()).extracting(Book::getTitle).containsExactly("Foundation 1");
+        assertThat(result.languages()).containsExactly(Map.entry(Book.Language.FRENCH, 1L),
+                Map.entry(Book.Language.ENGLISH, 2L));
+        assertThat(result.publishers()).containsExactly(Map.entry("Doubleday", 1L), Map.entry("Gnome", 1L));
+        assertThat(result.decades()).containsExactly(Map.entry(1950, 1L), Map.entry(1960, 1L), Map.entry(1970, 1L));
+
+        BookSearchResult far = bookService.search(new BookQuery("foundation", 1960, null,
+                Set.of(Book.Language.ENGLISH), null, Integer.MAX_VALUE, 2));
+        assertThat(far.total()).isEqualTo(2);
+        assertThat(far.books()).isEmpty();
+    }
+
+    @Test
+    void deleteAuthor() throws EntityNotFoundException, DeleteAuthorException {
+        Author author = authorService.save(newAuthor("Foo"));
+        Author coAuthor = authorService.save(newAuthor("Bar"));
+        Book book = bookService.save(author.getId(), newBook("Shared"));
+        bookService.addAuthor(book.getId(), coAuthor.getId());
+
+        assertThrows(DeleteAuthorException.class, () -> authorService.delete(coAuthor.getId()));
+
+        bookService.delete(book.getId());
+        Book own = bookService.save(author.getId(), newBook("Own"));
+        authorService.delete(author.getId());
+
+        assertThrows(EntityNotFoundException.class, () -> authorService.get(author.getId()));
+        assertThrows(EntityNotFoundException.class, () -> bookService.get(own.getId()));
+    }
+
+    private static Author newAuthor(String name) {
+        Author author = new Author();
+        author.setFullName(name);
+        return author;
+    }
+
+    private static Book newBook(String title) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setIsbn(nextIsbn.getAndIncrement());
+        book.setYear((short) 1968);
+        book.setLanguage(Book.Language.ENGLISH);
+        return book;
+    }
+}
@@ -0,0 +1,173 @@
+package fr.uga.l3miage.library.service.impl;
+
+import fr.uga.l3miage.data.domain.Author;
+import fr.uga.l3miage.data.domain.Book;
+import fr.uga.l3miage.data.domain.Borrow;
+import fr.uga.l3miage.data.domain.Borrower;
+import fr.uga.l3miage.data.repo.BorrowerRepository;
+import fr.uga.l3miage.library.service.AuthorService;
+import fr.uga.l3miage.library.service.BookService;
+import fr.uga.l3miage.library.service.BookUnavailableException;
+import fr.uga.l3miage.library.service.BorrowService;
+import fr.uga.l3miage.library.service.BorrowerService;
+import fr.uga.l3miage.library.service.EntityNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class BorrowServiceImplTest {
+
+    private static final int THREADS = 4;
+    private static final AtomicLong nextIsbn = new AtomicLong(9780441172719L);
+
+    @Autowired
+    AuthorService authorService;
+
+    @Autowired
+    BookService bookService;
+
+    @Autowired
+    BorrowerService borrowerService;
+
+    @Autowired
+    BorrowService borrowService;
+
+    @Autowired
+    BorrowerRepository borrowerRepository;
+
+    @Autowired
+    TransactionTemplate transactions;
+
+    Date due = new Date(System.currentTimeMillis() + 14 * 24 * 3600 * 1000L);
+
+    @Test
+    void checkoutAndCheckIn() throws Exception {
+        Long borrowerId = newBorrower().getId();
+        Long first = newBook("Dune").getId();
+        Long second = newBook("Dune Messiah").getId();
+
+        Borrow borrow = borrowService.checkout(borrowerId, List.of(first, second), due);
+        assertThat(borrowService.isAvailable(first)).isFalse();
+        assertThat(borrowService.getByBorrower(borrowerId)).extracting(Borrow::getId).containsExactly(borrow.getId());
+
+        BookUnavailableException unavailable = assertThrows(BookUnavailableException.class,
+                () -> borrowService.checkout(borrowerId, List.of(second), due));
+        assertThat(unavailable.getBookIds()).containsExactly(second);
+        assertThrows(EntityNotFoundException.class,
+                () -> borrowService.checkout(borrowerId, List.of(first, Long.MAX_VALUE), due));
+
+        Borrow returned = borrowService.checkIn(borrow.getId());
+        assertThat(returned.getReturned()).isNotNull();
+        assertThat(returned.getBooks()).extracting(Book::getId).containsExactlyInAnyOrder(first, second);
+        assertThat(borrowService.isAvailable(first)).isTrue();
+        assertThat(borrowService.checkout(borrowerId, List.of(first, second), due).isActive()).isTrue();
+
+        assertThat(borrowService.list(0, 1)).hasSize(1);
+        // offsets past an int
+        assertThat(borrowService.list(Integer.MAX_VALUE, 2)).isEmpty();
+        assertThat(borrowerService.list(Integer.MAX_VALUE, 2)).isEmpty();
+    }
+
+    @Test
+    void lateRatio() throws Exception {
+        Long borrowerId = newBorrower().getId();
+        Date past = new Date(System.currentTimeMillis() - 24 * 3600 * 1000L);
+        for (int i = 0; i < 4; i++) {
+            Long book = newBook("Late " + i).getId();
+            borrowService.checkIn(borrowService.checkout(borrowerId, List.of(book), i < 3 ? past : due).getId());
+        }
+
+        assertThat(borrowerService.get(borrowerId).getLateRatio()).isEqualTo(0.75f);
+
+        // a copy read before a return does not undo it
+        Borrower stale = borrowerService.get(borrowerId);
+        Long onTime = newBook("On time").getId();
+        borrowService.checkIn(borrowService.checkout(borrowerId, List.of(onTime), due).getId());
+        stale.setFirstName("Brian");
+        borrowerService.update(stale);
+        Borrower updated = borrowerService.get(borrowerId);
+        assertThat(updated.getFirstName()).isEqualTo("Brian");
+        assertThat(updated.getReturnedBorrows()).isEqualTo(5);
+        assertThat(updated.getLateRatio()).isEqualTo(0.6f);
+
+        transactions.executeWithoutResult(status -> borrowerRepository.lockById(borrowerId).setBorrowCounts(0, 0));
+        assertThat(borrowerService.get(borrowerId).getLateRatio()).isZero();
+
+        assertThat(borrowerService.recomputeLateRatios()).isPositive();
+        Borrower recomputed = borrowerService.get(borrowerId);
+        assertThat(recomputed.getReturnedBorrows()).isEqualTo(5);
+        assertThat(recomputed.getLateBorrows()).isEqualTo(3);
+        assertThat(recomputed.getLateRatio()).isEqualTo(0.6f);
+    }
+
+    @Test
+    void concurrentCheckoutsLendABookOnce() throws Exception {
+        List<Long> books = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            books.add(newBook("Contended " + i).getId());
+        }
+
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Long borrowerId = newBorrower().getId();
+            tasks.add(() -> {
+                int lent = 0;
+                for (Long book : books) {
+                    try {
+                        borrowService.checkout(borrowerId, List.of(book), due);
+                        lent++;
+                    } catch (BookUnavailableException e) {
+                        // another borrower was faster
+                    }
+                }
+                return lent;
+            });
+        }
+
+        int lent = 0;
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (Future<Integer> future : executor.invokeAll(tasks)) {
+                lent += future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(lent).isEqualTo(books.size());
+        for (Long book : books) {
+            assertThat(borrowService.isAvailable(book)).isFalse();
+        }
+    }
+
+    private Borrower newBorrower() {
+        Borrower borrower = new Borrower();
+        borrower.setFirstName("Frank").setLastName("Herbert");
+        return borrowerService.save(borrower);
+    }
+
+    private Book newBook(String title) throws EntityNotFoundException {
+        Author author = new Author();
+        author.setFullName("Frank Herbert");
+        Book book = new Book();
+        book.setTitle(title);
+        book.setIsbn(nextIsbn.getAndIncrement());
+        book.setYear((short) 1965);
+        book.setLanguage(Book.Language.ENGLISH);
+        return bookService.save(authorService.save(author).getId(), book);
+    }
+}
@@ -0,0 +1,128 @@
+package fr.uga.l3miage.library.service.mock;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Secondary index of the author/book association, so that author-scoped queries cost the size of their answer.
+ * <p>
+ * It maintains, for each author, the sorted ids of its books and the number of its books having other authors, and,
+ * for each book, its number of authors. Whether an author can be deleted (none of its books is co-authored) is then
+ * known without walking its books.
+ * <p>
+ * Writers must hold the locks of the author and of the book they bind or unbind, as for the association itself.
+ * Readers do not lock: the book ids of an author are copied on write and published as a whole.
+ */
+final class AuthorBookIndex {
+
+    private static final long[] NONE = new long[0];
+
+    private final Map<Long, long[]> booksByAuthor = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> coAuthoredByAuthor = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> authorsByBook = new ConcurrentHashMap<>();
+
+    /**
+     * Records that a book is written by an author, does nothing when already known.
+     *
+     * @param authorId  the author
+     * @param bookId    the book
+     * @param authorIds the authors of the book, including the new one
+     */
+    void bind(long authorId, long bookId, Iterable<Long> authorIds) {
+        long[] ids = booksByAuthor.getOrDefault(authorId, NONE);
+        int index = Arrays.binarySearch(ids, bookId);
+        if (index >= 0) {
+            return;
+        }
+        booksByAuthor.put(authorId, insert(ids, -index - 1, bookId));
+
+        int authors = authorsByBook.merge(bookId, 1, Integer::sum);
+        if (authors == 2) {
+            // the book becomes co-authored for both of its authors
+            for (Long id : authorIds) {
+                coAuthoredByAuthor.merge(id, 1, Integer::sum);
+            }
+        } else if (authors > 2) {
+            coAuthoredByAuthor.merge(authorId, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Forgets a book.
+     *
+     * @param bookId    the book
+     * @param authorIds its authors
+     */
+    void removeBook(long bookId, Iterable<Long> authorIds) {
+        Integer authors = authorsByBook.remove(bookId);
+        if (authors == null) {
+            return;
+        }
+        for (Long authorId : authorIds) {
+            booksByAuthor.computeIfPresent(authorId, (id, ids) -> {
+                int index = Arrays.binarySearch(ids, bookId);
+                return index < 0 ? ids : remove(ids, index);
+            });
+            if (authors > 1) {
+                coAuthoredByAuthor.computeIfPresent(authorId, (id, count) -> count == 1 ? null : count - 1);
+            }
+        }
+    }
+
+    /**
+     * Forgets an author, whose books must already have been removed.
+     */
+    void removeAuthor(long authorId) {
+        booksByAuthor.remove(authorId);
+        coAuthoredByAuthor.remove(authorId);
+    }
+
+    /**
+     * Forgets every author and book.
+     */
+    void clear() {
+        booksByAuthor.clear();
+        coAuthoredByAuthor.clear();
+        authorsByBook.clear();
+    }
+
+    /**
+     * @return the ids of the books of an author, sorted
+     */
+    long[] books(long authorId) {
+        return booksByAuthor.getOrDefault(authorId, NONE);
+    }
+
+    /**
+     * @return the number of books of an author having other authors
+     */
+    int coAuthored(long authorId) {
+        return coAuthoredByAuthor.getOrDefault(authorId, 0);
+    }
+
+    /**
+     * @return the number of authors of a book
+     */
+    int authors(long bookId) {
+        return authorsByBook.getOrDefault(bookId, 0);
+    }
+
+    private static long[] insert(long[] ids, int index, long id) {
+        long[] copy = new long[ids.length + 1];
+        System.arraycopy(ids, 0, copy, 0, index);
+        copy[index] = id;
+        System.arraycopy(ids, index, copy, index + 1, ids.length - index);
+        return copy;
+    }
+
+    private static long[] remove(long[] ids, int index) {
+        if (ids.length == 1) {
+            return null;
+        }
+        long[] copy = new long[ids.length - 1];
+        System.arraycopy(ids, 0, copy, 0, index);
+        System.arraycopy(ids, index + 1, copy, index, ids.length - index - 1);
+        return copy;
+    }
+}
@@ -1,25 +1,26 @@
 package fr.uga.l3miage.library.service.mock;
 
 import fr.uga.l3miage.data.domain.Author;
-import fr.uga.l3miage.data.domain.Book;
 import fr.uga.l3miage.library.service.AuthorService;
 import fr.uga.l3miage.library.service.DeleteAuthorException;
 import fr.uga.l3miage.library.service.EntityNotFoundException;
+import fr.uga.l3miage.library.service.base.MultiGetResult;
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
 
 @Component
 public class AuthorServiceMockImpl implements AuthorService {
 
     @Override
     public Collection<Author> searchByName(String name) {
-        return MockData.authors.values()
-                .stream()
-                .filter(author -> author.getFullName().toLowerCase().contains(name.toLowerCase()))
+        return Arrays.stream(MockData.names.search(name))
+                .mapToObj(MockData.authors::get)
+                .filter(Objects::nonNull)
                 .toList();
     }
 
@@ -27,10 +28,19 @@ public class AuthorServiceMockImpl implements AuthorService {
     @Override
     public Author save(Author author) {
         author.setId(MockData.getNextId(Author.class));
-        doUpdate(author);
+        author.touch();
+        MockData.putAuthor(author);
+        MockData.commit();
         return author;
     }
 
+    @Override
+    public Collection<Author> saveAll(Collection<Author> authors) {
+        return authors.stream()
+                .map(this::save)
+                .toList();
+    }
+
     @Override
     public Author get(Long id) throws EntityNotFoundException {
         return doGet(id);
@@ -41,46 +51,79 @@ public class AuthorServiceMockImpl implements AuthorService {
                 .orElseThrow(() -> new EntityNotFoundException("Cannot find author with id: " + id));
     }
 
+    @Override
+    public MultiGetResult<Author, Long> getAll(Collection<Long> ids) {
+        List<Long> distinct = ids.stream().distinct().toList();
+        return MultiGetResult.of(distinct, distinct.stream().map(MockData.authors::get).toList());
+    }
+
     @Override
     public Collection<Author> list() {
         return MockData.authors.values().stream().toList();
     }
 
+    @Override
+    public List<Author> list(int page, int limit) {
+        return MockData.authors.values().stream()
+                .skip((long) page * limit)
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public List<Author> listAfter(Long after, int limit) {
+        var following = after == null ? MockData.authors : MockData.authors.tailMap(after, false);
+        return following.values().stream()
+                .limit(limit)
+                .toList();
+    }
+
     @Override
     public Author update(Author author) throws EntityNotFoundException {
-        get(author.getId());
-        doUpdate(author);
+        try (var held = MockData.locks.acquire(MockData.locks.authorStripe(author.getId()))) {
+            Author stored = get(author.getId());
+            // from the stored author rather than the caller's copy, which concurrent updates may share
+            author.setVersion(stored.getVersion());
+            author.touch();
+            MockData.putAuthor(author);
+        }
+        MockData.commit();
         return MockData.authors.get(author.getId());
     }
 
     @Override
     public void delete(Long id) throws EntityNotFoundException, DeleteAuthorException {
-        Set<Book> books = get(id)
-                .getBooks();
-        if (books != null) {
-
-            Optional<Integer> bookWithManyAuthor = books.stream()
-                    .map(Book::getAuthors)
-                    .filter(Objects::nonNull)
-                    .map(Collection::size)
-                    .filter(s -> s > 1)
-                    .findFirst();
-
-            if (bookWithManyAuthor.isPresent()) {
-                throw new DeleteAuthorException("cannot delete author, one or several books are co-authored");
+        while (true) {
+            Author author = get(id);
+            long[] books = MockData.authorBooks.books(id);
+            try (var held = MockData.locks.acquire(stripes(id, books))) {
+                if (MockData.authors.get(id) != author || MockData.authorBooks.books(id) != books) {
+                    // concurrently modified before the locks were acquired (book ids are copied on write)
+                    continue;
+                }
+
+                if (MockData.authorBooks.coAuthored(id) > 0) {
+                    throw new DeleteAuthorException("cannot delete author, one or several books are co-authored");
+                }
+
+                for (long bookId : books) {
+                    MockData.removeBook(MockData.books.get(bookId));
+                }
+                MockData.removeAuthor(id);
             }
-
-            books.stream().map(Book::getId).forEach(MockData.books::remove);
-
+            MockData.commit();
+            return;
         }
-
-        MockData.authors.remove(id);
-
-
     }
 
-    private static void doUpdate(Author author) {
-        MockData.authors.put(author.getId(), author);
+    private static int[] stripes(Long authorId, long[] books) {
+        int[] stripes = new int[books.length + 1];
+        int i = 0;
+        stripes[i++] = MockData.locks.authorStripe(authorId);
+        for (long book : books) {
+            stripes[i++] = MockData.locks.bookStripe(book);
+        }
+        return stripes;
     }
 
 }
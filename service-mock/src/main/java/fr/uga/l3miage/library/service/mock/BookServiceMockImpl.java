@@ -2,36 +2,102 @@ package fr.uga.l3miage.library.service.mock;
 
 import fr.uga.l3miage.data.domain.Author;
 import fr.uga.l3miage.data.domain.Book;
-import fr.uga.l3miage.library.service.AuthorService;
+import fr.uga.l3miage.library.service.BookQuery;
+import fr.uga.l3miage.library.service.BookSearchResult;
 import fr.uga.l3miage.library.service.BookService;
+import fr.uga.l3miage.library.service.DuplicateIsbnException;
 import fr.uga.l3miage.library.service.EntityNotFoundException;
-import org.springframework.beans.factory.annotation.Autowired;
+import fr.uga.l3miage.library.service.base.MultiGetResult;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Component
 public class BookServiceMockImpl implements BookService {
 
-    private final AuthorService authorService;
-
-    @Autowired
-    public BookServiceMockImpl(AuthorService authorService) {
-        this.authorService = authorService;
-    }
-
     @Override
     public Book save(Long authorId, Book book) throws EntityNotFoundException {
         book.setId(MockData.getNextId(Book.class));
-        doSave(book);
-
-        Author author = bind(authorId, book);
-
-        authorService.update(author);
+        try (var held = MockData.locks.acquire(MockData.locks.authorStripe(authorId), MockData.locks.bookStripe(book.getId()))) {
+            Author author = AuthorServiceMockImpl.doGet(authorId);
+            book.touch();
+            MockData.putBook(book);
+            MockData.bind(author, book);
+            // as addAuthor does, rather than an update of the author evicting its other books from the caches
+            author.touch();
+            MockData.putAuthor(author);
+        }
+        MockData.commit();
         return book;
     }
 
+    @Override
+    public Collection<Book> saveAll(Collection<Book> books) throws EntityNotFoundException {
+        List<List<Long>> authorIds = new ArrayList<>(books.size());
+        for (Book book : books) {
+            List<Long> ids = book.getAuthors() == null ? List.of() : book.getAuthors().stream()
+                    .map(Author::getId)
+                    .distinct()
+                    .toList();
+            if (ids.isEmpty()) {
+                throw new IllegalArgumentException("a book needs at least one author");
+            }
+            for (Long id : ids) {
+                AuthorServiceMockImpl.doGet(id);
+            }
+            authorIds.add(ids);
+        }
+
+        Set<Long> isbns = new HashSet<>();
+        for (Book book : books) {
+            long isbn = book.getIsbn();
+            if (isbn != 0 && (!isbns.add(isbn) || MockData.isbns.book(isbn) != IsbnIndex.NONE)) {
+                throw new DuplicateIsbnException(isbn);
+            }
+        }
+
+        List<Book> saved = new ArrayList<>(books.size());
+        try {
+            int i = 0;
+            for (Book book : books) {
+                List<Long> ids = authorIds.get(i++);
+                // replaced by the stored authors
+                book.setAuthors(null);
+                book.setId(null);
+                saved.add(book);
+                save(ids.get(0), book);
+                for (Long id : ids.subList(1, ids.size())) {
+                    addAuthor(book.getId(), id);
+                }
+            }
+        } catch (EntityNotFoundException | RuntimeException e) {
+            // a concurrent write made a save fail after the checks: all or nothing, the saved books are removed
+            rollback(saved);
+            throw e;
+        }
+        return List.copyOf(books);
+    }
+
+    private void rollback(List<Book> saved) {
+        for (Book book : saved) {
+            if (book.getId() != null && MockData.books.get(book.getId()) != null) {
+                try {
+                    delete(book.getId());
+                } catch (EntityNotFoundException e) {
+                    // concurrently deleted
+                }
+            }
+            book.setId(null);
+        }
+    }
 
     @Override
     public Book get(Long id) throws EntityNotFoundException {
@@ -39,62 +105,147 @@ public class BookServiceMockImpl implements BookService {
                 .orElseThrow(() -> new EntityNotFoundException("Cannot find book with id: " + id));
     }
 
+    @Override
+    public MultiGetResult<Book, Long> getAll(Collection<Long> ids) {
+        List<Long> distinct = ids.stream().distinct().toList();
+        return MultiGetResult.of(distinct,
+                Arrays.asList(MockData.books.get(distinct.stream().mapToLong(Long::longValue).toArray())));
+    }
+
+    @Override
+    public Book getByIsbn(long isbn) throws EntityNotFoundException {
+        long id = MockData.isbns.book(isbn);
+        Book book = id == IsbnIndex.NONE ? null : MockData.books.get(id);
+        // unless changed meanwhile
+        if (book == null || book.getIsbn() != isbn) {
+            throw new EntityNotFoundException("Cannot find book with isbn: " + isbn);
+        }
+        return book;
+    }
+
     @Override
     public Collection<Book> list() {
-        return MockData.books.values().stream().toList();
+        return MockData.books.stream().toList();
+    }
+
+    @Override
+    public List<Book> list(int page, int limit) {
+        return MockData.books.stream()
+                .skip((long) page * limit)
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public List<Book> listAfter(Long after, int limit) {
+        return MockData.books.after(after, limit);
     }
 
     @Override
     public Book update(Book book) throws EntityNotFoundException {
-        get(book.getId());
-        doSave(book);
+        try (var held = MockData.locks.acquire(MockData.locks.bookStripe(book.getId()))) {
+            Book stored = get(book.getId());
+            // rejected before the book is touched
+            MockData.isbns.put(book.getId(), book.getIsbn());
+            // onto the stored book, which its authors reference, rather than storing the caller's copy
+            stored.setTitle(book.getTitle());
+            stored.setIsbn(book.getIsbn());
+            stored.setPublisher(book.getPublisher());
+            stored.setYear(book.getYear());
+            stored.setLanguage(book.getLanguage());
+            stored.touch();
+            MockData.putBook(stored);
+        }
+        MockData.commit();
         return MockData.books.get(book.getId());
     }
 
     public Book addAuthor(Long bookId, Long authorId) throws EntityNotFoundException {
-        var book = get(bookId);
-        bind(authorId, book);
+        Book book;
+        try (var held = MockData.locks.acquire(MockData.locks.bookStripe(bookId), MockData.locks.authorStripe(authorId))) {
+            book = get(bookId);
+            var author = AuthorServiceMockImpl.doGet(authorId);
+            MockData.bind(author, book);
+            book.touch();
+            author.touch();
+            MockData.putBook(book);
+            MockData.putAuthor(author);
+        }
+        MockData.commit();
         return book;
     }
 
     @Override
     public void delete(Long id) throws EntityNotFoundException {
-        get(id);
-        MockData.books.remove(id);
+        while (true) {
+            Book book = get(id);
+            Set<Author> authors = snapshot(book.getAuthors());
+            try (var held = MockData.locks.acquire(stripes(id, authors))) {
+                Book stored = MockData.books.get(id);
+                if (stored == null || stored.getVersion() != book.getVersion()
+                        || !authors.equals(snapshot(stored.getAuthors()))) {
+                    // concurrently modified before the locks were acquired
+                    continue;
+                }
+                MockData.removeBook(stored);
+            }
+            MockData.commit();
+            return;
+        }
     }
 
     @Override
     public Collection<Book> findByTitle(String title) {
-        return filterBooks(MockData.books.values(), title);
+        return Arrays.stream(MockData.titles.search(title))
+                .mapToObj(MockData.books::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Override
+    public BookSearchResult search(BookQuery query) {
+        long[] titled = query.title() == null ? null : MockData.titles.search(query.title());
+        FacetIndex.Result result = MockData.facets.search(titled, query.yearFrom(), query.yearTo(),
+                query.languages(), query.publishers(), (long) query.page() * query.limit(), query.limit());
+        return new BookSearchResult(result.total(), books(result.ids()).toList(), result.languages(),
+                result.publishers(), result.decades());
     }
 
     @Override
     public Collection<Book> getByAuthor(Long authorId) throws EntityNotFoundException {
-        return AuthorServiceMockImpl.doGet(authorId).getBooks();
+        AuthorServiceMockImpl.doGet(authorId);
+        return books(MockData.authorBooks.books(authorId)).toList();
     }
 
     @Override
     public Collection<Book> findByAuthor(Long authorId, String title) throws EntityNotFoundException {
         AuthorServiceMockImpl.doGet(authorId);
-        return filterBooks(MockData.authors.get(authorId).getBooks(), title);
+        return books(MockData.authorBooks.books(authorId))
+                .filter(book -> MockData.titles.matches(book.getId(), title))
+                .toList();
     }
 
-
-    private Author bind(Long authorId, Book book) throws EntityNotFoundException {
-        Author author = authorService.get(authorId);
-        author.addBook(book);
-        book.addAuthor(author);
-        return author;
+    private static int[] stripes(Long bookId, Set<Author> authors) {
+        int[] stripes = new int[authors.size() + 1];
+        int i = 0;
+        stripes[i++] = MockData.locks.bookStripe(bookId);
+        for (Author author : authors) {
+            stripes[i++] = MockData.locks.authorStripe(author.getId());
+        }
+        return stripes;
     }
 
-    private static void doSave(Book book) {
-        MockData.books.put(book.getId(), book);
+    static <T> Set<T> snapshot(Set<T> set) {
+        return set == null ? Set.of() : Set.copyOf(set);
     }
 
-    private static Collection<Book> filterBooks(Collection<Book> books, String title) {
-        return books.stream()
-                .filter(book -> book.getTitle().toLowerCase().contains(title.toLowerCase()))
-                .toList();
+    /**
+     * @return the books of the given ids, ordered as the ids, skipping those deleted in the meantime
+     */
+    private static Stream<Book> books(long[] ids) {
+        return Arrays.stream(ids)
+                .mapToObj(MockData.books::get)
+                .filter(Objects::nonNull);
     }
 
 }
@@ -0,0 +1,66 @@
+package fr.uga.l3miage.library.service.mock;
+
+import fr.uga.l3miage.data.domain.Book;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Storage of the books of the mock store, by id. The association with authors is stored along with the books, but
+ * maintained by {@link MockData#bind}.
+ */
+interface BookStore {
+
+    /**
+     * @return the book of the given id, null when there is none
+     */
+    Book get(long id);
+
+    /**
+     * @return the book of each id, at the same index, null when there is none
+     */
+    default Book[] get(long[] ids) {
+        Book[] books = new Book[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            books[i] = get(ids[i]);
+        }
+        return books;
+    }
+
+    /**
+     * Stores a book, new or modified, but not its authors.
+     */
+    void put(Book book);
+
+    /**
+     * Records that a stored book is written by an author.
+     */
+    void bind(long bookId, long authorId);
+
+    void remove(long id);
+
+    /**
+     * @return the books, by ascending id
+     */
+    Stream<Book> stream();
+
+    /**
+     * @return at most {@code limit} books whose ids follow {@code after} (all of them when null), by ascending id
+     */
+    List<Book> after(Long after, int limit);
+
+    int size();
+
+    /**
+     * @return the greatest id of the stored books, which must not be empty
+     */
+    long lastId();
+
+    void clear();
+
+    /**
+     * @return true when {@link #get} returns a new view of the book each time, rather than the stored object:
+     * changes to a view are then stored by {@link #put} only, and authors do not reference the books
+     */
+    boolean views();
+}
@@ -0,0 +1,434 @@
+package fr.uga.l3miage.library.service.mock;
+
+import fr.uga.l3miage.data.domain.Author;
+import fr.uga.l3miage.data.domain.Book;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongFunction;
+import java.util.stream.Stream;
+
+/**
+ * Columnar storage of the books: one primitive array per attribute instead of one object, and one set of authors, per
+ * book. A book costs about 120 bytes, its title included, instead of about 450, most of the difference being the
+ * headers of the objects and the hash sets of the authors and their books.
+ * <p>
+ * Rows are sorted by id and found by binary search. Books are mostly added by ascending id, so that a new row is
+ * appended; a removed row is marked, and reclaimed when the table is compacted. Publishers are interned: a row holds
+ * the index of its publisher in a dictionary.
+ * <p>
+ * The author ids of the books are stored as compressed sparse rows: those of row {@code r} are
+ * {@code authorIds[authorStart[r]]} to {@code authorIds[authorStart[r + 1] - 1]}. Binding an author to the last row
+ * appends to them; binding one to another row is recorded aside, until the table is compacted.
+ * <p>
+ * {@link #get} materializes a new {@link Book} on each call, whose authors are resolved by id. Reads run
+ * concurrently, writes are exclusive.
+ */
+final class BookTable implements BookStore {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final byte NO_LANGUAGE = -1;
+    private static final byte REMOVED = -2;
+    private static final long[] NONE = new long[0];
+    private static final Book.Language[] LANGUAGES = Book.Language.values();
+
+    private final LongFunction<Author> authors;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int rows;
+    private int removed;
+    private long[] ids;
+    private long[] isbns;
+    private short[] years;
+    private byte[] languages;
+    private int[] publishers;
+    private String[] titles;
+    private long[] versions;
+    private long[] lastModified;
+
+    private int[] authorStart;
+    private long[] authorIds;
+    private final Map<Long, long[]> boundLater = new HashMap<>();
+
+    private final List<String> publisherNames = new ArrayList<>();
+    private final Map<String, Integer> publisherIndex = new HashMap<>();
+
+    /**
+     * @param authors resolves the authors of the books, by id
+     */
+    BookTable(LongFunction<Author> authors) {
+        this.authors = authors;
+        allocate(INITIAL_CAPACITY, INITIAL_CAPACITY);
+    }
+
+    @Override
+    public Book get(long id) {
+        lock.readLock().lock();
+        try {
+            int row = row(id);
+            return row < 0 ? null : view(row);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the rows of the ids in a single sweep under a single lock: the ids are visited in ascending order, each
+     * one being searched past the row of the previous one.
+     */
+    @Override
+    public Book[] get(long[] ids) {
+        Integer[] order = new Integer[ids.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (i, j) -> Long.compare(ids[i], ids[j]));
+        Book[] books = new Book[ids.length];
+        lock.readLock().lock();
+        try {
+            int from = 0;
+            for (int i : order) {
+                int row = Arrays.binarySearch(this.ids, from, rows, ids[i]);
+                if (row >= 0) {
+                    from = row;
+                    books[i] = languages[row] == REMOVED ? null : view(row);
+                } else {
+                    from = -row - 1;
+                }
+            }
+            return books;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void put(Book book) {
+        lock.writeLock().lock();
+        try {
+            int row = Arrays.binarySearch(ids, 0, rows, book.getId());
+            if (row >= 0 && languages[row] == REMOVED) {
+                // removed then stored again: its former authors must go first
+                compact();
+                row = Arrays.binarySearch(ids, 0, rows, book.getId());
+            }
+            if (row < 0) {
+                row = insert(-(row + 1), book.getId());
+            }
+            isbns[row] = book.getIsbn();
+            years[row] = book.getYear();
+            languages[row] = book.getLanguage() == null ? NO_LANGUAGE : (byte) book.getLanguage().ordinal();
+            publishers[row] = intern(book.getPublisher());
+            titles[row] = book.getTitle();
+            versions[row] = book.getVersion();
+            lastModified[row] = book.getLastModified() == null ? -1 : book.getLastModified().getTime();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void bind(long bookId, long authorId) {
+        lock.writeLock().lock();
+        try {
+            int row = row(bookId);
+            if (row < 0) {
+                return;
+            }
+            for (long id : authorIds(row)) {
+                if (id == authorId) {
+                    return;
+                }
+            }
+            if (row == rows - 1 && !boundLater.containsKey(bookId)) {
+                int count = authorStart[rows];
+                if (count == authorIds.length) {
+                    authorIds = Arrays.copyOf(authorIds, count + (count >> 1) + 1);
+                }
+                authorIds[count] = authorId;
+                authorStart[rows] = count + 1;
+            } else {
+                boundLater.merge(bookId, new long[]{authorId}, BookTable::concat);
+                compactIfWasteful();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            int row = row(id);
+            if (row < 0) {
+                return;
+            }
+            languages[row] = REMOVED;
+            titles[row] = null;
+            boundLater.remove(id);
+            removed++;
+            compactIfWasteful();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Stream<Book> stream() {
+        // by pages, each read under the lock
+        List<Book> first = after(null, 256);
+        return Stream.iterate(first, page -> !page.isEmpty(),
+                        page -> page.size() < 256 ? List.of() : after(page.get(page.size() - 1).getId(), 256))
+                .flatMap(List::stream);
+    }
+
+    @Override
+    public List<Book> after(Long after, int limit) {
+        lock.readLock().lock();
+        try {
+            int row = 0;
+            if (after != null) {
+                int index = Arrays.binarySearch(ids, 0, rows, after);
+                row = index >= 0 ? index + 1 : -(index + 1);
+            }
+            List<Book> books = new ArrayList<>(Math.min(limit, rows - row));
+            for (; row < rows && books.size() < limit; row++) {
+                if (languages[row] != REMOVED) {
+                    books.add(view(row));
+                }
+            }
+            return books;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return rows - removed;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long lastId() {
+        lock.readLock().lock();
+        try {
+            for (int row = rows - 1; row >= 0; row--) {
+                if (languages[row] != REMOVED) {
+                    return ids[row];
+                }
+            }
+            throw new NoSuchElementException();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            rows = 0;
+            removed = 0;
+            boundLater.clear();
+            publisherNames.clear();
+            publisherIndex.clear();
+            allocate(INITIAL_CAPACITY, INITIAL_CAPACITY);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean views() {
+        return true;
+    }
+
+    /**
+     * @return the number of distinct publishers stored, including those of removed books
+     */
+    int publishers() {
+        lock.readLock().lock();
+        try {
+            return publisherNames.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the row of a book, negative when there is none
+     */
+    private int row(long id) {
+        int row = Arrays.binarySearch(ids, 0, rows, id);
+        return row >= 0 && languages[row] != REMOVED ? row : -1;
+    }
+
+    private Book view(int row) {
+        Book book = new Book();
+        book.setId(ids[row]);
+        book.setTitle(titles[row]);
+        book.setIsbn(isbns[row]);
+        book.setPublisher(publishers[row] < 0 ? null : publisherNames.get(publishers[row]));
+        book.setYear(years[row]);
+        book.setLanguage(languages[row] == NO_LANGUAGE ? null : LANGUAGES[languages[row]]);
+        book.setVersion(versions[row]);
+        book.setLastModified(lastModified[row] < 0 ? null : new Date(lastModified[row]));
+        long[] ids = authorIds(row);
+        Set<Author> bookAuthors = new HashSet<>(ids.length * 2);
+        for (long id : ids) {
+            Author author = authors.apply(id);
+            if (author != null) {
+                bookAuthors.add(author);
+            }
+        }
+        book.setAuthors(bookAuthors);
+        return book;
+    }
+
+    private long[] authorIds(int row) {
+        long[] bound = Arrays.copyOfRange(authorIds, authorStart[row], authorStart[row + 1]);
+        long[] later = boundLater.get(ids[row]);
+        return later == null ? bound : concat(bound, later);
+    }
+
+    /**
+     * Inserts an empty row, shifting the following ones.
+     */
+    private int insert(int row, long id) {
+        if (rows == ids.length) {
+            grow(rows + (rows >> 1) + 1);
+        }
+        int following = rows - row;
+        System.arraycopy(ids, row, ids, row + 1, following);
+        System.arraycopy(isbns, row, isbns, row + 1, following);
+        System.arraycopy(years, row, years, row + 1, following);
+        System.arraycopy(languages, row, languages, row + 1, following);
+        System.arraycopy(publishers, row, publishers, row + 1, following);
+        System.arraycopy(titles, row, titles, row + 1, following);
+        System.arraycopy(versions, row, versions, row + 1, following);
+        System.arraycopy(lastModified, row, lastModified, row + 1, following);
+        // the new row starts where the following one did, and is empty
+        System.arraycopy(authorStart, row, authorStart, row + 1, following + 1);
+        ids[row] = id;
+        rows++;
+        return row;
+    }
+
+    private int intern(String publisher) {
+        if (publisher == null) {
+            return -1;
+        }
+        return publisherIndex.computeIfAbsent(publisher, name -> {
+            publisherNames.add(name);
+            return publisherNames.size() - 1;
+        });
+    }
+
+    private void compactIfWasteful() {
+        if (removed + boundLater.size() > Math.max(64, rows / 8)) {
+            compact();
+        }
+    }
+
+    /**
+     * Rewrites the table without its removed rows, merging the authors bound aside into the sparse rows.
+     */
+    private void compact() {
+        int live = rows - removed;
+        long[] oldIds = ids;
+        long[] oldIsbns = isbns;
+        short[] oldYears = years;
+        byte[] oldLanguages = languages;
+        int[] oldPublishers = publishers;
+        String[] oldTitles = titles;
+        long[] oldVersions = versions;
+        long[] oldLastModified = lastModified;
+        int[] oldAuthorStart = authorStart;
+        long[] oldAuthorIds = authorIds;
+
+        int authorCount = 0;
+        for (int row = 0; row < rows; row++) {
+            if (oldLanguages[row] != REMOVED) {
+                authorCount += oldAuthorStart[row + 1] - oldAuthorStart[row];
+            }
+        }
+        for (long[] later : boundLater.values()) {
+            authorCount += later.length;
+        }
+        allocate(Math.max(INITIAL_CAPACITY, live + (live >> 3)), Math.max(INITIAL_CAPACITY, authorCount));
+
+        int target = 0;
+        int authorIndex = 0;
+        for (int row = 0; row < rows; row++) {
+            if (oldLanguages[row] == REMOVED) {
+                continue;
+            }
+            ids[target] = oldIds[row];
+            isbns[target] = oldIsbns[row];
+            years[target] = oldYears[row];
+            languages[target] = oldLanguages[row];
+            publishers[target] = oldPublishers[row];
+            titles[target] = oldTitles[row];
+            versions[target] = oldVersions[row];
+            lastModified[target] = oldLastModified[row];
+            authorStart[target] = authorIndex;
+            int count = oldAuthorStart[row + 1] - oldAuthorStart[row];
+            System.arraycopy(oldAuthorIds, oldAuthorStart[row], authorIds, authorIndex, count);
+            authorIndex += count;
+            long[] later = boundLater.getOrDefault(oldIds[row], NONE);
+            System.arraycopy(later, 0, authorIds, authorIndex, later.length);
+            authorIndex += later.length;
+            target++;
+        }
+        authorStart[target] = authorIndex;
+        rows = target;
+        removed = 0;
+        boundLater.clear();
+    }
+
+    private void allocate(int capacity, int authorCapacity) {
+        ids = new long[capacity];
+        isbns = new long[capacity];
+        years = new short[capacity];
+        languages = new byte[capacity];
+        publishers = new int[capacity];
+        titles = new String[capacity];
+        versions = new long[capacity];
+        lastModified = new long[capacity];
+        authorStart = new int[capacity + 1];
+        authorIds = new long[authorCapacity];
+    }
+
+    private void grow(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        isbns = Arrays.copyOf(isbns, capacity);
+        years = Arrays.copyOf(years, capacity);
+        languages = Arrays.copyOf(languages, capacity);
+        publishers = Arrays.copyOf(publishers, capacity);
+        titles = Arrays.copyOf(titles, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+        lastModified = Arrays.copyOf(lastModified, capacity);
+        authorStart = Arrays.copyOf(authorStart, capacity + 1);
+    }
+
+    private static long[] concat(long[] first, long[] second) {
+        long[] both = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, both, first.length, second.length);
+        return both;
+    }
+}
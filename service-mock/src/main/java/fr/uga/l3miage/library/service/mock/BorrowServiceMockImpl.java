@@ -0,0 +1,162 @@
+package fr.uga.l3miage.library.service.mock;
+
+import fr.uga.l3miage.data.domain.Book;
+import fr.uga.l3miage.data.domain.Borrow;
+import fr.uga.l3miage.data.domain.Borrower;
+import fr.uga.l3miage.library.service.BookUnavailableException;
+import fr.uga.l3miage.library.service.BorrowService;
+import fr.uga.l3miage.library.service.EntityNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Lends books holding the lock stripes of the borrowed books only, see {@link MockData#borrowedBooks}. Returns also
+ * hold the stripe of the borrower, whose counters they update.
+ */
+@Component
+public class BorrowServiceMockImpl implements BorrowService {
+
+    @Override
+    public Borrow checkout(Long borrowerId, Collection<Long> bookIds, Date end)
+            throws EntityNotFoundException, BookUnavailableException {
+        if (bookIds == null || bookIds.isEmpty()) {
+            throw new IllegalArgumentException("a borrow needs at least one book");
+        }
+        if (end == null) {
+            throw new IllegalArgumentException("a borrow needs a due date");
+        }
+        Borrower borrower = BorrowerServiceMockImpl.doGet(borrowerId);
+
+        Borrow borrow = new Borrow();
+        borrow.setId(MockData.getNextId(Borrow.class));
+        try (var held = MockData.locks.acquire(stripes(bookIds))) {
+            Set<Book> books = new HashSet<>();
+            List<Long> unavailable = new ArrayList<>();
+            for (Long bookId : bookIds) {
+                books.add(book(bookId));
+                if (MockData.borrowedBooks.containsKey(bookId)) {
+                    unavailable.add(bookId);
+                }
+            }
+            if (!unavailable.isEmpty()) {
+                throw new BookUnavailableException("Books already borrowed: " + unavailable, unavailable);
+            }
+            borrow.setBooks(books);
+            borrow.setBorrower(borrower);
+            borrow.setStart(new Date());
+            borrow.setEnd(end);
+            MockData.borrow(borrow);
+        }
+        return borrow;
+    }
+
+    @Override
+    public Borrow checkIn(Long id) throws EntityNotFoundException {
+        Borrow borrow = get(id);
+        Borrower borrower = borrow.getBorrower();
+        int[] stripes = stripes(borrow);
+        stripes = Arrays.copyOf(stripes, stripes.length + 1);
+        stripes[stripes.length - 1] = MockData.locks.borrowerStripe(borrower.getId());
+        try (var held = MockData.locks.acquire(stripes)) {
+            if (borrow.isActive()) {
+                borrow.setReturned(new Date());
+                for (Book book : borrow.getBooks()) {
+                    MockData.borrowedBooks.remove(book.getId(), id);
+                }
+                borrower.borrowReturned(borrow.isReturnedLate());
+            }
+        }
+        return borrow;
+    }
+
+    @Override
+    public Collection<Borrow> getByBorrower(Long borrowerId) throws EntityNotFoundException {
+        BorrowerServiceMockImpl.doGet(borrowerId);
+        NavigableSet<Long> ids = MockData.borrowsByBorrower.get(borrowerId);
+        if (ids == null) {
+            return List.of();
+        }
+        return ids.stream()
+                .map(MockData.borrows::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Override
+    public Collection<Borrow> listActive() {
+        return MockData.borrowedBooks.values().stream()
+                .distinct()
+                .sorted()
+                .map(MockData.borrows::get)
+                .filter(Objects::nonNull)
+                .filter(Borrow::isActive)
+                .toList();
+    }
+
+    @Override
+    public boolean isAvailable(Long bookId) throws EntityNotFoundException {
+        book(bookId);
+        return !MockData.borrowedBooks.containsKey(bookId);
+    }
+
+    @Override
+    public Borrow get(Long id) throws EntityNotFoundException {
+        return Optional.ofNullable(MockData.borrows.get(id))
+                .orElseThrow(() -> new EntityNotFoundException("Cannot find borrow with id: " + id));
+    }
+
+    @Override
+    public Collection<Borrow> list() {
+        return MockData.borrows.values().stream().toList();
+    }
+
+    @Override
+    public List<Borrow> list(int page, int limit) {
+        return MockData.borrows.values().stream()
+                .skip((long) page * limit)
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public List<Borrow> listAfter(Long after, int limit) {
+        var following = after == null ? MockData.borrows : MockData.borrows.tailMap(after, false);
+        return following.values().stream()
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public Borrow update(Borrow borrow) throws EntityNotFoundException {
+        Borrow stored = get(borrow.getId());
+        try (var held = MockData.locks.acquire(stripes(stored))) {
+            stored.setEnd(borrow.getEnd());
+        }
+        return stored;
+    }
+
+    private static Book book(Long id) throws EntityNotFoundException {
+        return Optional.ofNullable(MockData.books.get(id))
+                .orElseThrow(() -> new EntityNotFoundException("Cannot find book with id: " + id));
+    }
+
+    private static int[] stripes(Collection<Long> bookIds) {
+        return bookIds.stream()
+                .mapToInt(MockData.locks::bookStripe)
+                .toArray();
+    }
+
+    private static int[] stripes(Borrow borrow) {
+        return stripes(borrow.getBooks().stream().map(Book::getId).toList());
+    }
+}
@@ -0,0 +1,139 @@
+package fr.uga.l3miage.library.service.mock;
+
+import fr.uga.l3miage.data.domain.Borrow;
+import fr.uga.l3miage.data.domain.Borrower;
+import fr.uga.l3miage.library.service.BorrowerService;
+import fr.uga.l3miage.library.service.EntityNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+@Component
+public class BorrowerServiceMockImpl implements BorrowerService {
+
+    @Override
+    public Borrower save(Borrower borrower) {
+        borrower.setId(MockData.getNextId(Borrower.class));
+        if (borrower.getRegistered() == null) {
+            borrower.setRegistered(new Date());
+        }
+        MockData.borrowers.put(borrower.getId(), borrower);
+        return borrower;
+    }
+
+    @Override
+    public Borrower get(Long id) throws EntityNotFoundException {
+        return doGet(id);
+    }
+
+    static Borrower doGet(Long id) throws EntityNotFoundException {
+        return Optional.ofNullable(MockData.borrowers.get(id))
+                .orElseThrow(() -> new EntityNotFoundException("Cannot find borrower with id: " + id));
+    }
+
+    @Override
+    public Collection<Borrower> list() {
+        return MockData.borrowers.values().stream().toList();
+    }
+
+    @Override
+    public List<Borrower> list(int page, int limit) {
+        return MockData.borrowers.values().stream()
+                .skip((long) page * limit)
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public List<Borrower> listAfter(Long after, int limit) {
+        var following = after == null ? MockData.borrowers : MockData.borrowers.tailMap(after, false);
+        return following.values().stream()
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * The stored borrower is updated rather than replaced, since its borrows refer to it and count their returns in
+     * it.
+     */
+    @Override
+    public Borrower update(Borrower borrower) throws EntityNotFoundException {
+        Borrower stored = doGet(borrower.getId());
+        try (var held = MockData.locks.acquire(MockData.locks.borrowerStripe(borrower.getId()))) {
+            stored.setFirstName(borrower.getFirstName())
+                    .setLastName(borrower.getLastName())
+                    .setBirth(borrower.getBirth())
+                    .setGender(borrower.getGender());
+            stored.setRegistered(borrower.getRegistered());
+        }
+        return stored;
+    }
+
+    /**
+     * Borrowers are split among the threads of the common fork-join pool. Each one is recounted with its stripe held,
+     * as returns do, so that a concurrent return is neither lost nor counted twice.
+     */
+    @Override
+    public int recomputeLateRatios() {
+        long[] ids = MockData.borrowers.keySet().stream().mapToLong(Long::longValue).toArray();
+        ForkJoinPool.commonPool().invoke(new RecomputeLateRatios(ids, 0, ids.length));
+        return ids.length;
+    }
+
+    private static void recompute(long borrowerId) {
+        Borrower borrower = MockData.borrowers.get(borrowerId);
+        if (borrower == null) {
+            return;
+        }
+        try (var held = MockData.locks.acquire(MockData.locks.borrowerStripe(borrowerId))) {
+            int returned = 0;
+            int late = 0;
+            for (Long id : MockData.borrowsByBorrower.getOrDefault(borrowerId, Collections.emptyNavigableSet())) {
+                Borrow borrow = MockData.borrows.get(id);
+                if (borrow != null && !borrow.isActive()) {
+                    returned++;
+                    if (borrow.isReturnedLate()) {
+                        late++;
+                    }
+                }
+            }
+            borrower.setBorrowCounts(returned, late);
+        }
+    }
+
+    /**
+     * Recomputes the borrowers of a range of ids, splitting it in halves down to {@link #THRESHOLD} borrowers
+     */
+    private static final class RecomputeLateRatios extends RecursiveAction {
+
+        private static final int THRESHOLD = 256;
+
+        private final long[] ids;
+        private final int from;
+        private final int to;
+
+        RecomputeLateRatios(long[] ids, int from, int to) {
+            this.ids = ids;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    recompute(ids[i]);
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RecomputeLateRatios(ids, from, middle), new RecomputeLateRatios(ids, middle, to));
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package fr.uga.l3miage.library.service.mock;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stores the books of the mock store in a columnar {@link BookTable}, enabled by setting
+ * {@code library.mock.columnar-books} to {@code true}.
+ * <p>
+ * The catalogue then takes a fraction of the memory of its objects, at the cost of materializing a book at each read.
+ * Authors no longer reference their books: these are found through {@link BookServiceMockImpl#getByAuthor(Long)}.
+ */
+@Component
+@ConditionalOnProperty(name = "library.mock.columnar-books", havingValue = "true")
+public class ColumnarBooks {
+
+    private static final Logger log = LoggerFactory.getLogger(ColumnarBooks.class);
+
+    /**
+     * Moves the books already stored to a table.
+     */
+    @PostConstruct
+    public void install() {
+        if (!MockData.books.views()) {
+            MockData.useBooks(new BookTable(MockData.authors::get));
+            log.info("Stores {} books in columns", MockData.books.size());
+        }
+    }
+}
@@ -0,0 +1,388 @@
+package fr.uga.l3miage.library.service.mock;
+
+import fr.uga.l3miage.data.domain.Book;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Bitmap index of the books by year, language and publisher, answering faceted queries without reading the books.
+ * <p>
+ * Each indexed book is numbered by a dense int, its document, and each year, language and publisher maps to the
+ * {@link RoaringBitmap} of its documents. A query intersects the bitmaps of its criteria (a year range being the
+ * union of the bitmaps of its years). Facet counts are the cardinalities of the intersections of each value with the
+ * criteria on the other facets, so that a client can widen a criterion knowing what it would get. Years are counted
+ * by decade. When the other criteria leave few documents, their values are read in the columns below instead, which
+ * is cheaper than and-ing them with the bitmap of every value.
+ * <p>
+ * The attributes of each document are also kept in primitive arrays, its columns, so that a re-indexed book leaves
+ * the bitmaps of its previous values. Documents of removed books are left as holes, until they are enough for the
+ * live documents to be renumbered in their order (see {@link #compactIfWasteful()}).
+ * <p>
+ * Reads run concurrently, writes are exclusive.
+ */
+final class FacetIndex {
+
+    private static final Book.Language[] LANGUAGES = Book.Language.values();
+    private static final int NONE = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final LongLongHashMap documents = new LongLongHashMap();
+    private long[] bookIds = new long[INITIAL_CAPACITY];
+    private short[] years = new short[INITIAL_CAPACITY];
+    private byte[] languages = new byte[INITIAL_CAPACITY];
+    private int[] publishers = new int[INITIAL_CAPACITY];
+    private int nextDocument;
+    private int removed;
+
+    private RoaringBitmap all = new RoaringBitmap();
+    private final NavigableMap<Short, RoaringBitmap> byYear = new TreeMap<>();
+    private final RoaringBitmap[] byLanguage = new RoaringBitmap[LANGUAGES.length];
+    private final List<RoaringBitmap> byPublisher = new ArrayList<>();
+    private final List<String> publisherNames = new ArrayList<>();
+    private final Map<String, Integer> publisherIndex = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    FacetIndex() {
+        for (int i = 0; i < byLanguage.length; i++) {
+            byLanguage[i] = new RoaringBitmap();
+        }
+    }
+
+    /**
+     * Index or re-index the attributes of a book.
+     */
+    void put(long bookId, short year, Book.Language language, String publisher) {
+        lock.writeLock().lock();
+        try {
+            int document = (int) documents.get(bookId, NONE);
+            if (document == NONE) {
+                document = nextDocument++;
+                if (document == bookIds.length) {
+                    int capacity = 2 * document;
+                    bookIds = Arrays.copyOf(bookIds, capacity);
+                    years = Arrays.copyOf(years, capacity);
+                    languages = Arrays.copyOf(languages, capacity);
+                    publishers = Arrays.copyOf(publishers, capacity);
+                }
+                documents.put(bookId, document, NONE);
+                bookIds[document] = bookId;
+                languages[document] = NONE;
+                publishers[document] = NONE;
+                all.add(document);
+            } else {
+                unindex(document);
+            }
+            years[document] = year;
+            languages[document] = language == null ? NONE : (byte) language.ordinal();
+            publishers[document] = publisher == null ? NONE : intern(publisher);
+            index(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long bookId) {
+        lock.writeLock().lock();
+        try {
+            int document = (int) documents.remove(bookId, NONE);
+            if (document != NONE) {
+                unindex(document);
+                all.remove(document);
+                removed++;
+                compactIfWasteful();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            nextDocument = 0;
+            removed = 0;
+            byYear.clear();
+            for (int i = 0; i < byLanguage.length; i++) {
+                byLanguage[i] = new RoaringBitmap();
+            }
+            byPublisher.clear();
+            publisherNames.clear();
+            publisherIndex.clear();
+            all = new RoaringBitmap();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of documents, removed ones included
+     */
+    int documentCount() {
+        lock.readLock().lock();
+        try {
+            return nextDocument;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the books matching all the given criteria, each being ignored when null or empty.
+     *
+     * @param titled     the ids of the books having a matching title
+     * @param yearFrom   the first year, inclusive
+     * @param yearTo     the last year, inclusive
+     * @param languages  the accepted languages
+     * @param publishers the accepted publishers
+     * @param skip       the number of matching books to skip
+     * @param limit      the maximum number of book ids to return
+     */
+    Result search(long[] titled, Integer yearFrom, Integer yearTo, Collection<Book.Language> languages,
+            Collection<String> publishers, long skip, int limit) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap title = titled == null ? null : documents(titled);
+            RoaringBitmap year = yearFrom == null && yearTo == null ? null : years(yearFrom, yearTo);
+            RoaringBitmap language = languages == null || languages.isEmpty() ? null : languages(languages);
+            RoaringBitmap publisher = publishers == null || publishers.isEmpty() ? null : publishers(publishers);
+
+            RoaringBitmap matching = and(title, year, language, publisher);
+            long[] ids = page(matching, skip, limit);
+
+            long[] counts = count(and(title, year, publisher), LANGUAGES.length,
+                    document -> this.languages[document], value -> byLanguage[value]);
+            Map<Book.Language, Long> languageCounts = new EnumMap<>(Book.Language.class);
+            for (Book.Language value : LANGUAGES) {
+                putCount(languageCounts, value, counts[value.ordinal()]);
+            }
+
+            counts = count(and(title, year, language), byPublisher.size(),
+                    document -> this.publishers[document], byPublisher::get);
+            Map<String, Long> publisherCounts = new HashMap<>();
+            for (int i = 0; i < counts.length; i++) {
+                putCount(publisherCounts, publisherNames.get(i), counts[i]);
+            }
+
+            Map<Integer, Long> decadeCounts = new TreeMap<>();
+            if (!byYear.isEmpty()) {
+                int first = byYear.firstKey();
+                counts = count(and(title, language, publisher), byYear.lastKey() - first + 1,
+                        document -> years[document] - first, value -> byYear.get((short) (first + value)));
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] > 0) {
+                        decadeCounts.merge(Math.floorDiv(first + i, 10) * 10, counts[i], Long::sum);
+                    }
+                }
+            }
+
+            return new Result(matching.cardinality(), ids, languageCounts, byCountDescending(publisherCounts),
+                    decadeCounts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Outcome of a search
+     *
+     * @param total      the number of matching books
+     * @param ids        the ids of the requested page of matching books, in the order they were indexed
+     * @param languages  the number of books of each language matching the other criteria
+     * @param publishers the number of books of each publisher matching the other criteria, most frequent first
+     * @param decades    the number of books of each decade (by its first year) matching the other criteria
+     */
+    record Result(long total, long[] ids, Map<Book.Language, Long> languages, Map<String, Long> publishers,
+                  Map<Integer, Long> decades) {
+    }
+
+    /**
+     * Counts the documents of a filter by value of an attribute. When the filter has fewer documents than there are
+     * words to and in the bitmaps of the values, the attribute of each document is read instead.
+     *
+     * @param values the number of values, numbered from 0
+     * @param column gives the value of a document, or {@link #NONE}
+     * @param bitmap gives the bitmap of a value, or null
+     * @return the number of documents by value
+     */
+    private static long[] count(RoaringBitmap filter, int values, IntUnaryOperator column,
+            IntFunction<RoaringBitmap> bitmap) {
+        long[] counts = new long[values];
+        if (filter.cardinality() < (long) values * filter.chunks() * RoaringBitmap.BITMAP_WORDS) {
+            filter.forEach(document -> {
+                int value = column.applyAsInt(document);
+                if (value != NONE) {
+                    counts[value]++;
+                }
+                return true;
+            });
+        } else {
+            for (int value = 0; value < values; value++) {
+                RoaringBitmap documents = bitmap.apply(value);
+                counts[value] = documents == null ? 0 : RoaringBitmap.andCardinality(filter, documents);
+            }
+        }
+        return counts;
+    }
+
+    private void index(int document) {
+        byYear.computeIfAbsent(years[document], year -> new RoaringBitmap()).add(document);
+        if (languages[document] != NONE) {
+            byLanguage[languages[document]].add(document);
+        }
+        if (publishers[document] != NONE) {
+            byPublisher.get(publishers[document]).add(document);
+        }
+    }
+
+    private void unindex(int document) {
+        RoaringBitmap year = byYear.get(years[document]);
+        year.remove(document);
+        if (year.isEmpty()) {
+            byYear.remove(years[document]);
+        }
+        if (languages[document] != NONE) {
+            byLanguage[languages[document]].remove(document);
+        }
+        if (publishers[document] != NONE) {
+            byPublisher.get(publishers[document]).remove(document);
+        }
+    }
+
+    private void compactIfWasteful() {
+        if (removed > Math.max(64, nextDocument / 8)) {
+            compact();
+        }
+    }
+
+    /**
+     * Renumbers the live documents densely, in their order, and rebuilds the bitmaps from the columns.
+     */
+    private void compact() {
+        int live = nextDocument - removed;
+        int[] target = {0};
+        all.forEach(document -> {
+            // never ahead of the document moved
+            int moved = target[0]++;
+            bookIds[moved] = bookIds[document];
+            years[moved] = years[document];
+            languages[moved] = languages[document];
+            publishers[moved] = publishers[document];
+            documents.put(bookIds[moved], moved, NONE);
+            return true;
+        });
+        int capacity = Math.max(INITIAL_CAPACITY, 2 * live);
+        if (capacity < bookIds.length) {
+            bookIds = Arrays.copyOf(bookIds, capacity);
+            years = Arrays.copyOf(years, capacity);
+            languages = Arrays.copyOf(languages, capacity);
+            publishers = Arrays.copyOf(publishers, capacity);
+        }
+        nextDocument = live;
+        removed = 0;
+
+        all = new RoaringBitmap();
+        byYear.clear();
+        for (int i = 0; i < byLanguage.length; i++) {
+            byLanguage[i] = new RoaringBitmap();
+        }
+        byPublisher.replaceAll(bitmap -> new RoaringBitmap());
+        for (int document = 0; document < live; document++) {
+            all.add(document);
+            index(document);
+        }
+    }
+
+    private int intern(String publisher) {
+        return publisherIndex.computeIfAbsent(publisher, name -> {
+            publisherNames.add(name);
+            byPublisher.add(new RoaringBitmap());
+            return publisherNames.size() - 1;
+        });
+    }
+
+    private RoaringBitmap documents(long[] ids) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (long id : ids) {
+            int document = (int) documents.get(id, NONE);
+            if (document != NONE) {
+                bitmap.add(document);
+            }
+        }
+        return bitmap;
+    }
+
+    private RoaringBitmap years(Integer from, Integer to) {
+        short first = (short) Math.max(Short.MIN_VALUE, from == null ? Short.MIN_VALUE : from);
+        short last = (short) Math.min(Short.MAX_VALUE, to == null ? Short.MAX_VALUE : to);
+        return first > last ? new RoaringBitmap() : RoaringBitmap.or(byYear.subMap(first, true, last, true).values());
+    }
+
+    private RoaringBitmap languages(Collection<Book.Language> values) {
+        return RoaringBitmap.or(values.stream().map(language -> byLanguage[language.ordinal()]).toList());
+    }
+
+    private RoaringBitmap publishers(Collection<String> names) {
+        return RoaringBitmap.or(names.stream()
+                .map(publisherIndex::get)
+                .filter(Objects::nonNull)
+                .map(byPublisher::get)
+                .toList());
+    }
+
+    /**
+     * @return the intersection of the given criteria, null ones being ignored
+     */
+    private RoaringBitmap and(RoaringBitmap... criteria) {
+        RoaringBitmap and = all;
+        for (RoaringBitmap criterion : criteria) {
+            if (criterion != null) {
+                and = RoaringBitmap.and(and, criterion);
+            }
+        }
+        return and;
+    }
+
+    private long[] page(RoaringBitmap matching, long skip, int limit) {
+        long[] ids = new long[(int) Math.max(0, Math.min(limit, matching.cardinality() - skip))];
+        long[] position = {0};
+        if (ids.length > 0) {
+            matching.forEach(document -> {
+                long index = position[0]++ - skip;
+                if (index >= 0) {
+                    ids[(int) index] = bookIds[document];
+                }
+                return index + 1 < ids.length;
+            });
+        }
+        return ids;
+    }
+
+    private static <K> void putCount(Map<K, Long> counts, K value, long count) {
+        if (count > 0) {
+            counts.put(value, count);
+        }
+    }
+
+    private static Map<String, Long> byCountDescending(Map<String, Long> counts) {
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+}
@@ -0,0 +1,114 @@
+package fr.uga.l3miage.library.service.mock;
+
+import fr.uga.l3miage.library.service.DuplicateIsbnException;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Unique index of the books by ISBN, books without ISBN (0) being left out.
+ * <p>
+ * It maps each ISBN to its book, and each book to its ISBN so that the previous one is released when a book is
+ * updated, both in {@link LongLongHashMap}s. Lookups take an optimistic read stamp, validated once done, and only
+ * lock when a write happened meanwhile: readers do not write to shared memory, and scale with the cores.
+ */
+final class IsbnIndex {
+
+    /**
+     * Never the id of a book
+     */
+    static final long NONE = Long.MIN_VALUE;
+
+    private final LongLongHashMap bookByIsbn = new LongLongHashMap();
+    private final LongLongHashMap isbnByBook = new LongLongHashMap();
+    private final StampedLock lock = new StampedLock();
+
+    /**
+     * @return the id of the book having an ISBN, or {@link #NONE}
+     */
+    long book(long isbn) {
+        if (isbn == 0) {
+            return NONE;
+        }
+        long stamp = lock.tryOptimisticRead();
+        long book = bookByIsbn.get(isbn, NONE);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                book = bookByIsbn.get(isbn, NONE);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return book;
+    }
+
+    /**
+     * Sets the ISBN of a book, releasing its previous one
+     *
+     * @throws DuplicateIsbnException if another book has this ISBN, the index being left unchanged
+     */
+    void put(long bookId, long isbn) {
+        long stamp = lock.writeLock();
+        try {
+            long owner = bookByIsbn.get(isbn, NONE);
+            if (isbn != 0 && owner != NONE && owner != bookId) {
+                throw new DuplicateIsbnException(isbn);
+            }
+            set(bookId, isbn);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Sets the ISBN of a book even if another book has it, as happens while replaying changes: the other book is
+     * changed or removed later on.
+     */
+    void restore(long bookId, long isbn) {
+        long stamp = lock.writeLock();
+        try {
+            set(bookId, isbn);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Forgets a book, releasing its ISBN
+     */
+    void remove(long bookId) {
+        long stamp = lock.writeLock();
+        try {
+            release(bookId, isbnByBook.remove(bookId, 0));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    void clear() {
+        long stamp = lock.writeLock();
+        try {
+            bookByIsbn.clear();
+            isbnByBook.clear();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void set(long bookId, long isbn) {
+        long previous = isbn == 0 ? isbnByBook.remove(bookId, 0) : isbnByBook.put(bookId, isbn, 0);
+        if (previous != isbn) {
+            release(bookId, previous);
+        }
+        if (isbn != 0) {
+            bookByIsbn.put(isbn, bookId, NONE);
+        }
+    }
+
+    private void release(long bookId, long isbn) {
+        // unless taken over by another book since
+        if (isbn != 0 && bookByIsbn.get(isbn, NONE) == bookId) {
+            bookByIsbn.remove(isbn, NONE);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package fr.uga.l3miage.library.service.mock;
+
+/**
+ * Map of {@code long} to {@code long}, without boxing: open addressing with linear probing in a single array where
+ * each key is followed by its value, so that a lookup reads one cache line in most cases. Key 0 marks an empty slot,
+ * its value is kept aside. Removal shifts back the following entries of the probe sequence, leaving no tombstones.
+ * <p>
+ * Not thread-safe. A lookup racing with a write may return a wrong value but never fails, the array being replaced as
+ * a whole when grown: it may thus be done under an optimistic read lock, see {@link IsbnIndex}.
+ */
+final class LongLongHashMap {
+
+    private static final int MIN_CAPACITY = 16;
+
+    /**
+     * Keys at even indexes, values at odd ones
+     */
+    private long[] slots;
+    private int size;
+    private boolean hasZeroKey;
+    private long zeroValue;
+
+    LongLongHashMap() {
+        this.slots = new long[2 * MIN_CAPACITY];
+    }
+
+    /**
+     * @return the value of a key, or {@code missing} when there is none
+     */
+    long get(long key, long missing) {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue : missing;
+        }
+        long[] slots = this.slots;
+        int mask = slots.length / 2 - 1;
+        int slot = slot(key, mask);
+        for (int probes = 0; probes <= mask; probes++) {
+            long stored = slots[2 * slot];
+            if (stored == key) {
+                return slots[2 * slot + 1];
+            }
+            if (stored == 0) {
+                return missing;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return missing;
+    }
+
+    /**
+     * Sets the value of a key
+     *
+     * @return the previous value of the key, or {@code missing} when there was none
+     */
+    long put(long key, long value, long missing) {
+        if (key == 0) {
+            long previous = hasZeroKey ? zeroValue : missing;
+            if (!hasZeroKey) {
+                size++;
+            }
+            hasZeroKey = true;
+            zeroValue = value;
+            return previous;
+        }
+        int mask = slots.length / 2 - 1;
+        int slot = slot(key, mask);
+        while (true) {
+            long stored = slots[2 * slot];
+            if (stored == key) {
+                long previous = slots[2 * slot + 1];
+                slots[2 * slot + 1] = value;
+                return previous;
+            }
+            if (stored == 0) {
+                break;
+            }
+            slot = (slot + 1) & mask;
+        }
+        // at most half full
+        if (2 * (size + 1) > mask + 1) {
+            grow();
+            return put(key, value, missing);
+        }
+        slots[2 * slot] = key;
+        slots[2 * slot + 1] = value;
+        size++;
+        return missing;
+    }
+
+    /**
+     * Removes a key
+     *
+     * @return its value, or {@code missing} when there was none
+     */
+    long remove(long key, long missing) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                return missing;
+            }
+            hasZeroKey = false;
+            size--;
+            return zeroValue;
+        }
+        int mask = slots.length / 2 - 1;
+        int slot = slot(key, mask);
+        while (true) {
+            long stored = slots[2 * slot];
+            if (stored == 0) {
+                return missing;
+            }
+            if (stored == key) {
+                break;
+            }
+            slot = (slot + 1) & mask;
+        }
+        long value = slots[2 * slot + 1];
+        size--;
+
+        // shifts back the entries that would no longer be found past the emptied slot
+        int empty = slot;
+        int next = (slot + 1) & mask;
+        long stored;
+        while ((stored = slots[2 * next]) != 0) {
+            int home = slot(stored, mask);
+            // moves the entry unless its home lies cyclically in (empty, next]
+            if (((next - home) & mask) >= ((next - empty) & mask)) {
+                slots[2 * empty] = stored;
+                slots[2 * empty + 1] = slots[2 * next + 1];
+                empty = next;
+            }
+            next = (next + 1) & mask;
+        }
+        slots[2 * empty] = 0;
+        slots[2 * empty + 1] = 0;
+        return value;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        slots = new long[2 * MIN_CAPACITY];
+        size = 0;
+        hasZeroKey = false;
+        zeroValue = 0;
+    }
+
+    private void grow() {
+        long[] old = slots;
+        long[] grown = new long[2 * old.length];
+        int mask = grown.length / 2 - 1;
+        for (int i = 0; i < old.length; i += 2) {
+            long key = old[i];
+            if (key != 0) {
+                int slot = slot(key, mask);
+                while (grown[2 * slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                grown[2 * slot] = key;
+                grown[2 * slot + 1] = old[i + 1];
+            }
+        }
+        // published at once, see the optimistic lookups
+        slots = grown;
+    }
+
+    /**
+     * @return the home slot of a key: Fibonacci hashing, the upper half of the scrambled key
+     */
+    private static int slot(long key, int mask) {
+        return (int) ((key * 0x9e3779b97f4a7c15L) >>> 32) & mask;
+    }
+
+}
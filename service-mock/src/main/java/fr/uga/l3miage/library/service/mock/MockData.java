@@ -2,17 +2,62 @@ package fr.uga.l3miage.library.service.mock;
 
 import fr.uga.l3miage.data.domain.Author;
 import fr.uga.l3miage.data.domain.Book;
+import fr.uga.l3miage.data.domain.Borrow;
+import fr.uga.l3miage.data.domain.Borrower;
+import fr.uga.l3miage.data.domain.Person;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
+/**
+ * In-memory storage shared by the mock services. It is safe for concurrent use: maps are concurrent (and sorted by
+ * id, for keyset pagination), ids are
+ * generated atomically and writes touching the author/book association hold the {@link #locks} of the entities
+ * involved.
+ * <p>
+ * Books are stored by a {@link BookStore}: as objects by default, in a columnar {@link BookTable} when
+ * {@link ColumnarBooks} are enabled.
+ * <p>
+ * Book titles and author names are indexed by {@link #titles} and {@link #names}, the association by
+ * {@link #authorBooks}, book ISBNs, which are unique, by {@link #isbns} and book years, languages and publishers by
+ * {@link #facets}; they are maintained along with the maps.
+ * <p>
+ * A book is borrowed while {@link #borrowedBooks} maps its id to that of a borrow, which is only changed with the
+ * lock of the book held: concurrent checkouts of the same book are serialized by its stripe, those of different books
+ * usually are not.
+ * <p>
+ * Authors and books are changed through {@link #putAuthor}, {@link #putBook}, {@link #bind}, {@link #removeBook} and
+ * {@link #removeAuthor}, which append the change to the {@link #log} when the store is durable (see
+ * {@link MockDurability}); writers then {@link #commit()} once their locks are released.
+ */
 @Component
 public class MockData {
-    static Map<Long, Author> authors = new HashMap<>();
-    static Map<Long, Book> books = new HashMap<>();
-    private static long nextBookId;
-    private static long nextAuthorId;
+    static final ConcurrentNavigableMap<Long, Author> authors = new ConcurrentSkipListMap<>();
+    static volatile BookStore books = new ObjectBookStore();
+    static final StripedLocks locks = new StripedLocks(64);
+    static final NGramIndex titles = new NGramIndex();
+    static final NGramIndex names = new NGramIndex();
+    static final AuthorBookIndex authorBooks = new AuthorBookIndex();
+    static final IsbnIndex isbns = new IsbnIndex();
+    static final FacetIndex facets = new FacetIndex();
+    static final ConcurrentNavigableMap<Long, Borrower> borrowers = new ConcurrentSkipListMap<>();
+    static final ConcurrentNavigableMap<Long, Borrow> borrows = new ConcurrentSkipListMap<>();
+    static final Map<Long, Long> borrowedBooks = new ConcurrentHashMap<>();
+    static final Map<Long, NavigableSet<Long>> borrowsByBorrower = new ConcurrentHashMap<>();
+    private static final AtomicLong nextBookId = new AtomicLong();
+    private static final AtomicLong nextAuthorId = new AtomicLong();
+    private static final AtomicLong nextBorrowId = new AtomicLong();
+    private static final AtomicLong nextPersonId = new AtomicLong();
+    static volatile WriteAheadLog log;
 
     private MockData() {
         // to hide the public one
@@ -20,12 +65,173 @@ public class MockData {
 
     public static <T> long getNextId(Class<T> c) {
         if (c.equals(Book.class)) {
-            return nextBookId++;
+            return nextBookId.getAndIncrement();
+        } else if (c.equals(Borrow.class)) {
+            return nextBorrowId.getAndIncrement();
+        } else if (Person.class.isAssignableFrom(c)) {
+            return nextPersonId.getAndIncrement();
         } else {
-            return nextAuthorId++;
+            return nextAuthorId.getAndIncrement();
         }
     }
 
+    /**
+     * Binds an author and a book both ways, the caller must hold the locks of both.
+     */
+    static void bind(Author author, Book book) {
+        if (!books.views()) {
+            if (author.getBooks() == null || !(author.getBooks() instanceof ConcurrentHashMap.KeySetView)) {
+                author.setBooks(concurrentCopy(author.getBooks()));
+            }
+            author.addBook(book);
+        }
+        if (book.getAuthors() == null || !(book.getAuthors() instanceof ConcurrentHashMap.KeySetView)) {
+            book.setAuthors(concurrentCopy(book.getAuthors()));
+        }
+        book.addAuthor(author);
+        books.bind(book.getId(), author.getId());
+        authorBooks.bind(author.getId(), book.getId(), ids(book.getAuthors()));
+        append(records -> records.bind(author.getId(), book.getId()));
+    }
+
+    /**
+     * Stores an author, new or modified, the caller must hold its lock.
+     */
+    static void putAuthor(Author author) {
+        authors.put(author.getId(), author);
+        names.put(author.getId(), author.getFullName());
+        append(records -> records.author(author));
+    }
+
+    /**
+     * Stores a book, new or modified, the caller must hold its lock.
+     *
+     * @throws fr.uga.l3miage.library.service.DuplicateIsbnException if another book has its ISBN, nothing being
+     *                                                                stored
+     */
+    static void putBook(Book book) {
+        isbns.put(book.getId(), book.getIsbn());
+        books.put(book);
+        titles.put(book.getId(), book.getTitle());
+        facets.put(book.getId(), book.getYear(), book.getLanguage(), book.getPublisher());
+        append(records -> records.book(book));
+    }
+
+    /**
+     * Removes a book and unbinds it from its authors, the caller must hold the locks of the book and of its authors.
+     */
+    static void removeBook(Book book) {
+        Set<Author> authors = book.getAuthors() == null ? Set.of() : Set.copyOf(book.getAuthors());
+        for (Author author : authors) {
+            if (author.getBooks() != null) {
+                author.getBooks().remove(book);
+            }
+        }
+        books.remove(book.getId());
+        titles.remove(book.getId());
+        isbns.remove(book.getId());
+        facets.remove(book.getId());
+        authorBooks.removeBook(book.getId(), ids(authors));
+        append(records -> records.bookDeleted(book.getId()));
+    }
+
+    /**
+     * Removes an author, whose books must already have been removed, the caller must hold its lock.
+     */
+    static void removeAuthor(long id) {
+        authors.remove(id);
+        names.remove(id);
+        authorBooks.removeAuthor(id);
+        append(records -> records.authorDeleted(id));
+    }
+
+    /**
+     * Waits until the changes logged by the current thread are durable, does nothing when the store is not.
+     */
+    static void commit() {
+        WriteAheadLog current = log;
+        if (current != null) {
+            current.commit();
+        }
+    }
+
+    /**
+     * Empties the authors and books, and their indexes.
+     */
+    static void clear() {
+        authors.clear();
+        books.clear();
+        names.clear();
+        titles.clear();
+        authorBooks.clear();
+        isbns.clear();
+        facets.clear();
+    }
+
+    /**
+     * Makes sure that generated ids follow those of the stored authors and books.
+     */
+    static void skipUsedIds() {
+        if (!authors.isEmpty()) {
+            nextAuthorId.accumulateAndGet(authors.lastKey() + 1, Math::max);
+        }
+        if (books.size() > 0) {
+            nextBookId.accumulateAndGet(books.lastId() + 1, Math::max);
+        }
+    }
+
+    /**
+     * Moves the books to another store, to be called before the services are used.
+     */
+    static synchronized void useBooks(BookStore store) {
+        BookStore previous = books;
+        previous.stream().forEach(book -> {
+            store.put(book);
+            for (Author author : BookServiceMockImpl.snapshot(book.getAuthors())) {
+                store.bind(book.getId(), author.getId());
+            }
+        });
+        for (Author author : authors.values()) {
+            author.setBooks(null);
+        }
+        books = store;
+        if (!store.views()) {
+            store.stream().forEach(book -> BookServiceMockImpl.snapshot(book.getAuthors())
+                    .forEach(author -> bind(author, book)));
+        }
+    }
+
+    private static void append(Consumer<Records> record) {
+        WriteAheadLog current = log;
+        if (current != null) {
+            current.append(record);
+        }
+    }
+
+    /**
+     * Records a new borrow, the caller must hold the locks of its books.
+     */
+    static void borrow(Borrow borrow) {
+        for (Book book : borrow.getBooks()) {
+            borrowedBooks.put(book.getId(), borrow.getId());
+        }
+        borrows.put(borrow.getId(), borrow);
+        borrowsByBorrower.computeIfAbsent(borrow.getBorrower().getId(), id -> new ConcurrentSkipListSet<>())
+                .add(borrow.getId());
+    }
+
+    static List<Long> ids(Set<Author> authors) {
+        return authors == null ? List.of() : authors.stream().map(Author::getId).toList();
+    }
+
+    private static <T> Set<T> concurrentCopy(Set<T> set) {
+        Set<T> copy = ConcurrentHashMap.newKeySet();
+        if (set != null) {
+            copy.addAll(set);
+        }
+        return copy;
+    }
+
     static {
 
         Author me = new Author();
@@ -40,11 +246,12 @@ public class MockData {
         jpa.setYear((short) 2023);
         jpa.setLanguage(Book.Language.ENGLISH);
 
-        jpa.addAuthor(me);
-        me.addBook(jpa);
+        me.touch();
+        jpa.touch();
 
-        authors.put(me.getId(), me);
-        books.put(jpa.getId(), jpa);
+        putAuthor(me);
+        putBook(jpa);
+        bind(me, jpa);
 
     }
 
@@ -0,0 +1,192 @@
+package fr.uga.l3miage.library.service.mock;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * Durability of the authors and books of the mock store, enabled by setting {@code library.mock.durability.dir} to a
+ * directory.
+ * <p>
+ * Their changes are appended to a {@link WriteAheadLog} in this directory, each service call returning once its
+ * changes are on disk. Every {@code library.mock.durability.snapshot-interval} (5 minutes by default), when the store
+ * was changed, it is written to a snapshot and the log segments preceding it are deleted. On startup, the latest
+ * snapshot and the log following it replace the content of the store.
+ * <p>
+ * Snapshots are taken without stopping writers: the log switches to a new segment, then the store is read while being
+ * changed. Replaying this segment after the snapshot brings every entity changed meanwhile to its latest state.
+ * Borrowers and borrows are not durable.
+ */
+@Component
+@ConditionalOnProperty("library.mock.durability.dir")
+public class MockDurability implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(MockDurability.class);
+
+    private final Path dir;
+    private final Duration snapshotInterval;
+    private ScheduledExecutorService scheduler;
+    private WriteAheadLog wal;
+    private long snapshotLsn;
+    private long nextLsn = 1;
+
+    @Autowired
+    public MockDurability(@Value("${library.mock.durability.dir}") Path dir,
+            @Value("${library.mock.durability.snapshot-interval:5m}") Duration snapshotInterval) {
+        this.dir = dir;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    /**
+     * Recovers the store from the directory, then logs its changes.
+     */
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        Files.createDirectories(dir);
+        long start = System.nanoTime();
+        long records = recover();
+        log.info("Recovered {} authors and {} books from {} ({} log records) in {} ms", MockData.authors.size(),
+                MockData.books.size(), dir, records, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        wal = new WriteAheadLog(dir, nextLsn);
+        MockData.log = wal;
+        if (snapshotLsn != nextLsn) {
+            snapshot();
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "mock-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = snapshotInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::periodicSnapshot, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Replaces the content of the store by the latest snapshot of the directory and the log following it, truncating
+     * the log after its last valid record (torn by a crash). The store is left as is when there is no snapshot.
+     *
+     * @return the number of log records replayed
+     */
+    public synchronized long recover() throws IOException {
+        List<Path> snapshots = files(Snapshots::lsn);
+        List<Path> segments = files(WriteAheadLog::segmentLsn);
+
+        long lsn = 1;
+        snapshotLsn = 0;
+        if (!snapshots.isEmpty()) {
+            MockData.clear();
+            lsn = Snapshots.read(snapshots.get(snapshots.size() - 1));
+            snapshotLsn = lsn;
+        }
+
+        long records = 0;
+        for (Path segment : segments) {
+            long start = WriteAheadLog.segmentLsn(segment);
+            if (start < lsn) {
+                // covered by the snapshot
+                continue;
+            }
+            if (start > lsn) {
+                throw new IOException("Missing log records " + lsn + " to " + (start - 1) + " before " + segment);
+            }
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                Records.Replay replay = Records.replay(channel, 0, false);
+                if (replay.end() < channel.size()) {
+                    log.warn("Truncating {} after its last valid record, at {} of {} bytes", segment, replay.end(),
+                            channel.size());
+                    channel.truncate(replay.end());
+                    channel.force(true);
+                }
+                lsn += replay.records();
+                records += replay.records();
+            }
+        }
+        MockData.skipUsedIds();
+        nextLsn = lsn;
+        return records;
+    }
+
+    /**
+     * Writes the store to a new snapshot, then deletes the older snapshots and log segments.
+     *
+     * @return the sequence number of the first log record following the snapshot
+     */
+    public synchronized long snapshot() throws IOException {
+        long lsn = wal.rotate();
+        long start = System.nanoTime();
+        Path file = Snapshots.write(dir, lsn);
+        snapshotLsn = lsn;
+        for (Path old : files(Snapshots::lsn)) {
+            if (Snapshots.lsn(old) < lsn) {
+                Files.delete(old);
+            }
+        }
+        for (Path old : files(WriteAheadLog::segmentLsn)) {
+            if (WriteAheadLog.segmentLsn(old) < lsn) {
+                Files.delete(old);
+            }
+        }
+        log.debug("Wrote {} in {} ms", file, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return lsn;
+    }
+
+    /**
+     * Stops logging the changes of the store, once the pending ones are on disk.
+     */
+    @PreDestroy
+    @Override
+    public synchronized void close() throws IOException {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        if (wal != null) {
+            MockData.log = null;
+            wal.close();
+            wal = null;
+        }
+    }
+
+    private synchronized void periodicSnapshot() {
+        try {
+            if (wal != null && wal.lastLsn() >= snapshotLsn) {
+                snapshot();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Cannot snapshot the store to {}", dir, e);
+        }
+    }
+
+    /**
+     * @return the files of the directory having a sequence number, sorted by it
+     */
+    private List<Path> files(ToLongFunction<Path> lsn) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> lsn.applyAsLong(file) >= 0)
+                    .sorted(Comparator.comparingLong(lsn))
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package fr.uga.l3miage.library.service.mock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted trigram index of a text attribute (e.g. book titles), used to answer case-insensitive "contains" queries
+ * without scanning every entity.
+ * <p>
+ * Each trigram of the lower-cased text maps to the sorted ids of the entities containing it. A query is answered by
+ * intersecting the postings of its trigrams, starting from the smallest one, then checking the remaining candidates
+ * against the indexed text (sharing trigrams does not imply containing the query). Queries shorter than a trigram
+ * fall back to a scan of the already lower-cased texts.
+ * <p>
+ * Reads run concurrently, writes are exclusive.
+ */
+final class NGramIndex {
+
+    private static final int N = 3;
+
+    private final Map<Long, Posting> postings = new HashMap<>();
+    private final Map<Long, String> texts = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Index or re-index the text of an entity.
+     *
+     * @param id   entity id
+     * @param text the text, may be null
+     */
+    void put(long id, String text) {
+        String normalized = normalize(text);
+        lock.writeLock().lock();
+        try {
+            String previous = texts.put(id, normalized);
+            if (previous != null) {
+                if (previous.equals(normalized)) {
+                    return;
+                }
+                for (long gram : grams(previous)) {
+                    Posting posting = postings.get(gram);
+                    if (posting.remove(id) && posting.size == 0) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+            for (long gram : grams(normalized)) {
+                postings.computeIfAbsent(gram, g -> new Posting()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove an entity from the index.
+     *
+     * @param id entity id
+     */
+    void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            String previous = texts.remove(id);
+            if (previous != null) {
+                for (long gram : grams(previous)) {
+                    Posting posting = postings.get(gram);
+                    if (posting.remove(id) && posting.size == 0) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove every entity from the index.
+     */
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            texts.clear();
+            postings.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Tells whether the indexed text of an entity contains the query, ignoring case.
+     *
+     * @param id    entity id
+     * @param query searched text
+     * @return true when the entity is indexed and its text matches
+     */
+    boolean matches(long id, String query) {
+        String normalized = normalize(query);
+        lock.readLock().lock();
+        try {
+            String text = texts.get(id);
+            return text != null && text.contains(normalized);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find the entities whose text contains the query, ignoring case.
+     *
+     * @param query searched text
+     * @return ids of matching entities, in ascending order
+     */
+    long[] search(String query) {
+        String normalized = normalize(query);
+        lock.readLock().lock();
+        try {
+            if (normalized.length() < N) {
+                return texts.entrySet().stream()
+                        .filter(e -> e.getValue().contains(normalized))
+                        .mapToLong(Map.Entry::getKey)
+                        .sorted()
+                        .toArray();
+            }
+
+            List<Posting> lists = new ArrayList<>();
+            for (long gram : grams(normalized)) {
+                Posting posting = postings.get(gram);
+                if (posting == null) {
+                    return new long[0];
+                }
+                lists.add(posting);
+            }
+            lists.sort(Comparator.comparingInt(p -> p.size));
+
+            long[] candidates = Arrays.copyOf(lists.get(0).ids, lists.get(0).size);
+            int count = candidates.length;
+            for (int l = 1; l < lists.size() && count > 0; l++) {
+                count = lists.get(l).retain(candidates, count);
+            }
+
+            int matching = 0;
+            for (int i = 0; i < count; i++) {
+                if (texts.get(candidates[i]).contains(normalized)) {
+                    candidates[matching++] = candidates[i];
+                }
+            }
+            return Arrays.copyOf(candidates, matching);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Distinct trigrams of a normalized text, each packed in a long (3 x 16 bits chars) then scrambled.
+     */
+    private static long[] grams(String text) {
+        if (text.length() < N) {
+            return new long[0];
+        }
+        long[] grams = new long[text.length() - N + 1];
+        for (int i = 0; i < grams.length; i++) {
+            long gram = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+            // scrambled by an odd multiplier (a bijection): the low bits of a packed gram, hashed by the map, hardly vary
+            grams[i] = gram * 0x9e3779b97f4a7c15L;
+        }
+        // sorted then deduplicated in place, distinct() would box every gram
+        Arrays.sort(grams);
+        int distinct = 0;
+        for (int i = 0; i < grams.length; i++) {
+            if (i == 0 || grams[i] != grams[i - 1]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return distinct == grams.length ? grams : Arrays.copyOf(grams, distinct);
+    }
+
+    /**
+     * Sorted set of ids, stored in a growable primitive array. Ids are generated in ascending order, so adding a new
+     * entity is an append.
+     */
+    private static final class Posting {
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            int index = size > 0 && ids[size - 1] < id ? -(size + 1) : Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            int insertion = -(index + 1);
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, insertion, ids, insertion + 1, size - insertion);
+            ids[insertion] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        /**
+         * Keeps in the first {@code count} sorted candidates those present in this posting.
+         *
+         * @return the number of candidates kept
+         */
+        int retain(long[] candidates, int count) {
+            int kept = 0;
+            int from = 0;
+            for (int i = 0; i < count && from < size; i++) {
+                int index = Arrays.binarySearch(ids, from, size, candidates[i]);
+                if (index >= 0) {
+                    candidates[kept++] = candidates[i];
+                    from = index + 1;
+                } else {
+                    from = -(index + 1);
+                }
+            }
+            return kept;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package fr.uga.l3miage.library.service.mock;
+
+import fr.uga.l3miage.data.domain.Book;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * Default storage of the books, as objects in a sorted concurrent map. A book references its authors, which reference
+ * it back.
+ */
+final class ObjectBookStore implements BookStore {
+
+    private final ConcurrentNavigableMap<Long, Book> books = new ConcurrentSkipListMap<>();
+
+    @Override
+    public Book get(long id) {
+        return books.get(id);
+    }
+
+    @Override
+    public void put(Book book) {
+        books.put(book.getId(), book);
+    }
+
+    @Override
+    public void bind(long bookId, long authorId) {
+        // the association is held by the objects themselves
+    }
+
+    @Override
+    public void remove(long id) {
+        books.remove(id);
+    }
+
+    @Override
+    public Stream<Book> stream() {
+        return books.values().stream();
+    }
+
+    @Override
+    public List<Book> after(Long after, int limit) {
+        var following = after == null ? books : books.tailMap(after, false);
+        return following.values().stream()
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public int size() {
+        return books.size();
+    }
+
+    @Override
+    public long lastId() {
+        return books.lastKey();
+    }
+
+    @Override
+    public void clear() {
+        books.clear();
+    }
+
+    @Override
+    public boolean views() {
+        return false;
+    }
+}
@@ -0,0 +1,350 @@
+package fr.uga.l3miage.library.service.mock;
+
+import fr.uga.l3miage.data.domain.Author;
+import fr.uga.l3miage.data.domain.Book;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary encoding of the changes of the authors and books of the mock store, shared by its {@link WriteAheadLog} and
+ * its snapshots.
+ * <p>
+ * A record is framed by the length and the CRC32C of its body, so that a torn or corrupted record is detected on
+ * replay. Its body is a type followed by the fields of the change. Author and book records carry the whole entity but
+ * its associations, which are recorded separately: replaying a record over a newer state of the store, as happens
+ * after a snapshot taken while the store was changed, brings the entity back to the state it had when logged.
+ * <p>
+ * Records are written to a growable buffer, which is not thread-safe.
+ */
+final class Records {
+
+    static final byte AUTHOR = 1;
+    static final byte BOOK = 2;
+    static final byte BIND = 3;
+    static final byte AUTHOR_DELETED = 4;
+    static final byte BOOK_DELETED = 5;
+
+    /**
+     * Length and checksum of the body
+     */
+    static final int HEADER = 8;
+
+    /**
+     * Size of the regions of the files mapped to be replayed
+     */
+    private static final long REGION = 64 << 20;
+    private static final Book.Language[] LANGUAGES = Book.Language.values();
+
+    private ByteBuffer buffer;
+
+    Records(int capacity) {
+        this.buffer = ByteBuffer.allocate(capacity);
+    }
+
+    void author(Author author) {
+        int start = begin(AUTHOR);
+        putLong(author.getId());
+        putLong(author.getVersion());
+        putLong(millis(author.getLastModified()));
+        putString(author.getFullName());
+        end(start);
+    }
+
+    void book(Book book) {
+        int start = begin(BOOK);
+        putLong(book.getId());
+        putLong(book.getVersion());
+        putLong(millis(book.getLastModified()));
+        putLong(book.getIsbn());
+        ensure(Short.BYTES + 1);
+        buffer.putShort(book.getYear());
+        buffer.put(book.getLanguage() == null ? -1 : (byte) book.getLanguage().ordinal());
+        putString(book.getTitle());
+        putString(book.getPublisher());
+        end(start);
+    }
+
+    void bind(long authorId, long bookId) {
+        int start = begin(BIND);
+        putLong(authorId);
+        putLong(bookId);
+        end(start);
+    }
+
+    void authorDeleted(long id) {
+        int start = begin(AUTHOR_DELETED);
+        putLong(id);
+        end(start);
+    }
+
+    void bookDeleted(long id) {
+        int start = begin(BOOK_DELETED);
+        putLong(id);
+        end(start);
+    }
+
+    /**
+     * @return the number of bytes written since the last {@link #clear()}
+     */
+    int size() {
+        return buffer.position();
+    }
+
+    /**
+     * @return the records written since the last {@link #clear()}, as a buffer ready to be read
+     */
+    ByteBuffer written() {
+        return buffer.duplicate().flip();
+    }
+
+    void clear() {
+        buffer.clear();
+    }
+
+    /**
+     * Reads the record starting at the position of a buffer, moving it after the record.
+     *
+     * @return the body of the record, or null when the buffer holds an incomplete or corrupted record, its position
+     * being left unchanged
+     */
+    static ByteBuffer next(ByteBuffer in) {
+        int start = in.position();
+        if (in.remaining() < HEADER) {
+            return null;
+        }
+        int length = in.getInt(start);
+        if (length <= 0 || length > in.remaining() - HEADER) {
+            return null;
+        }
+        ByteBuffer body = in.slice(start + HEADER, length);
+        CRC32C crc = new CRC32C();
+        crc.update(body.duplicate());
+        if ((int) crc.getValue() != in.getInt(start + Integer.BYTES)) {
+            return null;
+        }
+        in.position(start + HEADER + length);
+        return body;
+    }
+
+    /**
+     * Applies to the store the records of a file, from a position to its end or to its first invalid record. The file
+     * is mapped in memory by regions, each record being decoded in place.
+     *
+     * @param complete whether the file holds the whole store, which was emptied: its entities are then not looked up
+     *                 in the store
+     * @return the position following the last valid record and the number of records applied
+     */
+    static Replay replay(FileChannel channel, long position, boolean complete) throws IOException {
+        Replayer replayer = new Replayer(complete);
+        long size = channel.size();
+        long count = 0;
+        while (position < size) {
+            MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(size - position, REGION));
+            ByteBuffer body;
+            while ((body = next(region)) != null) {
+                replayer.apply(body);
+                count++;
+            }
+            if (region.position() == 0) {
+                // a record larger than a region, otherwise an invalid one
+                long length = region.remaining() < HEADER ? 0 : HEADER + (long) region.getInt(0);
+                if (length <= region.capacity() || length > size - position) {
+                    break;
+                }
+                region = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                if ((body = next(region)) == null) {
+                    break;
+                }
+                replayer.apply(body);
+                count++;
+            }
+            position += region.position();
+        }
+        return new Replay(position, count);
+    }
+
+    /**
+     * Outcome of a replay
+     *
+     * @param end     the position following the last valid record
+     * @param records the number of records applied
+     */
+    record Replay(long end, long records) {
+    }
+
+    /**
+     * Applies records to the store, without logging them. The entities it applies or looks up are kept in hash maps
+     * for the duration of the replay: a lookup in the sorted maps of the store costs a dozen cache misses once they
+     * hold millions of entities. Books held by a {@link BookTable} are looked up in it instead, a binary search of its
+     * ids, so as not to hold them all as objects meanwhile.
+     */
+    private static final class Replayer {
+        private final boolean complete;
+        private final boolean views = MockData.books.views();
+        private final Map<Long, Author> authors = new HashMap<>();
+        private final Map<Long, Book> books = new HashMap<>();
+
+        Replayer(boolean complete) {
+            this.complete = complete;
+        }
+
+        void apply(ByteBuffer body) {
+            switch (body.get()) {
+                case AUTHOR -> {
+                    long id = body.getLong();
+                    Author author = author(id);
+                    if (author == null) {
+                        author = new Author();
+                        author.setId(id);
+                        authors.put(id, author);
+                    }
+                    author.setVersion(body.getLong());
+                    author.setLastModified(date(body.getLong()));
+                    author.setFullName(getString(body));
+                    MockData.putAuthor(author);
+                }
+                case BOOK -> {
+                    long id = body.getLong();
+                    Book book = book(id);
+                    if (book == null) {
+                        book = new Book();
+                        book.setId(id);
+                        cache(book);
+                    }
+                    book.setVersion(body.getLong());
+                    book.setLastModified(date(body.getLong()));
+                    book.setIsbn(body.getLong());
+                    book.setYear(body.getShort());
+                    byte language = body.get();
+                    book.setLanguage(language < 0 ? null : LANGUAGES[language]);
+                    book.setTitle(getString(body));
+                    book.setPublisher(getString(body));
+                    // the book having this ISBN in a snapshot may have been changed while it was taken
+                    MockData.isbns.restore(id, book.getIsbn());
+                    MockData.putBook(book);
+                }
+                case BIND -> {
+                    Author author = author(body.getLong());
+                    Book book = book(body.getLong());
+                    // either was deleted later, which is logged too
+                    if (author != null && book != null) {
+                        MockData.bind(author, book);
+                    }
+                }
+                case AUTHOR_DELETED -> {
+                    long id = body.getLong();
+                    authors.remove(id);
+                    MockData.removeAuthor(id);
+                }
+                case BOOK_DELETED -> {
+                    long id = body.getLong();
+                    Book book = book(id);
+                    books.remove(id);
+                    if (book != null) {
+                        MockData.removeBook(book);
+                    }
+                }
+                default -> throw new IllegalStateException("Unknown record type: " + body.get(0));
+            }
+        }
+
+        private Author author(long id) {
+            Author author = authors.get(id);
+            if (author == null && !complete) {
+                author = MockData.authors.get(id);
+                if (author != null) {
+                    authors.put(id, author);
+                }
+            }
+            return author;
+        }
+
+        private Book book(long id) {
+            if (views) {
+                return MockData.books.get(id);
+            }
+            Book book = books.get(id);
+            if (book == null && !complete) {
+                book = MockData.books.get(id);
+                if (book != null) {
+                    books.put(id, book);
+                }
+            }
+            return book;
+        }
+
+        private void cache(Book book) {
+            if (!views) {
+                books.put(book.getId(), book);
+            }
+        }
+    }
+
+    private int begin(byte type) {
+        ensure(HEADER + 1);
+        int start = buffer.position();
+        buffer.position(start + HEADER);
+        buffer.put(type);
+        return start;
+    }
+
+    private void end(int start) {
+        int length = buffer.position() - start - HEADER;
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(start + HEADER, length));
+        buffer.putInt(start, length);
+        buffer.putInt(start + Integer.BYTES, (int) crc.getValue());
+    }
+
+    private void putLong(long value) {
+        ensure(Long.BYTES);
+        buffer.putLong(value);
+    }
+
+    private void putString(String value) {
+        if (value == null) {
+            ensure(Integer.BYTES);
+            buffer.putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ensure(Integer.BYTES + bytes.length);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer body) {
+        int length = body.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        body.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void ensure(int bytes) {
+        if (buffer.remaining() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+    }
+
+    private static long millis(Date date) {
+        return date == null ? -1 : date.getTime();
+    }
+
+    private static Date date(long millis) {
+        return millis < 0 ? null : new Date(millis);
+    }
+}
@@ -0,0 +1,420 @@
+package fr.uga.l3miage.library.service.mock;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.IntPredicate;
+
+/**
+ * Compressed set of non-negative ints, after Roaring bitmaps: values are split by their upper 16 bits into chunks of
+ * 65536, each held by a container suited to its density. A sparse chunk is a sorted array of its lower 16 bits (2
+ * bytes per value), a dense one, past {@value #ARRAY_MAX} values, a bitmap of 8 kB. Intersections then go chunk by
+ * chunk, merging arrays, probing bitmaps with array values or and-ing bitmap words.
+ * <p>
+ * Not thread-safe.
+ */
+final class RoaringBitmap {
+
+    /**
+     * Largest array container, a bitmap container being smaller past it
+     */
+    static final int ARRAY_MAX = 4096;
+
+    /**
+     * Number of longs of a bitmap container, words and-ed for each chunk of an intersection of bitmaps
+     */
+    static final int BITMAP_WORDS = 1024;
+
+    private char[] keys = new char[4];
+    private Container[] containers = new Container[4];
+    private int size;
+
+    void add(int value) {
+        char key = (char) (value >>> 16);
+        int index = index(key);
+        if (index < 0) {
+            index = -index - 1;
+            insert(index, key, new ArrayContainer());
+        }
+        containers[index] = containers[index].add((char) value);
+    }
+
+    void remove(int value) {
+        int index = index((char) (value >>> 16));
+        if (index < 0) {
+            return;
+        }
+        Container container = containers[index].remove((char) value);
+        if (container.cardinality() == 0) {
+            System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+            System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+            containers[--size] = null;
+        } else {
+            containers[index] = container;
+        }
+    }
+
+    boolean contains(int value) {
+        int index = index((char) (value >>> 16));
+        return index >= 0 && containers[index].contains((char) value);
+    }
+
+    long cardinality() {
+        long cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality();
+        }
+        return cardinality;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the number of chunks of 65536 values holding values
+     */
+    int chunks() {
+        return size;
+    }
+
+    /**
+     * Passes the values in ascending order to an action, until it returns false
+     */
+    void forEach(IntPredicate action) {
+        for (int i = 0; i < size; i++) {
+            if (!containers[i].forEach(keys[i] << 16, action)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return the values of both bitmaps
+     */
+    static RoaringBitmap and(RoaringBitmap first, RoaringBitmap second) {
+        RoaringBitmap and = new RoaringBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < first.size && j < second.size) {
+            if (first.keys[i] < second.keys[j]) {
+                i++;
+            } else if (first.keys[i] > second.keys[j]) {
+                j++;
+            } else {
+                Container container = first.containers[i].and(second.containers[j]);
+                if (container.cardinality() > 0) {
+                    and.insert(and.size, first.keys[i], container);
+                }
+                i++;
+                j++;
+            }
+        }
+        return and;
+    }
+
+    /**
+     * @return the number of values of both bitmaps, without building their intersection
+     */
+    static long andCardinality(RoaringBitmap first, RoaringBitmap second) {
+        long cardinality = 0;
+        int i = 0;
+        int j = 0;
+        while (i < first.size && j < second.size) {
+            if (first.keys[i] < second.keys[j]) {
+                i++;
+            } else if (first.keys[i] > second.keys[j]) {
+                j++;
+            } else {
+                cardinality += first.containers[i].andCardinality(second.containers[j]);
+                i++;
+                j++;
+            }
+        }
+        return cardinality;
+    }
+
+    /**
+     * @return the values of any of the bitmaps, the chunks of a key being or-ed in a single bitmap container
+     */
+    static RoaringBitmap or(Collection<RoaringBitmap> bitmaps) {
+        NavigableMap<Character, BitmapContainer> chunks = new TreeMap<>();
+        for (RoaringBitmap bitmap : bitmaps) {
+            for (int i = 0; i < bitmap.size; i++) {
+                BitmapContainer chunk = chunks.computeIfAbsent(bitmap.keys[i], key -> new BitmapContainer());
+                bitmap.containers[i].forEach(0, value -> {
+                    chunk.add((char) value);
+                    return true;
+                });
+            }
+        }
+        RoaringBitmap or = new RoaringBitmap();
+        chunks.forEach((key, chunk) -> or.insert(or.size, key,
+                chunk.cardinality > ARRAY_MAX ? chunk : chunk.toArray(chunk.cardinality)));
+        return or;
+    }
+
+    private int index(char key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private void insert(int index, char key, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, 2 * size);
+            containers = Arrays.copyOf(containers, 2 * size);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        size++;
+    }
+
+    /**
+     * Values of a chunk, by their lower 16 bits. Operations return the container holding their result, which may be
+     * of another kind.
+     */
+    private interface Container {
+
+        Container add(char value);
+
+        Container remove(char value);
+
+        boolean contains(char value);
+
+        int cardinality();
+
+        boolean forEach(int high, IntPredicate action);
+
+        Container and(Container other);
+
+        int andCardinality(Container other);
+
+    }
+
+    private static final class ArrayContainer implements Container {
+        private char[] values;
+        private int cardinality;
+
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        public Container add(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_MAX) {
+                return toBitmap().add(value);
+            }
+            index = -index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, Math.max(4, 2 * cardinality)));
+            }
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        public Container remove(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        public boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        public int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        public boolean forEach(int high, IntPredicate action) {
+            for (int i = 0; i < cardinality; i++) {
+                if (!action.test(high | values[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Container and(Container other) {
+            char[] and = new char[Math.min(cardinality, other.cardinality())];
+            int count = 0;
+            if (other instanceof ArrayContainer array) {
+                int i = 0;
+                int j = 0;
+                while (i < cardinality && j < array.cardinality) {
+                    if (values[i] < array.values[j]) {
+                        i++;
+                    } else if (values[i] > array.values[j]) {
+                        j++;
+                    } else {
+                        and[count++] = values[i];
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i])) {
+                        and[count++] = values[i];
+                    }
+                }
+            }
+            return new ArrayContainer(and, count);
+        }
+
+        @Override
+        public int andCardinality(Container other) {
+            int count = 0;
+            if (other instanceof ArrayContainer array) {
+                int i = 0;
+                int j = 0;
+                while (i < cardinality && j < array.cardinality) {
+                    if (values[i] < array.values[j]) {
+                        i++;
+                    } else if (values[i] > array.values[j]) {
+                        j++;
+                    } else {
+                        count++;
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i])) {
+                        count++;
+                    }
+                }
+            }
+            return count;
+        }
+
+        private BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < cardinality; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    private static final class BitmapContainer implements Container {
+        private final long[] words;
+        private int cardinality;
+
+        BitmapContainer() {
+            this(new long[BITMAP_WORDS], 0);
+        }
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        public Container add(char value) {
+            long word = words[value >>> 6];
+            long set = word | (1L << value);
+            if (set != word) {
+                words[value >>> 6] = set;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        public Container remove(char value) {
+            long word = words[value >>> 6];
+            long cleared = word & ~(1L << value);
+            if (cleared != word) {
+                words[value >>> 6] = cleared;
+                cardinality--;
+            }
+            return cardinality > ARRAY_MAX ? this : toArray(cardinality);
+        }
+
+        @Override
+        public boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        public int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        public boolean forEach(int high, IntPredicate action) {
+            for (int i = 0; i < words.length; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    if (!action.test(high | (i << 6) | Long.numberOfTrailingZeros(word))) {
+                        return false;
+                    }
+                    word &= word - 1;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+            long[] otherWords = ((BitmapContainer) other).words;
+            long[] and = new long[words.length];
+            int count = 0;
+            for (int i = 0; i < words.length; i++) {
+                and[i] = words[i] & otherWords[i];
+                count += Long.bitCount(and[i]);
+            }
+            BitmapContainer container = new BitmapContainer(and, count);
+            return count > ARRAY_MAX ? container : container.toArray(count);
+        }
+
+        @Override
+        public int andCardinality(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.andCardinality(this);
+            }
+            long[] otherWords = ((BitmapContainer) other).words;
+            int count = 0;
+            for (int i = 0; i < words.length; i++) {
+                count += Long.bitCount(words[i] & otherWords[i]);
+            }
+            return count;
+        }
+
+        private ArrayContainer toArray(int count) {
+            char[] values = new char[Math.max(1, count)];
+            int[] index = {0};
+            forEach(0, value -> {
+                values[index[0]++] = (char) value;
+                return true;
+            });
+            return new ArrayContainer(values, count);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package fr.uga.l3miage.library.service.mock;
+
+import fr.uga.l3miage.data.domain.Author;
+import fr.uga.l3miage.data.domain.Book;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Snapshots of the authors and books of the mock store, written and read through memory-mapped files.
+ * <p>
+ * A snapshot starts with a magic number and the sequence number of the first log record it may not cover, followed by
+ * the {@link Records} of the authors, then of each book followed by its associations. It is written to a temporary file,
+ * forced to disk then renamed, so that a snapshot file is always complete.
+ */
+final class Snapshots {
+
+    private static final long MAGIC = 0x4c49425241525931L;
+    private static final int HEADER = 2 * Long.BYTES;
+    private static final long REGION = 64 << 20;
+    private static final int BATCH = 1 << 16;
+    private static final String SNAPSHOT = "snapshot-";
+    private static final String EXTENSION = ".bin";
+
+    private Snapshots() {
+        // utility class
+    }
+
+    /**
+     * Writes the current content of the store, which may be changed meanwhile.
+     *
+     * @param dir the directory of the snapshot
+     * @param lsn the sequence number of the first log record not applied before the snapshot started
+     * @return the snapshot file
+     */
+    static Path write(Path dir, long lsn) throws IOException {
+        Path file = dir.resolve(name(lsn));
+        Path temporary = dir.resolve(name(lsn) + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedOutput out = new MappedOutput(channel);
+            out.write(ByteBuffer.allocate(HEADER).putLong(MAGIC).putLong(lsn).flip());
+
+            Records records = new Records(2 * BATCH);
+            for (Author author : MockData.authors.values()) {
+                records.author(author);
+                drain(records, out, BATCH);
+            }
+            for (Book book : (Iterable<Book>) MockData.books.stream()::iterator) {
+                records.book(book);
+                if (book.getAuthors() != null) {
+                    for (Author author : book.getAuthors()) {
+                        records.bind(author.getId(), book.getId());
+                    }
+                }
+                drain(records, out, BATCH);
+            }
+            drain(records, out, 1);
+            out.finish();
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+        try (FileChannel directory = FileChannel.open(dir, StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException e) {
+            // not supported by every platform, the rename is then durable at the next sync
+        }
+        return file;
+    }
+
+    /**
+     * Applies a snapshot to the store.
+     *
+     * @return the sequence number of the first log record to replay after it
+     */
+    static long read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // reads the whole header
+            }
+            header.flip();
+            if (header.remaining() < HEADER || header.getLong() != MAGIC) {
+                throw new IOException("Not a snapshot: " + file);
+            }
+            long lsn = header.getLong();
+            Records.Replay replay = Records.replay(channel, HEADER, true);
+            if (replay.end() != channel.size()) {
+                throw new IOException("Corrupted snapshot: " + file + " at " + replay.end());
+            }
+            return lsn;
+        }
+    }
+
+    static String name(long lsn) {
+        return SNAPSHOT + String.format("%016x", lsn) + EXTENSION;
+    }
+
+    /**
+     * @return the sequence number of a snapshot, -1 when the file is not one
+     */
+    static long lsn(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(SNAPSHOT) || !name.endsWith(EXTENSION)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name, SNAPSHOT.length(), name.length() - EXTENSION.length(), 16);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static void drain(Records records, MappedOutput out, int threshold) throws IOException {
+        if (records.size() >= threshold) {
+            out.write(records.written());
+            records.clear();
+        }
+    }
+
+    /**
+     * Sequential writes to a file through mapped regions, the file growing with them.
+     */
+    private static final class MappedOutput {
+        private final FileChannel channel;
+        private MappedByteBuffer region;
+        private long regionStart;
+
+        MappedOutput(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.region = channel.map(FileChannel.MapMode.READ_WRITE, 0, REGION);
+        }
+
+        void write(ByteBuffer bytes) throws IOException {
+            if (region.remaining() < bytes.remaining()) {
+                long position = regionStart + region.position();
+                region.force();
+                region = channel.map(FileChannel.MapMode.READ_WRITE, position, Math.max(REGION, bytes.remaining()));
+                regionStart = position;
+            }
+            region.put(bytes);
+        }
+
+        /**
+         * Forces the written bytes to disk and trims the file to them.
+         */
+        void finish() throws IOException {
+            region.force();
+            long size = regionStart + region.position();
+            region = null;
+            channel.truncate(size);
+            channel.force(true);
+        }
+    }
+}
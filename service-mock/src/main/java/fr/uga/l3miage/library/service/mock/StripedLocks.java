@@ -0,0 +1,84 @@
+package fr.uga.l3miage.library.service.mock;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed set of locks, entities being spread among them by hashing their id. Two writes on unrelated entities
+ * usually take different locks and run concurrently, while writes on the same entity are serialized.
+ * <p>
+ * Several stripes can be held at once (e.g. an author and a book when binding them), they are always acquired in
+ * ascending order so that no deadlock can happen.
+ */
+final class StripedLocks {
+
+    private static final int AUTHOR_SEED = 0x9E3779B9;
+    private static final int BOOK_SEED = 0x85EBCA6B;
+    private static final int BORROWER_SEED = 0xC2B2AE35;
+
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    StripedLocks(int stripes) {
+        if (Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("stripes must be a power of two: " + stripes);
+        }
+        this.locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.mask = stripes - 1;
+    }
+
+    int authorStripe(long id) {
+        return spread(id, AUTHOR_SEED);
+    }
+
+    int bookStripe(long id) {
+        return spread(id, BOOK_SEED);
+    }
+
+    int borrowerStripe(long id) {
+        return spread(id, BORROWER_SEED);
+    }
+
+    /**
+     * Acquire the given stripes, in ascending order and once each.
+     *
+     * @param stripes stripes to lock, possibly duplicated
+     * @return the held locks, to be released with {@link Held#close()}
+     */
+    Held acquire(int... stripes) {
+        int[] sorted = Arrays.stream(stripes).sorted().distinct().toArray();
+        int acquired = 0;
+        try {
+            for (int stripe : sorted) {
+                locks[stripe].lock();
+                acquired++;
+            }
+        } catch (RuntimeException | Error e) {
+            release(sorted, acquired);
+            throw e;
+        }
+        return () -> release(sorted, sorted.length);
+    }
+
+    private void release(int[] sorted, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            locks[sorted[i]].unlock();
+        }
+    }
+
+    private int spread(long id, int seed) {
+        int h = Long.hashCode(id) * seed;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * Stripes held by the current thread
+     */
+    interface Held extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
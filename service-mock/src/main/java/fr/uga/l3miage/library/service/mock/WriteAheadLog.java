@@ -0,0 +1,239 @@
+package fr.uga.l3miage.library.service.mock;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Append-only log of the changes of the mock store, written as {@link Records} to segment files named after the
+ * sequence number of their first record.
+ * <p>
+ * Writers append their records to a buffer, in the order of their changes since they hold the locks of the entities,
+ * then wait for them to be durable with {@link #commit()} once their locks are released. A single thread writes the
+ * buffer to the current segment and forces it to disk, then wakes every writer whose records it covered: concurrent
+ * writers share an fsync (group commit), and the more they are the larger the batches, while a lone writer waits for
+ * a single one.
+ */
+final class WriteAheadLog implements Closeable {
+
+    private static final String SEGMENT = "wal-";
+    private static final String EXTENSION = ".log";
+
+    private final Path dir;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+    private final ThreadLocal<long[]> lastAppended = ThreadLocal.withInitial(() -> new long[1]);
+    private final Thread flusher;
+
+    // guarded by lock
+    private Records pending = new Records(1 << 16);
+    private long appendedLsn;
+    private long durableLsn;
+    private long segmentStart;
+    private boolean rotationRequested;
+    private boolean closed;
+    private IOException failure;
+
+    // confined to the flusher
+    private Records flushing = new Records(1 << 16);
+    private FileChannel segment;
+
+    /**
+     * Opens a new segment, or appends to an existing one when it starts with the given record.
+     *
+     * @param dir     the directory of the log
+     * @param nextLsn the sequence number of the next record
+     */
+    WriteAheadLog(Path dir, long nextLsn) throws IOException {
+        this.dir = dir;
+        this.appendedLsn = nextLsn - 1;
+        this.durableLsn = nextLsn - 1;
+        this.segmentStart = nextLsn;
+        this.segment = open(nextLsn);
+        this.flusher = new Thread(this::flush, "mock-wal");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Appends a record, to be made durable by {@link #commit()}.
+     *
+     * @param record writes the record
+     */
+    void append(Consumer<Records> record) {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("The log is closed");
+            }
+            record.accept(pending);
+            lastAppended.get()[0] = ++appendedLsn;
+            appended.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until the records appended by the current thread are on disk.
+     *
+     * @throws UncheckedIOException when the log could not be written
+     */
+    void commit() {
+        long lsn = lastAppended.get()[0];
+        lock.lock();
+        try {
+            while (durableLsn < lsn) {
+                if (failure != null) {
+                    throw new UncheckedIOException("Cannot write the log", failure);
+                }
+                flushed.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Starts a new segment, once the records appended so far are on disk in the current one.
+     *
+     * @return the sequence number of the first record of the new segment
+     */
+    long rotate() throws IOException {
+        lock.lock();
+        try {
+            rotationRequested = true;
+            appended.signal();
+            while (rotationRequested) {
+                if (failure != null) {
+                    throw new IOException("Cannot write the log", failure);
+                }
+                flushed.awaitUninterruptibly();
+            }
+            return segmentStart;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the sequence number of the last record appended
+     */
+    long lastLsn() {
+        lock.lock();
+        try {
+            return appendedLsn;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes the pending records and stops, records can no longer be appended.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            appended.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        segment.close();
+    }
+
+    static String segmentName(long lsn) {
+        return SEGMENT + String.format("%016x", lsn) + EXTENSION;
+    }
+
+    /**
+     * @return the sequence number of the first record of a segment, -1 when the file is not one
+     */
+    static long segmentLsn(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(SEGMENT) || !name.endsWith(EXTENSION)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name, SEGMENT.length(), name.length() - EXTENSION.length(), 16);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private FileChannel open(long lsn) throws IOException {
+        return FileChannel.open(dir.resolve(segmentName(lsn)),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private void flush() {
+        while (true) {
+            long last;
+            boolean rotate;
+            lock.lock();
+            try {
+                while (pending.size() == 0 && !rotationRequested && !closed) {
+                    appended.awaitUninterruptibly();
+                }
+                if (pending.size() == 0 && !rotationRequested) {
+                    return;
+                }
+                Records batch = pending;
+                pending = flushing;
+                flushing = batch;
+                last = appendedLsn;
+                rotate = rotationRequested;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                ByteBuffer bytes = flushing.written();
+                while (bytes.hasRemaining()) {
+                    segment.write(bytes);
+                }
+                segment.force(false);
+                flushing.clear();
+                if (rotate) {
+                    segment.close();
+                    segment = open(last + 1);
+                }
+            } catch (IOException e) {
+                lock.lock();
+                try {
+                    failure = e;
+                    flushed.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            }
+
+            lock.lock();
+            try {
+                durableLsn = last;
+                if (rotate) {
+                    segmentStart = last + 1;
+                    rotationRequested = false;
+                }
+                flushed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
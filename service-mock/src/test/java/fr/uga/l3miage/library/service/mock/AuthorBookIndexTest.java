@@ -0,0 +1,47 @@
+package fr.uga.l3miage.library.service.mock;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthorBookIndexTest {
+
+    AuthorBookIndex index = new AuthorBookIndex();
+
+    @Test
+    void booksAreSorted() {
+        index.bind(1, 30, List.of(1L));
+        index.bind(1, 10, List.of(1L));
+        index.bind(1, 20, List.of(1L));
+        index.bind(1, 20, List.of(1L));
+
+        assertThat(index.books(1)).containsExactly(10, 20, 30);
+        assertThat(index.books(2)).isEmpty();
+        assertThat(index.authors(20)).isEqualTo(1);
+    }
+
+    @Test
+    void coAuthoredBooksAreCounted() {
+        index.bind(1, 10, List.of(1L));
+        index.bind(1, 11, List.of(1L));
+        assertThat(index.coAuthored(1)).isZero();
+
+        index.bind(2, 10, List.of(1L, 2L));
+        assertThat(index.coAuthored(1)).isEqualTo(1);
+        assertThat(index.coAuthored(2)).isEqualTo(1);
+
+        index.bind(3, 10, List.of(1L, 2L, 3L));
+        assertThat(index.coAuthored(3)).isEqualTo(1);
+        assertThat(index.authors(10)).isEqualTo(3);
+
+        index.removeBook(10, List.of(1L, 2L, 3L));
+        assertThat(index.coAuthored(1)).isZero();
+        assertThat(index.coAuthored(2)).isZero();
+        assertThat(index.coAuthored(3)).isZero();
+        assertThat(index.books(1)).containsExactly(11);
+        assertThat(index.books(2)).isEmpty();
+        assertThat(index.authors(10)).isZero();
+    }
+}
@@ -0,0 +1,66 @@
+package fr.uga.l3miage.library.service.mock;
+
+import fr.uga.l3miage.data.domain.Author;
+import fr.uga.l3miage.data.domain.Book;
+import fr.uga.l3miage.library.service.EntityNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BookServiceMockImplTest {
+
+    AtomicInteger saves = new AtomicInteger();
+    AuthorServiceMockImpl authorService = new AuthorServiceMockImpl();
+    BookServiceMockImpl bookService = new BookServiceMockImpl() {
+        @Override
+        public Book save(Long authorId, Book book) throws EntityNotFoundException {
+            // the author is deleted concurrently, once the first book is saved
+            if (saves.incrementAndGet() == 2) {
+                throw new EntityNotFoundException("Cannot find author with id: " + authorId);
+            }
+            return super.save(authorId, book);
+        }
+    };
+
+    @Test
+    void saveAllIsAllOrNothing() {
+        Author author = new Author();
+        author.setFullName("All Or Nothing");
+        author = authorService.save(author);
+        Book first = book("First Of Batch", 9780201633610L, author);
+        Book second = book("Second Of Batch", 9780201633611L, author);
+
+        assertThrows(EntityNotFoundException.class, () -> bookService.saveAll(List.of(first, second)));
+
+        assertThat(first.getId()).isNull();
+        assertThat(second.getId()).isNull();
+        assertThat(bookService.findByTitle("of batch")).isEmpty();
+        assertThat(MockData.isbns.book(9780201633610L)).isEqualTo(IsbnIndex.NONE);
+        assertThat(MockData.isbns.book(9780201633611L)).isEqualTo(IsbnIndex.NONE);
+    }
+
+    @Test
+    void updatesOfTheSameCopyGetTheirOwnVersion() throws EntityNotFoundException {
+        Author author = new Author();
+        author.setFullName("Same Copy");
+        author = authorService.save(author);
+        Book book = bookService.save(author.getId(), book("Same Copy", 9780201633612L, author));
+        Book first = bookService.get(book.getId());
+        Book second = bookService.get(book.getId());
+
+        long firstVersion = bookService.update(first).getVersion();
+        assertThat(bookService.update(second).getVersion()).isEqualTo(firstVersion + 1);
+    }
+
+    private static Book book(String title, long isbn, Author author) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setIsbn(isbn);
+        book.addAuthor(author);
+        return book;
+    }
+}
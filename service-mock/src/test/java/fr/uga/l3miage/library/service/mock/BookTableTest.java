@@ -0,0 +1,145 @@
+package fr.uga.l3miage.library.service.mock;
+
+import fr.uga.l3miage.data.domain.Author;
+import fr.uga.l3miage.data.domain.Book;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookTableTest {
+
+    Map<Long, Author> authors = new HashMap<>();
+    BookTable table = new BookTable(authors::get);
+
+    @Test
+    void materializesBooks() {
+        Book dune = book(2, "Dune", "Ace");
+        dune.setLastModified(new Date(1000));
+        dune.setVersion(3);
+        table.put(dune);
+        table.bind(2, author(10).getId());
+        table.bind(2, author(11).getId());
+        table.bind(2, 10);
+
+        Book stored = table.get(2);
+        assertThat(stored).isNotSameAs(dune);
+        assertThat(stored.getTitle()).isEqualTo("Dune");
+        assertThat(stored.getIsbn()).isEqualTo(dune.getIsbn());
+        assertThat(stored.getPublisher()).isEqualTo("Ace");
+        assertThat(stored.getYear()).isEqualTo((short) 1965);
+        assertThat(stored.getLanguage()).isEqualTo(Book.Language.ENGLISH);
+        assertThat(stored.getVersion()).isEqualTo(3);
+        assertThat(stored.getLastModified()).isEqualTo(new Date(1000));
+        assertThat(stored.getAuthors()).containsExactlyInAnyOrder(authors.get(10L), authors.get(11L));
+        assertThat(table.get(3)).isNull();
+    }
+
+    @Test
+    void keepsNulls() {
+        Book book = new Book();
+        book.setId(1L);
+        table.put(book);
+
+        Book stored = table.get(1);
+        assertThat(stored.getTitle()).isNull();
+        assertThat(stored.getPublisher()).isNull();
+        assertThat(stored.getLanguage()).isNull();
+        assertThat(stored.getLastModified()).isNull();
+        assertThat(stored.getAuthors()).isEmpty();
+    }
+
+    @Test
+    void ordersById() {
+        for (long id : new long[]{5, 1, 3, 4, 2}) {
+            table.put(book(id, "Book " + id, "Folio"));
+            table.bind(id, author(id).getId());
+        }
+
+        assertThat(table.stream().map(Book::getId)).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(table.after(2L, 2)).extracting(Book::getId).containsExactly(3L, 4L);
+        assertThat(table.after(null, 1)).extracting(Book::getId).containsExactly(1L);
+        assertThat(table.lastId()).isEqualTo(5);
+        // bound to rows that were not the last one when inserted
+        for (long id = 1; id <= 5; id++) {
+            assertThat(table.get(id).getAuthors()).containsExactly(authors.get(id));
+        }
+    }
+
+    @Test
+    void updatesAndRemoves() {
+        LongStream.rangeClosed(1, 1000).forEach(id -> {
+            table.put(book(id, "Book " + id, "Publisher " + id % 10));
+            table.bind(id, author(id % 7).getId());
+        });
+        Book updated = table.get(500);
+        updated.setTitle("Updated");
+        table.put(updated);
+        // enough to compact the table
+        LongStream.rangeClosed(1, 1000).filter(id -> id % 2 == 0).forEach(table::remove);
+        table.bind(1, author(99).getId());
+
+        assertThat(table.size()).isEqualTo(500);
+        assertThat(table.get(500)).isNull();
+        assertThat(table.get(501).getTitle()).isEqualTo("Book 501");
+        assertThat(table.get(1).getAuthors()).containsExactlyInAnyOrder(authors.get(1L), authors.get(99L));
+        assertThat(table.stream().count()).isEqualTo(500);
+        assertThat(table.lastId()).isEqualTo(999);
+        assertThat(table.publishers()).isEqualTo(10);
+
+        table.remove(999);
+        assertThat(table.lastId()).isEqualTo(997);
+    }
+
+    @Test
+    void storesRemovedBookAgain() {
+        table.put(book(1, "Dune", "Ace"));
+        table.bind(1, author(1).getId());
+        table.put(book(2, "Hyperion", "Doubleday"));
+        table.remove(1);
+
+        table.put(book(1, "Dune Messiah", "Putnam"));
+        table.bind(1, author(2).getId());
+
+        assertThat(table.get(1).getTitle()).isEqualTo("Dune Messiah");
+        assertThat(table.get(1).getAuthors()).containsExactly(authors.get(2L));
+        assertThat(table.size()).isEqualTo(2);
+    }
+
+    @Test
+    void getsSeveralBooksInOneSweep() {
+        for (long id : new long[]{2, 4, 6, 8}) {
+            table.put(book(id, "Book " + id, "Folio"));
+        }
+        table.remove(6);
+
+        Book[] books = table.get(new long[]{8, 1, 6, 2, 9, 4, 8});
+        assertThat(books).extracting(book -> book == null ? null : book.getId())
+                .containsExactly(8L, null, null, 2L, null, 4L, 8L);
+        assertThat(table.get(new long[0])).isEmpty();
+    }
+
+    private Author author(long id) {
+        return authors.computeIfAbsent(id, key -> {
+            Author author = new Author();
+            author.setId(key);
+            author.setFullName("Author " + key);
+            return author;
+        });
+    }
+
+    private static Book book(long id, String title, String publisher) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle(title);
+        book.setIsbn(9780441013593L + id);
+        book.setPublisher(publisher);
+        book.setYear((short) 1965);
+        book.setLanguage(Book.Language.ENGLISH);
+        return book;
+    }
+}
@@ -0,0 +1,162 @@
+package fr.uga.l3miage.library.service.mock;
+
+import fr.uga.l3miage.data.domain.Author;
+import fr.uga.l3miage.data.domain.Book;
+import fr.uga.l3miage.data.domain.Borrow;
+import fr.uga.l3miage.data.domain.Borrower;
+import fr.uga.l3miage.library.service.BookUnavailableException;
+import fr.uga.l3miage.library.service.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BorrowServiceMockImplTest {
+
+    private static final int THREADS = 8;
+
+    AuthorServiceMockImpl authorServiceMock = new AuthorServiceMockImpl();
+    BookServiceMockImpl bookServiceMock = new BookServiceMockImpl();
+    BorrowerServiceMockImpl borrowerServiceMock = new BorrowerServiceMockImpl();
+    BorrowServiceMockImpl borrowServiceMock = new BorrowServiceMockImpl();
+
+    Long authorId;
+    Date due = new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(14));
+
+    @BeforeEach
+    void author() {
+        Author author = new Author();
+        author.setFullName("Lent Author");
+        authorId = authorServiceMock.save(author).getId();
+    }
+
+    @Test
+    void checkoutAndCheckIn() throws Exception {
+        Long borrowerId = newBorrower().getId();
+        Long first = newBook("First").getId();
+        Long second = newBook("Second").getId();
+
+        Borrow borrow = borrowServiceMock.checkout(borrowerId, List.of(first, second), due);
+        assertThat(borrow.isActive()).isTrue();
+        assertThat(borrowServiceMock.isAvailable(first)).isFalse();
+        assertThat(borrowServiceMock.getByBorrower(borrowerId)).containsExactly(borrow);
+
+        // all or nothing: the available book is not lent either
+        Long third = newBook("Third").getId();
+        BookUnavailableException unavailable = assertThrows(BookUnavailableException.class,
+                () -> borrowServiceMock.checkout(borrowerId, List.of(third, second), due));
+        assertThat(unavailable.getBookIds()).containsExactly(second);
+        assertThat(borrowServiceMock.isAvailable(third)).isTrue();
+
+        borrowServiceMock.checkIn(borrow.getId());
+        Date returned = borrow.getReturned();
+        assertThat(returned).isNotNull();
+        assertThat(borrowServiceMock.isAvailable(first)).isTrue();
+        assertThat(borrowServiceMock.checkIn(borrow.getId()).getReturned()).isSameAs(returned);
+
+        assertThat(borrowServiceMock.checkout(borrowerId, List.of(first, second), due).isActive()).isTrue();
+    }
+
+    @Test
+    void lateRatio() throws Exception {
+        Borrower borrower = newBorrower();
+        Date past = new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(1));
+        for (int i = 0; i < 4; i++) {
+            Long book = newBook("Late " + i).getId();
+            borrowServiceMock.checkIn(borrowServiceMock.checkout(borrower.getId(), List.of(book), i == 0 ? past : due).getId());
+        }
+        borrowServiceMock.checkout(borrower.getId(), List.of(newBook("Kept").getId()), past);
+
+        assertThat(borrower.getReturnedBorrows()).isEqualTo(4);
+        assertThat(borrower.getLateBorrows()).isEqualTo(1);
+        assertThat(borrower.getLateRatio()).isEqualTo(0.25f);
+
+        borrower.setBorrowCounts(0, 0);
+        assertThat(borrowerServiceMock.recomputeLateRatios()).isPositive();
+        assertThat(borrower.getReturnedBorrows()).isEqualTo(4);
+        assertThat(borrower.getLateRatio()).isEqualTo(0.25f);
+    }
+
+    @Test
+    void unknownEntities() throws Exception {
+        Long borrowerId = newBorrower().getId();
+        Long book = newBook("Known").getId();
+
+        assertThrows(EntityNotFoundException.class, () -> borrowServiceMock.checkout(-42L, List.of(book), due));
+        assertThrows(EntityNotFoundException.class,
+                () -> borrowServiceMock.checkout(borrowerId, List.of(book, Long.MIN_VALUE), due));
+        assertThrows(IllegalArgumentException.class, () -> borrowServiceMock.checkout(borrowerId, List.of(), due));
+        assertThrows(EntityNotFoundException.class, () -> borrowServiceMock.checkIn(Long.MIN_VALUE));
+        assertThat(borrowServiceMock.isAvailable(book)).isTrue();
+    }
+
+    @Test
+    void concurrentCheckoutsLendABookOnce() throws Exception {
+        List<Long> books = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            books.add(newBook("Contended " + i).getId());
+        }
+        List<Long> borrowers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            borrowers.add(newBorrower().getId());
+        }
+
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (Long borrowerId : borrowers) {
+            tasks.add(() -> {
+                int lent = 0;
+                for (Long book : books) {
+                    try {
+                        borrowServiceMock.checkout(borrowerId, List.of(book), due);
+                        lent++;
+                    } catch (BookUnavailableException e) {
+                        // another borrower was faster
+                    }
+                }
+                return lent;
+            });
+        }
+
+        int lent = 0;
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (Future<Integer> future : executor.invokeAll(tasks)) {
+                lent += future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(lent).isEqualTo(books.size());
+        List<Borrow> borrows = new ArrayList<>();
+        for (Long borrowerId : borrowers) {
+            borrows.addAll(borrowServiceMock.getByBorrower(borrowerId));
+        }
+        assertThat(borrows).hasSize(books.size())
+                .flatExtracting(Borrow::getBooks)
+                .extracting(Book::getId)
+                .containsExactlyInAnyOrderElementsOf(books);
+    }
+
+    private Borrower newBorrower() {
+        Borrower borrower = new Borrower();
+        borrower.setFirstName("Ada").setLastName("Lovelace");
+        return borrowerServiceMock.save(borrower);
+    }
+
+    private Book newBook(String title) throws EntityNotFoundException {
+        Book book = new Book();
+        book.setTitle(title);
+        return bookServiceMock.save(authorId, book);
+    }
+}
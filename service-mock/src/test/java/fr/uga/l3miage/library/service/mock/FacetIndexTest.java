@@ -0,0 +1,132 @@
+package fr.uga.l3miage.library.service.mock;
+
+import fr.uga.l3miage.data.domain.Book;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static fr.uga.l3miage.data.domain.Book.Language.ENGLISH;
+import static fr.uga.l3miage.data.domain.Book.Language.FRENCH;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FacetIndexTest {
+
+    FacetIndex index = new FacetIndex();
+
+    @Test
+    void countsOtherFacets() {
+        index.put(1, (short) 1965, ENGLISH, "Ace");
+        index.put(2, (short) 1969, ENGLISH, "Ace");
+        index.put(3, (short) 1972, FRENCH, "Gallimard");
+        index.put(4, (short) 1985, FRENCH, "Gallimard");
+        index.put(5, (short) 1985, ENGLISH, null);
+
+        FacetIndex.Result result = index.search(null, 1960, 1979, Set.of(ENGLISH), null, 0, 10);
+
+        assertThat(result.total()).isEqualTo(2);
+        assertThat(result.ids()).containsExactly(1, 2);
+        // languages of the books of the 60s and 70s
+        assertThat(result.languages()).containsExactly(Map.entry(FRENCH, 1L), Map.entry(ENGLISH, 2L));
+        assertThat(result.publishers()).containsExactly(Map.entry("Ace", 2L));
+        // decades of the english books
+        assertThat(result.decades()).containsExactly(Map.entry(1960, 2L), Map.entry(1980, 1L));
+
+        result = index.search(new long[]{2, 3, 4, 42}, null, null, null, Set.of("Gallimard", "Unknown"), 1, 10);
+        assertThat(result.total()).isEqualTo(2);
+        assertThat(result.ids()).containsExactly(4);
+    }
+
+    @Test
+    void reindexes() {
+        index.put(1, (short) 1965, ENGLISH, "Ace");
+        index.put(2, (short) 1965, ENGLISH, "Ace");
+        index.put(1, (short) 1990, FRENCH, "Pocket");
+        index.remove(2);
+
+        FacetIndex.Result result = index.search(null, null, null, null, null, 0, 10);
+        assertThat(result.ids()).containsExactly(1);
+        assertThat(result.languages()).containsExactly(Map.entry(FRENCH, 1L));
+        assertThat(result.publishers()).containsExactly(Map.entry("Pocket", 1L));
+        assertThat(result.decades()).containsExactly(Map.entry(1990, 1L));
+
+        index.clear();
+        assertThat(index.search(null, null, null, null, null, 0, 10).total()).isZero();
+    }
+
+    @Test
+    void renumbersAfterRemovals() {
+        LongStream.rangeClosed(1, 1000).forEach(id -> index.put(id, (short) (1900 + id % 100), ENGLISH, "Ace"));
+        // enough to renumber the documents
+        LongStream.rangeClosed(1, 1000).filter(id -> id % 2 == 0).forEach(index::remove);
+        index.put(2, (short) 2001, FRENCH, "Pocket");
+
+        FacetIndex.Result result = index.search(null, null, null, null, null, 0, Integer.MAX_VALUE);
+        assertThat(index.documentCount()).isLessThan(1000);
+        assertThat(result.ids()).startsWith(1, 3, 5).endsWith(999, 2).hasSize(501);
+        assertThat(result.languages()).containsExactly(Map.entry(FRENCH, 1L), Map.entry(ENGLISH, 500L));
+        assertThat(result.publishers()).containsExactly(Map.entry("Ace", 500L), Map.entry("Pocket", 1L));
+        assertThat(index.search(new long[]{3, 4}, 1903, 1903, Set.of(ENGLISH), Set.of("Ace"), 0, 10).ids())
+                .containsExactly(3);
+
+        // replacing books one by one does not grow the documents
+        for (long id = 1001; id < 100_000; id++) {
+            index.put(id, (short) 1990, FRENCH, null);
+            index.remove(id - 1);
+        }
+        assertThat(index.documentCount()).isLessThan(1000);
+    }
+
+    @Test
+    void matchesScan() {
+        Random random = new Random(42);
+        Map<Long, Row> rows = new HashMap<>();
+        List<String> publishers = List.of("Ace", "Gallimard", "Pocket", "Tor");
+        for (int i = 0; i < 50_000; i++) {
+            long id = random.nextInt(20_000);
+            if (random.nextInt(5) == 0) {
+                index.remove(id);
+                rows.remove(id);
+            } else {
+                Row row = new Row((short) (1900 + random.nextInt(120)),
+                        random.nextInt(10) == 0 ? null : Book.Language.values()[random.nextInt(2)],
+                        random.nextInt(10) == 0 ? null : publishers.get(random.nextInt(publishers.size())));
+                index.put(id, row.year, row.language, row.publisher);
+                rows.put(id, row);
+            }
+        }
+        long[] titled = LongStream.range(0, 20_000).filter(id -> id % 3 == 0).toArray();
+
+        FacetIndex.Result result = index.search(titled, 1950, 1999, Set.of(FRENCH), Set.of("Ace", "Tor"), 0,
+                Integer.MAX_VALUE);
+
+        Map<Long, Row> titledRows = rows.entrySet().stream()
+                .filter(entry -> entry.getKey() % 3 == 0)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        assertThat(result.ids()).containsExactlyInAnyOrder(titledRows.entrySet().stream()
+                .filter(entry -> entry.getValue().year >= 1950 && entry.getValue().year <= 1999)
+                .filter(entry -> entry.getValue().language == FRENCH)
+                .filter(entry -> aceOrTor(entry.getValue()))
+                .mapToLong(Map.Entry::getKey)
+                .toArray());
+        assertThat(result.total()).isEqualTo(result.ids().length);
+        assertThat(result.publishers()).isEqualTo(titledRows.values().stream()
+                .filter(row -> row.year >= 1950 && row.year <= 1999 && row.language == FRENCH && row.publisher != null)
+                .collect(Collectors.groupingBy(row -> row.publisher, Collectors.counting())));
+        assertThat(result.decades()).isEqualTo(titledRows.values().stream()
+                .filter(row -> row.language == FRENCH && aceOrTor(row))
+                .collect(Collectors.groupingBy(row -> row.year / 10 * 10, Collectors.counting())));
+    }
+
+    private static boolean aceOrTor(Row row) {
+        return "Ace".equals(row.publisher) || "Tor".equals(row.publisher);
+    }
+
+    private record Row(short year, Book.Language language, String publisher) {
+    }
+}
@@ -0,0 +1,74 @@
+package fr.uga.l3miage.library.service.mock;
+
+import fr.uga.l3miage.library.service.DuplicateIsbnException;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IsbnIndexTest {
+
+    IsbnIndex index = new IsbnIndex();
+
+    @Test
+    void isbnsAreUnique() {
+        index.put(1, 9782070360024L);
+        index.put(2, 9780441013593L);
+        index.put(3, 0);
+        index.put(4, 0);
+
+        assertThat(index.book(9782070360024L)).isEqualTo(1);
+        assertThat(index.book(0)).isEqualTo(IsbnIndex.NONE);
+        assertThrows(DuplicateIsbnException.class, () -> index.put(3, 9782070360024L));
+        assertThat(index.book(9782070360024L)).isEqualTo(1);
+
+        // released when changed or removed
+        index.put(1, 9782070360025L);
+        index.put(3, 9782070360024L);
+        index.remove(2);
+        index.put(4, 9780441013593L);
+
+        assertThat(index.book(9782070360025L)).isEqualTo(1);
+        assertThat(index.book(9782070360024L)).isEqualTo(3);
+        assertThat(index.book(9780441013593L)).isEqualTo(4);
+    }
+
+    @Test
+    void restoreTakesOver() {
+        index.put(1, 42);
+        index.restore(2, 42);
+        assertThat(index.book(42)).isEqualTo(2);
+
+        // the former owner no longer releases it
+        index.put(1, 43);
+        index.remove(1);
+        assertThat(index.book(42)).isEqualTo(2);
+    }
+
+    @Test
+    void mapMatchesHashMap() {
+        LongLongHashMap map = new LongLongHashMap();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            // few keys, so that removals hit and probe sequences collide
+            long key = random.nextInt(2000) - 1000;
+            long value = random.nextLong();
+            if (random.nextInt(3) == 0) {
+                assertThat(map.remove(key, -1)).isEqualTo(expected.getOrDefault(key, -1L));
+                expected.remove(key);
+            } else {
+                assertThat(map.put(key, value, -1)).isEqualTo(expected.getOrDefault(key, -1L));
+                expected.put(key, value);
+            }
+        }
+        assertThat(map.size()).isEqualTo(expected.size());
+        for (long key = -1000; key < 1000; key++) {
+            assertThat(map.get(key, -1)).isEqualTo(expected.getOrDefault(key, -1L));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package fr.uga.l3miage.library.service.mock;
+
+import fr.uga.l3miage.data.domain.Author;
+import fr.uga.l3miage.data.domain.Book;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MockDataConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int BOOKS_PER_THREAD = 500;
+
+    AuthorServiceMockImpl authorServiceMock = new AuthorServiceMockImpl();
+    BookServiceMockImpl bookServiceMock = new BookServiceMockImpl();
+
+    @Test
+    void concurrentWritesKeepIdsUniqueAndAssociationConsistent() throws Exception {
+        Author shared = new Author();
+        shared.setFullName("Shared");
+        Long sharedId = authorServiceMock.save(shared).getId();
+
+        Set<Long> bookIds = ConcurrentHashMap.newKeySet();
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            tasks.add(() -> {
+                Author author = new Author();
+                author.setFullName("Author " + Thread.currentThread().getName());
+                authorServiceMock.save(author);
+                for (int i = 0; i < BOOKS_PER_THREAD; i++) {
+                    Book book = new Book();
+                    book.setTitle("Book " + i);
+                    bookServiceMock.save(author.getId(), book);
+                    bookServiceMock.addAuthor(book.getId(), sharedId);
+                    bookIds.add(book.getId());
+                    if (i % 2 == 0) {
+                        bookServiceMock.delete(book.getId());
+                    }
+                }
+                return null;
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(bookIds).hasSize(THREADS * BOOKS_PER_THREAD);
+        Set<Book> sharedBooks = authorServiceMock.get(sharedId).getBooks();
+        assertThat(sharedBooks).hasSize(THREADS * BOOKS_PER_THREAD / 2)
+                .allSatisfy(book -> {
+                    assertThat(MockData.books.get(book.getId())).isSameAs(book);
+                    assertThat(book.getAuthors()).hasSize(2)
+                            .allSatisfy(author -> assertThat(author.getBooks()).contains(book));
+                    assertThat(MockData.authorBooks.authors(book.getId())).isEqualTo(2);
+                });
+        assertThat(MockData.authorBooks.books(sharedId))
+                .containsExactly(sharedBooks.stream().mapToLong(Book::getId).sorted().toArray());
+        assertThat(MockData.authorBooks.coAuthored(sharedId)).isEqualTo(sharedBooks.size());
+    }
+}
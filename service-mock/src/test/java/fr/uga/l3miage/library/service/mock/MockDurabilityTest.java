@@ -0,0 +1,216 @@
+package fr.uga.l3miage.library.service.mock;
+
+import fr.uga.l3miage.data.domain.Author;
+import fr.uga.l3miage.data.domain.Book;
+import fr.uga.l3miage.library.service.DeleteAuthorException;
+import fr.uga.l3miage.library.service.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MockDurabilityTest {
+
+    private static final AtomicLong nextIsbn = new AtomicLong(9782070360024L);
+
+    @TempDir
+    Path dir;
+
+    AuthorServiceMockImpl authorService = new AuthorServiceMockImpl();
+    BookServiceMockImpl bookService = new BookServiceMockImpl();
+    MockDurability durability;
+
+    @AfterEach
+    void close() throws IOException {
+        if (durability != null) {
+            durability.close();
+        }
+        if (MockData.books.views()) {
+            MockData.useBooks(new ObjectBookStore());
+        }
+    }
+
+    @Test
+    void recoversChanges() throws Exception {
+        open();
+        change("recovered");
+        String before = store();
+        durability.close();
+
+        durability = new MockDurability(dir, Duration.ofHours(1));
+        assertThat(durability.recover()).isPositive();
+
+        assertThat(store()).isEqualTo(before);
+        assertThat(bookService.findByTitle("recovered second edition")).hasSize(1);
+        Book recovered = bookService.findByTitle("recovered second edition").iterator().next();
+        assertThat(bookService.getByIsbn(recovered.getIsbn()).getId()).isEqualTo(recovered.getId());
+        assertThat(authorService.searchByName("recovered gone")).isEmpty();
+        long lastId = MockData.authors.lastKey();
+        assertThat(authorService.save(author("Next")).getId()).isGreaterThan(lastId);
+    }
+
+    @Test
+    void recoversSnapshotAndFollowingLog() throws Exception {
+        open();
+        change("before snapshot");
+        long lsn = durability.snapshot();
+        change("after snapshot");
+        String before = store();
+        durability.close();
+
+        assertThat(files()).containsExactlyInAnyOrder(Snapshots.name(lsn), WriteAheadLog.segmentName(lsn));
+        durability = new MockDurability(dir, Duration.ofHours(1));
+        durability.recover();
+        assertThat(store()).isEqualTo(before);
+    }
+
+    @Test
+    void truncatesTornRecord() throws Exception {
+        open();
+        change("torn");
+        String before = store();
+        durability.close();
+
+        Path segment = dir.resolve(files().stream().filter(name -> name.startsWith("wal-")).findFirst().orElseThrow());
+        long size = Files.size(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.APPEND)) {
+            // a record whose write was interrupted: its length is there, its body partly
+            channel.write(ByteBuffer.allocate(20).putInt(100).putInt(42).put((byte) Records.BOOK).flip());
+        }
+
+        durability = new MockDurability(dir, Duration.ofHours(1));
+        durability.recover();
+        assertThat(store()).isEqualTo(before);
+        assertThat(Files.size(segment)).isEqualTo(size);
+    }
+
+    @Test
+    void recoversIntoTable() throws Exception {
+        new ColumnarBooks().install();
+        open();
+        change("columnar");
+        long lsn = durability.snapshot();
+        change("columnar after snapshot");
+        String before = store();
+        durability.close();
+
+        durability = new MockDurability(dir, Duration.ofHours(1));
+        durability.recover();
+        assertThat(store()).isEqualTo(before);
+        assertThat(bookService.findByTitle("columnar after snapshot second edition")).singleElement()
+                .satisfies(book -> assertThat(book.getAuthors()).hasSize(2));
+        assertThat(files()).contains(Snapshots.name(lsn));
+    }
+
+    @Test
+    void concurrentWriters() throws Exception {
+        open();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Author>> authors = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                String name = "Concurrent " + i;
+                authors.add(executor.submit(() -> {
+                    Author author = authorService.save(author(name));
+                    bookService.save(author.getId(), book(name));
+                    return author;
+                }));
+            }
+            for (Future<Author> author : authors) {
+                author.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        String before = store();
+        durability.close();
+
+        durability = new MockDurability(dir, Duration.ofHours(1));
+        durability.recover();
+        assertThat(store()).isEqualTo(before);
+        assertThat(authorService.searchByName("Concurrent ")).hasSizeGreaterThanOrEqualTo(200);
+    }
+
+    private void open() throws IOException {
+        durability = new MockDurability(dir, Duration.ofHours(1));
+        durability.open();
+    }
+
+    /**
+     * Exercises every kind of change
+     */
+    private void change(String name) throws EntityNotFoundException, DeleteAuthorException {
+        Author author = authorService.save(author(name));
+        Author coAuthor = authorService.save(author(name + " co-author"));
+        Book book = bookService.save(author.getId(), book(name));
+        bookService.addAuthor(book.getId(), coAuthor.getId());
+        book.setTitle(name + " second edition");
+        bookService.update(book);
+
+        Book deleted = bookService.save(coAuthor.getId(), book(name + " deleted"));
+        bookService.delete(deleted.getId());
+
+        Author gone = authorService.save(author(name + " gone"));
+        bookService.save(gone.getId(), book(name + " gone"));
+        authorService.delete(gone.getId());
+    }
+
+    private static Author author(String name) {
+        Author author = new Author();
+        author.setFullName(name);
+        return author;
+    }
+
+    private static Book book(String title) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setIsbn(nextIsbn.getAndIncrement());
+        book.setPublisher("Folio");
+        book.setYear((short) 1972);
+        book.setLanguage(Book.Language.FRENCH);
+        return book;
+    }
+
+    /**
+     * @return a description of every author and book of the store, with their associations
+     */
+    private static String store() {
+        String authors = MockData.authors.values().stream()
+                .map(a -> a.getId() + "|" + a.getFullName() + "|" + a.getVersion() + "|" + a.getLastModified()
+                        + "|" + ids(BookServiceMockImpl.snapshot(a.getBooks()).stream().map(Book::getId)))
+                .collect(Collectors.joining("\n"));
+        String books = MockData.books.stream()
+                .map(b -> b.getId() + "|" + b.getTitle() + "|" + b.getIsbn() + "|" + b.getPublisher() + "|" + b.getYear()
+                        + "|" + b.getLanguage() + "|" + b.getVersion() + "|" + b.getLastModified()
+                        + "|" + ids(BookServiceMockImpl.snapshot(b.getAuthors()).stream().map(Author::getId)))
+                .collect(Collectors.joining("\n"));
+        return authors + "\n" + books;
+    }
+
+    private static String ids(Stream<Long> ids) {
+        return ids.sorted().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    private List<String> files() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(file -> file.getFileName().toString()).toList();
+        }
+    }
+}
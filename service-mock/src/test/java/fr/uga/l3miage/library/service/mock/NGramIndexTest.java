@@ -0,0 +1,52 @@
+package fr.uga.l3miage.library.service.mock;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NGramIndexTest {
+
+    NGramIndex index = new NGramIndex();
+
+    @Test
+    void search() {
+        index.put(1, "The Art of JPA");
+        index.put(2, "Peripheral");
+        index.put(3, "Peripheral 2");
+        index.put(4, null);
+
+        assertThat(index.search("PERIPHERAL")).containsExactly(2, 3);
+        assertThat(index.search("art")).containsExactly(1);
+        assertThat(index.search("l 2")).containsExactly(3);
+        // all trigrams are present in "peripheral" but not the whole query
+        assertThat(index.search("eriper")).isEmpty();
+        assertThat(index.search("missing")).isEmpty();
+    }
+
+    @Test
+    void shortQueriesAreScanned() {
+        index.put(1, "Dune");
+        index.put(2, "Hyperion");
+
+        assertThat(index.search("n")).containsExactly(1, 2);
+        assertThat(index.search("du")).containsExactly(1);
+        assertThat(index.search("")).containsExactly(1, 2);
+    }
+
+    @Test
+    void updateAndRemove() {
+        index.put(1, "Dune");
+        index.put(1, "Dune Messiah");
+        index.put(2, "Children of Dune");
+
+        assertThat(index.search("messiah")).containsExactly(1);
+        assertThat(index.matches(2, "DUNE")).isTrue();
+
+        index.put(1, "Hyperion");
+        index.remove(2);
+
+        assertThat(index.search("dune")).isEmpty();
+        assertThat(index.search("hyper")).containsExactly(1);
+        assertThat(index.matches(2, "dune")).isFalse();
+    }
+}
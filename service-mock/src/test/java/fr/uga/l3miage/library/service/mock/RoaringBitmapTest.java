@@ -0,0 +1,87 @@
+package fr.uga.l3miage.library.service.mock;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoaringBitmapTest {
+
+    @Test
+    void matchesTreeSet() {
+        Random random = new Random(42);
+        RoaringBitmap first = new RoaringBitmap();
+        RoaringBitmap second = new RoaringBitmap();
+        Set<Integer> firstExpected = new TreeSet<>();
+        Set<Integer> secondExpected = new TreeSet<>();
+        for (int i = 0; i < 200_000; i++) {
+            // dense in the first chunks, so that containers switch between arrays and bitmaps
+            int value = random.nextBoolean() ? random.nextInt(3 * 65536) : random.nextInt(Integer.MAX_VALUE);
+            boolean remove = random.nextInt(4) == 0;
+            RoaringBitmap bitmap = random.nextBoolean() ? first : second;
+            Set<Integer> expected = bitmap == first ? firstExpected : secondExpected;
+            if (remove) {
+                bitmap.remove(value);
+                expected.remove(value);
+            } else {
+                bitmap.add(value);
+                expected.add(value);
+            }
+        }
+
+        assertThat(values(first)).containsExactlyElementsOf(firstExpected);
+        assertThat(first.cardinality()).isEqualTo(firstExpected.size());
+        assertThat(first.contains(firstExpected.iterator().next())).isTrue();
+
+        Set<Integer> and = new TreeSet<>(firstExpected);
+        and.retainAll(secondExpected);
+        Set<Integer> or = new TreeSet<>(firstExpected);
+        or.addAll(secondExpected);
+        assertThat(values(RoaringBitmap.and(first, second))).containsExactlyElementsOf(and);
+        assertThat(RoaringBitmap.andCardinality(first, second)).isEqualTo(and.size());
+        assertThat(values(RoaringBitmap.or(List.of(first, second)))).containsExactlyElementsOf(or);
+        // operands left unchanged
+        assertThat(values(second)).containsExactlyElementsOf(secondExpected);
+    }
+
+    @Test
+    void shrinksBackToArrays() {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (int i = 0; i < 10_000; i++) {
+            bitmap.add(i);
+        }
+        for (int i = 0; i < 10_000; i += 2) {
+            bitmap.remove(i);
+        }
+        assertThat(bitmap.cardinality()).isEqualTo(5_000);
+        for (int i = 1; i < 10_000; i += 2) {
+            bitmap.remove(i);
+        }
+        assertThat(bitmap.isEmpty()).isTrue();
+    }
+
+    @Test
+    void forEachStops() {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (int i = 0; i < 100; i++) {
+            bitmap.add(3 * i);
+        }
+        List<Integer> values = new ArrayList<>();
+        bitmap.forEach(value -> {
+            values.add(value);
+            return values.size() < 3;
+        });
+        assertThat(values).containsExactly(0, 3, 6);
+    }
+
+    private static List<Integer> values(RoaringBitmap bitmap) {
+        List<Integer> values = new ArrayList<>();
+        bitmap.forEach(values::add);
+        return values;
+    }
+}
@@ -0,0 +1,30 @@
+package fr.uga.l3miage.library.service;
+
+import fr.uga.l3miage.data.domain.Book;
+
+import java.util.Set;
+
+/**
+ * Criteria of a {@link BookService#search faceted search}, all of which a book must match. A null or empty criterion
+ * matches every book.
+ *
+ * @param title      a part of the title (case-insensitive)
+ * @param yearFrom   the first publication year, inclusive
+ * @param yearTo     the last publication year, inclusive
+ * @param languages  the accepted languages
+ * @param publishers the accepted publishers
+ * @param page       the page number, starting at 0
+ * @param limit      the maximum number of books in a page
+ */
+public record BookQuery(String title, Integer yearFrom, Integer yearTo, Set<Book.Language> languages,
+                        Set<String> publishers, int page, int limit) {
+
+    public BookQuery {
+        if (title != null && title.isBlank()) {
+            title = null;
+        }
+        languages = languages == null ? Set.of() : Set.copyOf(languages);
+        publishers = publishers == null ? Set.of() : Set.copyOf(publishers);
+    }
+
+}
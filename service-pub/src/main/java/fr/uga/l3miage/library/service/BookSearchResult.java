@@ -0,0 +1,21 @@
+package fr.uga.l3miage.library.service;
+
+import fr.uga.l3miage.data.domain.Book;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of a {@link BookService#search faceted search}. Facet counts are those of the books matching the criteria
+ * on the other facets, so that each tells how many books a query would match once the criterion on its facet is
+ * replaced by this value; values matching no book are left out.
+ *
+ * @param total      the number of books matching the query
+ * @param books      the requested page of these books, in a stable order (roughly that of the ids)
+ * @param languages  the number of books by language
+ * @param publishers the number of books by publisher, most frequent first
+ * @param decades    the number of books by decade, designated by its first year, in ascending order
+ */
+public record BookSearchResult(long total, List<Book> books, Map<Book.Language, Long> languages,
+                               Map<String, Long> publishers, Map<Integer, Long> decades) {
+}
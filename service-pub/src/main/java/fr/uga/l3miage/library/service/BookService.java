@@ -5,6 +5,14 @@ import fr.uga.l3miage.library.service.base.BaseService;
 
 import java.util.Collection;
 
+/**
+ * Books are unique by ISBN, but for those without one (an ISBN of 0): saving a book, or updating it, with the ISBN of
+ * another book throws a {@link DuplicateIsbnException}.
+ * <p>
+ * {@link #update(Object)} only changes the title, ISBN, publisher, year and language of a book, its authors being
+ * added by {@link #addAuthor(Long, Long)}. The given object is not stored, and a rejected update leaves the book
+ * unchanged.
+ */
 public interface BookService extends BaseService<Book, Long> {
 
 
@@ -15,9 +23,31 @@ public interface BookService extends BaseService<Book, Long> {
      * @param book     the book to add
      * @return the book with an id set
      * @throws EntityNotFoundException if the author do not exist
+     * @throws DuplicateIsbnException  if another book has the same ISBN
      */
     Book save(Long authorId, Book book) throws EntityNotFoundException;
 
+    /**
+     * Saves several books at once, which is cheaper than saving them one by one. Each book is bound to the authors
+     * found in {@link Book#getAuthors()}, which are only required to have an id.
+     *
+     * @param books the books to add, each with at least one author
+     * @return the books with an id set, in the same order
+     * @throws EntityNotFoundException  if one of the authors do not exist, in which case no book is saved
+     * @throws IllegalArgumentException if a book has no author, or a {@link DuplicateIsbnException} if two books
+     *                                  have the same ISBN, in which case no book is saved either
+     */
+    Collection<Book> saveAll(Collection<Book> books) throws EntityNotFoundException;
+
+    /**
+     * Get a book by ISBN
+     *
+     * @param isbn the ISBN of the book, not 0
+     * @return the book having this ISBN
+     * @throws EntityNotFoundException if no book has this ISBN
+     */
+    Book getByIsbn(long isbn) throws EntityNotFoundException;
+
     /**
      * Find books by title. Title can partial, will be matched in case-insensitive fashion
      *
@@ -26,6 +56,14 @@ public interface BookService extends BaseService<Book, Long> {
      */
     Collection<Book> findByTitle(String title);
 
+    /**
+     * Search books by title, publication years, language and publisher, and count the books of each facet value
+     *
+     * @param query the criteria and the requested page
+     * @return the matching books and the facet counts
+     */
+    BookSearchResult search(BookQuery query);
+
     /**
      * Get all books for a given author
      *
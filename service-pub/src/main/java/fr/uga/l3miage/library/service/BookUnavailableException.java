@@ -0,0 +1,25 @@
+package fr.uga.l3miage.library.service;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Thrown when books cannot be borrowed because they already are
+ */
+public class BookUnavailableException extends Exception {
+
+    private final List<Long> bookIds;
+
+    public BookUnavailableException(String message, Collection<Long> bookIds) {
+        super(message);
+        this.bookIds = List.copyOf(bookIds);
+    }
+
+    /**
+     * @return the ids of the books already borrowed
+     */
+    public List<Long> getBookIds() {
+        return bookIds;
+    }
+
+}
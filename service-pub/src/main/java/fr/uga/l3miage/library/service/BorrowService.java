@@ -0,0 +1,67 @@
+package fr.uga.l3miage.library.service;
+
+import fr.uga.l3miage.data.domain.Borrow;
+import fr.uga.l3miage.library.service.base.BaseService;
+
+import java.util.Collection;
+import java.util.Date;
+
+/**
+ * Lending of books. A book is available unless it belongs to a borrow that is not returned yet, which holds whatever
+ * the number of concurrent checkouts: of two borrows of the same book, only one succeeds.
+ * <p>
+ * {@link #update(Object)} only changes the due date ({@link Borrow#getEnd()}) of a borrow, its books being changed by
+ * returning it and checking out again.
+ */
+public interface BorrowService extends BaseService<Borrow, Long> {
+
+    /**
+     * Lends books to a borrower, all of them or none.
+     *
+     * @param borrowerId the borrower
+     * @param bookIds    the books to lend, at least one
+     * @param end        the date the books are due
+     * @return the new borrow, starting now
+     * @throws EntityNotFoundException  if the borrower or one of the books do not exist
+     * @throws BookUnavailableException if one of the books is already borrowed
+     * @throws IllegalArgumentException if there is no book or no due date
+     */
+    Borrow checkout(Long borrowerId, Collection<Long> bookIds, Date end)
+            throws EntityNotFoundException, BookUnavailableException;
+
+    /**
+     * Returns the books of a borrow, making them available again, and counts the borrow in the late ratio of its
+     * borrower. Returning a borrow twice has no effect.
+     *
+     * @param id the borrow's id
+     * @return the borrow, with its return date set
+     * @throws EntityNotFoundException if the borrow do not exist
+     */
+    Borrow checkIn(Long id) throws EntityNotFoundException;
+
+    /**
+     * Get the borrows of a borrower, returned or not
+     *
+     * @param borrowerId the borrower's id
+     * @return the borrows, ordered by id
+     * @throws EntityNotFoundException if the borrower do not exist
+     */
+    Collection<Borrow> getByBorrower(Long borrowerId) throws EntityNotFoundException;
+
+    /**
+     * Get the borrows not returned yet
+     *
+     * @return the active borrows, ordered by id
+     */
+    Collection<Borrow> listActive();
+
+    /**
+     * Tells whether a book can be borrowed right now
+     *
+     * @param bookId the book's id
+     * @return false when the book belongs to a borrow not yet returned
+     * @throws EntityNotFoundException if the book do not exist
+     */
+    boolean isAvailable(Long bookId) throws EntityNotFoundException;
+
+}
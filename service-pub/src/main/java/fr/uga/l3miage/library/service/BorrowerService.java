@@ -0,0 +1,24 @@
+package fr.uga.l3miage.library.service;
+
+import fr.uga.l3miage.data.domain.Borrower;
+import fr.uga.l3miage.library.service.base.BaseService;
+
+public interface BorrowerService extends BaseService<Borrower, Long> {
+
+    /**
+     * Registers a borrower
+     *
+     * @param borrower the borrower to save
+     * @return the borrower with an id and a registration date set
+     */
+    Borrower save(Borrower borrower);
+
+    /**
+     * Rebuilds the late ratio of every borrower from its borrow history. Ratios are otherwise maintained as borrows
+     * are returned, this is only needed to repair them, e.g. after borrows were imported.
+     *
+     * @return the number of borrowers updated
+     */
+    int recomputeLateRatios();
+
+}
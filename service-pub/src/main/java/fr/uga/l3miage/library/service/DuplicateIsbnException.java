@@ -0,0 +1,23 @@
+package fr.uga.l3miage.library.service;
+
+/**
+ * Thrown when a book is given the ISBN of another book. An {@link IllegalArgumentException}, as the invalid books
+ * given to {@link BookService#saveAll}, so that saving or updating a book does not declare it.
+ */
+public class DuplicateIsbnException extends IllegalArgumentException {
+
+    private final long isbn;
+
+    public DuplicateIsbnException(long isbn) {
+        super("a book with isbn " + isbn + " already exists");
+        this.isbn = isbn;
+    }
+
+    /**
+     * @return the ISBN already taken
+     */
+    public long getIsbn() {
+        return isbn;
+    }
+
+}
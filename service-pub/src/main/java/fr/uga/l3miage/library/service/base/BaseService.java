@@ -2,7 +2,9 @@ package fr.uga.l3miage.library.service.base;
 
 import fr.uga.l3miage.library.service.EntityNotFoundException;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 /**
  * This interface to read/update persistent object.
@@ -22,6 +24,26 @@ public interface BaseService<O, I> {
      */
     O get(I id) throws EntityNotFoundException;
 
+    /**
+     * get the objects of several identifiers at once, without failing on missing ones. This default implementation
+     * calls {@link #get(Object)} for each identifier; implementations backed by a store look them all up at once.
+     *
+     * @param ids the object identifiers, duplicates being ignored
+     * @return the objects found and the identifiers of missing objects, both in the order of the identifiers
+     */
+    default MultiGetResult<O, I> getAll(Collection<I> ids) {
+        List<I> distinct = ids.stream().distinct().toList();
+        List<O> objects = new ArrayList<>(distinct.size());
+        for (I id : distinct) {
+            try {
+                objects.add(get(id));
+            } catch (EntityNotFoundException e) {
+                objects.add(null);
+            }
+        }
+        return MultiGetResult.of(distinct, objects);
+    }
+
     /**
      * Returns all objects
      *
@@ -29,6 +51,25 @@ public interface BaseService<O, I> {
      */
     Collection<O> list();
 
+    /**
+     * Returns a page of objects, ordered by identifier
+     *
+     * @param page  the page number, starting at 0
+     * @param limit the maximum number of objects in a page
+     * @return the objects of the page, empty past the last page
+     */
+    List<O> list(int page, int limit);
+
+    /**
+     * Returns the objects following an identifier, ordered by identifier. Unlike {@link #list(int, int)} the cost
+     * does not depend on how far in the collection the requested objects are.
+     *
+     * @param after the identifier of the last object already returned, or null to start from the first object
+     * @param limit the maximum number of objects returned
+     * @return the following objects, empty when there are none
+     */
+    List<O> listAfter(I after, int limit);
+
     /**
      * updates the object and return it (in case the object was updated internally)
      *
@@ -0,0 +1,32 @@
+package fr.uga.l3miage.library.service.base;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a {@link BaseService#getAll multi-get}.
+ *
+ * @param found   the objects found, in the order of their identifiers in the request
+ * @param missing the identifiers of no object, in the order of the request
+ * @param <O>     the type of persistence object
+ * @param <I>     type of the identifier
+ */
+public record MultiGetResult<O, I>(List<O> found, List<I> missing) {
+
+    /**
+     * @param ids     the requested identifiers
+     * @param objects the object of each identifier, at the same index, null when there is none
+     */
+    public static <O, I> MultiGetResult<O, I> of(List<I> ids, List<O> objects) {
+        List<O> found = new ArrayList<>(ids.size());
+        List<I> missing = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (objects.get(i) == null) {
+                missing.add(ids.get(i));
+            } else {
+                found.add(objects.get(i));
+            }
+        }
+        return new MultiGetResult<>(found, missing);
+    }
+}